@@ -3,6 +3,7 @@ package com.military.asset;
 import org.mybatis.spring.annotation.MapperScan;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import lombok.extern.slf4j.Slf4j;
 
 /**
@@ -16,6 +17,8 @@ import lombok.extern.slf4j.Slf4j;
 @SpringBootApplication
 // 扫描Mapper接口所在包（必须与你的mapper包路径一致）
 @MapperScan("com.military.asset.mapper")
+// 启用定时任务（列式快照定期对账等）
+@EnableScheduling
 @Slf4j
 public class MilitaryAssetApplication {
 
@@ -0,0 +1,73 @@
+package com.military.asset.config;
+
+import com.military.asset.utils.AssetWriteTracker;
+import org.apache.ibatis.executor.statement.StatementHandler;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Statement;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * 资产表写入跟踪拦截器
+ * 拦截StatementHandler的写方法，按写语句的目标表递增AssetWriteTracker中的版本号
+
+ * 生效时机：
+ * - 事务内：在事务提交后递增，避免其他线程在提交前按旧数据重建后误认为已是最新
+ * - 无事务：语句执行后立即递增
+ * 同一事务内相同的SQL文本（如批量插入）只登记一次
+ */
+@Intercepts({
+        @Signature(type = StatementHandler.class, method = "update", args = {Statement.class}),
+        @Signature(type = StatementHandler.class, method = "batch", args = {Statement.class})
+})
+public class AssetWriteTrackingInterceptor implements Interceptor {
+
+    private final AssetWriteTracker assetWriteTracker;
+
+    public AssetWriteTrackingInterceptor(AssetWriteTracker assetWriteTracker) {
+        this.assetWriteTracker = assetWriteTracker;
+    }
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        Object result = invocation.proceed();
+        String sql = ((StatementHandler) invocation.getTarget()).getBoundSql().getSql();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            pendingStatements().add(sql);
+        } else {
+            assetWriteTracker.markWrittenBySql(sql);
+        }
+        return result;
+    }
+
+    /**
+     * 当前事务内待登记的写语句，首次使用时注册提交回调
+     */
+    @SuppressWarnings("unchecked")
+    private Set<String> pendingStatements() {
+        Object existing = TransactionSynchronizationManager.getResource(this);
+        if (existing != null) {
+            return (Set<String>) existing;
+        }
+        Set<String> statements = new LinkedHashSet<>();
+        TransactionSynchronizationManager.bindResource(this, statements);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                statements.forEach(assetWriteTracker::markWrittenBySql);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(AssetWriteTrackingInterceptor.this);
+            }
+        });
+        return statements;
+    }
+}
@@ -0,0 +1,37 @@
+package com.military.asset.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * 批量导入线程配置
+ * 批量导入接口中每个资产类型（工作表或压缩包内的文件）在单独的线程上解析并写入暂存表
+
+ * 配置说明：
+ * - asset.import.bulk.parallelism：同时处理的资产类型数，最多3个有意义；
+ *   每个线程导入期间占用一个数据库连接，应小于Hikari连接池上限
+ */
+@Slf4j
+@Configuration
+public class BulkImportConfig {
+
+    @Bean(name = "bulkImportExecutor")
+    public AsyncTaskExecutor bulkImportExecutor(@Value("${asset.import.bulk.parallelism:3}") int parallelism) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("asset.import.bulk.parallelism 必须大于0");
+        }
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("bulk-import-");
+        executor.setCorePoolSize(parallelism);
+        executor.setMaxPoolSize(parallelism);
+        executor.setQueueCapacity(Integer.MAX_VALUE);
+        executor.setAllowCoreThreadTimeOut(true);
+        executor.initialize();
+        log.info("批量导入并行线程数{}", parallelism);
+        return executor;
+    }
+}
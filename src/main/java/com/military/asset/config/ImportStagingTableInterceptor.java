@@ -0,0 +1,24 @@
+package com.military.asset.config;
+
+import com.baomidou.mybatisplus.extension.plugins.inner.DynamicTableNameInnerInterceptor;
+import com.military.asset.utils.ImportStagingContext;
+
+/**
+ * 导入暂存表名改写拦截器
+ * 当前线程处于ImportStagingContext暂存范围时，把SQL中的正式资产表名改写为暂存表名；
+ * 不在暂存范围内（绝大多数请求）直接返回原SQL，不解析表名
+ */
+public class ImportStagingTableInterceptor extends DynamicTableNameInnerInterceptor {
+
+    public ImportStagingTableInterceptor() {
+        setTableNameHandler((sql, tableName) -> ImportStagingContext.resolve(tableName));
+    }
+
+    @Override
+    protected String changeTable(String sql) {
+        if (!ImportStagingContext.isActive()) {
+            return sql;
+        }
+        return super.changeTable(sql);
+    }
+}
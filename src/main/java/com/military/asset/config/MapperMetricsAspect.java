@@ -0,0 +1,46 @@
+package com.military.asset.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+/**
+ * Mapper调用计时切面
+ * 对com.military.asset.mapper包下自定义的Mapper方法计时，指标名asset.mapper.call
+
+ * 标签说明：
+ * - mapper：Mapper接口简单类名（如SoftwareAssetMapper）
+ * - method：Mapper方法名（如selectStatistics）
+ * - outcome：success / failure
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class MapperMetricsAspect {
+
+    public static final String MAPPER_CALL_TIMER = "asset.mapper.call";
+
+    private final MeterRegistry meterRegistry;
+
+    @Around("execution(* com.military.asset.mapper..*.*(..))")
+    public Object timeMapperCall(ProceedingJoinPoint joinPoint) throws Throwable {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "failure";
+        try {
+            Object result = joinPoint.proceed();
+            outcome = "success";
+            return result;
+        } finally {
+            sample.stop(Timer.builder(MAPPER_CALL_TIMER)
+                    .description("Mapper方法调用耗时")
+                    .tag("mapper", joinPoint.getSignature().getDeclaringType().getSimpleName())
+                    .tag("method", joinPoint.getSignature().getName())
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+        }
+    }
+}
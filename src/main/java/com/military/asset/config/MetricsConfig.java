@@ -0,0 +1,36 @@
+package com.military.asset.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.actuate.autoconfigure.metrics.MeterRegistryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 指标监控配置类
+ * 基于Micrometer + Actuator，将指标以Prometheus格式暴露在 /actuator/prometheus
+
+ * 包含功能：
+ * 1. 公共标签 - 所有指标统一带上application标签，便于大盘按应用筛选
+ * 2. @Timed切面 - 使分析类服务上的@Timed注解生效（指标名asset.analytics）
+ * 3. 接口耗时 - http.server.requests由Spring Boot自动采集，分位数直方图在application.yml中开启
+ */
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * 为所有指标添加公共标签
+     */
+    @Bean
+    public MeterRegistryCustomizer<MeterRegistry> commonTagsCustomizer() {
+        return registry -> registry.config().commonTags("application", "military-asset");
+    }
+
+    /**
+     * 注册@Timed注解切面，支持在类或方法上声明计时
+     */
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+}
@@ -3,6 +3,8 @@ package com.military.asset.config;
 import com.baomidou.mybatisplus.annotation.DbType;
 import com.baomidou.mybatisplus.extension.plugins.MybatisPlusInterceptor;
 import com.baomidou.mybatisplus.extension.plugins.inner.PaginationInnerInterceptor;
+import com.military.asset.utils.AssetWriteTracker;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -17,6 +19,9 @@ import org.springframework.context.annotation.Configuration;
  * 1. 分页插件 - 支持前端分页查询
  * 2. 性能分析插件 - 开发环境可开启SQL性能分析
  * 3. 乐观锁插件 - 支持并发更新控制
+ * 4. SQL语句计数拦截器 - 按请求/导入任务统计语句数与数据库耗时，支持预算校验
+ * 5. 资产表写入跟踪拦截器 - 事务提交后递增资产表版本号，驱动内存快照与聚合缓存失效
+ * 6. 导入暂存表名改写 - 暂存表导入期间，导入线程的资产表读写改写到暂存表
  */
 @Configuration
 public class MybatisPlusConfig {
@@ -30,12 +35,16 @@ public class MybatisPlusConfig {
      * 配置说明：
      * - PaginationInnerInterceptor: 分页插件，支持MySQL分页语法
      * - DbType.MYSQL: 指定数据库类型为MySQL
+     * - ImportStagingTableInterceptor: 导入暂存表名改写，需在分页插件之前
      * - 可根据需要添加其他插件（如乐观锁、性能分析等）
      */
     @Bean
     public MybatisPlusInterceptor mybatisPlusInterceptor() {
         MybatisPlusInterceptor interceptor = new MybatisPlusInterceptor();
 
+        // 导入暂存表名改写（不在暂存范围内的线程直接放行）
+        interceptor.addInnerInterceptor(new ImportStagingTableInterceptor());
+
         // 添加分页插件（必须配置，否则分页功能无法使用）
         PaginationInnerInterceptor paginationInterceptor = new PaginationInnerInterceptor(DbType.MYSQL);
 
@@ -47,4 +56,29 @@ public class MybatisPlusConfig {
 
         return interceptor;
     }
-}
\ No newline at end of file
+
+    /**
+     * SQL语句计数拦截器
+     * 注册为Bean后由MyBatis-Plus自动装配到SqlSessionFactory
+
+     * 配置说明：
+     * - 统计结果写入SqlStatementContext当前线程的统计范围
+     * - 全局语句数与耗时以Micrometer指标输出
+     */
+    @Bean
+    public SqlStatementCountInterceptor sqlStatementCountInterceptor(MeterRegistry meterRegistry) {
+        return new SqlStatementCountInterceptor(meterRegistry);
+    }
+
+    /**
+     * 资产表写入跟踪拦截器
+     * 注册为Bean后由MyBatis-Plus自动装配到SqlSessionFactory
+
+     * 配置说明：
+     * - AssetWriteTracker不依赖任何Mapper，避免与SqlSessionFactory形成循环依赖
+     */
+    @Bean
+    public AssetWriteTrackingInterceptor assetWriteTrackingInterceptor(AssetWriteTracker assetWriteTracker) {
+        return new AssetWriteTrackingInterceptor(assetWriteTracker);
+    }
+}
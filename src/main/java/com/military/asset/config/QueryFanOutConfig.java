@@ -0,0 +1,57 @@
+package com.military.asset.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * 组合查询并发扇出线程配置
+ * 为接口内互相独立的查询（如三张资产表的计数）提供执行器，供QueryFanOut使用
+
+ * 两种模式：
+ * - spring.threads.virtual.enabled=true（JDK 21，Spring profile jdk21）：每个子任务一个虚拟线程
+ * - 默认（JDK 17）：固定大小的平台线程池，等待队列长度 asset.query.fan-out.queue-capacity，
+ *   队列已满时子任务由提交的请求线程直接执行（CallerRunsPolicy），积压不会无限增长
+ * 两种模式都以 asset.query.fan-out.max-concurrency 限制同时执行的子任务数，
+ * 该值应小于Hikari连接池上限，为其他请求保留连接
+ */
+@Slf4j
+@Configuration
+public class QueryFanOutConfig {
+
+    @Bean(name = "queryFanOutExecutor")
+    public AsyncTaskExecutor queryFanOutExecutor(
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+            @Value("${asset.query.fan-out.max-concurrency:8}") int maxConcurrency,
+            @Value("${asset.query.fan-out.queue-capacity:64}") int queueCapacity) {
+        if (maxConcurrency <= 0) {
+            throw new IllegalArgumentException("asset.query.fan-out.max-concurrency 必须大于0");
+        }
+        if (queueCapacity < 0) {
+            throw new IllegalArgumentException("asset.query.fan-out.queue-capacity 不能小于0");
+        }
+        if (virtualThreads) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("query-fan-out-");
+            executor.setVirtualThreads(true);
+            executor.setConcurrencyLimit(maxConcurrency);
+            log.info("组合查询扇出使用虚拟线程，最大并发{}", maxConcurrency);
+            return executor;
+        }
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("query-fan-out-");
+        executor.setCorePoolSize(maxConcurrency);
+        executor.setMaxPoolSize(maxConcurrency);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setAllowCoreThreadTimeOut(true);
+        executor.initialize();
+        log.info("组合查询扇出使用平台线程池，线程数{}，等待队列{}", maxConcurrency, queueCapacity);
+        return executor;
+    }
+}
@@ -0,0 +1,26 @@
+package com.military.asset.config;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 接口SQL语句数预算声明
+ * 标注在Controller方法上，声明该接口单次请求允许执行的最大SQL语句数
+
+ * 超出预算时的行为由 asset.sql-budget.fail-on-exceed 决定：
+ * - false（默认）：记录告警日志并累加 asset.sql.budget.exceeded 指标
+ * - true（性能测试环境）：直接抛出异常使请求失败，用于锁定N+1问题的修复
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface SqlBudget {
+
+    /**
+     * 单次请求允许的最大SQL语句数
+     */
+    int maxStatements();
+}
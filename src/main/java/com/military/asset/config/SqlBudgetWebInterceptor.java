@@ -0,0 +1,101 @@
+package com.military.asset.config;
+
+import com.military.asset.utils.SqlStatementContext;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 请求级SQL统计拦截器
+ * 每个HTTP请求打开一个SqlStatementContext统计范围，请求结束后输出指标并校验预算
+
+ * 输出指标（标签：uri、method）：
+ * - asset.sql.statements.per.request：单次请求执行的SQL语句数分布
+ * - asset.sql.time.per.request：单次请求累计的数据库耗时
+ * - asset.sql.budget.exceeded：超出@SqlBudget预算的请求次数
+ * 导入接口（/api/asset/import/**）一次请求即一次导入任务，因此同样按任务粒度统计
+ */
+@Slf4j
+public class SqlBudgetWebInterceptor implements HandlerInterceptor {
+
+    private static final String SCOPE_ATTRIBUTE = SqlBudgetWebInterceptor.class.getName() + ".scope";
+
+    private final MeterRegistry meterRegistry;
+    private final int defaultMaxStatements;
+    private final boolean failOnExceed;
+
+    public SqlBudgetWebInterceptor(MeterRegistry meterRegistry, int defaultMaxStatements, boolean failOnExceed) {
+        this.meterRegistry = meterRegistry;
+        this.defaultMaxStatements = defaultMaxStatements;
+        this.failOnExceed = failOnExceed;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        int maxStatements = defaultMaxStatements;
+        if (handler instanceof HandlerMethod handlerMethod) {
+            SqlBudget budget = handlerMethod.getMethodAnnotation(SqlBudget.class);
+            if (budget != null) {
+                maxStatements = budget.maxStatements();
+            }
+        }
+        SqlStatementContext.Scope scope = SqlStatementContext.open(request.getRequestURI(), maxStatements, failOnExceed);
+        request.setAttribute(SCOPE_ATTRIBUTE, scope);
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        Object attribute = request.getAttribute(SCOPE_ATTRIBUTE);
+        if (!(attribute instanceof SqlStatementContext.Scope scope)) {
+            return;
+        }
+        scope.close();
+
+        String uri = resolveUriTemplate(request);
+        String method = request.getMethod();
+
+        DistributionSummary.builder("asset.sql.statements.per.request")
+                .description("单次请求执行的SQL语句数")
+                .tag("uri", uri)
+                .tag("method", method)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(scope.getStatements());
+        Timer.builder("asset.sql.time.per.request")
+                .description("单次请求累计的数据库耗时")
+                .tag("uri", uri)
+                .tag("method", method)
+                .register(meterRegistry)
+                .record(scope.getElapsedNanos(), TimeUnit.NANOSECONDS);
+
+        if (scope.isOverBudget()) {
+            Counter.builder("asset.sql.budget.exceeded")
+                    .description("超出SQL语句预算的请求次数")
+                    .tag("uri", uri)
+                    .tag("method", method)
+                    .register(meterRegistry)
+                    .increment();
+            log.warn("⚠️ 接口SQL语句数超出预算 - {} {}，预算{}条，实际{}条，数据库耗时{}ms",
+                    method, uri, scope.getMaxStatements(), scope.getStatements(),
+                    TimeUnit.NANOSECONDS.toMillis(scope.getElapsedNanos()));
+        }
+    }
+
+    /**
+     * 使用路由模板（如/api/asset/software/{id}）作为标签，避免路径参数导致指标基数膨胀
+     */
+    private String resolveUriTemplate(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : "UNKNOWN";
+    }
+}
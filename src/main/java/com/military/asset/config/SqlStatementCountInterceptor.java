@@ -0,0 +1,55 @@
+package com.military.asset.config;
+
+import com.military.asset.utils.SqlStatementContext;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.ibatis.executor.statement.StatementHandler;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.ResultHandler;
+
+import java.sql.Statement;
+
+/**
+ * SQL语句计数拦截器
+ * 拦截StatementHandler的执行方法，统计每条SQL的执行次数与耗时
+
+ * 统计口径：
+ * - 全局：asset.sql.statements（计数）、asset.sql.time（累计纳秒，Prometheus中rate后即为DB耗时占比）
+ * - 范围：累加到SqlStatementContext中当前线程打开的范围（HTTP请求 / 导入任务），用于预算校验
+ */
+@Intercepts({
+        @Signature(type = StatementHandler.class, method = "query", args = {Statement.class, ResultHandler.class}),
+        @Signature(type = StatementHandler.class, method = "queryCursor", args = {Statement.class}),
+        @Signature(type = StatementHandler.class, method = "update", args = {Statement.class}),
+        @Signature(type = StatementHandler.class, method = "batch", args = {Statement.class})
+})
+public class SqlStatementCountInterceptor implements Interceptor {
+
+    private final Counter statementCounter;
+    private final Counter statementNanosCounter;
+
+    public SqlStatementCountInterceptor(MeterRegistry meterRegistry) {
+        this.statementCounter = Counter.builder("asset.sql.statements")
+                .description("已执行的SQL语句总数")
+                .register(meterRegistry);
+        this.statementNanosCounter = Counter.builder("asset.sql.time")
+                .description("SQL语句累计执行耗时")
+                .baseUnit("nanoseconds")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        long start = System.nanoTime();
+        Object result = invocation.proceed();
+        long elapsed = System.nanoTime() - start;
+        statementCounter.increment();
+        statementNanosCounter.increment(elapsed);
+        // 预算超限时由此处抛出异常（仅在失败模式下）
+        SqlStatementContext.record(elapsed);
+        return result;
+    }
+}
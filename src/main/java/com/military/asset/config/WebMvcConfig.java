@@ -0,0 +1,42 @@
+package com.military.asset.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Web MVC配置类
+ * 注册请求级拦截器
+
+ * 包含功能：
+ * 1. SQL预算拦截器 - 统计每个/api请求的SQL语句数与数据库耗时，并按@SqlBudget校验预算
+ */
+@Configuration
+public class WebMvcConfig implements WebMvcConfigurer {
+
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * 未声明@SqlBudget的接口使用的默认预算，0表示不限制
+     */
+    @Value("${asset.sql-budget.default-max-statements:0}")
+    private int defaultMaxStatements;
+
+    /**
+     * 超出预算时是否直接使请求失败（性能测试环境开启）
+     */
+    @Value("${asset.sql-budget.fail-on-exceed:false}")
+    private boolean failOnExceed;
+
+    public WebMvcConfig(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new SqlBudgetWebInterceptor(meterRegistry, defaultMaxStatements, failOnExceed))
+                .addPathPatterns("/api/**");
+    }
+}
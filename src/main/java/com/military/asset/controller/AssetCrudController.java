@@ -1,5 +1,6 @@
 package com.military.asset.controller;
 
+import com.military.asset.config.SqlBudget;
 import com.military.asset.entity.CyberAsset;
 import com.military.asset.entity.DataContentAsset;
 import com.military.asset.entity.SoftwareAsset;
@@ -14,14 +15,22 @@ import com.military.asset.vo.stat.ProvinceMetricVO;
 import com.military.asset.vo.stat.SoftwareAssetStatisticVO;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 
+import java.io.IOException;
 import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 import java.util.Objects;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
 import java.util.function.Function;
 
 // 添加以下import语句
@@ -29,12 +38,18 @@ import java.util.Map;
 import java.util.HashMap;
 // 在现有的 import 语句后面添加：
 import java.util.LinkedHashMap;
-import com.military.asset.utils.CategoryMapUtils;
+import com.military.asset.utils.AssetOptionCatalog;
+import com.military.asset.utils.AssetOptionRegistry;
+import com.military.asset.utils.TemplateFileCache;
+import com.military.asset.utils.QueryFanOut;
+import com.military.asset.utils.StreamingQueryUtils;
 
 
 // ====================1117 导出功能相关import ====================
 import jakarta.servlet.http.HttpServletResponse;  // Spring Boot 3.x 使用 jakarta包  // HTTP响应对象
 import com.alibaba.excel.EasyExcel;             // EasyExcel核心类
+import com.alibaba.excel.ExcelWriter;
+import com.alibaba.excel.write.metadata.WriteSheet;
 import java.util.stream.Collectors;             // Stream收集器
 // Excel VO类
 import com.military.asset.vo.excel.SoftwareAssetExcelVO;
@@ -64,6 +79,8 @@ public class AssetCrudController {
     private final DataContentAssetService dataService;
     private final ProvinceMapper provinceMapper;
     private final ReportUnitService reportUnitService; // 新增：上报单位服务
+    private final QueryFanOut queryFanOut; // 组合接口内独立查询的并发扇出
+    private final AssetOptionCatalog assetOptionCatalog; // 固定选项预序列化响应
 
     /**
      * 构造器注入（合并两个构造函数）
@@ -73,12 +90,16 @@ public class AssetCrudController {
                                CyberAssetService cyberService,
                                DataContentAssetService dataService,
                                ProvinceMapper provinceMapper,
-                               ReportUnitService reportUnitService) { // 新增参数
+                               ReportUnitService reportUnitService, // 新增参数
+                               QueryFanOut queryFanOut,
+                               AssetOptionCatalog assetOptionCatalog) {
         this.softwareService = softwareService;
         this.cyberService = cyberService;
         this.dataService = dataService;
         this.provinceMapper = provinceMapper;
         this.reportUnitService = reportUnitService; // 新增初始化
+        this.queryFanOut = queryFanOut;
+        this.assetOptionCatalog = assetOptionCatalog;
     }
 
 
@@ -129,6 +150,8 @@ public class AssetCrudController {
                         "   • *软件资产省份老化统计: /api/asset/software/statistics/v2/aging/province\n" +
                         "   • *上报单位重要性分析接口: /api/asset/software/report-unit/importance\n"+
                         "   • *软件资产升级必要性批量计算接口: /api/asset/software/upgrade/recommendations\n"+
+                        "   • *上报单位重要性批量排名接口: /api/asset/software/report-unit/importance/batch\n"+
+                        "   • *软件资产升级必要性批量排名接口: /api/asset/software/upgrade/recommendations/batch\n"+
                         "   • *上报单位下所有软件资产的升级判定接口: /api/asset/software/statistics/v2/report-unit/{reportUnit}/upgrade-overview\n"+
 
 
@@ -221,32 +244,56 @@ public class AssetCrudController {
      * 接口1：三类资产数据量统计
      * 访问路径：GET http://localhost:8080/api/asset/statistics/count
      * 作用：分别统计软件资产、网信资产、数据内容资产的数据量（行数）
-     * 返回格式：{"code":200,"message":"成功","data":{"softwareCount":100,"cyberCount":50,"dataContentCount":80}}
+     * 返回格式：{"code":200,"message":"成功","data":{"softwareCount":100,"cyberCount":50,"dataContentCount":80,
+     *           "partial":false,"timings":{"software_asset":{"status":"SUCCESS","elapsedMs":12},...}}}
+     * 三张表并发计数；某张表失败或超时时其计数为null，partial=true，timings中给出原因
      */
     @GetMapping("/statistics/count")
-    public ResultVO<Map<String, Long>> getAssetCounts() {
+    @SqlBudget(maxStatements = 3)
+    public ResultVO<Map<String, Object>> getAssetCounts() {
         try {
             log.info("开始统计三类资产数据量...");
 
-            Map<String, Long> counts = new HashMap<>();
-            long softwareCount = softwareService.count();
-            long cyberCount = cyberService.count();
-            long dataContentCount = dataService.count();
-
-            counts.put("softwareCount", softwareCount);
-            counts.put("cyberCount", cyberCount);
-            counts.put("dataContentCount", dataContentCount);
-
-            log.info("资产统计完成 - 软件: {}, 网信: {}, 数据: {}",
-                    softwareCount, cyberCount, dataContentCount);
-
-            return ResultVO.success(counts, "获取资产数量统计成功");
+            Map<String, Object> counts = new HashMap<>();
+            try (QueryFanOut.Scope scope = queryFanOut.open()) {
+                // 三张表的计数互不依赖，并发执行
+                QueryFanOut.Subtask<Long> software = scope.fork("software_asset", softwareService::count);
+                QueryFanOut.Subtask<Long> cyber = scope.fork("cyber_asset", cyberService::count);
+                QueryFanOut.Subtask<Long> dataContent = scope.fork("data_content_asset", dataService::count);
+                scope.joinPartial();
+
+                counts.put("softwareCount", software.getOrNull());
+                counts.put("cyberCount", cyber.getOrNull());
+                counts.put("dataContentCount", dataContent.getOrNull());
+                if (!putFanOutSummary(counts, scope)) {
+                    return ResultVO.fail("统计失败：三张资产表查询均失败或超时");
+                }
+                log.info("资产统计完成 - 软件: {}, 网信: {}, 数据: {}",
+                        counts.get("softwareCount"), counts.get("cyberCount"), counts.get("dataContentCount"));
+                return ResultVO.success(counts, scope.isPartial() ? "部分资产表统计失败或超时，返回部分结果" : "获取资产数量统计成功");
+            }
         } catch (Exception e) {
             log.error("获取资产数量统计失败", e);
             return ResultVO.fail("统计失败：" + e.getMessage());
         }
     }
 
+    /**
+     * 组合查询结果补充扇出明细：partial（是否部分结果）与timings（各表状态与耗时）
+     *
+     * @return 是否至少有一个子查询成功；全部失败时调用方应返回失败
+     */
+    private boolean putFanOutSummary(Map<String, Object> result, QueryFanOut.Scope scope) {
+        Map<String, Map<String, Object>> timings = scope.timings();
+        result.put("partial", scope.isPartial());
+        result.put("timings", timings);
+        if (scope.isPartial()) {
+            log.warn("⚠️ 组合查询返回部分结果 - {}", timings);
+        }
+        return timings.values().stream()
+                .anyMatch(timing -> QueryFanOut.State.SUCCESS.name().equals(timing.get("status")));
+    }
+
     // ============================== 新增：上报单位相关接口（接口3用） ==============================
 
     /**
@@ -434,27 +481,33 @@ public class AssetCrudController {
      * }
      */
     @GetMapping("/province/asset-tables")
+    @SqlBudget(maxStatements = 3)
     public ResultVO<Map<String, Object>> getProvinceStatsFromAssetTables() {
         try {
             log.info("开始统计各资产表省份单位数量...");
 
             Map<String, Object> result = new HashMap<>();
 
-            // 获取软件资产表的省份统计 - 新逻辑：通过关联report_unit表获取省份
-            List<Map<String, Object>> softwareStats = softwareService.getProvinceUnitStats();
-            result.put("softwareProvinceStats", softwareStats);
-
-            // 获取网信资产表的省份统计 - 新逻辑：通过关联report_unit表获取省份
-            List<Map<String, Object>> cyberStats = cyberService.getProvinceUnitStats();
-            result.put("cyberProvinceStats", cyberStats);
-
-            // 获取数据资产表的省份统计 - 新逻辑：通过关联report_unit表获取省份
-            List<Map<String, Object>> dataStats = dataService.getProvinceUnitStats();
-            result.put("dataProvinceStats", dataStats);
-
-            log.info("各资产表省份统计完成");
-
-            return ResultVO.success(result, "获取各资产表省份统计成功");
+            // 三张资产表的省份统计互不依赖，并发执行（均通过关联report_unit表获取省份）
+            // 某张表失败或超时时对应统计为null，partial=true，timings中给出原因
+            try (QueryFanOut.Scope scope = queryFanOut.open()) {
+                QueryFanOut.Subtask<List<Map<String, Object>>> softwareStats =
+                        scope.fork("software_asset", softwareService::getProvinceUnitStats);
+                QueryFanOut.Subtask<List<Map<String, Object>>> cyberStats =
+                        scope.fork("cyber_asset", cyberService::getProvinceUnitStats);
+                QueryFanOut.Subtask<List<Map<String, Object>>> dataStats =
+                        scope.fork("data_content_asset", dataService::getProvinceUnitStats);
+                scope.joinPartial();
+
+                result.put("softwareProvinceStats", softwareStats.getOrNull());
+                result.put("cyberProvinceStats", cyberStats.getOrNull());
+                result.put("dataProvinceStats", dataStats.getOrNull());
+                if (!putFanOutSummary(result, scope)) {
+                    return ResultVO.fail("统计失败：三张资产表查询均失败或超时");
+                }
+                log.info("各资产表省份统计完成");
+                return ResultVO.success(result, scope.isPartial() ? "部分资产表统计失败或超时，返回部分结果" : "获取各资产表省份统计成功");
+            }
         } catch (Exception e) {
             log.error("获取省份统计失败", e);
             return ResultVO.fail("统计失败：" + e.getMessage());
@@ -503,6 +556,8 @@ public class AssetCrudController {
 
 /**
  * 接口5：获取三类资产的固定选项内容（为前端提供下拉菜单数据）
+ * 选项统一来自AssetOptionRegistry，响应体启动时预先序列化（AssetOptionCatalog），
+ * 带强ETag与Cache-Control，客户端带If-None-Match重新校验时返回304
  */
 
     /**
@@ -512,87 +567,8 @@ public class AssetCrudController {
      * 返回：分类编码与资产分类映射、应用领域、开发工具、更新周期、更新方式等固定选项（1115修正）
      */
     @GetMapping("/data/fixed-options")
-    public ResultVO<Map<String, Object>> getDataContentFixedOptions() {
-        try {
-            log.info("获取数据内容资产固定选项...");
-
-            Map<String, Object> options = new HashMap<>();
-
-            // 分类编码与资产分类映射（从CategoryMapUtils获取）
-            Map<String, String> categoryMap = CategoryMapUtils.initDataCategoryMap();
-
-            // 按指定顺序重新组织分类编码和资产分类
-            List<String> orderedCategoryCodes = new ArrayList<>();
-            List<String> orderedAssetCategories = new ArrayList<>();
-
-            // 数据内容资产的分类（只有一个分类）
-            orderedCategoryCodes.add("006004003");
-            orderedAssetCategories.add("数据内容资产");
-
-            // 重建有序的映射
-            Map<String, String> orderedCategoryMap = new LinkedHashMap<>();
-            for (int i = 0; i < orderedCategoryCodes.size(); i++) {
-                orderedCategoryMap.put(orderedCategoryCodes.get(i), orderedAssetCategories.get(i));
-            }
-
-            options.put("categoryMapping", orderedCategoryMap);
-            options.put("categoryCodes", orderedCategoryCodes);
-            options.put("assetCategories", orderedAssetCategories);
-
-            // 应用领域固定选项 - 按指定顺序
-            List<String> applicationField = new ArrayList<>();
-            applicationField.add("后勤保障");
-            applicationField.add("建设规划");
-            applicationField.add("日常办公");
-            applicationField.add("战备管理");
-            applicationField.add("政治工作");
-            applicationField.add("装备保障");
-            applicationField.add("作战指挥");
-            applicationField.add("其他");
-            options.put("applicationField", applicationField);
-
-            // 开发工具固定选项 - 按指定顺序
-            List<String> developmentTool = new ArrayList<>();
-            developmentTool.add("Oracle");
-            developmentTool.add("MySql");
-            developmentTool.add("SQL Server");
-            developmentTool.add("HDFS");
-            developmentTool.add("达梦");
-            developmentTool.add("高斯");
-            developmentTool.add("南大通用");
-            developmentTool.add("人大金仓");
-            developmentTool.add("神州通用");
-            developmentTool.add("其他");
-            options.put("developmentTool", developmentTool);
-
-            // 更新周期固定选项 - 按指定顺序
-            List<String> updateCycle = new ArrayList<>();
-            updateCycle.add("实时");
-            updateCycle.add("每天");
-            updateCycle.add("每月");
-            updateCycle.add("每季度");
-            updateCycle.add("每半年");
-            updateCycle.add("每年");
-            updateCycle.add("不更新");
-            updateCycle.add("其他");
-            options.put("updateCycle", updateCycle);
-
-            // 更新方式固定选项 - 按指定顺序
-            List<String> updateMethod = new ArrayList<>();
-            updateMethod.add("自动采集");
-            updateMethod.add("在线填报");
-            updateMethod.add("离线填报");
-            updateMethod.add("商业购置");
-            updateMethod.add("上级请领");
-            updateMethod.add("其他");
-            options.put("updateMethod", updateMethod);
-
-            log.info("数据内容资产固定选项获取成功");
-            return ResultVO.success(options, "获取数据内容资产固定选项成功");
-        } catch (Exception e) {
-            log.error("获取数据内容资产固定选项失败", e);
-            return ResultVO.fail("获取固定选项失败：" + e.getMessage());
-        }
+    public ResponseEntity<Resource> getDataContentFixedOptions() {
+        return fixedOptionsResponse(assetOptionCatalog.fixedOptionsJson(AssetOptionRegistry.DATA_CONTENT));
     }
 
     /**
@@ -602,115 +578,8 @@ public class AssetCrudController {
      * 返回：分类编码与资产分类映射、取得方式、部署范围、服务状态等固定选项 （1115修正）
      */
     @GetMapping("/software/fixed-options")
-    public ResultVO<Map<String, Object>> getSoftwareFixedOptions() {
-        try {
-            log.info("获取软件应用资产固定选项...");
-
-            Map<String, Object> options = new HashMap<>();
-
-            // 分类编码与资产分类映射（从CategoryMapUtils获取）
-            Map<String, String> categoryMap = CategoryMapUtils.initSoftwareCategoryMap();
-
-            // 按指定顺序重新组织分类编码和资产分类
-            List<String> orderedCategoryCodes = new ArrayList<>();
-            List<String> orderedAssetCategories = new ArrayList<>();
-
-            // 按照你希望的顺序添加分类
-            orderedCategoryCodes.add("006004002001001");
-            orderedAssetCategories.add("操作系统");
-            orderedCategoryCodes.add("006004002001002");
-            orderedAssetCategories.add("数据库系统");
-            orderedCategoryCodes.add("006004002001003");
-            orderedAssetCategories.add("中间件");
-            orderedCategoryCodes.add("006004002001004");
-            orderedAssetCategories.add("软件开发环境");
-            orderedCategoryCodes.add("006004002002001");
-            orderedAssetCategories.add("网络通信软件");
-            orderedCategoryCodes.add("006004002002002");
-            orderedAssetCategories.add("文档处理软件");
-            orderedCategoryCodes.add("006004002002003");
-            orderedAssetCategories.add("图形图像软件");
-            orderedCategoryCodes.add("006004002002004");
-            orderedAssetCategories.add("数据处理软件");
-            orderedCategoryCodes.add("006004002002005");
-            orderedAssetCategories.add("模型算法软件");
-            orderedCategoryCodes.add("006004002002006");
-            orderedAssetCategories.add("地理信息系统");
-            orderedCategoryCodes.add("006004002002007");
-            orderedAssetCategories.add("移动应用软件");
-            orderedCategoryCodes.add("006004002002008");
-            orderedAssetCategories.add("安全防护软件");
-            orderedCategoryCodes.add("006004002002009");
-            orderedAssetCategories.add("设备管理软件");
-            orderedCategoryCodes.add("006004002003001");
-            orderedAssetCategories.add("作战指挥软件");
-            orderedCategoryCodes.add("006004002003002");
-            orderedAssetCategories.add("业务管理软件");
-            orderedCategoryCodes.add("006004002003003");
-            orderedAssetCategories.add("日常办公软件");
-
-            // 重建有序的映射
-            Map<String, String> orderedCategoryMap = new LinkedHashMap<>();
-            for (int i = 0; i < orderedCategoryCodes.size(); i++) {
-                orderedCategoryMap.put(orderedCategoryCodes.get(i), orderedAssetCategories.get(i));
-            }
-
-            options.put("categoryMapping", orderedCategoryMap);
-            options.put("categoryCodes", orderedCategoryCodes);
-            options.put("assetCategories", orderedAssetCategories);
-
-            // 取得方式固定选项 - 按指定顺序
-            List<String> acquisitionMethod = new ArrayList<>();
-            acquisitionMethod.add("购置");
-            acquisitionMethod.add("自主开发");
-            acquisitionMethod.add("合作开发");
-            acquisitionMethod.add("其他");
-            options.put("acquisitionMethod", acquisitionMethod);
-
-            // 部署范围固定选项 - 按指定顺序
-            List<String> deploymentScope = new ArrayList<>();
-            deploymentScope.add("军以下");
-            deploymentScope.add("全军");
-            deploymentScope.add("战区");
-            deploymentScope.add("军级单位内部");
-            deploymentScope.add("军种");
-            options.put("deploymentScope", deploymentScope);
-
-//            // 部署形式 - 按指定顺序 （非固定）
-//            List<String> deploymentForm = new ArrayList<>();
-//            deploymentForm.add("本地部署");
-//            deploymentForm.add("异地部署");
-//            deploymentForm.add("联合部署");
-//            deploymentForm.add("其他");
-//            options.put("deploymentForm", deploymentForm);
-
-//            // 承载网络 - 按指定顺序（非固定）
-//            List<String> carryingNetwork = new ArrayList<>();
-//            carryingNetwork.add("安装");
-//            carryingNetwork.add("公开");
-//            carryingNetwork.add("本级");
-//            carryingNetwork.add("安装到办公电脑上");
-//            carryingNetwork.add("单机部署");
-//            carryingNetwork.add("登记使用");
-//            carryingNetwork.add("二级网");
-//            carryingNetwork.add("手机app软件");
-//            carryingNetwork.add("所有办公电脑");
-//            options.put("carryingNetwork", carryingNetwork);
-
-            // 服务状态固定选项 - 按指定顺序
-            List<String> serviceStatus = new ArrayList<>();
-            serviceStatus.add("在用");
-            serviceStatus.add("闲置");
-            serviceStatus.add("报废");
-            serviceStatus.add("封闭");
-            options.put("serviceStatus", serviceStatus);
-
-            log.info("软件应用资产固定选项获取成功");
-            return ResultVO.success(options, "获取软件应用资产固定选项成功");
-        } catch (Exception e) {
-            log.error("获取软件应用资产固定选项失败", e);
-            return ResultVO.fail("获取固定选项失败：" + e.getMessage());
-        }
+    public ResponseEntity<Resource> getSoftwareFixedOptions() {
+        return fixedOptionsResponse(assetOptionCatalog.fixedOptionsJson(AssetOptionRegistry.SOFTWARE));
     }
 
     /**
@@ -720,71 +589,23 @@ public class AssetCrudController {
      * 返回：分类编码与资产分类映射等固定选项 （1115修正）
      */
     @GetMapping("/cyber/fixed-options")
-    public ResultVO<Map<String, Object>> getCyberFixedOptions() {
-        try {
-            log.info("获取网信基础资产固定选项...");
-
-            Map<String, Object> options = new HashMap<>();
-
-            // 分类编码与资产分类映射（从CategoryMapUtils获取）
-            Map<String, String> categoryMap = CategoryMapUtils.initCyberCategoryMap();
-
-            // 按指定顺序重新组织分类编码和资产分类
-            List<String> orderedCategoryCodes = new ArrayList<>();
-            List<String> orderedAssetCategories = new ArrayList<>();
-
-            // 按照你希望的顺序添加分类
-            orderedCategoryCodes.add("006004001001");
-            orderedAssetCategories.add("自动电话号码");
-            orderedCategoryCodes.add("006004001002");
-            orderedAssetCategories.add("人工电话号码");
-            orderedCategoryCodes.add("006004001003");
-            orderedAssetCategories.add("保密电话号码");
-            orderedCategoryCodes.add("006004001004");
-            orderedAssetCategories.add("移动手机号码");
-            orderedCategoryCodes.add("006004001005");
-            orderedAssetCategories.add("有线信道");
-            orderedCategoryCodes.add("006004001006");
-            orderedAssetCategories.add("光缆纤芯");
-            orderedCategoryCodes.add("006004001007");
-            orderedAssetCategories.add("骨干网节点互联网络地址");
-            orderedCategoryCodes.add("006004001008");
-            orderedAssetCategories.add("骨干网节点设备管理地址");
-            orderedCategoryCodes.add("006004001009");
-            orderedAssetCategories.add("网络地址");
-            orderedCategoryCodes.add("006004001010");
-            orderedAssetCategories.add("文电名录");
-            orderedCategoryCodes.add("006004001011");
-            orderedAssetCategories.add("军事网络域名");
-            orderedCategoryCodes.add("006004001012");
-            orderedAssetCategories.add("互联网域名");
-            orderedCategoryCodes.add("006004001014");
-            orderedAssetCategories.add("无线电报代号");
-            orderedCategoryCodes.add("006004001015");
-            orderedAssetCategories.add("电磁频谱");
-            orderedCategoryCodes.add("006004001016");
-            orderedAssetCategories.add("数据中心计算资产");
-            orderedCategoryCodes.add("006004001017");
-            orderedAssetCategories.add("数据中心存储资产");
-            orderedCategoryCodes.add("006004001999");
-            orderedAssetCategories.add("其他网信基础资产");
-
-            // 重建有序的映射
-            Map<String, String> orderedCategoryMap = new LinkedHashMap<>();
-            for (int i = 0; i < orderedCategoryCodes.size(); i++) {
-                orderedCategoryMap.put(orderedCategoryCodes.get(i), orderedAssetCategories.get(i));
-            }
-
-            options.put("categoryMapping", orderedCategoryMap);
-            options.put("categoryCodes", orderedCategoryCodes);
-            options.put("assetCategories", orderedAssetCategories);
+    public ResponseEntity<Resource> getCyberFixedOptions() {
+        return fixedOptionsResponse(assetOptionCatalog.fixedOptionsJson(AssetOptionRegistry.CYBER));
+    }
 
-            log.info("网信基础资产固定选项获取成功");
-            return ResultVO.success(options, "获取网信基础资产固定选项成功");
-        } catch (Exception e) {
-            log.error("获取网信基础资产固定选项失败", e);
-            return ResultVO.fail("获取固定选项失败：" + e.getMessage());
-        }
+    /**
+     * 输出预序列化的固定选项JSON
+     * ResponseEntity带ETag/Last-Modified时，Spring MVC对GET/HEAD的条件请求自动返回304
+     */
+    private ResponseEntity<Resource> fixedOptionsResponse(TemplateFileCache.CachedTemplate json) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .cacheControl(CacheControl.maxAge(assetOptionCatalog.getCacheMaxAgeSeconds(), TimeUnit.SECONDS)
+                        .cachePublic()
+                        .mustRevalidate())
+                .eTag(json.getETag())
+                .lastModified(json.getLastModified())
+                .body(json.asResource());
     }
 
     // ============================== 软件资产查询 ==============================
@@ -896,14 +717,16 @@ public class AssetCrudController {
      * 5) 请求方式：前端传入上报单位（GET参数），后端自动提取该单位的软件资产并计算升级必要性。
      *
      * @param reportUnit 上报单位名称
+     * @param codesOnly  是否只返回建议编码（机器调用方使用，默认false）
      * @return 升级必要性及建议
      */
     @GetMapping("/software/upgrade/recommendations")
     public ResultVO<List<SoftwareUpgradeRecommendationVO>> generateSoftwareUpgradeRecommendations(
-            @RequestParam String reportUnit) {
+            @RequestParam String reportUnit,
+            @RequestParam(defaultValue = "false") boolean codesOnly) {
         long start = System.currentTimeMillis();
         try {
-            List<SoftwareUpgradeRecommendationVO> results = softwareService.generateUpgradeRecommendations(reportUnit);
+            List<SoftwareUpgradeRecommendationVO> results = softwareService.generateUpgradeRecommendations(reportUnit, codesOnly);
             long cost = System.currentTimeMillis() - start;
             return ResultVO.success(results, "升级建议生成成功，耗时" + cost + "ms，条数：" + results.size());
         } catch (Exception e) {
@@ -912,6 +735,85 @@ public class AssetCrudController {
         }
     }
 
+    /**
+     * 上报单位重要性批量排名接口。
+     * <p>
+     * 作用：一次请求计算全部（或指定）上报单位的重要性，替代排名页面逐单位调用单位接口。
+     * 性能：按上报单位、部署范围两级分组的一条SQL得到所有单位分布，全表对照基准走缓存。
+     * 输出：按综合得分降序排列的分页结果，单条结构与单位重要性接口一致。
+     * </p>
+     *
+     * @param reportUnits 上报单位名称列表（可选，不传则计算全部单位）
+     * @param pageNum     页码（默认1）
+     * @param pageSize    页大小（默认50，最大200）
+     * @param codesOnly   是否只返回编码/等级，不生成文案（默认false）
+     * @return 分页的重要性排名
+     */
+    @GetMapping("/software/report-unit/importance/batch")
+    public ResultVO<Map<String, Object>> analyzeReportUnitImportanceBatch(
+            @RequestParam(required = false) List<String> reportUnits,
+            @RequestParam(defaultValue = "1") Integer pageNum,
+            @RequestParam(defaultValue = "50") Integer pageSize,
+            @RequestParam(defaultValue = "false") boolean codesOnly) {
+        long start = System.currentTimeMillis();
+        try {
+            pageSize = Math.min(pageSize, 200);
+            Page<ReportUnitImportanceVO> result =
+                    softwareService.analyzeReportUnitImportanceBatch(reportUnits, pageNum, pageSize, codesOnly);
+            long cost = System.currentTimeMillis() - start;
+            return ResultVO.success(toPageResponse(result), "上报单位重要性批量分析完成，耗时" + cost + "ms，单位数：" + result.getTotal());
+        } catch (Exception e) {
+            log.error("上报单位重要性批量分析失败，单位={}", reportUnits, e);
+            return ResultVO.fail("上报单位重要性批量分析失败：" + e.getMessage());
+        }
+    }
+
+    /**
+     * 软件资产升级必要性批量排名接口。
+     * <p>
+     * 作用：一次流式扫描计算全部（或指定）上报单位下每条软件资产的升级必要性，公式与单位接口一致。
+     * 性能：扫描时只保留排名前 pageNum × pageSize 的结果，不在内存中保留整张表；最多可查看前10000名。
+     * 输出：按必要性得分降序排列的分页结果。
+     * </p>
+     *
+     * @param reportUnits 上报单位名称列表（可选，不传则计算全部单位）
+     * @param pageNum     页码（默认1）
+     * @param pageSize    页大小（默认50，最大200）
+     * @param codesOnly   是否只返回编码/等级，不生成文案（默认false）
+     * @return 分页的升级建议排名
+     */
+    @GetMapping("/software/upgrade/recommendations/batch")
+    public ResultVO<Map<String, Object>> generateSoftwareUpgradeRecommendationsBatch(
+            @RequestParam(required = false) List<String> reportUnits,
+            @RequestParam(defaultValue = "1") Integer pageNum,
+            @RequestParam(defaultValue = "50") Integer pageSize,
+            @RequestParam(defaultValue = "false") boolean codesOnly) {
+        long start = System.currentTimeMillis();
+        try {
+            pageSize = Math.min(pageSize, 200);
+            Page<SoftwareUpgradeRecommendationVO> result =
+                    softwareService.generateUpgradeRecommendationsBatch(reportUnits, pageNum, pageSize, codesOnly);
+            long cost = System.currentTimeMillis() - start;
+            return ResultVO.success(toPageResponse(result), "升级建议批量生成成功，耗时" + cost + "ms，资产数：" + result.getTotal());
+        } catch (Exception e) {
+            log.error("批量排名软件资产升级建议失败，单位={}", reportUnits, e);
+            return ResultVO.fail("升级建议批量生成失败：" + e.getMessage());
+        }
+    }
+
+    /**
+     * 分页结果转为接口统一的分页响应结构（list/total/pageNum/pageSize/totalPages）
+     */
+    private Map<String, Object> toPageResponse(Page<?> page) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("list", page.getRecords());
+        response.put("total", page.getTotal());
+        response.put("pageNum", page.getCurrent());
+        response.put("pageSize", page.getSize());
+        response.put("totalPages", page.getPages());
+        return response;
+    }
+
 
     // ============================== 新增：软件资产额外查询接口 ==============================
     /**
@@ -1438,12 +1340,14 @@ public class AssetCrudController {
             Integer pageNum = queryVO.getPageNum();
             Integer pageSize = queryVO.getPageSize();
             if (pageNum == null || pageSize == null) {
-                pageNum = 1;
-                pageSize = Integer.MAX_VALUE;  // 设置超大页面大小，相当于获取全部数据
-                log.info("未传递分页参数，设置为导出全部数据");
-            } else {
-                log.info("使用分页参数导出：pageNum={}, pageSize={}", pageNum, pageSize);
+                // 未传递分页参数：导出全部匹配数据，按批次流式读取并写入响应流，不再一次性加载全部数据
+                log.info("未传递分页参数，按批次流式导出全部软件资产数据");
+                long total = streamExcelExport(response, SoftwareAssetExcelVO.class, "软件资产", this::convertToSoftwareExcelVO,
+                        (batchSize, batchConsumer) -> softwareService.streamCombinedQuery(queryVO, batchSize, batchConsumer));
+                log.info("软件资产导出成功，共导出{}条数据", total);
+                return;
             }
+            log.info("使用分页参数导出：pageNum={}, pageSize={}", pageNum, pageSize);
 
             // 创建分页对象，用于Service层查询
             Page<SoftwareAsset> pageInfo = new Page<>(pageNum, pageSize);
@@ -1502,9 +1406,12 @@ public class AssetCrudController {
             Integer pageNum = queryVO.getPageNum();
             Integer pageSize = queryVO.getPageSize();
             if (pageNum == null || pageSize == null) {
-                pageNum = 1;
-                pageSize = Integer.MAX_VALUE;
-                log.info("未传递分页参数，设置为导出全部网信资产数据");
+                // 未传递分页参数：导出全部匹配数据，按批次流式读取并写入响应流，不再一次性加载全部数据
+                log.info("未传递分页参数，按批次流式导出全部网信资产数据");
+                long total = streamExcelExport(response, CyberAssetExcelVO.class, "网信资产", this::convertToCyberExcelVO,
+                        (batchSize, batchConsumer) -> cyberService.streamCombinedQuery(queryVO, batchSize, batchConsumer));
+                log.info("网信资产导出成功，共导出{}条数据", total);
+                return;
             }
 
             Page<CyberAsset> pageInfo = new Page<>(pageNum, pageSize);
@@ -1557,9 +1464,12 @@ public class AssetCrudController {
             Integer pageNum = queryVO.getPageNum();
             Integer pageSize = queryVO.getPageSize();
             if (pageNum == null || pageSize == null) {
-                pageNum = 1;
-                pageSize = Integer.MAX_VALUE;
-                log.info("未传递分页参数，设置为导出全部数据资产数据");
+                // 未传递分页参数：导出全部匹配数据，按批次流式读取并写入响应流，不再一次性加载全部数据
+                log.info("未传递分页参数，按批次流式导出全部数据资产数据");
+                long total = streamExcelExport(response, DataContentAssetExcelVO.class, "数据资产", this::convertToDataExcelVO,
+                        (batchSize, batchConsumer) -> dataService.streamCombinedQuery(queryVO, batchSize, batchConsumer));
+                log.info("数据资产导出成功，共导出{}条数据", total);
+                return;
             }
 
             Page<DataContentAsset> pageInfo = new Page<>(pageNum, pageSize);
@@ -1593,6 +1503,32 @@ public class AssetCrudController {
         }
     }
 
+    /**
+     * 按批次流式写出Excel
+     * 作用：不分页导出时，Service层通过游标逐批返回数据，每批转换后立即写入响应流，
+     * 内存中同时只保留一个批次，首批数据读出后即开始输出
+     *
+     * @param excelClass  Excel VO类型（决定表头）
+     * @param sheetName   工作表名称
+     * @param converter   实体到Excel VO的转换
+     * @param streamQuery 流式查询（参数：批次大小、批次回调；返回总行数）
+     * @return 导出的总行数
+     */
+    private <E, V> long streamExcelExport(HttpServletResponse response, Class<V> excelClass, String sheetName,
+                                          Function<List<E>, List<V>> converter,
+                                          BiFunction<Integer, Consumer<List<E>>, Long> streamQuery) throws IOException {
+        try (ExcelWriter excelWriter = EasyExcel.write(response.getOutputStream(), excelClass).build()) {
+            WriteSheet writeSheet = EasyExcel.writerSheet(sheetName).build();
+            long total = streamQuery.apply(StreamingQueryUtils.DEFAULT_BATCH_SIZE,
+                    batch -> excelWriter.write(converter.apply(batch), writeSheet));
+            if (total == 0) {
+                // 无匹配数据时仍输出表头，与原一次性导出的结果保持一致
+                excelWriter.write(Collections.emptyList(), writeSheet);
+            }
+            return total;
+        }
+    }
+
     // ============================== 新增：省份资产统计接口 ==============================
 
     /**
@@ -1647,20 +1583,33 @@ public class AssetCrudController {
         try {
             log.info("开始统计各省份三类资产数量和占比...");
 
-            // 分别获取三类资产的省份统计
-            Map<String, Object> softwareStats = softwareService.getProvinceAssetOverview();
-            Map<String, Object> cyberStats = cyberService.getProvinceAssetOverview();
-            Map<String, Object> dataContentStats = dataService.getProvinceAssetOverview();
-
-            // 合并三个资产表的统计结果
-            Map<String, Object> mergedResult = mergeProvinceStats(softwareStats, cyberStats, dataContentStats);
+            // 并发获取三类资产的省份统计；某类失败或超时时按空统计合并（总数为null），partial=true
+            try (QueryFanOut.Scope scope = queryFanOut.open()) {
+                QueryFanOut.Subtask<Map<String, Object>> softwareTask =
+                        scope.fork("software_asset", softwareService::getProvinceAssetOverview);
+                QueryFanOut.Subtask<Map<String, Object>> cyberTask =
+                        scope.fork("cyber_asset", cyberService::getProvinceAssetOverview);
+                QueryFanOut.Subtask<Map<String, Object>> dataContentTask =
+                        scope.fork("data_content_asset", dataService::getProvinceAssetOverview);
+                scope.joinPartial();
+
+                Map<String, Object> softwareStats = Objects.requireNonNullElse(softwareTask.getOrNull(), Collections.emptyMap());
+                Map<String, Object> cyberStats = Objects.requireNonNullElse(cyberTask.getOrNull(), Collections.emptyMap());
+                Map<String, Object> dataContentStats = Objects.requireNonNullElse(dataContentTask.getOrNull(), Collections.emptyMap());
+
+                // 合并三个资产表的统计结果
+                Map<String, Object> mergedResult = mergeProvinceStats(softwareStats, cyberStats, dataContentStats);
+                if (!putFanOutSummary(mergedResult, scope)) {
+                    return ResultVO.fail("统计失败：三张资产表查询均失败或超时");
+                }
 
-            log.info("省份资产统计完成 - 软件总数: {}, 网信总数: {}, 数据总数: {}",
-                    softwareStats.get("totalSoftwareCount"),
-                    cyberStats.get("totalCyberCount"),
-                    dataContentStats.get("totalDataContentCount"));
+                log.info("省份资产统计完成 - 软件总数: {}, 网信总数: {}, 数据总数: {}",
+                        softwareStats.get("totalSoftwareCount"),
+                        cyberStats.get("totalCyberCount"),
+                        dataContentStats.get("totalDataContentCount"));
 
-            return ResultVO.success(mergedResult, "获取省份资产统计成功");
+                return ResultVO.success(mergedResult, scope.isPartial() ? "部分资产表统计失败或超时，返回部分结果" : "获取省份资产统计成功");
+            }
         } catch (Exception e) {
             log.error("获取省份资产统计失败", e);
             return ResultVO.fail("统计失败：" + e.getMessage());
@@ -1923,6 +1872,10 @@ public class AssetCrudController {
     private void fillActualStats(List<Map<String, Object>> mergedStats,
                                  List<Map<String, Object>> actualStats,
                                  String assetType) {
+        if (actualStats == null) {
+            // 该类资产统计失败或超时（部分结果），保持默认的0
+            return;
+        }
         for (Map<String, Object> actualStat : actualStats) {
             String province = (String) actualStat.get("province");
             Long count = (Long) actualStat.get(assetType + "Count");
@@ -1,14 +1,33 @@
 package com.military.asset.controller;
 
 import com.alibaba.excel.EasyExcel;
+import com.alibaba.excel.ExcelReader;
+import com.alibaba.excel.context.AnalysisContext;
+import com.alibaba.excel.metadata.CellExtra;
+import com.alibaba.excel.metadata.data.ReadCellData;
+import com.alibaba.excel.read.listener.ReadListener;
+import com.alibaba.excel.read.metadata.ReadSheet;
+import com.alibaba.excel.support.ExcelTypeEnum;
 import com.military.asset.service.SoftwareAssetService;
 import com.military.asset.service.CyberAssetService;
 import com.military.asset.service.DataContentAssetService;
 import com.military.asset.listener.SoftwareAssetExcelListener;
 import com.military.asset.listener.CyberAssetExcelListener;
 import com.military.asset.listener.DataContentAssetExcelListener;
+import com.military.asset.listener.AssetImportListener;
+import com.military.asset.utils.AssetMetricsTool;
+import com.military.asset.utils.AssetOptionCatalog;
+import com.military.asset.utils.AssetOptionRegistry;
+import com.military.asset.utils.ImportCheckpointTool;
+import com.military.asset.utils.ImportSpillSettings;
+import com.military.asset.utils.ImportSpillStore;
+import com.military.asset.utils.ImportStagingTool;
+import com.military.asset.utils.SqlStatementContext;
+import com.military.asset.utils.TemplateFileCache;
+import io.micrometer.core.instrument.Timer;
 import com.military.asset.vo.ExcelErrorVO;
 import com.military.asset.vo.ImportResult;
+import com.military.asset.vo.ResultVO;
 import com.military.asset.vo.excel.SoftwareAssetExcelVO;
 import com.military.asset.vo.excel.CyberAssetExcelVO;
 import com.military.asset.vo.excel.DataContentAssetExcelVO;
@@ -16,21 +35,45 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.io.ClassPathResource;
-import org.springframework.core.io.Resource;
-import org.springframework.util.StreamUtils;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.util.FileSystemUtils;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 
 
 
-import java.lang.reflect.Method;
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
-import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
 // 🆕 新增import（用于转换方法）
 import org.springframework.beans.BeanUtils;
 import com.military.asset.entity.SoftwareAsset;
@@ -82,7 +125,6 @@ import java.time.LocalDateTime;
 @Slf4j
 @RestController
 @RequestMapping("/api/asset/import")
-@SuppressWarnings("unused")
 public class AssetImportController {
 
     @Autowired
@@ -94,6 +136,75 @@ public class AssetImportController {
     @Autowired
     private DataContentAssetService dataContentAssetService;
 
+    /**
+     * 指标记录工具：记录导入各阶段耗时与处理行数
+     */
+    @Autowired
+    private AssetMetricsTool assetMetricsTool;
+
+    @Autowired
+    private TemplateFileCache templateFileCache;
+
+    /**
+     * 固定选项目录：生成带下拉校验的导入模板
+     */
+    @Autowired
+    private AssetOptionCatalog assetOptionCatalog;
+
+    /**
+     * 暂存表导入：导入期间正式表不清空，成功后原子替换
+     */
+    @Autowired
+    private ImportStagingTool importStagingTool;
+
+    /**
+     * 批量导入线程：各资产类型并行解析并写入暂存表
+     */
+    @Autowired
+    @Qualifier("bulkImportExecutor")
+    private AsyncTaskExecutor bulkImportExecutor;
+
+    /**
+     * 导入中间结果暂存：监听器列表写入内存映射文件，有效数据分块保存
+     */
+    @Autowired
+    private ImportSpillSettings importSpillSettings;
+
+    /**
+     * 可续传导入：上传文件存入内容存储，按分块记录提交进度，失败后按导入编号续传
+     */
+    @Autowired
+    private ImportCheckpointTool importCheckpointTool;
+
+    /**
+     * 批量导入压缩包解压后的总大小上限（MB）
+     */
+    @Value("${asset.import.bulk.max-unzipped-mb:300}")
+    private long bulkMaxUnzippedMb;
+
+    // ============================ 指标标签常量 ============================
+
+    private static final String ASSET_TYPE_SOFTWARE = "software";
+    private static final String ASSET_TYPE_CYBER = "cyber";
+    private static final String ASSET_TYPE_DATA_CONTENT = "dataContent";
+    private static final String ASSET_TYPE_BULK = "bulk";
+    private static final String ASSET_TYPE_RESUME = "resume";
+
+    // ============================ 上传文件格式 ============================
+
+    private static final List<String> EXCEL_EXTENSIONS = List.of(".xlsx", ".xls");
+    private static final List<String> BULK_EXTENSIONS = List.of(".xlsx", ".xls", ".zip");
+
+    /**
+     * xlsx（OOXML，zip容器）文件头：PK\3\4
+     */
+    private static final byte[] XLSX_MAGIC = {0x50, 0x4B, 0x03, 0x04};
+
+    /**
+     * xls（OLE2复合文档）文件头
+     */
+    private static final byte[] XLS_MAGIC = {(byte) 0xD0, (byte) 0xCF, 0x11, (byte) 0xE0, (byte) 0xA1, (byte) 0xB1, 0x1A, (byte) 0xE1};
+
 
     // ============================ 模板文件路径常量 ============================
 
@@ -121,6 +232,10 @@ public class AssetImportController {
 
      * 🆕 新的处理流程：
      * 1. 文件校验 → 2. 清空软件资产表 → 3. 重置上报单位表软件状态 → 4. 读取Excel → 5. 批量保存并同步省市
+     * 暂存模式（asset.import.staging-swap，默认开启）：步骤2改为新建空暂存表，步骤4、5写入暂存表，
+     * 成功后暂存表原子替换正式表并重置状态；导入期间查询读取现有数据，失败时正式数据不变
+     * 可续传（asset.import.checkpoint，默认开启）：按分块记录提交进度，失败时结果中返回importId，
+     * 调用 POST /api/asset/import/resume/{importId} 从最后提交的分块继续，无需重新上传
 
      * 💡 关键变化说明：
      * - 清空software_asset表：确保导入数据是唯一数据源
@@ -138,57 +253,17 @@ public class AssetImportController {
      */
     @PostMapping("/software")
     public ImportResult importSoftwareAsset(@RequestParam("file") MultipartFile file) {
-        log.info("🚀 开始软件资产清空再导入 - 文件名: {}，文件大小: {} bytes",
-                file.getOriginalFilename(), file.getSize());
-        try {
-            // 步骤1：文件基础校验（检查文件格式、大小等）
-            validateFile(file);
-
-            // 🆕 步骤2：清空软件资产表并重置上报单位表状态
-            log.info("🗑️ 开始清空软件资产表和重置状态...");
-            softwareAssetService.clearSoftwareTableAndResetStatus();
-            log.info("✅ 软件资产表和状态重置完成");
-
-            // 🆕 步骤3：创建监听器，传入空Map（因为表已清空，无需检查重复）
-            // 注意：这里使用HashMap的空实例，而不是获取数据库现有数据
-            SoftwareAssetExcelListener listener = new SoftwareAssetExcelListener(new HashMap<>());
-
-            // 步骤4：流式读取Excel文件（不限制行数）
-            log.info("📖 开始读取Excel文件内容...");
-            EasyExcel.read(file.getInputStream(), SoftwareAssetExcelVO.class, listener)
-                    .sheet()
-                    .headRowNumber(2) // 跳过表头行
-                    .doRead();
-            log.info("📊 Excel文件读取完成，有效数据: {}条，错误数据: {}条",
-                    listener.getValidDataList().size(), listener.getErrorDataList().size());
-
-            // 🆕 步骤5：批量保存有效数据并同步省市信息
-            if (!listener.getValidDataList().isEmpty()) {
-                log.info("💾 开始批量保存软件资产数据并同步省市信息...");
-                // 🆕 调用新的批量保存方法（支持省市自动填充和上报单位表同步）
-                // 🆕 新增：转换ExcelVO为实体
-                List<SoftwareAsset> entities = convertToSoftwareEntities(listener.getValidDataList());
-                softwareAssetService.batchSaveForImport(entities);
-                log.info("✅ 软件资产导入成功保存{}条数据，省市信息同步完成", listener.getValidDataList().size());
-            } else {
-                log.info("ℹ️ 软件资产导入无有效数据需要保存");
-            }
-
-            // 步骤6：构建并返回完整的导入结果
-            ImportResult result = buildImportResult(listener, "软件资产");
-            log.info("🎉 软件资产清空再导入流程完成");
-            return result;
-
-        } catch (Exception e) {
-            log.error("❌ 软件资产导入失败: {}", e.getMessage(), e);
-            return buildErrorResult("软件资产导入失败: " + e.getMessage());
-        }
+        return importAsset(assetImportSpec(ASSET_TYPE_SOFTWARE), file);
     }
 
     /**
      * 网信资产Excel导入 - 清空再导入版本*
      * 🆕 新的处理流程：
      * 1. 文件校验 → 2. 清空网信资产表 → 3. 重置上报单位表网信状态 → 4. 读取Excel → 5. 批量保存并同步省市
+     * 暂存模式（asset.import.staging-swap，默认开启）：步骤2改为新建空暂存表，步骤4、5写入暂存表，
+     * 成功后暂存表原子替换正式表并重置状态；导入期间查询读取现有数据，失败时正式数据不变
+     * 可续传（asset.import.checkpoint，默认开启）：按分块记录提交进度，失败时结果中返回importId，
+     * 调用 POST /api/asset/import/resume/{importId} 从最后提交的分块继续，无需重新上传
 
      * 💡 网信资产特殊处理：
      * - 有省市字段：Excel有值优先使用，无值自动推导
@@ -205,50 +280,7 @@ public class AssetImportController {
      */
     @PostMapping("/cyber")
     public ImportResult importCyberAsset(@RequestParam("file") MultipartFile file) {
-        log.info("🚀 开始网信资产清空再导入 - 文件名: {}，文件大小: {} bytes",
-                file.getOriginalFilename(), file.getSize());
-        try {
-            // 步骤1：文件基础校验
-            validateFile(file);
-
-            // 🆕 步骤2：清空网信资产表并重置上报单位表状态
-            log.info("🗑️ 开始清空网信资产表和重置状态...");
-            cyberAssetService.clearCyberTableAndResetStatus();
-            log.info("✅ 网信资产表和状态重置完成");
-
-            // 🆕 步骤3：创建监听器，传入空Map
-            CyberAssetExcelListener listener = new CyberAssetExcelListener(new HashMap<>());
-
-            // 步骤4：流式读取Excel文件
-            log.info("📖 开始读取Excel文件内容...");
-            EasyExcel.read(file.getInputStream(), CyberAssetExcelVO.class, listener)
-                    .sheet()
-                    .headRowNumber(2) // 跳过表头行
-                    .doRead();
-            log.info("📊 Excel文件读取完成，有效数据: {}条，错误数据: {}条",
-                    listener.getValidDataList().size(), listener.getErrorDataList().size());
-
-            // 🆕 步骤5：批量保存有效数据并同步省市信息
-            if (!listener.getValidDataList().isEmpty()) {
-                log.info("💾 开始批量保存网信资产数据并同步省市信息...");
-                // 🆕 调用新的批量保存方法（支持省市自动填充和上报单位表同步）
-                // 🆕 新增：转换ExcelVO为实体
-                List<CyberAsset> entities = convertToCyberEntities(listener.getValidDataList());
-                cyberAssetService.batchSaveForImport(entities);
-                log.info("✅ 网信资产导入成功保存{}条数据，省市信息同步完成", listener.getValidDataList().size());
-            } else {
-                log.info("ℹ️ 网信资产导入无有效数据需要保存");
-            }
-
-            // 步骤6：构建并返回完整的导入结果
-            ImportResult result = buildImportResult(listener, "网信资产");
-            log.info("🎉 网信资产清空再导入流程完成");
-            return result;
-
-        } catch (Exception e) {
-            log.error("❌ 网信资产导入失败: {}", e.getMessage(), e);
-            return buildErrorResult("网信资产导入失败: " + e.getMessage());
-        }
+        return importAsset(assetImportSpec(ASSET_TYPE_CYBER), file);
     }
 
 
@@ -257,6 +289,10 @@ public class AssetImportController {
 
      * 🆕 新的处理流程：
      * 1. 文件校验 → 2. 清空数据资产表 → 3. 重置上报单位表数据状态 → 4. 读取Excel → 5. 批量保存并同步省市
+     * 暂存模式（asset.import.staging-swap，默认开启）：步骤2改为新建空暂存表，步骤4、5写入暂存表，
+     * 成功后暂存表原子替换正式表并重置状态；导入期间查询读取现有数据，失败时正式数据不变
+     * 可续传（asset.import.checkpoint，默认开启）：按分块记录提交进度，失败时结果中返回importId，
+     * 调用 POST /api/asset/import/resume/{importId} 从最后提交的分块继续，无需重新上传
 
      * 💡 数据资产特殊处理：
      * - 有省市字段：Excel有值优先使用，无值自动推导
@@ -274,51 +310,646 @@ public class AssetImportController {
      */
     @PostMapping("/data-content")
     public ImportResult importDataContentAsset(@RequestParam("file") MultipartFile file) {
-        log.info("🚀 开始数据内容资产清空再导入 - 文件名: {}，文件大小: {} bytes",
-                file.getOriginalFilename(), file.getSize());
+        return importAsset(assetImportSpec(ASSET_TYPE_DATA_CONTENT), file);
+    }
 
+    /**
+     * 单类资产全量导入的公共流程（三类资产共用，按导入配置区分监听器、转换、保存与清空方法）
+     * 1. 文件校验 → 2. 开始导入代并登记检查点 → 3. 流式解析并封存解析结果 → 4. 分块转换保存并同步省市
+     * → 5. 发布 → 6. 构建导入结果；失败时记录检查点，可续传时结果中返回importId
+     *
+     * @param spec 资产类型的导入配置
+     * @param file 上传的Excel文件
+     * @return ImportResult 包含完整导入结果的响应对象
+     */
+    private <V, E> ImportResult importAsset(AssetImportSpec<V, E> spec, MultipartFile file) {
+        String assetType = spec.assetType();
+        String label = spec.label();
+        log.info("🚀 开始{}清空再导入 - 文件名: {}，文件大小: {} bytes",
+                label, file.getOriginalFilename(), file.getSize());
+        Timer.Sample total = assetMetricsTool.start();
+        boolean success = false;
+        ImportStagingTool.Generation generation = null;
+        ImportCheckpointTool.Checkpoint checkpoint = null;
         try {
-            // 步骤1：文件基础校验
+            // 步骤1：文件基础校验（检查文件格式、大小等）
+            Timer.Sample stage = assetMetricsTool.start();
             validateFile(file);
-
-            // 🆕 步骤2：清空数据资产表并重置上报单位表状态
-            log.info("🗑️ 开始清空数据内容资产表和重置状态...");
-            dataContentAssetService.clearDataContentTableAndResetStatus();
-            log.info("✅ 数据内容资产表和状态重置完成");
-
-            // 🆕 步骤3：创建监听器，传入空Map
-            DataContentAssetExcelListener listener = new DataContentAssetExcelListener(new HashMap<>());
-
-            // 步骤4：流式读取Excel文件
+            assetMetricsTool.stopStage(stage, assetType, AssetMetricsTool.STAGE_VALIDATE);
+
+            // 步骤2：开始导入：暂存模式下建空暂存表（导入期间查询仍读取现有数据），清空模式下清空资产表并重置上报单位表状态
+            log.info("🗂️ 开始准备{}导入（{}）...", label, importStagingTool.isEnabled() ? "暂存表" : "清空");
+            stage = assetMetricsTool.start();
+            generation = importStagingTool.begin(assetType, spec.legacyClear());
+            // 登记检查点：上传文件存入内容存储，失败后可按导入编号续传
+            checkpoint = importCheckpointTool.start(assetType, file, importStagingTool.isEnabled());
+            assetMetricsTool.stopStage(stage, assetType, AssetMetricsTool.STAGE_CLEAR);
+            log.info("✅ {}导入准备完成", label);
+
+            // 步骤3：流式读取Excel文件（不限制行数），解析结果封存到检查点
+            AssetImportListener<V> listener = spec.newListener(openSpillStore(assetType, checkpoint));
             log.info("📖 开始读取Excel文件内容...");
-            EasyExcel.read(file.getInputStream(), DataContentAssetExcelVO.class, listener)
+            stage = assetMetricsTool.start();
+            EasyExcel.read(file.getInputStream(), spec.head(), listener)
                     .sheet()
                     .headRowNumber(2) // 跳过表头行
                     .doRead();
-            log.info("📊 Excel文件读取完成，有效数据: {}条，错误数据: {}条",
-                    listener.getValidDataList().size(), listener.getErrorDataList().size());
-
-            // 🆕 步骤5：批量保存有效数据并同步省市信息
-            if (!listener.getValidDataList().isEmpty()) {
-                log.info("💾 开始批量保存数据内容资产数据并同步省市信息...");
-                // 🆕 调用新的批量保存方法（支持省市自动填充和上报单位表同步）
-                // 🆕 新增：转换ExcelVO为实体
-                List<DataContentAsset> entities = convertToDataContentEntities(listener.getValidDataList());
-                dataContentAssetService.batchSaveForImport(entities);
-                log.info("✅ 数据内容资产导入成功保存{}条数据，省市信息同步完成", listener.getValidDataList().size());
+            assetMetricsTool.stopStage(stage, assetType, AssetMetricsTool.STAGE_PARSE);
+            List<V> validDataList = listener.getValidDataList();
+            List<ExcelErrorVO> errorDataList = listener.getErrorDataList();
+            countParsedRows(assetType, validDataList.size(), errorDataList.size());
+            checkpoint.seal(validDataList, errorDataList);
+            log.info("📊 Excel文件读取完成，有效数据: {}条，错误数据: {}条", validDataList.size(), errorDataList.size());
+
+            // 步骤4：分块转换ExcelVO为实体并保存（每块asset.import.save-chunk-size行），batchSaveForImport同步省市与上报单位
+            if (!validDataList.isEmpty()) {
+                log.info("💾 开始批量保存{}数据并同步省市信息...", label);
+                saveInChunks(assetType, validDataList, spec.converter(), spec.saver(), checkpoint);
+                log.info("✅ {}导入成功保存{}条数据，上报单位同步已转入后台", label, validDataList.size());
             } else {
-                log.info("ℹ️ 数据内容资产导入无有效数据需要保存");
+                log.info("ℹ️ {}导入无有效数据需要保存", label);
             }
 
+            // 步骤5：发布：暂存表原子替换正式表，失败时正式数据保持不变（清空模式下无操作）
+            stage = assetMetricsTool.start();
+            generation.publish();
+            assetMetricsTool.stopStage(stage, assetType, AssetMetricsTool.STAGE_SWAP);
+            checkpoint.complete();
+
             // 步骤6：构建并返回完整的导入结果
-            ImportResult result = buildImportResult(listener, "数据内容资产");
-            log.info("🎉 数据内容资产清空再导入流程完成");
+            ImportResult result = buildImportResult(validDataList, errorDataList, label);
+            success = true;
+            log.info("🎉 {}清空再导入流程完成", label);
+            return result;
+
+        } catch (Exception e) {
+            log.error("❌ {}导入失败: {}", label, e.getMessage(), e);
+            return buildCheckpointErrorResult(label + "导入失败: " + e.getMessage(), e, checkpoint, generation);
+        } finally {
+            if (generation != null) {
+                generation.close();
+            }
+            if (checkpoint != null) {
+                checkpoint.release();
+            }
+            assetMetricsTool.stopImport(total, assetType, success);
+        }
+    }
+
+    /**
+     * 按资产类型取导入配置（单类导入、续传、批量导入共用）
+     *
+     * @throws IllegalArgumentException 不支持的资产类型
+     */
+    private AssetImportSpec<?, ?> assetImportSpec(String assetType) {
+        return switch (assetType) {
+            case ASSET_TYPE_SOFTWARE -> new AssetImportSpec<>(ASSET_TYPE_SOFTWARE, "软件资产", SoftwareAssetExcelVO.class,
+                    spillStore -> new SoftwareAssetExcelListener(new HashMap<>(), spillStore),
+                    this::convertToSoftwareEntities, softwareAssetService::batchSaveForImport,
+                    softwareAssetService::clearSoftwareTableAndResetStatus);
+            case ASSET_TYPE_CYBER -> new AssetImportSpec<>(ASSET_TYPE_CYBER, "网信资产", CyberAssetExcelVO.class,
+                    spillStore -> new CyberAssetExcelListener(new HashMap<>(), spillStore),
+                    this::convertToCyberEntities, cyberAssetService::batchSaveForImport,
+                    cyberAssetService::clearCyberTableAndResetStatus);
+            case ASSET_TYPE_DATA_CONTENT -> new AssetImportSpec<>(ASSET_TYPE_DATA_CONTENT, "数据内容资产", DataContentAssetExcelVO.class,
+                    spillStore -> new DataContentAssetExcelListener(new HashMap<>(), spillStore),
+                    this::convertToDataContentEntities, dataContentAssetService::batchSaveForImport,
+                    dataContentAssetService::clearDataContentTableAndResetStatus);
+            default -> throw new IllegalArgumentException("不支持的资产类型: " + assetType);
+        };
+    }
+
+    /**
+     * 一类资产的导入配置
+     *
+     * @param label           结果与日志中的资产名称
+     * @param head            Excel VO类型（决定表头）
+     * @param listenerFactory 按暂存文件创建监听器（传入空Map：表已清空或写入新暂存表，无需检查数据库重复）
+     * @param converter       ExcelVO到实体的转换
+     * @param saver           批量保存并同步省市（batchSaveForImport）
+     * @param legacyClear     清空模式下清空资产表并重置上报单位表状态
+     */
+    private record AssetImportSpec<V, E>(String assetType, String label, Class<V> head,
+                                         Function<ImportSpillStore, AssetImportListener<V>> listenerFactory,
+                                         Function<List<V>, List<E>> converter, Consumer<List<E>> saver,
+                                         Runnable legacyClear) {
+
+        AssetImportListener<V> newListener(ImportSpillStore spillStore) {
+            return listenerFactory.apply(spillStore);
+        }
+    }
+
+    // ============================ 批量导入（多工作表 / 压缩包） ============================
+
+    /**
+     * 续传失败的全量导入 - 从最后提交的分块继续
+
+     * 🆕 处理流程：
+     * 1. 认领检查点（FAILED，或实例中途退出后超时的RUNNING）→ 2. 暂存模式下沿用保留的暂存表并还原已缓存的事件，
+     *    清空模式下不再清空正式表 → 3. 读取上次解析完成后保存的有效数据与错误数据（不重新解析、校验）
+     * → 4. 从已提交的行继续分块保存 → 5. 发布（与首次导入相同）
+     * 上次在解析阶段中断（没有已保存的解析结果）时，从内容存储重新读取原文件解析，跳过已提交的行
+
+     * 再次失败时检查点仍可续传；暂存表已不存在或导入模式已变更时检查点放弃，需重新导入；
+     * 同类资产开始新的全量导入后旧检查点作废
+     *
+     * @param importId 导入失败时结果中返回的导入编号
+     * @return ImportResult 完整导入结果（统计包含此前已提交的行）
+     */
+    @PostMapping("/resume/{importId}")
+    public ImportResult resumeImport(@PathVariable String importId) {
+        log.info("🚀 开始续传导入 - 导入编号: {}", importId);
+        Timer.Sample total = assetMetricsTool.start();
+        boolean success = false;
+        String assetType = ASSET_TYPE_RESUME;
+        ImportCheckpointTool.Checkpoint checkpoint = null;
+        ImportStagingTool.Generation generation = null;
+        try {
+            // 步骤1：认领检查点
+            checkpoint = importCheckpointTool.resume(importId);
+            assetType = checkpoint.getAssetType();
+
+            // 步骤2：继续导入代（不重建暂存表、不清空正式表）
+            Timer.Sample stage = assetMetricsTool.start();
+            generation = importStagingTool.resume(assetType, checkpoint.isStaged(), checkpoint.getDeferredEvents());
+            assetMetricsTool.stopStage(stage, assetType, AssetMetricsTool.STAGE_CLEAR);
+
+            // 步骤3、4：读取已保存的解析结果并从已提交的行继续保存
+            ImportSpillStore sealed = registerSpillStore(checkpoint.openSealedSpillStore());
+            ImportResult result = resumeAsset(assetImportSpec(assetType), checkpoint, sealed);
+
+            // 步骤5：发布
+            stage = assetMetricsTool.start();
+            generation.publish();
+            assetMetricsTool.stopStage(stage, assetType, AssetMetricsTool.STAGE_SWAP);
+            checkpoint.complete();
+            success = true;
+            log.info("🎉 续传导入完成 - 导入编号: {}（{}）", importId, assetType);
             return result;
 
         } catch (Exception e) {
-            log.error("❌ 数据内容资产导入失败: {}", e.getMessage(), e);
-            return buildErrorResult("数据内容资产导入失败: " + e.getMessage());
+            log.error("❌ 续传导入失败 - 导入编号: {}，{}", importId, e.getMessage(), e);
+            return buildCheckpointErrorResult("续传导入失败: " + e.getMessage(), e, checkpoint, generation);
+        } finally {
+            if (generation != null) {
+                generation.close();
+            }
+            if (checkpoint != null) {
+                checkpoint.release();
+            }
+            assetMetricsTool.stopImport(total, assetType, success);
+        }
+    }
+
+    /**
+     * 续传一类资产：读取已保存的解析结果（没有时重新解析原文件并封存），从已提交的行继续分块保存
+     *
+     * @param sealed 上次解析完成后保存的暂存文件，解析阶段中断时为null
+     */
+    private <V, E> ImportResult resumeAsset(AssetImportSpec<V, E> spec, ImportCheckpointTool.Checkpoint checkpoint,
+                                            ImportSpillStore sealed) throws IOException {
+        List<V> validDataList;
+        List<ExcelErrorVO> errorDataList;
+        if (sealed != null) {
+            validDataList = sealed.sealedList(0, spec.head());
+            errorDataList = sealed.sealedList(1, ExcelErrorVO.class);
+        } else {
+            AssetImportListener<V> listener = spec.newListener(openSpillStore(spec.assetType(), checkpoint));
+            readUploadedFile(checkpoint, spec.head(), listener);
+            validDataList = listener.getValidDataList();
+            errorDataList = listener.getErrorDataList();
+            checkpoint.seal(validDataList, errorDataList);
         }
+        saveInChunks(spec.assetType(), validDataList, spec.converter(), spec.saver(), checkpoint);
+        return buildImportResult(validDataList, errorDataList, spec.label());
+    }
+
+    /**
+     * 续传时重新解析内容存储中的原文件（上次在解析阶段中断，没有已保存的解析结果）
+     */
+    private <T> void readUploadedFile(ImportCheckpointTool.Checkpoint checkpoint, Class<T> head,
+                                      ReadListener<T> listener) throws IOException {
+        Timer.Sample stage = assetMetricsTool.start();
+        try (InputStream inputStream = checkpoint.openUploadedFile()) {
+            EasyExcel.read(inputStream, head, listener)
+                    .sheet()
+                    .headRowNumber(2) // 跳过表头行
+                    .doRead();
+        }
+        assetMetricsTool.stopStage(stage, checkpoint.getAssetType(), AssetMetricsTool.STAGE_PARSE);
+    }
+
+    /**
+     * 批量导入三类资产 - 一个文件完成全量刷新
+
+     * 支持的文件：
+     * - 多工作表Excel：按工作表名称识别资产类型（包含“软件”/“网信”/“数据内容”，与各导入模板的工作表名一致）
+     * - zip压缩包：内含各类资产的Excel文件（读取第一个工作表），按文件名识别资产类型（中文名称或software/cyber/data_content）
+     * 每类资产最多一个工作表/文件，无法识别的忽略
+
+     * 🆕 处理流程：
+     * 1. 识别资产类型 → 2. 各类型在bulkImportExecutor上并行：解析、校验、转换、写入暂存表
+     * → 3. 全部成功后一条RENAME TABLE同时替换，三类资产的上报单位同步合并为一次（后台分发）
+     * 任一类型失败时全部暂存表删除，正式数据保持不变
+
+     * 注意：清空模式（asset.import.staging-swap=false）下各类型开始时即清空正式表，失败无法回退，
+     * 上报单位同步也按类型分别登记
+     *
+     * @param file 多工作表Excel或zip压缩包（最大100MB）
+     * @return 按资产类型（software/cyber/dataContent）组织的导入结果
+     */
+    @PostMapping("/bulk")
+    @SuppressWarnings("try")
+    public ResultVO<Map<String, ImportResult>> importBulk(@RequestParam("file") MultipartFile file) {
+        log.info("🚀 开始批量导入 - 文件名: {}，文件大小: {} bytes",
+                file.getOriginalFilename(), file.getSize());
+        Timer.Sample total = assetMetricsTool.start();
+        boolean success = false;
+        List<BulkOutcome> outcomes = new ArrayList<>();
+        Path workDirectory = null;
+        try {
+            // 步骤1：识别各资产类型的工作表/文件（上传文件与压缩包内的Excel逐个写入本次导入的临时目录，不在堆上整体缓存）
+            Files.createDirectories(importSpillSettings.getDirectory());
+            workDirectory = Files.createTempDirectory(importSpillSettings.getDirectory(), "bulk-");
+            List<BulkPart> parts = resolveBulkParts(file, workDirectory);
+            log.info("📦 批量导入识别到{}类资产: {}", parts.size(),
+                    parts.stream().map(part -> part.assetType() + "←" + part.source()).collect(Collectors.joining("，")));
+
+            // 步骤2：各类型并行解析并写入暂存表（请求的SQL统计范围挂载到工作线程）
+            List<SqlStatementContext.Scope> sqlScopes = SqlStatementContext.capture();
+            List<CompletableFuture<BulkOutcome>> futures = new ArrayList<>();
+            for (BulkPart part : parts) {
+                // 暂存文件在请求线程上创建，随请求结束删除
+                ImportSpillStore spillStore = openSpillStore(part.assetType());
+                futures.add(CompletableFuture.supplyAsync(() -> {
+                    try (SqlStatementContext.Attachment ignored = SqlStatementContext.attach(sqlScopes)) {
+                        return importBulkPart(assetImportSpec(part.assetType()), part, spillStore);
+                    }
+                }, bulkImportExecutor));
+            }
+            // 等待全部类型结束再判断成败，确保每个成功类型的暂存表都由本线程收尾
+            RuntimeException failure = null;
+            for (CompletableFuture<BulkOutcome> future : futures) {
+                try {
+                    outcomes.add(future.join());
+                } catch (CompletionException e) {
+                    if (failure == null) {
+                        failure = e.getCause() instanceof RuntimeException cause ? cause : e;
+                    }
+                }
+            }
+            if (failure != null) {
+                throw failure;
+            }
+
+            // 步骤3：统一发布：一次替换全部暂存表，一次登记上报单位同步
+            Timer.Sample stage = assetMetricsTool.start();
+            importStagingTool.publishAll(outcomes.stream().map(BulkOutcome::generation).toList());
+            assetMetricsTool.stopStage(stage, ASSET_TYPE_BULK, AssetMetricsTool.STAGE_SWAP);
+
+            Map<String, ImportResult> results = new LinkedHashMap<>();
+            outcomes.forEach(outcome -> results.put(outcome.assetType(), outcome.result()));
+            success = true;
+            log.info("🎉 批量导入完成，共{}类资产", results.size());
+            return ResultVO.success(results, "批量导入完成，共导入" + results.size() + "类资产");
+
+        } catch (Exception e) {
+            log.error("❌ 批量导入失败: {}", e.getMessage(), e);
+            return ResultVO.fail("批量导入失败: " + e.getMessage());
+        } finally {
+            // 已发布的导入代close无操作；未发布的删除暂存表
+            outcomes.forEach(outcome -> outcome.generation().close());
+            deleteWorkDirectory(workDirectory);
+            assetMetricsTool.stopImport(total, ASSET_TYPE_BULK, success);
+        }
+    }
+
+    /**
+     * 在工作线程上导入一类资产：开始导入代 → 解析 → 分块转换并写入暂存表，结束时卸下本线程的暂存范围（等待统一发布）
+     */
+    private <V, E> BulkOutcome importBulkPart(AssetImportSpec<V, E> spec, BulkPart part, ImportSpillStore spillStore) {
+        String assetType = spec.assetType();
+        Timer.Sample stage = assetMetricsTool.start();
+        ImportStagingTool.Generation generation = importStagingTool.begin(assetType, spec.legacyClear());
+        assetMetricsTool.stopStage(stage, assetType, AssetMetricsTool.STAGE_CLEAR);
+        try {
+            // 批量导入不记录检查点；暂存表已重建（或正式表已清空），该类资产此前失败的导入不再可续传
+            importCheckpointTool.abandonUnfinished(assetType);
+            AssetImportListener<V> listener = spec.newListener(spillStore);
+            readBulkPart(part, spec.head(), listener);
+            List<V> validDataList = listener.getValidDataList();
+            List<ExcelErrorVO> errorDataList = listener.getErrorDataList();
+            saveInChunks(assetType, validDataList, spec.converter(), spec.saver());
+            countParsedRows(assetType, validDataList.size(), errorDataList.size());
+            ImportResult result = buildImportResult(validDataList, errorDataList, spec.label());
+            generation.detach();
+            log.info("✅ 批量导入 - {}（{}）已写入，等待统一发布", assetType, part.source());
+            return new BulkOutcome(assetType, generation, result);
+        } catch (RuntimeException e) {
+            generation.close();
+            throw new RuntimeException(part.source() + "导入失败: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 有效数据分块转换并保存：每块一次batchSaveForImport，堆上同时只保留一块实体
+     * 暂存模式下各块都写入同一暂存表、发件箱事件统一在发布时登记；清空模式下每块单独提交
+     */
+    private <V, E> void saveInChunks(String assetType, List<V> validDataList,
+                                     Function<List<V>, List<E>> converter, Consumer<List<E>> saver) {
+        saveInChunks(assetType, validDataList, converter, saver, null);
+    }
+
+    /**
+     * 分块保存并记录检查点：从已提交的行继续，每块的资产行与提交进度同一事务提交
+     *
+     * @param checkpoint 可续传导入的检查点，为null时不记录进度
+     */
+    private <V, E> void saveInChunks(String assetType, List<V> validDataList,
+                                     Function<List<V>, List<E>> converter, Consumer<List<E>> saver,
+                                     ImportCheckpointTool.Checkpoint checkpoint) {
+        int chunkSize = importSpillSettings.getSaveChunkSize();
+        int start = checkpoint == null ? 0 : checkpoint.getCommittedRows();
+        for (int from = start; from < validDataList.size(); from += chunkSize) {
+            int to = Math.min(from + chunkSize, validDataList.size());
+            List<V> chunk = validDataList.subList(from, to);
+            Timer.Sample stage = assetMetricsTool.start();
+            List<E> entities = converter.apply(chunk);
+            assetMetricsTool.stopStage(stage, assetType, AssetMetricsTool.STAGE_CONVERT);
+
+            stage = assetMetricsTool.start();
+            if (checkpoint == null) {
+                saver.accept(entities);
+            } else {
+                checkpoint.commitChunk(to, () -> saver.accept(entities));
+            }
+            assetMetricsTool.stopStage(stage, assetType, AssetMetricsTool.STAGE_BATCH_SAVE);
+        }
+    }
+
+    /**
+     * 为本次请求创建导入暂存文件，请求结束（响应写出）后删除；未开启暂存时返回null
+     */
+    private ImportSpillStore openSpillStore(String assetType) throws IOException {
+        return registerSpillStore(importSpillSettings.open(assetType));
+    }
+
+    /**
+     * 可续传导入的暂存文件建在检查点目录下（失败时保留，供续传读取）；未开启续传时同openSpillStore
+     */
+    private ImportSpillStore openSpillStore(String assetType, ImportCheckpointTool.Checkpoint checkpoint) throws IOException {
+        if (!checkpoint.isEnabled()) {
+            return openSpillStore(assetType);
+        }
+        return registerSpillStore(checkpoint.createSpillStore());
+    }
+
+    /**
+     * 请求结束（响应写出）后关闭暂存文件：删除文件，续传需要时（retainFile）保留
+     */
+    private ImportSpillStore registerSpillStore(ImportSpillStore store) {
+        if (store != null) {
+            RequestContextHolder.currentRequestAttributes().registerDestructionCallback(
+                    "importSpillStore:" + store.getFile(), store::close, RequestAttributes.SCOPE_REQUEST);
+        }
+        return store;
+    }
+
+    /**
+     * 读取批量导入中的一类资产：按文件头识别Excel格式后显式指定（不交给EasyExcel猜测，
+     * 无法识别的内容会被当作CSV读出0行而“成功”），文件头不是xlsx/xls或工作表没有表头时拒绝
+     *
+     * @throws IllegalArgumentException 内容不是有效的Excel文件或缺少表头
+     */
+    private <T> void readBulkPart(BulkPart part, Class<T> head, ReadListener<T> listener) {
+        Timer.Sample stage = assetMetricsTool.start();
+        HeadCountingListener<T> counting = new HeadCountingListener<>(listener);
+        try (InputStream inputStream = new BufferedInputStream(Files.newInputStream(part.file()))) {
+            EasyExcel.read(inputStream, head, counting)
+                    .excelType(detectExcelType(inputStream, part.source()))
+                    .sheet(part.sheetNo())
+                    .headRowNumber(2) // 跳过表头行
+                    .doRead();
+        } catch (IOException e) {
+            throw new RuntimeException("读取失败：" + part.source(), e);
+        }
+        if (counting.getHeadRows() == 0) {
+            throw new IllegalArgumentException(part.source() + "缺少表头，请使用导入模板");
+        }
+        assetMetricsTool.stopStage(stage, part.assetType(), AssetMetricsTool.STAGE_PARSE);
+    }
+
+    /**
+     * 按文件头识别Excel格式：xlsx为zip容器（PK\3\4），xls为OLE2复合文档；读取后回退到流的开头
+     *
+     * @throws IllegalArgumentException 文件头既不是xlsx也不是xls
+     */
+    private static ExcelTypeEnum detectExcelType(InputStream inputStream, String source) throws IOException {
+        inputStream.mark(XLS_MAGIC.length);
+        byte[] header = inputStream.readNBytes(XLS_MAGIC.length);
+        inputStream.reset();
+        if (startsWith(header, XLSX_MAGIC)) {
+            return ExcelTypeEnum.XLSX;
+        }
+        if (startsWith(header, XLS_MAGIC)) {
+            return ExcelTypeEnum.XLS;
+        }
+        throw new IllegalArgumentException(source + "不是有效的Excel文件（.xlsx/.xls）");
+    }
+
+    private static boolean startsWith(byte[] header, byte[] magic) {
+        return header.length >= magic.length && Arrays.equals(header, 0, magic.length, magic, 0, magic.length);
+    }
+
+    /**
+     * 统计表头行数并转交给资产监听器：表头行数为0说明工作表为空或不是导入模板
+     */
+    private static class HeadCountingListener<T> implements ReadListener<T> {
+
+        private final ReadListener<T> delegate;
+
+        private int headRows;
+
+        HeadCountingListener(ReadListener<T> delegate) {
+            this.delegate = delegate;
+        }
+
+        int getHeadRows() {
+            return headRows;
+        }
+
+        @Override
+        public void onException(Exception exception, AnalysisContext context) throws Exception {
+            delegate.onException(exception, context);
+        }
+
+        @Override
+        public void invokeHead(Map<Integer, ReadCellData<?>> headMap, AnalysisContext context) {
+            headRows++;
+            delegate.invokeHead(headMap, context);
+        }
+
+        @Override
+        public void invoke(T data, AnalysisContext context) {
+            delegate.invoke(data, context);
+        }
+
+        @Override
+        public void extra(CellExtra extra, AnalysisContext context) {
+            delegate.extra(extra, context);
+        }
+
+        @Override
+        public void doAfterAllAnalysed(AnalysisContext context) {
+            delegate.doAfterAllAnalysed(context);
+        }
+
+        @Override
+        public boolean hasNext(AnalysisContext context) {
+            return delegate.hasNext(context);
+        }
+    }
+
+    /**
+     * 记录解析出的有效/错误行数
+     */
+    private void countParsedRows(String assetType, int valid, int error) {
+        assetMetricsTool.countRows(assetType, "valid", valid);
+        assetMetricsTool.countRows(assetType, "error", error);
+    }
+
+    /**
+     * 识别批量导入文件中的各类资产，按软件、网信、数据内容的顺序返回（与分别导入的顺序一致，决定同一单位省份的覆盖顺序）
+     * 各部分的Excel内容写入workDirectory下的临时文件（压缩包逐个条目流式解压），由调用方在导入结束后删除
+     *
+     * @throws IllegalArgumentException 文件格式不支持、同一类资产出现多次或未识别到任何资产
+     */
+    private List<BulkPart> resolveBulkParts(MultipartFile file, Path workDirectory) throws IOException {
+        validateFile(file, BULK_EXTENSIONS, "批量导入只支持多工作表的Excel文件或.zip压缩包");
+        String filename = file.getOriginalFilename().toLowerCase();
+
+        Map<String, BulkPart> parts = new HashMap<>();
+        if (filename.endsWith(".zip")) {
+            long remaining = bulkMaxUnzippedMb * 1024 * 1024;
+            int index = 0;
+            try (ZipInputStream zip = new ZipInputStream(new BufferedInputStream(file.getInputStream()))) {
+                ZipEntry entry;
+                while ((entry = zip.getNextEntry()) != null) {
+                    String entryName = entry.getName();
+                    String lowerName = entryName.toLowerCase();
+                    if (entry.isDirectory() || (!lowerName.endsWith(".xlsx") && !lowerName.endsWith(".xls"))) {
+                        continue;
+                    }
+                    String baseName = entryName.substring(entryName.lastIndexOf('/') + 1);
+                    String assetType = resolveBulkAssetType(baseName);
+                    if (assetType == null) {
+                        log.warn("⚠️ 批量导入忽略无法识别资产类型的文件: {}", entryName);
+                        continue;
+                    }
+                    Path entryFile = workDirectory.resolve("entry-" + (index++));
+                    remaining -= copyAtMost(zip, entryFile, remaining);
+                    if (remaining < 0) {
+                        throw new IllegalArgumentException("压缩包解压后超过" + bulkMaxUnzippedMb + "MB");
+                    }
+                    addBulkPart(parts, new BulkPart(assetType, baseName, entryFile, 0));
+                }
+            }
+        } else {
+            Path content = workDirectory.resolve("workbook");
+            try (InputStream inputStream = file.getInputStream()) {
+                Files.copy(inputStream, content);
+            }
+            List<ReadSheet> sheets;
+            try (ExcelReader reader = EasyExcel.read(content.toFile()).build()) {
+                sheets = reader.excelExecutor().sheetList();
+            }
+            for (ReadSheet sheet : sheets) {
+                String assetType = resolveBulkAssetType(sheet.getSheetName());
+                if (assetType == null) {
+                    log.warn("⚠️ 批量导入忽略无法识别资产类型的工作表: {}", sheet.getSheetName());
+                    continue;
+                }
+                addBulkPart(parts, new BulkPart(assetType, "工作表[" + sheet.getSheetName() + "]", content, sheet.getSheetNo()));
+            }
+        }
+        if (parts.isEmpty()) {
+            throw new IllegalArgumentException("未识别到资产数据：工作表名或文件名需包含“软件”“网信”或“数据内容”");
+        }
+        List<BulkPart> ordered = new ArrayList<>();
+        for (String assetType : List.of(ASSET_TYPE_SOFTWARE, ASSET_TYPE_CYBER, ASSET_TYPE_DATA_CONTENT)) {
+            if (parts.containsKey(assetType)) {
+                ordered.add(parts.get(assetType));
+            }
+        }
+        return ordered;
+    }
+
+    /**
+     * 把压缩包当前条目写入文件，最多写入limit+1字节（超过上限即停止，不解压剩余内容）
+     *
+     * @return 写入的字节数，大于limit表示条目超过剩余的解压配额
+     */
+    private static long copyAtMost(InputStream inputStream, Path target, long limit) throws IOException {
+        long copied = 0;
+        byte[] buffer = new byte[64 * 1024];
+        try (OutputStream outputStream = Files.newOutputStream(target)) {
+            int read;
+            while (copied <= limit && (read = inputStream.read(buffer, 0, (int) Math.min(buffer.length, limit + 1 - copied))) != -1) {
+                outputStream.write(buffer, 0, read);
+                copied += read;
+            }
+        }
+        return copied;
+    }
+
+    /**
+     * 删除批量导入的临时目录（各部分的Excel临时文件）
+     */
+    private static void deleteWorkDirectory(Path workDirectory) {
+        if (workDirectory == null) {
+            return;
+        }
+        try {
+            FileSystemUtils.deleteRecursively(workDirectory);
+        } catch (IOException e) {
+            log.warn("⚠️ 批量导入临时目录删除失败: {}，{}", workDirectory, e.getMessage());
+        }
+    }
+
+    private static void addBulkPart(Map<String, BulkPart> parts, BulkPart part) {
+        BulkPart existing = parts.putIfAbsent(part.assetType(), part);
+        if (existing != null) {
+            throw new IllegalArgumentException("同一类资产出现多次：" + existing.source() + "、" + part.source());
+        }
+    }
+
+    /**
+     * 按工作表名/文件名识别资产类型，无法识别返回null
+     */
+    private static String resolveBulkAssetType(String name) {
+        String lowerName = name == null ? "" : name.toLowerCase();
+        if (lowerName.contains("软件") || lowerName.contains("software")) {
+            return ASSET_TYPE_SOFTWARE;
+        }
+        if (lowerName.contains("网信") || lowerName.contains("cyber")) {
+            return ASSET_TYPE_CYBER;
+        }
+        if (lowerName.contains("数据内容") || lowerName.contains("data_content") || lowerName.contains("data-content")) {
+            return ASSET_TYPE_DATA_CONTENT;
+        }
+        return null;
+    }
+
+    /**
+     * 批量导入中的一类资产：来源描述（工作表名或压缩包内文件名）、Excel临时文件与工作表序号
+     */
+    private record BulkPart(String assetType, String source, Path file, int sheetNo) {
+    }
+
+    /**
+     * 一类资产的加载结果：待发布的导入代与该类型的导入结果
+     */
+    private record BulkOutcome(String assetType, ImportStagingTool.Generation generation, ImportResult result) {
     }
 
     // ============================ 模板下载方法（使用现有模板文件） ============================
@@ -327,7 +958,7 @@ public class AssetImportController {
      * 下载软件资产导入模板 - 使用现有模板文件
 
      * 功能说明：
-     * - 从静态资源目录读取现有的软件资产模板文件
+     * - 模板文件启动时载入内存，下载时直接输出，支持ETag/Last-Modified条件请求（未变化返回304）
      * - 直接返回完整的模板文件，包含示例数据、格式和样式
      * - 支持中文文件名编码，确保下载文件名为中文
 
@@ -335,48 +966,22 @@ public class AssetImportController {
      * - 源文件：src/main/resources/templates/software_asset_template.xlsx
      * - 打包后：BOOT-INF/classes/templates/software_asset_template.xlsx
      *
+     * @param request  HTTP请求对象，用于读取If-None-Match/If-Modified-Since
      * @param response HTTP响应对象，用于设置下载头信息
      * @throws RuntimeException 当模板文件不存在或读取失败时抛出
      *
      * @apiNote 请确保模板文件存在于指定路径，否则会抛出异常
      */
     @GetMapping("/template/software")
-    public void downloadSoftwareTemplate(HttpServletResponse response) {
-        String filename = "软件资产导入模板.xlsx";
-        try {
-            // 设置响应头，触发浏览器下载
-            setExcelResponseHeader(response, filename);
-
-            // 从classpath读取现有的模板文件
-            Resource resource = new ClassPathResource(SOFTWARE_TEMPLATE_PATH);
-
-            // 检查模板文件是否存在
-            if (!resource.exists()) {
-                log.error("软件资产模板文件不存在: {}", SOFTWARE_TEMPLATE_PATH);
-                throw new RuntimeException("软件资产模板文件不存在，请联系管理员");
-            }
-
-            log.info("开始读取软件资产模板文件: {}", SOFTWARE_TEMPLATE_PATH);
-
-            // 将模板文件流写入响应输出流
-            try (InputStream inputStream = resource.getInputStream()) {
-                long bytesCopied = StreamUtils.copy(inputStream, response.getOutputStream());
-                log.info("软件资产模板文件下载完成: {}，文件大小: {} bytes", filename, bytesCopied);
-            }
-
-            log.info("软件资产导入模板下载成功: {}", filename);
-
-        } catch (Exception e) {
-            log.error("软件资产模板下载失败: {}", e.getMessage(), e);
-            throw new RuntimeException("软件资产模板下载失败: " + e.getMessage());
-        }
+    public void downloadSoftwareTemplate(HttpServletRequest request, HttpServletResponse response) {
+        writeTemplate(request, response, templateFileCache.get(SOFTWARE_TEMPLATE_PATH), "软件资产导入模板.xlsx", "软件资产");
     }
 
     /**
      * 下载网信资产导入模板 - 使用现有模板文件
 
      * 功能说明：
-     * - 从静态资源目录读取现有的网信资产模板文件
+     * - 模板文件启动时载入内存，下载时直接输出，支持ETag/Last-Modified条件请求（未变化返回304）
      * - 直接返回完整的模板文件，包含示例数据、格式和样式
      * - 支持中文文件名编码，确保下载文件名为中文
 
@@ -384,48 +989,22 @@ public class AssetImportController {
      * - 源文件：src/main/resources/templates/cyber_asset_template.xlsx
      * - 打包后：BOOT-INF/classes/templates/cyber_asset_template.xlsx
      *
+     * @param request  HTTP请求对象，用于读取If-None-Match/If-Modified-Since
      * @param response HTTP响应对象，用于设置下载头信息
      * @throws RuntimeException 当模板文件不存在或读取失败时抛出
      *
      * @apiNote 请确保模板文件存在于指定路径，否则会抛出异常
      */
     @GetMapping("/template/cyber")
-    public void downloadCyberTemplate(HttpServletResponse response) {
-        String filename = "网信资产导入模板.xlsx";
-        try {
-            // 设置响应头，触发浏览器下载
-            setExcelResponseHeader(response, filename);
-
-            // 从classpath读取现有的模板文件
-            Resource resource = new ClassPathResource(CYBER_TEMPLATE_PATH);
-
-            // 检查模板文件是否存在
-            if (!resource.exists()) {
-                log.error("网信资产模板文件不存在: {}", CYBER_TEMPLATE_PATH);
-                throw new RuntimeException("网信资产模板文件不存在，请联系管理员");
-            }
-
-            log.info("开始读取网信资产模板文件: {}", CYBER_TEMPLATE_PATH);
-
-            // 将模板文件流写入响应输出流
-            try (InputStream inputStream = resource.getInputStream()) {
-                long bytesCopied = StreamUtils.copy(inputStream, response.getOutputStream());
-                log.info("网信资产模板文件下载完成: {}，文件大小: {} bytes", filename, bytesCopied);
-            }
-
-            log.info("网信资产导入模板下载成功: {}", filename);
-
-        } catch (Exception e) {
-            log.error("网信资产模板下载失败: {}", e.getMessage(), e);
-            throw new RuntimeException("网信资产模板下载失败: " + e.getMessage());
-        }
+    public void downloadCyberTemplate(HttpServletRequest request, HttpServletResponse response) {
+        writeTemplate(request, response, templateFileCache.get(CYBER_TEMPLATE_PATH), "网信资产导入模板.xlsx", "网信资产");
     }
 
     /**
      * 下载数据内容资产导入模板 - 使用现有模板文件
 
      * 功能说明：
-     * - 从静态资源目录读取现有的数据内容资产模板文件
+     * - 模板文件启动时载入内存，下载时直接输出，支持ETag/Last-Modified条件请求（未变化返回304）
      * - 直接返回完整的模板文件，包含示例数据、格式和样式
      * - 支持中文文件名编码，确保下载文件名为中文
 
@@ -433,40 +1012,88 @@ public class AssetImportController {
      * - 源文件：src/main/resources/templates/data_content_asset_template.xlsx
      * - 打包后：BOOT-INF/classes/templates/data_content_asset_template.xlsx
      *
+     * @param request  HTTP请求对象，用于读取If-None-Match/If-Modified-Since
      * @param response HTTP响应对象，用于设置下载头信息
      * @throws RuntimeException 当模板文件不存在或读取失败时抛出
      *
      * @apiNote 请确保模板文件存在于指定路径，否则会抛出异常
      */
     @GetMapping("/template/data-content")
-    public void downloadDataContentTemplate(HttpServletResponse response) {
-        String filename = "数据内容资产导入模板.xlsx";
-        try {
-            // 设置响应头，触发浏览器下载
-            setExcelResponseHeader(response, filename);
+    public void downloadDataContentTemplate(HttpServletRequest request, HttpServletResponse response) {
+        writeTemplate(request, response, templateFileCache.get(DATA_CONTENT_TEMPLATE_PATH), "数据内容资产导入模板.xlsx", "数据内容资产");
+    }
 
-            // 从classpath读取现有的模板文件
-            Resource resource = new ClassPathResource(DATA_CONTENT_TEMPLATE_PATH);
+    /**
+     * 下载生成式导入模板（带下拉校验）
 
-            // 检查模板文件是否存在
-            if (!resource.exists()) {
-                log.error("数据内容资产模板文件不存在: {}", DATA_CONTENT_TEMPLATE_PATH);
-                throw new RuntimeException("数据内容资产模板文件不存在，请联系管理员");
+     * 功能说明：
+     * - 按导入Excel VO的表头生成空模板，分类编码、资产分类及取得方式等固定选项列带下拉校验
+     * - 选项来自AssetOptionRegistry，与固定选项接口、导入校验一致；首次下载时生成并缓存，支持304
+     *
+     * @param type 资产类型：software / cyber / data-content
+     */
+    @GetMapping("/template/{type}/generated")
+    public void downloadGeneratedTemplate(@PathVariable String type,
+                                          HttpServletRequest request, HttpServletResponse response) {
+        if ("software".equals(type)) {
+            writeTemplate(request, response, assetOptionCatalog.generatedTemplate(AssetOptionRegistry.SOFTWARE, "软件资产"),
+                    "软件资产导入模板.xlsx", "软件资产");
+        } else if ("cyber".equals(type)) {
+            writeTemplate(request, response, assetOptionCatalog.generatedTemplate(AssetOptionRegistry.CYBER, "网信资产"),
+                    "网信资产导入模板.xlsx", "网信资产");
+        } else if ("data-content".equals(type)) {
+            writeTemplate(request, response, assetOptionCatalog.generatedTemplate(AssetOptionRegistry.DATA_CONTENT, "数据内容资产"),
+                    "数据内容资产导入模板.xlsx", "数据内容资产");
+        } else {
+            throw new IllegalArgumentException("不支持的资产类型：" + type + "，可选：software/cyber/data-content");
+        }
+    }
+
+    /**
+     * 启动时预加载三个导入模板，避免首个下载请求读取classpath
+     */
+    @PostConstruct
+    public void preloadTemplates() {
+        for (String location : new String[]{SOFTWARE_TEMPLATE_PATH, CYBER_TEMPLATE_PATH, DATA_CONTENT_TEMPLATE_PATH}) {
+            if (templateFileCache.get(location) == null) {
+                log.warn("⚠️ 导入模板文件不存在，下载接口将返回错误: {}", location);
             }
+        }
+    }
 
-            log.info("开始读取数据内容资产模板文件: {}", DATA_CONTENT_TEMPLATE_PATH);
+    /**
+     * 输出内存中的模板文件（模板文件下载与生成式模板下载共用）
+     * 1. 响应头：ETag（强校验）、Last-Modified、Cache-Control
+     * 2. 条件请求：If-None-Match / If-Modified-Since 命中时返回304，不输出文件内容
+     * 3. 未命中：设置Content-Length后一次写出缓存内容
+     */
+    private void writeTemplate(HttpServletRequest request, HttpServletResponse response,
+                               TemplateFileCache.CachedTemplate template, String filename, String assetTypeName) {
+        try {
+            if (template == null) {
+                log.error("{}模板文件不存在: {}", assetTypeName, filename);
+                throw new RuntimeException(assetTypeName + "模板文件不存在，请联系管理员");
+            }
 
-            // 将模板文件流写入响应输出流
-            try (InputStream inputStream = resource.getInputStream()) {
-                long bytesCopied = StreamUtils.copy(inputStream, response.getOutputStream());
-                log.info("数据内容资产模板文件下载完成: {}，文件大小: {} bytes", filename, bytesCopied);
+            response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl
+                    .maxAge(templateFileCache.getCacheMaxAgeSeconds(), TimeUnit.SECONDS)
+                    .cachePublic()
+                    .mustRevalidate()
+                    .getHeaderValue());
+            if (new ServletWebRequest(request, response).checkNotModified(template.getETag(), template.getLastModified())) {
+                log.debug("{}模板未变化，返回304: {}", assetTypeName, template.getETag());
+                return;
             }
 
-            log.info("数据内容资产导入模板下载成功: {}", filename);
+            // 设置响应头，触发浏览器下载
+            setExcelResponseHeader(response, filename);
+            response.setContentLengthLong(template.getLength());
+            template.writeTo(response.getOutputStream());
+            log.info("{}导入模板下载成功: {}，文件大小: {} bytes", assetTypeName, filename, template.getLength());
 
         } catch (Exception e) {
-            log.error("数据内容资产模板下载失败: {}", e.getMessage(), e);
-            throw new RuntimeException("数据内容资产模板下载失败: " + e.getMessage());
+            log.error("{}模板下载失败: {}", assetTypeName, e.getMessage(), e);
+            throw new RuntimeException(assetTypeName + "模板下载失败: " + e.getMessage());
         }
     }
 
@@ -483,14 +1110,23 @@ public class AssetImportController {
      * @throws IllegalArgumentException 当文件不符合要求时抛出
      */
     private void validateFile(MultipartFile file) {
+        validateFile(file, EXCEL_EXTENSIONS, "只支持.xlsx和.xls格式的Excel文件");
+    }
+
+    /**
+     * 按允许的扩展名校验上传文件（批量导入另外允许.zip压缩包）
+     *
+     * @param extensions    允许的扩展名（小写，含点）
+     * @param formatMessage 扩展名不符时的提示
+     */
+    private void validateFile(MultipartFile file, List<String> extensions, String formatMessage) {
         if (file == null || file.isEmpty()) {
             throw new IllegalArgumentException("上传文件不能为空");
         }
 
         String filename = file.getOriginalFilename();
-        if (filename == null ||
-                (!filename.toLowerCase().endsWith(".xlsx") && !filename.toLowerCase().endsWith(".xls"))) {
-            throw new IllegalArgumentException("只支持.xlsx和.xls格式的Excel文件");
+        if (filename == null || extensions.stream().noneMatch(filename.toLowerCase()::endsWith)) {
+            throw new IllegalArgumentException(formatMessage);
         }
 
         // 100MB文件大小限制（支持大文件导入）
@@ -511,18 +1147,13 @@ public class AssetImportController {
      * 🎯 统计逻辑：
      * - 总行数 = 成功数量 + 错误数量
      * - 只有两种状态：成功 或 错误
+     *
+     * @param validDataList 有效数据（来自监听器；续传时来自检查点的暂存文件）
+     * @param errorDataList 错误数据（来源同上）
+     * @param assetType     结果消息中的资产名称
      */
-    private ImportResult buildImportResult(Object listener, String assetType) {
+    private ImportResult buildImportResult(List<?> validDataList, List<ExcelErrorVO> errorDataList, String assetType) {
         try {
-            // 🆕 通过反射获取监听器的结果数据（支持不同资产类型的监听器）
-            Method getValidDataList = listener.getClass().getMethod("getValidDataList");
-            Method getErrorDataList = listener.getClass().getMethod("getErrorDataList");
-
-            // 🆕 获取处理结果数据
-            List<?> validDataList = (List<?>) getValidDataList.invoke(listener);
-            @SuppressWarnings("unchecked")
-            List<ExcelErrorVO> errorDataList = (List<ExcelErrorVO>) getErrorDataList.invoke(listener);
-
             // 🆕 简化的统计计算
             int totalRows = validDataList.size() + errorDataList.size();
             int successCount = validDataList.size();
@@ -556,8 +1187,8 @@ public class AssetImportController {
             summary.setCriticalErrors(errorCount);
             data.setImportSummary(summary);
 
-            // 设置错误详情
-            data.setErrorDetails(new ArrayList<>(errorDataList));
+            // 设置错误详情（暂存列表直接交给响应序列化，逐条从暂存文件读取）
+            data.setErrorDetails(Collections.unmodifiableList(errorDataList));
 
             // 🆕 移除：不再设置重复详情
             // data.setDuplicateDetails(null);
@@ -598,36 +1229,52 @@ public class AssetImportController {
      * @return List<ImportResult.SuccessRecord> 成功记录列表（无数量限制）
      */
     private List<ImportResult.SuccessRecord> buildSuccessRecords(List<?> validDataList) {
+        // 暂存列表：返回按需转换的视图，响应序列化时逐条读取，不在堆上生成全部成功记录
+        if (validDataList instanceof ImportSpillStore.SpillList) {
+            return new AbstractList<>() {
+                @Override
+                public ImportResult.SuccessRecord get(int index) {
+                    return toSuccessRecord(validDataList.get(index));
+                }
+
+                @Override
+                public int size() {
+                    return validDataList.size();
+                }
+            };
+        }
         return validDataList.stream()
-                .map(validData -> {
-                    ImportResult.SuccessRecord record = new ImportResult.SuccessRecord();
-                    try {
-                        // 根据资产类型设置相应的字段值
-                        if (validData instanceof SoftwareAssetExcelVO softwareVO) {
-                            record.setExcelRowNum(softwareVO.getExcelRowNum());
-                            record.setAssetId(softwareVO.getId());
-                            record.setAssetName(softwareVO.getAssetName());
-                            record.setReportUnit(softwareVO.getReportUnit());
-                        } else if (validData instanceof CyberAssetExcelVO cyberVO) {
-                            record.setExcelRowNum(cyberVO.getExcelRowNum());
-                            record.setAssetId(cyberVO.getId());
-                            record.setAssetName(cyberVO.getAssetName());
-                            record.setReportUnit(cyberVO.getReportUnit());
-                        } else if (validData instanceof DataContentAssetExcelVO dataVO) {
-                            record.setExcelRowNum(dataVO.getExcelRowNum());
-                            record.setAssetId(dataVO.getId());
-                            record.setAssetName(dataVO.getAssetName());
-                            record.setReportUnit(dataVO.getReportUnit());
-                        }
-                    } catch (Exception e) {
-                        // 单条记录转换失败不影响整体，记录警告日志
-                        log.warn("构建成功记录时发生异常: {}", e.getMessage());
-                    }
-                    return record;
-                })
+                .map(this::toSuccessRecord)
                 .collect(Collectors.toList());
     }
 
+    private ImportResult.SuccessRecord toSuccessRecord(Object validData) {
+        ImportResult.SuccessRecord record = new ImportResult.SuccessRecord();
+        try {
+            // 根据资产类型设置相应的字段值
+            if (validData instanceof SoftwareAssetExcelVO softwareVO) {
+                record.setExcelRowNum(softwareVO.getExcelRowNum());
+                record.setAssetId(softwareVO.getId());
+                record.setAssetName(softwareVO.getAssetName());
+                record.setReportUnit(softwareVO.getReportUnit());
+            } else if (validData instanceof CyberAssetExcelVO cyberVO) {
+                record.setExcelRowNum(cyberVO.getExcelRowNum());
+                record.setAssetId(cyberVO.getId());
+                record.setAssetName(cyberVO.getAssetName());
+                record.setReportUnit(cyberVO.getReportUnit());
+            } else if (validData instanceof DataContentAssetExcelVO dataVO) {
+                record.setExcelRowNum(dataVO.getExcelRowNum());
+                record.setAssetId(dataVO.getId());
+                record.setAssetName(dataVO.getAssetName());
+                record.setReportUnit(dataVO.getReportUnit());
+            }
+        } catch (Exception e) {
+            // 单条记录转换失败不影响整体，记录警告日志
+            log.warn("构建成功记录时发生异常: {}", e.getMessage());
+        }
+        return record;
+    }
+
     /**
      * 构建错误结果
 
@@ -646,6 +1293,34 @@ public class AssetImportController {
         return result;
     }
 
+    /**
+     * 构建可续传导入的错误结果：记录检查点失败状态，可续传时返回导入编号
+     *
+     * @param message    错误消息描述
+     * @param error      失败原因
+     * @param checkpoint 检查点（登记前失败时为null）
+     * @param generation 导入代；续传时尚未打开为null：同类导入进行中（暂时冲突）时检查点保持可续传，
+     *                   暂存表已不存在、导入模式已变更等无法再续传的原因则放弃检查点
+     */
+    private ImportResult buildCheckpointErrorResult(String message, Exception error,
+                                                    ImportCheckpointTool.Checkpoint checkpoint,
+                                                    ImportStagingTool.Generation generation) {
+        ImportResult result = buildErrorResult(message);
+        if (checkpoint != null && checkpoint.isEnabled()) {
+            // 暂存表未发布时保留供续传；已发布或已删除则不可续传。
+            // 检查点已被新的导入放弃时，保留的暂存表在下次导入开始时重建
+            boolean dataRetained = generation != null
+                    ? generation.suspend()
+                    : error instanceof ImportStagingTool.ImportInProgressException;
+            if (checkpoint.fail(error, dataRetained)) {
+                result.setImportId(checkpoint.getImportId());
+                result.setMessage(message + "。已提交" + checkpoint.getCommittedRows()
+                        + "条数据，可调用 /api/asset/import/resume/" + checkpoint.getImportId() + " 续传，无需重新上传");
+            }
+        }
+        return result;
+    }
+
     /**
      * 设置Excel文件下载响应头
 
@@ -1,5 +1,6 @@
 package com.military.asset.controller;
 
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.military.asset.service.PhoneNumberAnalysisService;
 import com.military.asset.vo.PhoneNumberAnalysisVO;
 import com.military.asset.vo.ResultVO;
@@ -8,8 +9,12 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.HashMap;
+import java.util.Map;
+
 /**
  * 电话号码分类分析接口。
  */
@@ -31,4 +36,39 @@ public class PhoneNumberAnalysisController {
             return ResultVO.fail("电话资产分类分析失败：" + ex.getMessage());
         }
     }
+
+    /**
+     * 全国电话号码结构汇总：一次分组扫描计算全部上报单位（或省份）的服务/机动/保密指数，
+     * 按指定字段降序排名后分页返回；网信资产表未变化时直接使用缓存快照。
+     *
+     * @param level    汇总层级：unit（默认）/ province
+     * @param province 省份筛选（可选）
+     * @param type     单位类型筛选（可选）
+     * @param sortBy   排序字段：service / mobility / secrecy / total（默认）
+     * @param pageNum  页码（默认1）
+     * @param pageSize 页大小（默认50，最大200）
+     */
+    @GetMapping("/rollup")
+    public ResultVO<Map<String, Object>> analyzeRollup(
+            @RequestParam(defaultValue = "unit") String level,
+            @RequestParam(required = false) String province,
+            @RequestParam(required = false) String type,
+            @RequestParam(defaultValue = "total") String sortBy,
+            @RequestParam(defaultValue = "1") Integer pageNum,
+            @RequestParam(defaultValue = "50") Integer pageSize) {
+        try {
+            Page<PhoneNumberAnalysisVO> page = analysisService.analyzeRollup(
+                    level, province, type, sortBy, pageNum, Math.min(pageSize, 200));
+            Map<String, Object> response = new HashMap<>();
+            response.put("list", page.getRecords());
+            response.put("total", page.getTotal());
+            response.put("pageNum", page.getCurrent());
+            response.put("pageSize", page.getSize());
+            response.put("totalPages", page.getPages());
+            return ResultVO.success(response, "电话号码结构全国汇总成功");
+        } catch (Exception ex) {
+            log.error("电话号码结构全国汇总失败, level={}, province={}, type={}", level, province, type, ex);
+            return ResultVO.fail("电话号码结构全国汇总失败：" + ex.getMessage());
+        }
+    }
 }
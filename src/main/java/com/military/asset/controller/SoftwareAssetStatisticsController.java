@@ -5,9 +5,11 @@ import com.military.asset.vo.ResultVO;
 import com.military.asset.vo.stat.*;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.function.Supplier;
 
@@ -32,12 +34,40 @@ public class SoftwareAssetStatisticsController {
         return executeList(() -> statisticsService.listServiceStatusStatistics(), "软件资产服务状态统计查询成功");
     }
 
+    /**
+     * 省份老化统计；传入referenceDate/thresholdYears时按指定参考日期与阈值计算（时间回溯分析）
+     */
     @GetMapping("/aging/province")
-    public ResultVO<List<SoftwareAssetAgingStatisticVO>> provinceAgingStatistics() {
-        return executeList(() -> statisticsService.listProvinceAgingStatistics(),
+    public ResultVO<List<SoftwareAssetAgingStatisticVO>> provinceAgingStatistics(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate referenceDate,
+            @RequestParam(required = false) Integer thresholdYears) {
+        return executeList(() -> statisticsService.listProvinceAgingStatistics(referenceDate, thresholdYears),
                 "软件资产省份老化统计查询成功");
     }
 
+    /**
+     * 省份老化趋势：from~to之间按月取参考日期，默认最近12个月
+     */
+    @GetMapping("/aging/province/trend")
+    public ResultVO<List<SoftwareAssetAgingTrendVO>> provinceAgingTrend(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Integer thresholdYears) {
+        return executeList(() -> statisticsService.listProvinceAgingTrend(from, to, thresholdYears),
+                "软件资产省份老化趋势查询成功");
+    }
+
+    /**
+     * 按投入使用月份的数量分布，可按省份、上报单位过滤
+     */
+    @GetMapping("/aging/histogram")
+    public ResultVO<List<SoftwareAssetAgingHistogramVO>> agingHistogram(
+            @RequestParam(required = false) String province,
+            @RequestParam(required = false) String reportUnit) {
+        return executeList(() -> statisticsService.listAgingHistogram(province, reportUnit),
+                "软件资产投入使用月份分布查询成功");
+    }
+
     @GetMapping("/aging/asset/{assetId}/upgrade-required")
     public ResultVO<SoftwareAssetUpgradeStatusVO> assetUpgradeRequired(@PathVariable("assetId") String assetId) {
         return execute(() -> statisticsService.determineAssetUpgradeStatus(assetId),
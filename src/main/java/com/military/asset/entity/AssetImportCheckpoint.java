@@ -0,0 +1,93 @@
+package com.military.asset.entity;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 可续传导入检查点实体类（asset_import_checkpoint）
+ * 由ImportCheckpointTool维护：每个分块提交时更新committedRows，失败后按importId续传
+ */
+@Data
+@TableName("asset_import_checkpoint")
+public class AssetImportCheckpoint {
+
+    public static final String STATUS_RUNNING = "RUNNING";
+    public static final String STATUS_FAILED = "FAILED";
+    public static final String STATUS_COMPLETED = "COMPLETED";
+    public static final String STATUS_ABANDONED = "ABANDONED";
+
+    /**
+     * 导入编号（UUID），导入失败时随结果返回，续传接口的参数
+     */
+    @TableId(type = IdType.INPUT)
+    private String importId;
+
+    /**
+     * 资产类型：software / cyber / dataContent
+     */
+    private String assetType;
+
+    /**
+     * 上传文件名
+     */
+    private String fileName;
+
+    /**
+     * 上传文件SHA-256，内容寻址存储中的文件名
+     */
+    private String fileHash;
+
+    /**
+     * 上传文件大小（字节）
+     */
+    private Long fileSize;
+
+    /**
+     * 是否暂存表导入；续传时须与当前asset.import.staging-swap一致
+     */
+    private Boolean staged;
+
+    /**
+     * 状态：RUNNING / FAILED / COMPLETED / ABANDONED
+     */
+    private String status;
+
+    /**
+     * 校验通过的行数（解析完成后写入）
+     */
+    private Integer validRows;
+
+    /**
+     * 校验失败的行数（解析完成后写入）
+     */
+    private Integer errorRows;
+
+    /**
+     * 已提交的有效行数，续传从该行开始
+     */
+    private Integer committedRows;
+
+    /**
+     * 暂存表导入已提交分块缓存的发件箱事件（JSON数组）
+     */
+    private String deferredEvents;
+
+    /**
+     * 最近一次失败原因
+     */
+    private String lastError;
+
+    /**
+     * 创建时间
+     */
+    private LocalDateTime createdTime;
+
+    /**
+     * 更新时间
+     */
+    private LocalDateTime updatedTime;
+}
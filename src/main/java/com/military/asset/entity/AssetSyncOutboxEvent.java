@@ -0,0 +1,93 @@
+package com.military.asset.entity;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 导入副作用发件箱事件实体类（asset_sync_outbox）
+ * 导入事务内写入，由AssetSyncOutboxDispatcher异步应用
+ */
+@Data
+@TableName("asset_sync_outbox")
+public class AssetSyncOutboxEvent {
+
+    /**
+     * 事件类型：同步上报单位表（状态标记、省份、资产表report_unit_id回填）
+     */
+    public static final String REPORT_UNIT_SYNC = "REPORT_UNIT_SYNC";
+
+    /**
+     * 事件类型：网信/数据内容资产之间的省市跨表同步
+     */
+    public static final String CROSS_TABLE_SYNC = "CROSS_TABLE_SYNC";
+
+    /**
+     * 自动增长主键，也是事件的应用顺序
+     */
+    @TableId(type = IdType.AUTO)
+    private Long id;
+
+    /**
+     * 事件类型：REPORT_UNIT_SYNC / CROSS_TABLE_SYNC
+     */
+    private String eventType;
+
+    /**
+     * 来源资产类型：software / cyber / dataContent
+     */
+    private String assetType;
+
+    /**
+     * 上报单位
+     */
+    private String reportUnit;
+
+    /**
+     * 省份（软件资产新单位为推导结果）
+     */
+    private String province;
+
+    /**
+     * 城市（仅跨表同步使用）
+     */
+    private String city;
+
+    /**
+     * 状态：PENDING / PROCESSING / FAILED（应用成功的事件直接删除）
+     */
+    private String status;
+
+    /**
+     * 已失败次数
+     */
+    private Integer attempts;
+
+    /**
+     * 最早可重试时间
+     */
+    private LocalDateTime nextAttemptTime;
+
+    /**
+     * 认领批次标识
+     */
+    private String claimToken;
+
+    /**
+     * 认领时间
+     */
+    private LocalDateTime claimedTime;
+
+    /**
+     * 最近一次失败原因
+     */
+    private String lastError;
+
+    /**
+     * 创建时间
+     */
+    private LocalDateTime createdTime;
+}
@@ -33,6 +33,12 @@ public class DataContentAsset implements HasReportUnitAndProvince{
      */
     private String reportUnit;
 
+    /**
+     * 上报单位ID（对应数据库`report_unit_id`字段，INT DEFAULT NULL，外键关联report_unit.id）
+     * 数据库COMMENT：上报单位ID（关联与分组使用的整数代理键，由上报单位同步时回填）
+     */
+    private Integer reportUnitId;
+
     /**
      * 省（对应数据库`province`字段，VARCHAR(50) DEFAULT NULL）
      * 数据库COMMENT：省（非核心列，选填）
@@ -0,0 +1,26 @@
+package com.military.asset.entity;
+
+import lombok.Data;
+
+/**
+ * 部署范围维度的软件资产汇总中间结果。
+ * <p>
+ * 供 Mapper 分组查询返回，包含某一部署范围下的实有数量之和与资产行数，
+ * 用于计算上报单位重要性得分及全表对照基准。
+ * </p>
+ */
+@Data
+public class DeploymentScopeAggregation {
+
+    /** 上报单位名称（仅按上报单位分组的查询返回） */
+    private String reportUnit;
+
+    /** 部署范围（可能为空） */
+    private String deploymentScope;
+
+    /** 实有数量汇总 */
+    private Long actualQuantity;
+
+    /** 资产行数 */
+    private Long assetRows;
+}
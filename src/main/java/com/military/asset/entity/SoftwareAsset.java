@@ -51,6 +51,12 @@ public class SoftwareAsset implements HasReportUnitAndProvince { // 🆕 新增
      */
     private String reportUnit;
 
+    /**
+     * 上报单位ID（对应数据库`report_unit_id`字段，INT DEFAULT NULL，外键关联report_unit.id）
+     * 数据库COMMENT：上报单位ID（关联与分组使用的整数代理键，由上报单位同步时回填）
+     */
+    private Integer reportUnitId;
+
     /**
      * 分类编码（对应数据库`category_code`字段，VARCHAR(50) NOT NULL）
      * 数据库COMMENT：分类编码（核心列，必填，与资产分类关联）
@@ -190,19 +196,18 @@ public class SoftwareAsset implements HasReportUnitAndProvince { // 🆕 新增
     // ============================ 🆕 新增：HasReportUnitAndProvince接口实现 ============================
 
     /**
-     * 🆕 新增：省份字段（非数据库字段，仅用于自动填充推导）
-     * 软件资产表没有省市字段，但接口需要实现
-     * 使用@TableField(exist = false)表示不映射到数据库
+     * 省份（冗余自上报单位表）
+     * 数据库字段：province（VARCHAR(50)，可为空）
+     * 取值：新增/导入时以上报单位表的省份为准，单位不存在时按单位名称推导；
+     *      上报单位省份变更时由ProvinceAutoFillTool同步，省份统计直接按此列分组
      */
-    @TableField(exist = false)
     private String province;
 
     /**
-     * 🆕 新增：城市字段（非数据库字段，仅用于自动填充推导）
-     * 软件资产表没有省市字段，但接口需要实现
-     * 使用@TableField(exist = false)表示不映射到数据库
+     * 城市（冗余，按上报单位推导）
+     * 数据库字段：city（VARCHAR(50)，可为空）
+     * 取值：推导省份与上报单位省份一致时使用推导城市，否则取该省首府
      */
-    @TableField(exist = false)
     private String city;
 
     // 🆕 新增：实现HasReportUnitAndProvince接口的方法
@@ -0,0 +1,26 @@
+package com.military.asset.listener;
+
+import com.alibaba.excel.read.listener.ReadListener;
+import com.military.asset.vo.ExcelErrorVO;
+
+import java.util.List;
+
+/**
+ * 资产Excel导入监听器的公共结果接口
+ * 三类资产监听器读取结束后都按“有效数据 + 错误数据”交出结果，导入控制器据此统一完成计数、
+ * 检查点封存、分块保存与结果构建，不再按资产类型分别处理
+ *
+ * @param <T> 资产Excel VO类型
+ */
+public interface AssetImportListener<T> extends ReadListener<T> {
+
+    /**
+     * 校验通过的数据（开启暂存时为暂存文件上的列表）
+     */
+    List<T> getValidDataList();
+
+    /**
+     * 校验失败的数据
+     */
+    List<ExcelErrorVO> getErrorDataList();
+}
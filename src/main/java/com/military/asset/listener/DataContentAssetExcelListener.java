@@ -3,7 +3,8 @@ package com.military.asset.listener;
 import com.alibaba.excel.context.AnalysisContext;
 import com.alibaba.excel.event.AnalysisEventListener;
 import com.military.asset.entity.DataContentAsset;
-import com.military.asset.utils.CategoryMapUtils;
+import com.military.asset.utils.AssetOptionRegistry;
+import com.military.asset.utils.ImportSpillStore;
 import com.military.asset.vo.ExcelErrorVO;
 import com.military.asset.vo.excel.DataContentAssetExcelVO;
 import lombok.Getter;
@@ -27,7 +28,8 @@ import java.util.*;
  * 1. ID基础校验 → 2. 数据库重复检查 → 3. 业务字段校验
  */
 @Slf4j
-public class DataContentAssetExcelListener extends AnalysisEventListener<DataContentAssetExcelVO> {
+public class DataContentAssetExcelListener extends AnalysisEventListener<DataContentAssetExcelVO>
+        implements AssetImportListener<DataContentAssetExcelVO> {
 
     // ============================ 核心数据存储 ============================
 
@@ -40,15 +42,15 @@ public class DataContentAssetExcelListener extends AnalysisEventListener<DataCon
     /**
      * 数据内容资产分类映射表
      */
-    private final Map<String, String> categoryMap = CategoryMapUtils.initDataCategoryMap();
+    private final Map<String, String> categoryMap = AssetOptionRegistry.DATA_CONTENT.getCategoryMapping();
 
     // ============================ 导入结果统计 ============================
 
     @Getter
-    private final List<DataContentAssetExcelVO> validDataList = new ArrayList<>();
+    private final List<DataContentAssetExcelVO> validDataList;
 
     @Getter
-    private final List<ExcelErrorVO> errorDataList = new ArrayList<>();
+    private final List<ExcelErrorVO> errorDataList;
 
     /**
      * 系统重复数量（关键字段完全一致）
@@ -60,7 +62,7 @@ public class DataContentAssetExcelListener extends AnalysisEventListener<DataCon
      * 重复记录详情
      */
     @Getter
-    private final List<DuplicateRecord> duplicateRecords = new ArrayList<>();
+    private final List<DuplicateRecord> duplicateRecords;
 
     // ============================ 业务规则常量 ============================
 
@@ -75,7 +77,20 @@ public class DataContentAssetExcelListener extends AnalysisEventListener<DataCon
      * @param existingAssets 系统中已存在的完整资产对象Map
      */
     public DataContentAssetExcelListener(Map<String, DataContentAsset> existingAssets) {
+        this(existingAssets, null);
+    }
+
+    /**
+     * 构造函数 - 导入中间结果写入暂存文件
+     *
+     * @param existingAssets 系统中已存在的完整资产对象Map
+     * @param spillStore     导入暂存文件，有效数据、错误与重复记录写入文件，堆上只保留偏移量；为null时使用堆内列表
+     */
+    public DataContentAssetExcelListener(Map<String, DataContentAsset> existingAssets, ImportSpillStore spillStore) {
         this.existingAssets = (existingAssets != null) ? existingAssets : new HashMap<>();
+        this.validDataList = ImportSpillStore.listOf(spillStore, DataContentAssetExcelVO.class);
+        this.errorDataList = ImportSpillStore.listOf(spillStore, ExcelErrorVO.class);
+        this.duplicateRecords = ImportSpillStore.listOf(spillStore, DuplicateRecord.class);
         log.info("数据内容资产Excel监听器初始化完成 - 已加载{}条系统已存在资产", this.existingAssets.size());
     }
 
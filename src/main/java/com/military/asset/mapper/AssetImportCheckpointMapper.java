@@ -0,0 +1,68 @@
+package com.military.asset.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.military.asset.entity.AssetImportCheckpoint;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.Collection;
+
+/**
+ * 可续传导入检查点Mapper：创建、分块提交进度、续传认领
+ */
+public interface AssetImportCheckpointMapper extends BaseMapper<AssetImportCheckpoint> {
+
+    /**
+     * 认领续传：FAILED的检查点，或超过staleSeconds未更新的RUNNING检查点（实例中途退出，不再刷新心跳），置为RUNNING
+     *
+     * @param importId     导入编号
+     * @param staleSeconds RUNNING检查点视为中断的未更新秒数
+     * @return 1表示认领成功，0表示不存在或不可续传
+     */
+    int claimForResume(@Param("importId") String importId, @Param("staleSeconds") long staleSeconds);
+
+    /**
+     * 分块提交后记录进度（与该分块的资产行同一事务）
+     *
+     * @param importId       导入编号
+     * @param committedRows  已提交的有效行数
+     * @param deferredEvents 暂存表导入缓存的发件箱事件JSON，清空模式为null（不更新）
+     * @return 更新行数
+     */
+    int updateProgress(@Param("importId") String importId,
+                       @Param("committedRows") int committedRows,
+                       @Param("deferredEvents") String deferredEvents);
+
+    /**
+     * 心跳：刷新本实例正在导入的检查点的updated_time（解析等长时间没有分块提交的阶段不被视为中断）
+     *
+     * @param importIds 导入编号
+     * @return 更新行数（已结束的检查点不更新）
+     */
+    int touch(@Param("importIds") Collection<String> importIds);
+
+    /**
+     * 导入失败时结束RUNNING的检查点：置为FAILED（可续传）或ABANDONED，并记录失败原因；
+     * 期间已被新的全量导入放弃（ABANDONED）的检查点不再改回
+     *
+     * @param importId  导入编号
+     * @param status    FAILED / ABANDONED
+     * @param lastError 失败原因
+     * @return 1表示已更新，0表示检查点已不是RUNNING
+     */
+    int failIfRunning(@Param("importId") String importId,
+                      @Param("status") String status,
+                      @Param("lastError") String lastError);
+
+    /**
+     * 同一资产类型上未完成的检查点置为ABANDONED（新的全量导入开始后，其暂存表或已清空的正式表不再可续传）
+     *
+     * @param assetType 资产类型
+     * @return 更新行数
+     */
+    int abandonUnfinished(@Param("assetType") String assetType);
+
+    /**
+     * 其他未完成的检查点中引用该文件的数量（为0时可删除存储的文件）
+     */
+    int countUnfinishedByFileHash(@Param("fileHash") String fileHash);
+}
@@ -0,0 +1,58 @@
+package com.military.asset.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.military.asset.entity.AssetSyncOutboxEvent;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 导入副作用发件箱Mapper：导入事务内批量写入事件，分发器认领、删除、退避重试
+ */
+public interface AssetSyncOutboxMapper extends BaseMapper<AssetSyncOutboxEvent> {
+
+    /**
+     * 批量写入事件（一条INSERT语句），与资产行同一事务提交
+     *
+     * @param events 待写入的事件
+     * @return 写入行数
+     */
+    int insertBatch(@Param("events") Collection<AssetSyncOutboxEvent> events);
+
+    /**
+     * 按id顺序认领一批可处理的事件：到期的PENDING事件，以及认领超时仍未完成的PROCESSING事件；
+     * 只认领id小于最小受阻事件（退避未到期的PENDING、认领未超时的PROCESSING）的事件，保证按登记顺序应用
+     *
+     * @param claimToken          本次认领标识
+     * @param limit               最多认领条数
+     * @param claimTimeoutSeconds 认领超时秒数
+     * @return 认领条数
+     */
+    int claimBatch(@Param("claimToken") String claimToken,
+                   @Param("limit") int limit,
+                   @Param("claimTimeoutSeconds") long claimTimeoutSeconds);
+
+    /**
+     * 查询本次认领的事件（按id升序即应用顺序）
+     */
+    List<AssetSyncOutboxEvent> selectClaimed(@Param("claimToken") String claimToken);
+
+    /**
+     * 事件应用失败：累加失败次数，按退避时间放回PENDING；达到上限置为FAILED不再认领
+     *
+     * @param ids         失败的事件
+     * @param error       失败原因（截断到500字符）
+     * @param maxAttempts 最大失败次数
+     * @return 更新行数
+     */
+    int markFailed(@Param("ids") Collection<Long> ids,
+                   @Param("error") String error,
+                   @Param("maxAttempts") int maxAttempts);
+
+    /**
+     * 放回本批中未处理的事件（不计失败次数）；其前面的失败事件退避期间由认领的顺序屏障挡住，
+     * 失败事件到期后与其一起按id顺序重新认领
+     */
+    int release(@Param("ids") Collection<Long> ids);
+}
@@ -3,9 +3,16 @@ package com.military.asset.mapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.military.asset.entity.CyberAsset;
 import com.military.asset.entity.CyberAssetUsageAggregation;
+import com.military.asset.vo.stat.PhoneNumberRollupRow;
 import org.apache.ibatis.annotations.Param;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page; // 确保导入Page类
 import org.apache.ibatis.annotations.Select;
+import com.baomidou.mybatisplus.core.conditions.Wrapper;
+import com.baomidou.mybatisplus.core.toolkit.Constants;
+import org.apache.ibatis.annotations.Options;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.mapping.ResultSetType;
+import org.apache.ibatis.session.ResultHandler;
 
 import java.util.List;
 import java.util.Map;
@@ -18,20 +25,19 @@ import java.util.Map;
 
  * 修改说明：移除 @Mapper 注解，由 @MapperScan 统一扫描
  * 原因：Spring Boot 3.x 中 @Mapper 注解与 @MapperScan 冲突，导致 factoryBeanObjectType 错误
-
- * 新增功能：
- * - selectAllExistingAssets(): 查询所有完整资产对象，用于导入时关键字段比较
  */
 public interface CyberAssetMapper extends BaseMapper<CyberAsset> {
 
     /**
-     * 查询所有已存在的资产ID
-     * 用途：Excel导入时校验ID是否重复，防止主键冲突
-     * 调用时机：监听器初始化时调用，加载数据库中已有的ID列表
-     * @return 所有资产ID组成的列表（如["id1","id2"...]）
+     * 按条件流式读取网信资产，用于不分页的全量导出
+     * 需在事务内调用并及时关闭游标
+     *
+     * @param wrapper 查询条件（与联合查询使用同一构造逻辑）
+     * @return 资产游标
      */
-    @Select("SELECT id FROM cyber_asset")
-    List<String> selectAllExistingIds();
+    @Select("SELECT * FROM cyber_asset ${ew.customSqlSegment}")
+    @Options(resultSetType = ResultSetType.FORWARD_ONLY, fetchSize = Integer.MIN_VALUE)
+    Cursor<CyberAsset> streamByWrapper(@Param(Constants.WRAPPER) Wrapper<CyberAsset> wrapper);
 
     /**
      * 批量插入网信资产
@@ -77,27 +83,6 @@ public interface CyberAssetMapper extends BaseMapper<CyberAsset> {
                                    @Param("startUseDateEnd") String startUseDateEnd,
                                    @Param("inventoryUnit") String inventoryUnit);
 
-    // ============================ 新增方法 ============================
-
-    /**
-     * 查询所有已存在的网信资产（完整对象）
-
-     * 新增用途：用于Excel导入时关键字段比较，而不仅仅是ID重复检查
-     * 核心字段：包含所有业务字段，特别是上报单位、资产分类、资产名称、资产内容等关键字段
-
-     * 网信资产特有字段：
-     * - asset_content：资产内容（网信资产特有，参与关键字段比较）
-     * - used_quantity：已用数量（网信资产特有，用于业务校验）
-
-     * 性能考虑：
-     * - 一次性查询所有数据，避免多次数据库交互
-     * - 数据量较大时，考虑分批加载（当前设计适用于常规数据量）
-     *
-     * @return 所有网信资产完整对象列表
-     */
-    @Select("SELECT * FROM cyber_asset")
-    List<CyberAsset> selectAllExistingAssets();
-
     // ============================ 新增额外接口 ============================
     /**
      * 接口2：
@@ -138,6 +123,14 @@ public interface CyberAssetMapper extends BaseMapper<CyberAsset> {
      */
     List<CyberAsset> selectByReportUnit(@Param("reportUnit") String reportUnit);
 
+    /**
+     * 流式扫描列式快照所需的列（上报单位、上报单位省份、资产分类、已用/实有数量）
+     * 省份取自report_unit表，与aggregateProvinceUsageByAssetCategory的统计口径一致
+     *
+     * @param handler 行处理器
+     */
+    void scanColumnarSnapshot(ResultHandler<CyberAsset> handler);
+
     /**
      * 统计某省份下每个上报单位在各资产分类的实有/已用数量，用于计算使用率。
      */
@@ -186,6 +179,15 @@ public interface CyberAssetMapper extends BaseMapper<CyberAsset> {
     List<Map<String, Object>> sumPhoneNumberQuantityByCategory(@Param("reportUnit") String reportUnit,
                                                                @Param("categories") List<String> categories);
 
+    /**
+     * 按上报单位一次分组汇总四类电话号码的实有数量（全国汇总分析用）。
+     * 只扫描四类电话号码记录，每个单位一行，四类数量透视为列。
+     */
+    List<PhoneNumberRollupRow> sumPhoneNumberQuantityByUnit(@Param("manualCategory") String manualCategory,
+                                                            @Param("automaticCategory") String automaticCategory,
+                                                            @Param("mobileCategory") String mobileCategory,
+                                                            @Param("secrecyCategory") String secrecyCategory);
+
     // ==================== 新增：支持级联更新和跨表同步的方法 ====================
 
     /**
@@ -6,6 +6,12 @@ import com.military.asset.vo.CountVO;
 import org.apache.ibatis.annotations.Param;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page; // 确保导入Page类
 import org.apache.ibatis.annotations.Select;
+import com.baomidou.mybatisplus.core.conditions.Wrapper;
+import com.baomidou.mybatisplus.core.toolkit.Constants;
+import org.apache.ibatis.annotations.Options;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.mapping.ResultSetType;
+import org.apache.ibatis.session.ResultHandler;
 
 import java.util.List;
 import java.util.Map;
@@ -18,18 +24,19 @@ import java.util.Map;
 
  * 修改说明：移除 @Mapper 注解，由 @MapperScan 统一扫描
  * 原因：Spring Boot 3.x 中 @Mapper 注解与 @MapperScan 冲突，导致 factoryBeanObjectType 错误
-
- * 新增功能：
- * - selectAllExistingAssets(): 查询所有完整资产对象，用于导入时关键字段比较
  */
 public interface DataContentAssetMapper extends BaseMapper<DataContentAsset> {
 
     /**
-     * 查询所有已存在的资产ID
-     * 用途：Excel导入时校验ID唯一性，防止重复入库
-     * @return 资产ID列表
+     * 按条件流式读取数据内容资产，用于不分页的全量导出
+     * 需在事务内调用并及时关闭游标
+     *
+     * @param wrapper 查询条件（与联合查询使用同一构造逻辑）
+     * @return 资产游标
      */
-    List<String> selectAllExistingIds();
+    @Select("SELECT * FROM data_content_asset ${ew.customSqlSegment}")
+    @Options(resultSetType = ResultSetType.FORWARD_ONLY, fetchSize = Integer.MIN_VALUE)
+    Cursor<DataContentAsset> streamByWrapper(@Param(Constants.WRAPPER) Wrapper<DataContentAsset> wrapper);
 
     /**
      * 批量插入数据内容资产
@@ -72,23 +79,6 @@ public interface DataContentAssetMapper extends BaseMapper<DataContentAsset> {
                                          @Param("updateMethod") String updateMethod,
                                          @Param("inventoryUnit") String inventoryUnit);
 
-    // ============================ 新增方法 ============================
-
-    /**
-     * 查询所有已存在的数据内容资产（完整对象）
-
-     * 新增用途：用于Excel导入时关键字段比较，而不仅仅是ID重复检查
-     * 核心字段：包含所有业务字段，特别是上报单位、资产分类、资产名称等关键字段
-
-     * 性能考虑：
-     * - 一次性查询所有数据，避免多次数据库交互
-     * - 数据量较大时，考虑分批加载（当前设计适用于常规数据量）
-     *
-     * @return 所有数据内容资产完整对象列表
-     */
-    @Select("SELECT * FROM data_content_asset")
-    List<DataContentAsset> selectAllExistingAssets();
-
     // ============================ 新增额外接口 ============================
     /**
      * 接口2：
@@ -228,9 +218,13 @@ public interface DataContentAssetMapper extends BaseMapper<DataContentAsset> {
     List<Integer> countProvinceUnitDomesticByField(@Param("province") String province, @Param("field") String field);
 
     /**
-     * 查询指定省份下各应用领域的实有数量明细。
+     * 流式扫描指定省份下各应用领域的实有数量明细（逐行回调，不在内存中缓存整份明细列表）。
+     *
+     * @param province 省份
+     * @param handler  行处理器，每行包含applicationField、actualQuantity
      */
-    List<Map<String, Object>> selectApplicationFieldQuantitiesByProvince(@Param("province") String province);
+    void scanApplicationFieldQuantitiesByProvince(@Param("province") String province,
+                                                  ResultHandler<Map<String, Object>> handler);
 
     /**
      * 查询指定省份下各应用领域的资产记录数（按上报单位分组统计）。
@@ -0,0 +1,54 @@
+package com.military.asset.mapper;
+
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
+
+/**
+ * 导入暂存表DDL Mapper：建暂存表、原子替换、外键维护
+ * 表名无法作为预编译参数，只接受ImportStagingTool中固定的资产表名，不得传入外部输入
+ */
+public interface ImportStagingMapper {
+
+    /**
+     * 删除表（不存在时忽略）
+     */
+    void dropTableIfExists(@Param("table") String table);
+
+    /**
+     * 按正式表结构创建空表（复制列、索引与FULLTEXT索引，不复制外键）
+     */
+    void createTableLike(@Param("table") String table, @Param("source") String source);
+
+    /**
+     * 一条RENAME TABLE语句完成替换：每张正式表改为xxx_old、xxx_staging改为正式表，对其他会话原子可见
+     *
+     * @param liveTables 正式表名（可多张，一并替换）
+     */
+    void swapTables(@Param("liveTables") List<String> liveTables);
+
+    /**
+     * 当前库中该表是否存在（0/1）
+     */
+    int countTable(@Param("table") String table);
+
+    /**
+     * 当前库中指定表上同名外键的数量
+     */
+    int countForeignKey(@Param("table") String table, @Param("constraintName") String constraintName);
+
+    /**
+     * 表中report_unit_id指向不存在的上报单位的行数（反连接，report_unit_id为空的行不计）
+     */
+    int countOrphanReportUnitRefs(@Param("table") String table);
+
+    /**
+     * 添加report_unit_id → report_unit(id)外键（ON DELETE SET NULL，与V3迁移一致）
+     */
+    void addReportUnitForeignKey(@Param("table") String table, @Param("constraintName") String constraintName);
+
+    /**
+     * 设置当前会话的外键检查开关（1开启，0关闭）
+     */
+    void setForeignKeyChecks(@Param("enabled") int enabled);
+}
@@ -88,4 +88,27 @@ public interface ReportUnitMapper extends BaseMapper<ReportUnit> {
      * @return 上报单位列表
      */
     List<String> selectReportUnitsByProvince(@Param("province") String province);
+
+    // ==================== 上报单位ID（report_unit_id）回填 ====================
+
+    // 将软件/网信/数据资产表中该单位的记录绑定到指定上报单位ID（单条增删改后调用）
+    int bindSoftwareAssetReportUnitId(@Param("reportUnit") String reportUnit, @Param("reportUnitId") Integer reportUnitId);
+
+    int bindCyberAssetReportUnitId(@Param("reportUnit") String reportUnit, @Param("reportUnitId") Integer reportUnitId);
+
+    int bindDataContentAssetReportUnitId(@Param("reportUnit") String reportUnit, @Param("reportUnitId") Integer reportUnitId);
+
+    // 按名称一次性回填资产表中尚未绑定上报单位ID的记录（批量导入同步后调用）
+    int backfillSoftwareAssetReportUnitId();
+
+    int backfillCyberAssetReportUnitId();
+
+    int backfillDataContentAssetReportUnitId();
+
+    // ==================== 软件资产冗余省市同步 ====================
+
+    // 上报单位省份变更后，同步软件资产表中该单位记录的冗余省市
+    int syncSoftwareAssetProvince(@Param("reportUnit") String reportUnit,
+                                  @Param("province") String province,
+                                  @Param("city") String city);
 }
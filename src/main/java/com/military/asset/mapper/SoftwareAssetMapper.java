@@ -1,12 +1,20 @@
 package com.military.asset.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.military.asset.entity.DeploymentScopeAggregation;
 import com.military.asset.entity.SoftwareAsset;
 import com.military.asset.vo.stat.SoftwareAssetStatisticRow;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page; // 新增：导入Page类
 import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Select;
-
+import com.baomidou.mybatisplus.core.conditions.Wrapper;
+import com.baomidou.mybatisplus.core.toolkit.Constants;
+import org.apache.ibatis.annotations.Options;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.mapping.ResultSetType;
+import org.apache.ibatis.session.ResultHandler;
+
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
@@ -17,22 +25,21 @@ import java.util.Map;
  * 修改说明：移除 @Mapper 注解，由 @MapperScan 统一扫描
  * 原因：Spring Boot 3.x 中 @Mapper 注解与 @MapperScan 冲突，导致 factoryBeanObjectType 错误
 
- * 新增功能：
- * - selectAllExistingAssets(): 查询所有完整资产对象，用于导入时关键字段比较
-
  * 移除方法：
  * - selectAssetCategoryByCode(): 该方法未被使用，分类匹配校验通过CategoryMapUtils工具类完成
  */
 public interface SoftwareAssetMapper extends BaseMapper<SoftwareAsset> {
 
     /**
-     * 查询所有已存在的软件资产ID
-     * 用途：Excel导入时校验ID是否重复，防止主键冲突
-     * 调用时机：监听器初始化时调用，加载数据库中已有的ID列表
-     * @return 所有资产ID组成的列表（如["id1","id2"...]）
+     * 按条件流式读取软件资产，用于不分页的全量导出
+     * 需在事务内调用并及时关闭游标
+     *
+     * @param wrapper 查询条件（与联合查询使用同一构造逻辑）
+     * @return 资产游标
      */
-    @Select("SELECT id FROM software_asset")
-    List<String> selectAllExistingIds();
+    @Select("SELECT * FROM software_asset ${ew.customSqlSegment}")
+    @Options(resultSetType = ResultSetType.FORWARD_ONLY, fetchSize = Integer.MIN_VALUE)
+    Cursor<SoftwareAsset> streamByWrapper(@Param(Constants.WRAPPER) Wrapper<SoftwareAsset> wrapper);
 
     /**
      * 批量插入软件资产
@@ -81,21 +88,6 @@ public interface SoftwareAssetMapper extends BaseMapper<SoftwareAsset> {
                                       @Param("inventoryUnit") String inventoryUnit);
     // ============================ 新增方法 ============================
 
-    /**
-     * 查询所有已存在的软件资产（完整对象）
-
-     * 新增用途：用于Excel导入时关键字段比较，而不仅仅是ID重复检查
-     * 核心字段：包含所有业务字段，特别是上报单位、资产分类、资产名称等关键字段
-
-     * 性能考虑：
-     * - 一次性查询所有数据，避免多次数据库交互
-     * - 数据量较大时，考虑分批加载（当前设计适用于常规数据量）
-     *
-     * @return 所有软件资产完整对象列表
-     */
-    @Select("SELECT * FROM software_asset")
-    List<SoftwareAsset> selectAllExistingAssets();
-
     /**
      * 统计各上报单位在不同取得方式及服务状态下的数量汇总。
      *
@@ -148,21 +140,20 @@ public interface SoftwareAssetMapper extends BaseMapper<SoftwareAsset> {
 
     // ==================== 新增：按省份统计接口的相关方法 ====================
     /**
-     * 统计各省份软件资产数量（通过关联report_unit表）
-     * 修改：将COALESCE(ru.province, '其他')改为COALESCE(ru.province, '未知')
+     * 统计各省份软件资产数量（使用冗余省份列，无需关联report_unit表）
+     * 省份为空的记录归入"未知"
      */
-    @Select("SELECT COALESCE(ru.province, '未知') as province, COUNT(*) as count " +
-            "FROM software_asset sa " +
-            "LEFT JOIN report_unit ru ON sa.report_unit = ru.report_unit " +
-            "GROUP BY COALESCE(ru.province, '未知')")
+    @Select("SELECT COALESCE(province, '未知') as province, COUNT(*) as count " +
+            "FROM software_asset " +
+            "GROUP BY COALESCE(province, '未知')")
     List<Map<String, Object>> selectProvinceSoftwareStats();
 
     /**
      * 统计指定省份软件资产数量
+     * 条件拆成 province = ? 与空值分支，保证可以使用省份索引
      */
-    @Select("SELECT COUNT(*) FROM software_asset sa " +
-            "LEFT JOIN report_unit ru ON sa.report_unit = ru.report_unit " +
-            "WHERE COALESCE(ru.province, '未知') = #{province}")
+    @Select("SELECT COUNT(*) FROM software_asset " +
+            "WHERE province = #{province} OR (#{province} = '未知' AND province IS NULL)")
     Long selectSoftwareCountByProvince(@Param("province") String province);
 
     /**
@@ -173,15 +164,14 @@ public interface SoftwareAssetMapper extends BaseMapper<SoftwareAsset> {
      * @return 包含分类编码和数量的列表
      */
     @Select("SELECT asset_category, COUNT(*) as count " +
-            "FROM software_asset sa " +
-            "LEFT JOIN report_unit ru ON sa.report_unit = ru.report_unit " +
-            "WHERE COALESCE(ru.province, '未知') = #{province} " +
+            "FROM software_asset " +
+            "WHERE province = #{province} OR (#{province} = '未知' AND province IS NULL) " +
             "GROUP BY asset_category")
     List<Map<String, Object>> selectSoftwareCategoryStatsByProvince(@Param("province") String province);
 
     /**
      * 根据资产分类按省份统计软件资产数量
-     * 核心逻辑：通过关联report_unit表获取省份信息，因为软件资产表自身没有省份字段
+     * 核心逻辑：直接按软件资产表的冗余省份列分组
      * @param assetCategory 资产分类
      * @return 统计结果列表，包含province和count字段
      */
@@ -195,4 +185,38 @@ public interface SoftwareAssetMapper extends BaseMapper<SoftwareAsset> {
      */
     List<SoftwareAsset> selectByReportUnitLight(@Param("reportUnit") String reportUnit);
 
+    /**
+     * 按部署范围汇总实有数量与资产行数。
+     *
+     * @param reportUnit 上报单位名称；为空时汇总全表（重要性对照基准）
+     * @return 每个部署范围一行的汇总结果
+     */
+    List<DeploymentScopeAggregation> aggregateDeploymentScope(@Param("reportUnit") String reportUnit);
+
+    /**
+     * 按上报单位、部署范围两级分组汇总实有数量与资产行数，用于批量计算各单位重要性。
+     *
+     * @param reportUnits 上报单位名称集合；为空时汇总全部单位
+     * @return 每个（上报单位, 部署范围）一行的汇总结果，按上报单位排序
+     */
+    List<DeploymentScopeAggregation> aggregateDeploymentScopeByReportUnit(
+            @Param("reportUnits") Collection<String> reportUnits);
+
+    /**
+     * 流式扫描升级必要性计算所需的列（主键、资产名称、上报单位、服务状态、金额、实有数量）
+     *
+     * @param reportUnits 上报单位名称集合；为空时扫描全部单位
+     * @param handler     行处理器
+     */
+    void scanUpgradeCandidates(@Param("reportUnits") Collection<String> reportUnits,
+                               ResultHandler<SoftwareAsset> handler);
+
+    /**
+     * 流式扫描列式快照所需的列（上报单位、省份、部署范围、服务状态、实有数量、投入使用日期）
+     * 逐行回调，不在内存中缓存整张表的实体列表
+     *
+     * @param handler 行处理器
+     */
+    void scanColumnarSnapshot(ResultHandler<SoftwareAsset> handler);
+
 }
\ No newline at end of file
@@ -1,8 +1,12 @@
 package com.military.asset.mapper;
 
-import com.military.asset.vo.stat.SoftwareAssetProvinceUsageDetail;
+import com.military.asset.vo.stat.SoftwareAssetAgingBucketRow;
+import com.military.asset.vo.stat.SoftwareAssetProvinceAgingRow;
 import com.military.asset.vo.stat.SoftwareAssetStatisticRow;
 
+import org.apache.ibatis.annotations.Param;
+
+import java.time.LocalDate;
 import java.util.List;
 
 /**
@@ -33,9 +37,20 @@ public interface SoftwareAssetStatisticsMapper {
      */
     List<SoftwareAssetStatisticRow> selectStatisticsByReportUnits(List<String> reportUnits);
     /**
-     * 查询全部省份的软件资产明细，用于老化统计。
+     * 按省份分组汇总软件资产老化数据（在用/非在用的总量及需升级数量）。
+     * 总量只计参考日期当天及之前投入使用（或未填日期）的资产，与老化直方图的时间点口径一致。
+     *
+     * @param referenceDate 参考日期，之后投入使用的资产不计入
+     * @param thresholdDate 老化阈值日期，投入使用日期早于该日期视为需要升级
+     * @return 每个省份一行的汇总结果（省份可能为空）
+     */
+    List<SoftwareAssetProvinceAgingRow> selectProvinceAgingTotals(@Param("referenceDate") LocalDate referenceDate,
+                                                                  @Param("thresholdDate") LocalDate thresholdDate);
+
+    /**
+     * 按省份、上报单位、服务状态、投入使用日期分组汇总实有数量，用于构建老化直方图。
      *
-     * @return 明细列表
+     * @return 分桶行（仅包含实有数量大于0的资产）
      */
-    List<SoftwareAssetProvinceUsageDetail> selectAllProvinceUsageDetails();
+    List<SoftwareAssetAgingBucketRow> selectAgingBuckets();
 }
\ No newline at end of file
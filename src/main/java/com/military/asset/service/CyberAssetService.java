@@ -4,16 +4,17 @@ import com.baomidou.mybatisplus.extension.service.IService;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.military.asset.entity.CyberAsset;
 import com.military.asset.vo.ExcelErrorVO;
+import com.military.asset.vo.CyberQueryVO;
 import com.military.asset.vo.excel.CyberAssetExcelVO;
 
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 /**
  * 网信资产业务层接口
  * 继承MyBatis-Plus的IService获取基础CRUD能力，新增网信特有功能（数量校验、数量范围查询）
  * 核心约束：已用数量（usedQuantity）≤ 实有数量（actualQuantity）
- * - getExistingAssetsMap(): 获取完整资产对象Map，用于导入时关键字段比较
 
  * 新增功能：
  * - 省市自动填充相关方法：支持省市字段的自动填充逻辑
@@ -31,13 +32,6 @@ public interface CyberAssetService extends IService<CyberAsset> {
      */
     void batchSaveCyberAssets(List<CyberAssetExcelVO> validDataList);
 
-    /**
-     * 查询所有已存在的网信资产ID（原有方法）
-     * 用途：Excel导入时去重校验，避免重复入库
-     * @return 数字+字母组合的ID列表
-     */
-    List<String> getExistingIds();
-
     /**
      * 批量保存Excel校验通过的网信资产数据（原有方法）
      * 特性：事务保障（全成功/全失败），避免部分数据入库
@@ -155,29 +149,6 @@ public interface CyberAssetService extends IService<CyberAsset> {
      */
     void validateUsedQuantity(Integer usedQuantity, Integer actualQuantity);
 
-    // ============================ 新增方法（资产Map获取） ============================
-
-    /**
-     * 获取所有已存在网信资产的完整对象Map
-
-     * 新增用途：用于Excel导入时比较关键字段，而不仅仅是ID重复检查
-     * 核心功能：
-     * - 当导入数据ID与数据库重复时，比较关键字段是否一致
-     * - 关键字段一致 → 静默跳过（系统重复）
-     * - 关键字段不一致 → 关键错误（需修正主键）
-
-     * 网信资产关键字段：
-     * - 上报单位、资产分类、资产名称、资产内容（比软件资产多一个资产内容字段）
-
-     * 性能优化：
-     * - 一次性加载所有资产到内存，避免多次数据库查询
-     * - 使用Map结构提供O(1)的查询性能
-     *
-     * @return Map<String, CyberAsset> 资产ID到完整资产对象的映射
-     * @throws RuntimeException 当数据加载失败时抛出
-     */
-    Map<String, CyberAsset> getExistingAssetsMap();
-
     // ============================ 新增方法（省市自动填充相关） ============================
 
     /**
@@ -336,6 +307,18 @@ public interface CyberAssetService extends IService<CyberAsset> {
                                    Integer quantityMax, Integer usedQuantityMin, Integer usedQuantityMax,
                                    String startUseDateStart, String startUseDateEnd, String inventoryUnit);
 
+    /**
+     * 网信资产联合查询的流式版本，用于不分页的全量导出
+     * 作用：与combinedQuery使用相同的查询条件，通过游标逐行读取并按批次回调，避免一次性加载全部匹配数据
+     * 注意：回调在只读事务内执行，回调中不要再访问数据库
+     *
+     * @param queryVO       查询条件（分页参数忽略）
+     * @param batchSize     每批条数
+     * @param batchConsumer 批次处理逻辑
+     * @return 读取的总行数
+     */
+    long streamCombinedQuery(CyberQueryVO queryVO, int batchSize, Consumer<List<CyberAsset>> batchConsumer);
+
     /**
      * 获取各省份网信资产统计概览
      * 作用：统计34个省份+"未知"的网信资产数量和占比
@@ -4,6 +4,7 @@ import com.baomidou.mybatisplus.extension.service.IService;
 import com.military.asset.entity.DataContentAsset;
 import com.military.asset.vo.DataAssetReportUnitAnalysisVO;
 import com.military.asset.vo.ExcelErrorVO;
+import com.military.asset.vo.DataContentQueryVO;
 import com.military.asset.vo.excel.DataContentAssetExcelVO;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.military.asset.vo.stat.ProvinceMetricVO;
@@ -11,12 +12,12 @@ import com.military.asset.vo.stat.ProvinceMetricVO;
 import java.math.BigDecimal;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 /**
  * 数据内容资产业务层接口
  * 继承IService获取基础CRUD，新增数据特有功能（开发工具校验、按工具查询）
  * 核心约束：开发工具（developmentTool）非空
- * - getExistingAssetsMap(): 获取完整资产对象Map，用于导入时关键字段比较
 
  * 新增功能：
  * - 省市自动填充相关方法：支持省市字段的自动填充逻辑
@@ -34,13 +35,6 @@ public interface DataContentAssetService extends IService<DataContentAsset> {
      */
     void batchSaveDataContentAssets(List<DataContentAssetExcelVO> validDataList); // 新增：适配AssetImportController
 
-    /**
-     * 查询所有已存在的数据资产ID（原有方法）
-     * 用途：Excel导入去重，避免重复入库
-     * @return 数字+字母组合的ID列表
-     */
-    List<String> getExistingIds();
-
     /**
      * 批量保存Excel合法数据（原有方法）
      * 事务保障：确保批量操作原子性（全成功/全失败）
@@ -203,28 +197,6 @@ public interface DataContentAssetService extends IService<DataContentAsset> {
      * @return 综合分析结果
      */
     DataAssetReportUnitAnalysisVO analyzeReportUnitDomainAndCycle(String reportUnit);
-    // ============================ 新增方法（资产Map获取） ============================
-
-    /**
-     * 获取所有已存在数据内容资产的完整对象Map
-
-     * 新增用途：用于Excel导入时比较关键字段，而不仅仅是ID重复检查
-     * 核心功能：
-     * - 当导入数据ID与数据库重复时，比较关键字段是否一致
-     * - 关键字段一致 → 静默跳过（系统重复）
-     * - 关键字段不一致 → 关键错误（需修正主键）
-
-     * 数据内容资产关键字段：上报单位、资产分类、资产名称
-
-     * 性能优化：
-     * - 一次性加载所有资产到内存，避免多次数据库查询
-     * - 使用Map结构提供O(1)的查询性能
-     *
-     * @return Map<String, DataContentAsset> 资产ID到完整资产对象的映射
-     * @throws RuntimeException 当数据加载失败时抛出
-     */
-    Map<String, DataContentAsset> getExistingAssetsMap();
-
     // ============================ 新增方法（省市自动填充相关） ============================
 
     /**
@@ -381,6 +353,18 @@ public interface DataContentAssetService extends IService<DataContentAsset> {
                                          Integer quantityMax, String updateCycle, String updateMethod,
                                          String inventoryUnit);
 
+    /**
+     * 数据资产联合查询的流式版本，用于不分页的全量导出
+     * 作用：与combinedQuery使用相同的查询条件，通过游标逐行读取并按批次回调，避免一次性加载全部匹配数据
+     * 注意：回调在只读事务内执行，回调中不要再访问数据库
+     *
+     * @param queryVO       查询条件（分页参数忽略）
+     * @param batchSize     每批条数
+     * @param batchConsumer 批次处理逻辑
+     * @return 读取的总行数
+     */
+    long streamCombinedQuery(DataContentQueryVO queryVO, int batchSize, Consumer<List<DataContentAsset>> batchConsumer);
+
     /**
      * 获取各省份数据资产统计概览
      * 作用：统计34个省份+"未知"的数据资产数量和占比
@@ -1,5 +1,6 @@
 package com.military.asset.service;
 
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.military.asset.vo.PhoneNumberAnalysisVO;
 
 /**
@@ -14,4 +15,19 @@ public interface PhoneNumberAnalysisService {
      * @return 电话号码分析结果
      */
     PhoneNumberAnalysisVO analyze(String reportUnit);
+
+    /**
+     * 全国汇总：一次分组扫描计算全部上报单位（或省份）的电话号码结构指数，排序后分页返回。
+     * 指数公式与 {@link #analyze(String)} 一致；结果随网信资产表写入版本缓存。
+     *
+     * @param level    汇总层级：unit（默认）/ province
+     * @param province 省份筛选（可选）
+     * @param type     单位类型筛选（可选，如"服务窗口型单位"）
+     * @param sortBy   排序字段：service / mobility / secrecy / total（默认），均为降序
+     * @param pageNum  页码（从1开始）
+     * @param pageSize 每页条数
+     * @return 分页的汇总结果
+     */
+    Page<PhoneNumberAnalysisVO> analyzeRollup(String level, String province, String type, String sortBy,
+                                              long pageNum, long pageSize);
 }
@@ -7,14 +7,15 @@ import com.military.asset.vo.*;
 import com.military.asset.vo.excel.SoftwareAssetExcelVO;
 import com.military.asset.vo.stat.SoftwareAssetStatisticVO;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 /**
  * 软件资产业务层接口
  * 定义软件资产相关的所有业务操作规范，包括CRUD、Excel导入等功能
  * 继承MyBatis-Plus的IService，获得基础CRUD能力
- * - getExistingAssetsMap(): 获取完整资产对象Map，用于导入时关键字段比较
 
  * 新增功能：
  * - 上报单位同步相关方法：支持上报单位表的状态同步（软件资产表不需要省市字段）
@@ -23,13 +24,6 @@ import java.util.Map;
 public interface SoftwareAssetService extends IService<SoftwareAsset> {
 
 
-    /**
-     * 查询所有已存在的数据资产ID（原有方法）
-     * 用途：Excel导入去重，避免重复入库
-     * @return 数字+字母组合的ID列表
-     */
-    List<String> getExistingIds();
-
 
     /**
      * 批量保存Excel中校验通过的合法数据
@@ -151,24 +145,6 @@ public interface SoftwareAssetService extends IService<SoftwareAsset> {
 
     // ============================ 新增方法（资产Map获取） ============================
 
-    /**
-     * 获取所有已存在软件资产的完整对象Map
-
-     * 新增用途：用于Excel导入时比较关键字段，而不仅仅是ID重复检查
-     * 核心功能：
-     * - 当导入数据ID与数据库重复时，比较关键字段是否一致
-     * - 关键字段一致 → 静默跳过（系统重复）
-     * - 关键字段不一致 → 关键错误（需修正主键）
-
-     * 性能优化：
-     * - 一次性加载所有资产到内存，避免多次数据库查询
-     * - 使用Map结构提供O(1)的查询性能
-     *
-     * @return Map<String, SoftwareAsset> 资产ID到完整资产对象的映射
-     * @throws RuntimeException 当数据加载失败时抛出
-     */
-    Map<String, SoftwareAsset> getExistingAssetsMap();
-
     /**
      * 统计各部队单位的软件资产取得方式与服务状态占比。
      *
@@ -184,6 +160,15 @@ public interface SoftwareAssetService extends IService<SoftwareAsset> {
      */
     List<SoftwareUpgradeRecommendationVO> generateUpgradeRecommendations(String reportUnit);
 
+    /**
+     * 依据公式批量计算指定上报单位的升级必要性，可选择只返回建议编码。
+     *
+     * @param reportUnit 上报单位名称
+     * @param codesOnly  true 时只返回建议编码，不生成建议文案
+     * @return 生成的升级建议结果
+     */
+    List<SoftwareUpgradeRecommendationVO> generateUpgradeRecommendations(String reportUnit, boolean codesOnly);
+
     /**
      * 基于指定上报单位的软件应用资产得分按上报单位计算重要性。
      *
@@ -191,6 +176,31 @@ public interface SoftwareAssetService extends IService<SoftwareAsset> {
      * @return 各上报单位的重要性评估
      */
     List<ReportUnitImportanceVO> analyzeReportUnitImportance(String reportUnit);
+
+    /**
+     * 批量计算上报单位重要性：一条分组查询得到各单位的部署范围分布，按综合得分降序分页返回。
+     *
+     * @param reportUnits 上报单位名称集合；为空时计算全部单位
+     * @param pageNum     页码（从1开始）
+     * @param pageSize    每页条数
+     * @param codesOnly   true 时只返回得分与等级，不生成分析说明
+     * @return 按重要性得分降序排列的分页结果
+     */
+    Page<ReportUnitImportanceVO> analyzeReportUnitImportanceBatch(Collection<String> reportUnits,
+                                                                  long pageNum, long pageSize, boolean codesOnly);
+
+    /**
+     * 批量计算软件资产升级必要性：单次流式扫描指定单位的资产，按必要性得分降序分页返回。
+     *
+     * @param reportUnits 上报单位名称集合；为空时计算全部单位
+     * @param pageNum     页码（从1开始）
+     * @param pageSize    每页条数
+     * @param codesOnly   true 时只返回建议编码，不生成建议文案
+     * @return 按升级必要性降序排列的分页结果
+     */
+    Page<SoftwareUpgradeRecommendationVO> generateUpgradeRecommendationsBatch(Collection<String> reportUnits,
+                                                                              long pageNum, long pageSize,
+                                                                              boolean codesOnly);
     // ============================ 新增方法（上报单位同步相关） ============================
 
     /**
@@ -348,6 +358,18 @@ public interface SoftwareAssetService extends IService<SoftwareAsset> {
                                       String serviceStatus, String startUseDateStart, String startUseDateEnd,
                                       String inventoryUnit);
 
+    /**
+     * 软件资产联合查询的流式版本，用于不分页的全量导出
+     * 作用：与combinedQuery使用相同的查询条件，通过游标逐行读取并按批次回调，避免一次性加载全部匹配数据
+     * 注意：回调在只读事务内执行，回调中不要再访问数据库
+     *
+     * @param queryVO       查询条件（分页参数忽略）
+     * @param batchSize     每批条数
+     * @param batchConsumer 批次处理逻辑
+     * @return 读取的总行数
+     */
+    long streamCombinedQuery(SoftwareQueryVO queryVO, int batchSize, Consumer<List<SoftwareAsset>> batchConsumer);
+
     /**
      * 获取各省份软件资产统计概览
      * 作用：统计34个省份+"未知"的软件资产数量和占比
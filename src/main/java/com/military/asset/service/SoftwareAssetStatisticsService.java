@@ -2,6 +2,7 @@ package com.military.asset.service;
 
 import com.military.asset.vo.stat.*;
 
+import java.time.LocalDate;
 import java.util.List;
 
 /**
@@ -29,6 +30,34 @@ public interface SoftwareAssetStatisticsService {
      * @return 按省份汇总的老化统计结果列表
      */
     List<SoftwareAssetAgingStatisticVO> listProvinceAgingStatistics();
+
+    /**
+     * 按指定参考日期与阈值年限计算全部省份的软件资产老化程度（时间回溯分析）。
+     *
+     * @param referenceDate  参考日期，为空时使用配置的参考日期
+     * @param thresholdYears 老化阈值（年），为空时使用配置值
+     * @return 按省份汇总的老化统计结果列表
+     */
+    List<SoftwareAssetAgingStatisticVO> listProvinceAgingStatistics(LocalDate referenceDate, Integer thresholdYears);
+
+    /**
+     * 按月计算省份老化趋势，每个时间点以该日期为参考日期。
+     *
+     * @param from           起始参考日期，为空时取结束日期前11个月
+     * @param to             结束参考日期，为空时使用配置的参考日期
+     * @param thresholdYears 老化阈值（年），为空时使用配置值
+     * @return 按时间顺序排列的趋势点
+     */
+    List<SoftwareAssetAgingTrendVO> listProvinceAgingTrend(LocalDate from, LocalDate to, Integer thresholdYears);
+
+    /**
+     * 查询按投入使用月份的实有数量分布（在用/非在用）。
+     *
+     * @param province   省份（可选）
+     * @param reportUnit 上报单位（可选）
+     * @return 按月份升序的分布，未填日期的数量排在最后
+     */
+    List<SoftwareAssetAgingHistogramVO> listAgingHistogram(String province, String reportUnit);
     /**␊
      * 判断某项软件资产是否需要升级。␊
      *
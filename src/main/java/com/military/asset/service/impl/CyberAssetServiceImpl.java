@@ -4,10 +4,15 @@ import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import com.military.asset.entity.CyberAsset;
 import com.military.asset.mapper.CyberAssetMapper;
 import com.military.asset.service.CyberAssetService;
-import com.military.asset.utils.CategoryMapUtils;
+import com.military.asset.utils.AssetOptionRegistry;
+import com.military.asset.utils.StreamingQueryUtils;
+import com.military.asset.utils.FullTextSearchTool;
+import com.military.asset.utils.ImportStagingTool;
+import com.military.asset.utils.AssetSyncOutbox;
 import com.military.asset.utils.ProvinceAutoFillTool; // 新增：导入自动填充工具
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page; // 确保导入Page类
 import com.military.asset.vo.ExcelErrorVO;
+import com.military.asset.vo.CyberQueryVO;
 import com.military.asset.vo.excel.CyberAssetExcelVO;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.BeanUtils;
@@ -23,6 +28,7 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
@@ -39,6 +45,7 @@ import com.military.asset.utils.AreaCacheTool; // 🆕 新增导入
 
 //修改导入依赖
 import com.military.asset.entity.DataContentAsset;
+import com.military.asset.entity.AssetSyncOutboxEvent;
 import com.military.asset.entity.ReportUnit;
 import com.military.asset.mapper.DataContentAssetMapper;
 import com.military.asset.mapper.ReportUnitMapper;
@@ -46,7 +53,6 @@ import com.military.asset.mapper.ReportUnitMapper;
  * 网信资产业务实现类
  * 完全遵循软件资产服务层结构，适配网信特有约束（已用数量≤实有数量）
  * 继承ServiceImpl自动获取baseMapper，无需手动注入
- * getExistingAssetsMap(): 实现完整资产对象Map的加载，用于导入时关键字段比较
 
  * 新增功能：
  * - 省市自动填充：集成ProvinceAutoFillTool实现省市字段自动填充
@@ -60,7 +66,7 @@ public class CyberAssetServiceImpl extends ServiceImpl<CyberAssetMapper, CyberAs
     /**
      * 网信资产分类映射表：从工具类获取标准编码-分类对应关系
      */
-    private final Map<String, String> CATEGORY_MAP = CategoryMapUtils.initCyberCategoryMap();
+    private final Map<String, String> CATEGORY_MAP = AssetOptionRegistry.CYBER.getCategoryMapping();
 
     /**
 //     * 最大有效年限：业务规则限定投入使用日期不能早于当前76年（115修改不需要了！）
@@ -84,6 +90,25 @@ public class CyberAssetServiceImpl extends ServiceImpl<CyberAssetMapper, CyberAs
     @Resource
     private ProvinceAutoFillTool provinceAutoFillTool;
 
+    /**
+     * 导入副作用发件箱：批量导入的上报单位同步、跨表同步随资产行同事务登记，提交后异步应用
+     */
+    @Resource
+    private AssetSyncOutbox assetSyncOutbox;
+
+
+    /**
+     * 全文检索条件构建：联合查询的模糊匹配字段走ngram FULLTEXT索引
+     */
+    @Resource
+    private FullTextSearchTool fullTextSearchTool;
+
+    /**
+     * 导入暂存表工具：暂存导入进行中时拒绝单条写入正式表（替换时会被整体覆盖）
+     */
+    @Resource
+    private ImportStagingTool importStagingTool;
+
     // ==================== 依赖注入 ====================
 
 // ==================== 依赖注入区域 ====================
@@ -110,32 +135,6 @@ public class CyberAssetServiceImpl extends ServiceImpl<CyberAssetMapper, CyberAs
     @Resource
     private DataContentAssetMapper dataContentAssetMapper;
 
-    // ============================ 新增方法实现 ============================
-
-    @Override
-    public Map<String, CyberAsset> getExistingAssetsMap() {
-        try {
-            // 查询所有已存在的网信资产（完整对象）
-            List<CyberAsset> existingAssets = baseMapper.selectAllExistingAssets();
-
-            // 转换为Map结构，键为资产ID，值为完整资产对象
-            // 使用Collectors.toMap提供O(1)的查询性能
-            Map<String, CyberAsset> assetsMap = existingAssets.stream()
-                    .collect(Collectors.toMap(
-                            CyberAsset::getId,  // 键：资产ID
-                            asset -> asset,     // 值：完整资产对象
-                            (existing, replacement) -> existing  // 冲突处理：保留现有值
-                    ));
-
-            log.info("成功加载{}条网信资产到内存Map，用于导入时关键字段比较", assetsMap.size());
-            return assetsMap;
-
-        } catch (Exception e) {
-            log.error("加载网信资产Map失败，无法进行关键字段比较", e);
-            throw new RuntimeException("加载资产数据失败: " + e.getMessage());
-        }
-    }
-
     // ============================ 原有方法实现（添加省市自动填充和上报单位同步） ============================
 
 
@@ -146,18 +145,6 @@ public class CyberAssetServiceImpl extends ServiceImpl<CyberAssetMapper, CyberAs
         batchSaveValidData(validDataList);
     }
 
-    @Override
-    public List<String> getExistingIds() {
-        try {
-            List<String> ids = baseMapper.selectAllExistingIds();
-            log.info("查询网信资产已存在ID完成，共{}条记录", ids.size());
-            return ids;
-        } catch (Exception e) {
-            log.error("查询网信资产ID列表失败", e);
-            throw new RuntimeException("查询ID失败：" + e.getMessage());
-        }
-    }
-
     @Override
     @Transactional(rollbackFor = Exception.class)
     public void batchSaveValidData(List<CyberAssetExcelVO> validVoList) {
@@ -350,6 +337,7 @@ public class CyberAssetServiceImpl extends ServiceImpl<CyberAssetMapper, CyberAs
     @Transactional(rollbackFor = Exception.class)
     public void add(CyberAsset asset) {
         log.info("开始新增网信资产，ID：{}", asset.getId());
+        importStagingTool.checkWritable("cyber");
 
         // ==================== 1. 智能省市处理阶段 ====================
         log.debug("🌍 阶段1：开始智能省市处理");
@@ -687,8 +675,8 @@ public class CyberAssetServiceImpl extends ServiceImpl<CyberAssetMapper, CyberAs
             throw new RuntimeException("主键格式错误，必须由字母和数字组成");
         }
 
-        // 唯一性校验
-        if (getExistingIds().contains(asset.getId())) {
+        // 唯一性校验：按主键做存在性查询，不再为单条新增加载全表ID
+        if (baseMapper.exists(new QueryWrapper<CyberAsset>().eq("id", asset.getId()))) {
             throw new RuntimeException("主键已存在：" + asset.getId() + "，请更换ID");
         }
     }
@@ -706,7 +694,7 @@ public class CyberAssetServiceImpl extends ServiceImpl<CyberAssetMapper, CyberAs
 
     /**
      * 2.3 分类编码与资产分类校验
-     * 规则：必填，与资产分类严格匹配，使用CategoryMapUtils中的网信表映射
+     * 规则：必填，与资产分类严格匹配，使用AssetOptionRegistry中的网信表映射
      */
     private void validateCategory(CyberAsset asset) {
         if (!StringUtils.hasText(asset.getCategoryCode())) {
@@ -945,6 +933,7 @@ public class CyberAssetServiceImpl extends ServiceImpl<CyberAssetMapper, CyberAs
     @Transactional(rollbackFor = Exception.class)
     public void update(CyberAsset asset) {
         log.info("🔄 [网信资产] 开始修改网信资产，ID：{}", asset.getId());
+        importStagingTool.checkWritable("cyber");
 
         // ==================== 阶段1：数据存在性校验 ====================
         log.debug("📋 [阶段1] 开始数据存在性校验");
@@ -2326,6 +2315,7 @@ public class CyberAssetServiceImpl extends ServiceImpl<CyberAssetMapper, CyberAs
     @Transactional(rollbackFor = Exception.class)
     public void remove(String id) {
         log.info("🚀 开始删除网信资产，ID：{}", id);
+        importStagingTool.checkWritable("cyber");
 
         // ==================== 1. 资产存在性校验阶段 ====================
 
@@ -2575,7 +2565,7 @@ public class CyberAssetServiceImpl extends ServiceImpl<CyberAssetMapper, CyberAs
 
             log.info("📊 按单位分组完成，共{}个不同单位", unitGroupedAssets.size());
 
-            // 4. 批量同步上报单位表（网信资产特殊处理：有省市字段）
+            // 4. 组装上报单位同步请求（网信资产特殊处理：有省市字段）
             List<ProvinceAutoFillTool.UnitSyncRequest> syncRequests = new ArrayList<>();
             for (Map.Entry<String, List<CyberAsset>> entry : unitGroupedAssets.entrySet()) {
                 String unitName = entry.getKey();
@@ -2589,27 +2579,20 @@ public class CyberAssetServiceImpl extends ServiceImpl<CyberAssetMapper, CyberAs
                 ));
             }
 
-            // 执行批量同步
-            provinceAutoFillTool.batchSyncReportUnits(syncRequests);
-
-            // 🆕 修改：无条件跨表同步到数据内容资产表（跨表同步）
-            log.info("🔄 开始无条件跨表同步到数据内容资产表");
-            int crossSyncCount = 0;
+            // 5. 登记发件箱事件：上报单位同步 + 跨表同步到数据内容资产表（无论省市是什么，分发时目标表存在该单位即同步）
+            //    与资产行同一事务提交，提交后由分发器异步应用，导入事务不再逐单位读写上报单位表
+            List<AssetSyncOutboxEvent> events = new ArrayList<>(syncRequests.size() * 2);
+            for (ProvinceAutoFillTool.UnitSyncRequest request : syncRequests) {
+                events.add(assetSyncOutbox.reportUnitSync(request));
+            }
             for (Map.Entry<String, List<CyberAsset>> entry : unitGroupedAssets.entrySet()) {
-                String unitName = entry.getKey();
                 CyberAsset firstAsset = entry.getValue().get(0);
-                String province = firstAsset.getProvince();
-                String city = firstAsset.getCity();
-
-                // 🆕 修改：无论省市是什么，只要数据内容表存在就同步
-                if (checkUnitExistsInDataContentTable(unitName)) {
-                    syncToDataTable(unitName, province, city);
-                    crossSyncCount++;
-                    log.debug("✅ 跨表同步完成 - 单位: {}, 省市: {}-{}", unitName, province, city);
-                }
+                events.add(assetSyncOutbox.crossTableSync("cyber", entry.getKey(),
+                        firstAsset.getProvince(), firstAsset.getCity()));
             }
+            assetSyncOutbox.enqueue(events);
 
-            log.info("🎉 网信资产批量导入完成，涉及{}个单位", unitGroupedAssets.size());
+            log.info("🎉 网信资产批量导入完成，涉及{}个单位，上报单位与跨表同步已入队", unitGroupedAssets.size());
 
         } catch (Exception e) {
             log.error("❌ 批量保存网信资产失败: {}", e.getMessage(), e);
@@ -3079,46 +3062,8 @@ public class CyberAssetServiceImpl extends ServiceImpl<CyberAssetMapper, CyberAs
             log.info("执行网信资产联合查询 - 条件: reportUnit={}, province={}, city={}",
                     reportUnit, province, city);
 
-            // 构建查询条件
-            QueryWrapper<CyberAsset> queryWrapper = new QueryWrapper<>();
-
-            // 动态添加查询条件 - 使用Java原生字符串判断
-            if (reportUnit != null && !reportUnit.trim().isEmpty()) {
-                queryWrapper.like("report_unit", reportUnit);
-            }
-            if (province != null && !province.trim().isEmpty()) {
-                queryWrapper.eq("province", province);
-            }
-            if (city != null && !city.trim().isEmpty()) {
-                queryWrapper.eq("city", city);
-            }
-            if (categoryCode != null && !categoryCode.trim().isEmpty()) {
-                queryWrapper.like("category_code", categoryCode);
-            }
-            if (assetCategory != null && !assetCategory.trim().isEmpty()) {
-                queryWrapper.like("asset_category", assetCategory);
-            }
-            if (quantityMin != null) {
-                queryWrapper.ge("actual_quantity", quantityMin);
-            }
-            if (quantityMax != null) {
-                queryWrapper.le("actual_quantity", quantityMax);
-            }
-            if (usedQuantityMin != null) {
-                queryWrapper.ge("used_quantity", usedQuantityMin);
-            }
-            if (usedQuantityMax != null) {
-                queryWrapper.le("used_quantity", usedQuantityMax);
-            }
-            if (startUseDateStart != null && !startUseDateStart.trim().isEmpty()) {
-                queryWrapper.ge("put_into_use_date", startUseDateStart);
-            }
-            if (startUseDateEnd != null && !startUseDateEnd.trim().isEmpty()) {
-                queryWrapper.le("put_into_use_date", startUseDateEnd);
-            }
-            if (inventoryUnit != null && !inventoryUnit.trim().isEmpty()) {
-                queryWrapper.like("inventory_unit", inventoryUnit);
-            }
+            // 构建查询条件（与流式导出共用）
+            QueryWrapper<CyberAsset> queryWrapper = buildCombinedQueryWrapper(reportUnit, province, city, categoryCode, assetCategory, quantityMin, quantityMax, usedQuantityMin, usedQuantityMax, startUseDateStart, startUseDateEnd, inventoryUnit);
 
             // 执行分页查询
             Page<CyberAsset> result = baseMapper.selectPage(pageInfo, queryWrapper);
@@ -3132,6 +3077,70 @@ public class CyberAssetServiceImpl extends ServiceImpl<CyberAssetMapper, CyberAs
         }
     }
 
+    /**
+     * 构建网信资产联合查询条件
+     * 分页查询与流式导出共用同一构造逻辑，保证导出结果与查询结果一致
+     */
+    private QueryWrapper<CyberAsset> buildCombinedQueryWrapper(String reportUnit, String province, String city,
+                                                               String categoryCode, String assetCategory, Integer quantityMin,
+                                                               Integer quantityMax, Integer usedQuantityMin, Integer usedQuantityMax,
+                                                               String startUseDateStart, String startUseDateEnd, String inventoryUnit) {
+        QueryWrapper<CyberAsset> queryWrapper = new QueryWrapper<>();
+
+        // 动态添加查询条件 - 使用Java原生字符串判断
+        fullTextSearchTool.contains(queryWrapper, "report_unit", reportUnit);
+        if (province != null && !province.trim().isEmpty()) {
+            queryWrapper.eq("province", province);
+        }
+        if (city != null && !city.trim().isEmpty()) {
+            queryWrapper.eq("city", city);
+        }
+        fullTextSearchTool.contains(queryWrapper, "category_code", categoryCode);
+        fullTextSearchTool.contains(queryWrapper, "asset_category", assetCategory);
+        if (quantityMin != null) {
+            queryWrapper.ge("actual_quantity", quantityMin);
+        }
+        if (quantityMax != null) {
+            queryWrapper.le("actual_quantity", quantityMax);
+        }
+        if (usedQuantityMin != null) {
+            queryWrapper.ge("used_quantity", usedQuantityMin);
+        }
+        if (usedQuantityMax != null) {
+            queryWrapper.le("used_quantity", usedQuantityMax);
+        }
+        if (startUseDateStart != null && !startUseDateStart.trim().isEmpty()) {
+            queryWrapper.ge("put_into_use_date", startUseDateStart);
+        }
+        if (startUseDateEnd != null && !startUseDateEnd.trim().isEmpty()) {
+            queryWrapper.le("put_into_use_date", startUseDateEnd);
+        }
+        fullTextSearchTool.contains(queryWrapper, "inventory_unit", inventoryUnit);
+
+        return queryWrapper;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long streamCombinedQuery(CyberQueryVO queryVO, int batchSize, Consumer<List<CyberAsset>> batchConsumer) {
+        QueryWrapper<CyberAsset> queryWrapper = buildCombinedQueryWrapper(
+                queryVO.getReportUnit(),
+                queryVO.getProvince(),
+                queryVO.getCity(),
+                queryVO.getCategoryCode(),
+                queryVO.getAssetCategory(),
+                queryVO.getQuantityMin(),
+                queryVO.getQuantityMax(),
+                queryVO.getUsedQuantityMin(),
+                queryVO.getUsedQuantityMax(),
+                queryVO.getStartUseDateStart(),
+                queryVO.getStartUseDateEnd(),
+                queryVO.getInventoryUnit());
+        long total = StreamingQueryUtils.forEachBatch(baseMapper.streamByWrapper(queryWrapper), batchSize, batchConsumer);
+        log.info("网信资产流式查询完成，共读取{}条数据", total);
+        return total;
+    }
+
     // ============================== 新增：各省份资产统计方法 ==============================
     /**
      * 获取各省份网信资产统计概览
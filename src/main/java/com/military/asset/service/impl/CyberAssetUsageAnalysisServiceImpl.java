@@ -5,14 +5,20 @@ import com.military.asset.entity.CyberAssetUsageAggregation;
 import com.military.asset.mapper.CyberAssetMapper;
 import com.military.asset.mapper.ReportUnitMapper;
 import com.military.asset.service.CyberAssetUsageAnalysisService;
-import com.military.asset.utils.CategoryMapUtils;
+import com.military.asset.utils.AgingReferenceSettings;
+import com.military.asset.utils.AssetWriteTracker;
+import com.military.asset.utils.AssetOptionRegistry;
+import com.military.asset.utils.ColumnarAssetStore;
 import com.military.asset.utils.CyberAssetUsageFormulaUtils;
 import com.military.asset.utils.SoftwareAssetAgingCalculator;
+import com.military.asset.utils.UsageRateDistribution;
 import com.military.asset.vo.CyberAssetCategoryUsageVO;
 import com.military.asset.vo.CyberAssetUsageInsightVO;
 import com.military.asset.vo.CyberAssetUsageProvinceStatsVO;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.stereotype.Service;
 import org.springframework.util.CollectionUtils;
 import org.springframework.util.StringUtils;
@@ -23,25 +29,42 @@ import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 /**
  * 默认实现：基于 cyber_asset 与 report_unit 表构建使用率分析数据。
+ * <p>
+ * 同省份所有单位共享同一份省内使用率分布：按省份缓存各分类的有序使用率分布，
+ * 随网信资产写入版本整体失效；单位请求只查询本单位的资产行。
+ * </p>
  */
 @Service
 @RequiredArgsConstructor
 @Slf4j
+@Timed(value = "asset.analytics", histogram = true)
 public class CyberAssetUsageAnalysisServiceImpl implements CyberAssetUsageAnalysisService {
 
     private final CyberAssetMapper cyberAssetMapper;
     private final ReportUnitMapper reportUnitMapper;
+    private final ObjectProvider<ColumnarAssetStore> columnarAssetStore;
+    private final AgingReferenceSettings agingReferenceSettings;
+    private final AssetWriteTracker assetWriteTracker;
+
+    private static final String CYBER = "cyber";
+
+    /**
+     * 省份 → 分类 → 使用率分布；版本号落后于网信资产写入版本时整体替换
+     */
+    private volatile ProvinceDistributionCache provinceDistributionCache = new ProvinceDistributionCache(-1L);
 
     private static final List<String> CYBER_ASSET_CATEGORIES;
 
     static {
-        Map<String, String> categoryMap = CategoryMapUtils.initCyberCategoryMap();
+        Map<String, String> categoryMap = AssetOptionRegistry.CYBER.getCategoryMapping();
         CYBER_ASSET_CATEGORIES = Collections.unmodifiableList(
                 categoryMap.entrySet().stream()
                         .sorted(Map.Entry.comparingByKey())
@@ -66,14 +89,12 @@ public class CyberAssetUsageAnalysisServiceImpl implements CyberAssetUsageAnalys
                 .filter(asset -> StringUtils.hasText(asset.getAssetCategory()))
                 .collect(Collectors.groupingBy(CyberAsset::getAssetCategory));
 
-        List<CyberAssetUsageAggregation> provinceAggregations =
-                cyberAssetMapper.aggregateProvinceUsageByAssetCategory(province);
-        Map<String, List<BigDecimal>> provinceUsageRateMap = buildProvinceUsageRateMap(provinceAggregations);
+        Map<String, UsageRateDistribution> provinceDistributions = provinceUsageDistributions(province);
 
         List<CyberAssetCategoryUsageVO> categoryResults = new ArrayList<>();
         for (String category : CYBER_ASSET_CATEGORIES) {
             List<CyberAsset> assets = assetsByCategory.getOrDefault(category, Collections.emptyList());
-            List<BigDecimal> provinceRates = provinceUsageRateMap.getOrDefault(category, Collections.emptyList());
+            UsageRateDistribution provinceRates = provinceDistributions.getOrDefault(category, UsageRateDistribution.EMPTY);
             CyberAssetCategoryUsageVO categoryUsage = buildCategoryUsage(category, assets, provinceRates);
             if (categoryUsage != null) {
                 categoryResults.add(categoryUsage);
@@ -88,11 +109,82 @@ public class CyberAssetUsageAnalysisServiceImpl implements CyberAssetUsageAnalys
         return insightVO;
     }
 
+    /**
+     * 省内各分类的单位使用率分布（缓存，网信资产写入后失效重建）
+     * 聚合查询在computeIfAbsent之外执行，避免数据库调用期间持有ConcurrentHashMap的桶锁；
+     * 并发未命中时可能重复聚合，以先写入的结果为准
+     */
+    private Map<String, UsageRateDistribution> provinceUsageDistributions(String province) {
+        long version = assetWriteTracker.version(CYBER);
+        ProvinceDistributionCache cache = provinceDistributionCache;
+        if (cache.version != version) {
+            cache = new ProvinceDistributionCache(version);
+            provinceDistributionCache = cache;
+        }
+        Map<String, UsageRateDistribution> cached = cache.byProvince.get(province);
+        if (cached != null) {
+            return cached;
+        }
+        Map<String, UsageRateDistribution> built = buildProvinceDistributions(aggregateProvinceUsage(province));
+        Map<String, UsageRateDistribution> existing = cache.byProvince.putIfAbsent(province, built);
+        return existing != null ? existing : built;
+    }
+
+    /**
+     * 同省份各上报单位按资产分类汇总的已用/实有数量
+     * 启用列式快照时在内存中按（单位编码, 分类编码）累加，否则走数据库分组查询
+     */
+    private List<CyberAssetUsageAggregation> aggregateProvinceUsage(String province) {
+        ColumnarAssetStore store = columnarAssetStore.getIfAvailable();
+        if (store == null) {
+            return cyberAssetMapper.aggregateProvinceUsageByAssetCategory(province);
+        }
+        ColumnarAssetStore.CyberColumns columns = store.cyber();
+        int provinceCode = columns.getProvinces().codeOf(province);
+        if (provinceCode == ColumnarAssetStore.NULL_CODE) {
+            return Collections.emptyList();
+        }
+
+        int[] provinceCodes = columns.getProvinceCodes();
+        int[] unitCodes = columns.getReportUnitCodes();
+        int[] categoryCodes = columns.getAssetCategoryCodes();
+        int[] usedQuantities = columns.getUsedQuantities();
+        int[] actualQuantities = columns.getActualQuantities();
+        // 分组键：单位编码 × (分类数+1) + 分类槽位（最后一个槽位对应null分类）
+        long categorySlots = columns.getAssetCategories().size() + 1L;
+        Map<Long, int[]> sums = new LinkedHashMap<>();
+        for (int i = 0; i < columns.getSize(); i++) {
+            if (provinceCodes[i] != provinceCode) {
+                continue;
+            }
+            int categorySlot = categoryCodes[i] == ColumnarAssetStore.NULL_CODE
+                    ? (int) categorySlots - 1 : categoryCodes[i];
+            int[] sum = sums.computeIfAbsent(unitCodes[i] * categorySlots + categorySlot, key -> new int[2]);
+            sum[0] += usedQuantities[i];
+            sum[1] += actualQuantities[i];
+        }
+
+        List<CyberAssetUsageAggregation> aggregations = new ArrayList<>(sums.size());
+        for (Map.Entry<Long, int[]> entry : sums.entrySet()) {
+            int unitCode = (int) (entry.getKey() / categorySlots);
+            int categorySlot = (int) (entry.getKey() % categorySlots);
+            CyberAssetUsageAggregation aggregation = new CyberAssetUsageAggregation();
+            aggregation.setReportUnit(columns.getReportUnits().valueOf(unitCode));
+            aggregation.setAssetCategory(categorySlot == categorySlots - 1
+                    ? null : columns.getAssetCategories().valueOf(categorySlot));
+            aggregation.setUsedQuantity(entry.getValue()[0]);
+            aggregation.setActualQuantity(entry.getValue()[1]);
+            aggregations.add(aggregation);
+        }
+        return aggregations;
+    }
+
     private BigDecimal calculateAgingRate(List<CyberAsset> unitAssets) {
         if (CollectionUtils.isEmpty(unitAssets)) {
             return CyberAssetUsageFormulaUtils.calculateUsageRate(0, 0);
         }
-        LocalDate agingThreshold = LocalDate.now().minusYears(8);
+        LocalDate agingThreshold = agingReferenceSettings.referenceDate()
+                .minusYears(agingReferenceSettings.cyberThresholdYears());
         int totalQuantity = 0;
         int agingQuantity = 0;
         for (CyberAsset asset : unitAssets) {
@@ -111,7 +203,7 @@ public class CyberAssetUsageAnalysisServiceImpl implements CyberAssetUsageAnalys
 
     private CyberAssetCategoryUsageVO buildCategoryUsage(String category,
                                                          List<CyberAsset> assets,
-                                                         List<BigDecimal> provinceRates) {
+                                                         UsageRateDistribution provinceRates) {
         CyberAssetCategoryUsageVO vo = new CyberAssetCategoryUsageVO();
         vo.setAssetCategory(category);
 
@@ -130,8 +222,8 @@ public class CyberAssetUsageAnalysisServiceImpl implements CyberAssetUsageAnalys
         }
 
         int agingTotal = assets.stream()
-                .filter(asset -> SoftwareAssetAgingCalculator.requiresUpgrade(
-                        asset.getPutIntoUseDate(), LocalDate.now()))
+                .filter(asset -> SoftwareAssetAgingCalculator.requiresUpgrade(asset.getPutIntoUseDate(),
+                        agingReferenceSettings.referenceDate(), agingReferenceSettings.cyberThresholdYears()))
                 .map(CyberAsset::getUsedQuantity)
                 .map(this::safeQuantity)
                 .mapToInt(Integer::intValue)
@@ -146,7 +238,7 @@ public class CyberAssetUsageAnalysisServiceImpl implements CyberAssetUsageAnalys
         vo.setAgingRate(SoftwareAssetAgingCalculator.calculateAgingRatio(agingTotal, actualTotal));
 
         List<CyberAssetUsageFormulaUtils.UsageDurationSample> samples = buildUsageSamples(assets);
-        BigDecimal usageYears = CyberAssetUsageFormulaUtils.calculateWeightedUsageYears(samples, LocalDate.now());
+        BigDecimal usageYears = CyberAssetUsageFormulaUtils.calculateWeightedUsageYears(samples, agingReferenceSettings.referenceDate());
         if (usageYears.scale() > 2) {
             usageYears = usageYears.setScale(2, RoundingMode.HALF_UP);
         }
@@ -156,10 +248,10 @@ public class CyberAssetUsageAnalysisServiceImpl implements CyberAssetUsageAnalys
         return vo;
     }
 
-    private Map<String, List<BigDecimal>> buildProvinceUsageRateMap(List<CyberAssetUsageAggregation> aggregations) {
+    private Map<String, UsageRateDistribution> buildProvinceDistributions(List<CyberAssetUsageAggregation> aggregations) {
         Map<String, List<BigDecimal>> result = new HashMap<>();
         if (CollectionUtils.isEmpty(aggregations)) {
-            return result;
+            return Collections.emptyMap();
         }
         for (CyberAssetUsageAggregation aggregation : aggregations) {
             if (aggregation == null || !StringUtils.hasText(aggregation.getAssetCategory())) {
@@ -170,7 +262,9 @@ public class CyberAssetUsageAnalysisServiceImpl implements CyberAssetUsageAnalys
             BigDecimal rate = CyberAssetUsageFormulaUtils.calculateUsageRate(used, actual);
             result.computeIfAbsent(aggregation.getAssetCategory(), key -> new ArrayList<>()).add(rate);
         }
-        return result;
+        Map<String, UsageRateDistribution> distributions = new HashMap<>(result.size() * 2);
+        result.forEach((category, rates) -> distributions.put(category, UsageRateDistribution.of(rates)));
+        return Collections.unmodifiableMap(distributions);
     }
 
     private List<CyberAssetUsageFormulaUtils.UsageDurationSample> buildUsageSamples(List<CyberAsset> assets) {
@@ -185,12 +279,12 @@ public class CyberAssetUsageAnalysisServiceImpl implements CyberAssetUsageAnalys
                 .collect(Collectors.toList());
     }
 
-    private CyberAssetUsageProvinceStatsVO buildProvinceStats(List<BigDecimal> provinceRates) {
-        List<BigDecimal> safeRates = provinceRates == null ? Collections.emptyList() : provinceRates;
+    private CyberAssetUsageProvinceStatsVO buildProvinceStats(UsageRateDistribution provinceRates) {
+        UsageRateDistribution distribution = provinceRates == null ? UsageRateDistribution.EMPTY : provinceRates;
         CyberAssetUsageProvinceStatsVO statsVO = new CyberAssetUsageProvinceStatsVO();
-        statsVO.setAverage(CyberAssetUsageFormulaUtils.calculateMean(safeRates));
-        statsVO.setMedian(CyberAssetUsageFormulaUtils.calculateMedian(safeRates));
-        statsVO.setVariance(CyberAssetUsageFormulaUtils.calculateVariance(safeRates));
+        statsVO.setAverage(distribution.mean());
+        statsVO.setMedian(distribution.median());
+        statsVO.setVariance(distribution.variance());
         return statsVO;
     }
 
@@ -209,4 +303,17 @@ public class CyberAssetUsageAnalysisServiceImpl implements CyberAssetUsageAnalys
     private int safeQuantity(Integer value) {
         return value == null ? 0 : Math.max(value, 0);
     }
-}
\ No newline at end of file
+
+    /**
+     * 省份使用率分布缓存（对应某一网信资产写入版本）
+     */
+    private static final class ProvinceDistributionCache {
+
+        private final long version;
+        private final Map<String, Map<String, UsageRateDistribution>> byProvince = new ConcurrentHashMap<>();
+
+        private ProvinceDistributionCache(long version) {
+            this.version = version;
+        }
+    }
+}
@@ -8,10 +8,12 @@ import com.military.asset.utils.*;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page; // 确保导入Page类
 import com.military.asset.vo.DataAssetReportUnitAnalysisVO;
 import com.military.asset.vo.ExcelErrorVO;
+import com.military.asset.vo.DataContentQueryVO;
 import com.military.asset.vo.excel.DataContentAssetExcelVO;
 import com.military.asset.vo.stat.ProvinceMetricVO;
 
 import java.util.Arrays;
+import io.micrometer.core.annotation.Timed;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.BeanUtils;
 import org.springframework.stereotype.Service;
@@ -25,6 +27,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
@@ -39,6 +42,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 
 //修改导入依赖
 import com.military.asset.entity.CyberAsset;
+import com.military.asset.entity.AssetSyncOutboxEvent;
 import com.military.asset.entity.ReportUnit;
 import com.military.asset.entity.HasReportUnitAndProvince;
 import com.military.asset.mapper.CyberAssetMapper;
@@ -48,7 +52,6 @@ import com.military.asset.mapper.ReportUnitMapper;
 /**
  * 数据内容资产业务实现类
  * 适配数据特有约束（开发工具非空），结构与软件/网信资产保持一致
- * - getExistingAssetsMap(): 实现完整资产对象Map的加载，用于导入时关键字段比较
 
  * 新增功能：
  * - 省市自动填充：集成ProvinceAutoFillTool实现省市字段自动填充
@@ -63,7 +66,7 @@ public class DataContentAssetServiceImpl extends ServiceImpl<DataContentAssetMap
     /**
      * 数据资产分类映射表：从工具类获取标准编码-分类对应关系
      */
-    private final Map<String, String> CATEGORY_MAP = CategoryMapUtils.initDataCategoryMap();
+    private final Map<String, String> CATEGORY_MAP = AssetOptionRegistry.DATA_CONTENT.getCategoryMapping();
     // ============================ 新增依赖注入 ============================
 
     /**
@@ -73,6 +76,25 @@ public class DataContentAssetServiceImpl extends ServiceImpl<DataContentAssetMap
     @Resource
     private ProvinceAutoFillTool provinceAutoFillTool;
 
+    /**
+     * 导入副作用发件箱：批量导入的上报单位同步、跨表同步随资产行同事务登记，提交后异步应用
+     */
+    @Resource
+    private AssetSyncOutbox assetSyncOutbox;
+
+
+    /**
+     * 全文检索条件构建：联合查询的模糊匹配字段走ngram FULLTEXT索引
+     */
+    @Resource
+    private FullTextSearchTool fullTextSearchTool;
+
+    /**
+     * 导入暂存表工具：暂存导入进行中时拒绝单条写入正式表（替换时会被整体覆盖）
+     */
+    @Resource
+    private ImportStagingTool importStagingTool;
+
     /**
      * 数据内容资产数据访问接口
      * 用于执行数据内容资产表的数据库操作，包括自定义查询和统计
@@ -105,32 +127,6 @@ public class DataContentAssetServiceImpl extends ServiceImpl<DataContentAssetMap
     @Resource
     private CyberAssetMapper cyberAssetMapper;
 
-    // ============================ 新增方法实现 ============================
-
-    @Override
-    public Map<String, DataContentAsset> getExistingAssetsMap() {
-        try {
-            // 查询所有已存在的数据内容资产（完整对象）
-            List<DataContentAsset> existingAssets = baseMapper.selectAllExistingAssets();
-
-            // 转换为Map结构，键为资产ID，值为完整资产对象
-            // 使用Collectors.toMap提供O(1)的查询性能
-            Map<String, DataContentAsset> assetsMap = existingAssets.stream()
-                    .collect(Collectors.toMap(
-                            DataContentAsset::getId,  // 键：资产ID
-                            asset -> asset,          // 值：完整资产对象
-                            (existing, replacement) -> existing  // 冲突处理：保留现有值
-                    ));
-
-            log.info("成功加载{}条数据内容资产到内存Map，用于导入时关键字段比较", assetsMap.size());
-            return assetsMap;
-
-        } catch (Exception e) {
-            log.error("加载数据内容资产Map失败，无法进行关键字段比较", e);
-            throw new RuntimeException("加载资产数据失败: " + e.getMessage());
-        }
-    }
-
     // ============================ 原有方法实现（保持业务逻辑不变） ============================
 
 
@@ -141,18 +137,6 @@ public class DataContentAssetServiceImpl extends ServiceImpl<DataContentAssetMap
         batchSaveValidData(validDataList);
     }
 
-    @Override
-    public List<String> getExistingIds() {
-        try {
-            List<String> ids = baseMapper.selectAllExistingIds();
-            log.info("查询数据资产已存在ID完成，共{}条记录", ids.size());
-            return ids;
-        } catch (Exception e) {
-            log.error("查询数据资产ID失败", e);
-            throw new RuntimeException("查询ID异常：" + e.getMessage());
-        }
-    }
-
     @Override
     @Transactional(rollbackFor = Exception.class)
     public void batchSaveValidData(List<DataContentAssetExcelVO> validVoList) {
@@ -329,6 +313,7 @@ public class DataContentAssetServiceImpl extends ServiceImpl<DataContentAssetMap
     @Transactional(rollbackFor = Exception.class)
     public void add(DataContentAsset asset) {
         log.info("开始新增数据内容资产，ID：{}", asset.getId());
+        importStagingTool.checkWritable("dataContent");
 
         // ==================== 1. 智能省市处理阶段 ====================
         log.debug("🌍 阶段1：开始智能省市处理");
@@ -698,8 +683,8 @@ public class DataContentAssetServiceImpl extends ServiceImpl<DataContentAssetMap
             throw new RuntimeException("主键格式错误，必须由字母和数字组成");
         }
 
-        // 唯一性校验
-        if (getExistingIds().contains(asset.getId())) {
+        // 唯一性校验：按主键做存在性查询，不再为单条新增加载全表ID
+        if (baseMapper.exists(new QueryWrapper<DataContentAsset>().eq("id", asset.getId()))) {
             throw new RuntimeException("主键已存在：" + asset.getId() + "，请更换ID");
         }
     }
@@ -717,7 +702,7 @@ public class DataContentAssetServiceImpl extends ServiceImpl<DataContentAssetMap
 
     /**
      * 2.3 分类编码与资产分类校验
-     * 规则：必填，与资产分类严格匹配，使用CategoryMapUtils中的数据表映射
+     * 规则：必填，与资产分类严格匹配，使用AssetOptionRegistry中的数据表映射
      */
     private void validateCategory(DataContentAsset asset) {
         if (!StringUtils.hasText(asset.getCategoryCode())) {
@@ -1032,6 +1017,7 @@ public class DataContentAssetServiceImpl extends ServiceImpl<DataContentAssetMap
     @Transactional(rollbackFor = Exception.class)
     public void update(DataContentAsset asset) {
         log.info("🔄 [数据资产] 开始修改数据内容资产，ID：{}", asset.getId());
+        importStagingTool.checkWritable("dataContent");
 
         // ==================== 阶段1：数据存在性校验 ====================
         log.debug("📋 [阶段1] 开始数据存在性校验");
@@ -2289,6 +2275,7 @@ public class DataContentAssetServiceImpl extends ServiceImpl<DataContentAssetMap
     @Transactional(rollbackFor = Exception.class)
     public void remove(String id) {
         log.info("🚀 开始删除数据内容资产，ID：{}", id);
+        importStagingTool.checkWritable("dataContent");
 
         // ==================== 1. 资产存在性校验阶段 ====================
 
@@ -2350,6 +2337,7 @@ public class DataContentAssetServiceImpl extends ServiceImpl<DataContentAssetMap
     }
 
     @Override
+    @Timed(value = "asset.analytics", histogram = true)
     public List<ProvinceMetricVO> calculateAllProvinceInformationDegree() {
         Map<String, Long> provinceTotals = queryProvinceQuantities(null);
         long totalQuantity = provinceTotals.values().stream().mapToLong(Long::longValue).sum();
@@ -2367,6 +2355,7 @@ public class DataContentAssetServiceImpl extends ServiceImpl<DataContentAssetMap
     }
 
     @Override
+    @Timed(value = "asset.analytics", histogram = true)
     public List<ProvinceMetricVO> calculateAllProvinceDomesticRate() {
         Map<String, Long> provinceTotals = queryProvinceQuantities(null);
         if (provinceTotals.isEmpty()) {
@@ -2389,6 +2378,7 @@ public class DataContentAssetServiceImpl extends ServiceImpl<DataContentAssetMap
     }
 
     @Override
+    @Timed(value = "asset.analytics", histogram = true)
     public DataAssetReportUnitAnalysisVO analyzeReportUnitDomainAndCycle(String reportUnit) {
         if (!StringUtils.hasText(reportUnit)) {
             throw new IllegalArgumentException("上报单位不能为空");
@@ -2449,8 +2439,8 @@ public class DataContentAssetServiceImpl extends ServiceImpl<DataContentAssetMap
         String province = dataContentAssetMapper.getProvinceByReportUnit(reportUnit);
         if (StringUtils.hasText(province)) {
             vo.setProvince(province);
-            Map<String, List<Integer>> fieldQuantities = queryProvinceFieldQuantities(province);
-            vo.setProvinceFieldQuantityStatistics(DataAssetProvinceStatisticsUtils.calculateFieldQuantityStatistics(fieldQuantities));
+            Map<String, FieldQuantityAccumulator> fieldQuantities = queryProvinceFieldQuantities(province);
+            vo.setProvinceFieldQuantityStatistics(DataAssetProvinceStatisticsUtils.summarize(fieldQuantities));
         }
 
         log.info("上报单位领域/周期分析完成 - 单位: {}, 耗时: {}ms", reportUnit, System.currentTimeMillis() - start);
@@ -2506,14 +2496,16 @@ public class DataContentAssetServiceImpl extends ServiceImpl<DataContentAssetMap
 
     // ============================ 私有工具方法 ============================
 
-    private Map<String, List<Integer>> queryProvinceFieldQuantities(String province) {
-        List<Map<String, Object>> rows = dataContentAssetMapper.selectApplicationFieldQuantitiesByProvince(province);
-        Map<String, List<Integer>> fieldQuantities = new LinkedHashMap<>();
-        for (Map<String, Object> row : rows) {
-            String field = (String) row.get("applicationField");
-            Integer quantity = row.get("actualQuantity") == null ? null : ((Number) row.get("actualQuantity")).intValue();
-            fieldQuantities.computeIfAbsent(field, k -> new ArrayList<>()).add(quantity);
-        }
+    private Map<String, FieldQuantityAccumulator> queryProvinceFieldQuantities(String province) {
+        Map<String, FieldQuantityAccumulator> fieldQuantities = new LinkedHashMap<>();
+        dataContentAssetMapper.scanApplicationFieldQuantitiesByProvince(province, context -> {
+            Map<String, Object> row = context.getResultObject();
+            Object quantity = row.get("actualQuantity");
+            if (quantity != null) {
+                fieldQuantities.computeIfAbsent((String) row.get("applicationField"), k -> new FieldQuantityAccumulator())
+                        .add(((Number) quantity).intValue());
+            }
+        });
         return fieldQuantities;
     }
 
@@ -2727,7 +2719,7 @@ public class DataContentAssetServiceImpl extends ServiceImpl<DataContentAssetMap
 
             log.info("📊 按单位分组完成，共{}个不同单位", unitGroupedAssets.size());
 
-            // 4. 批量同步上报单位表（数据内容资产特殊处理：有省市字段）
+            // 4. 组装上报单位同步请求（数据内容资产特殊处理：有省市字段）
             List<ProvinceAutoFillTool.UnitSyncRequest> syncRequests = new ArrayList<>();
             for (Map.Entry<String, List<DataContentAsset>> entry : unitGroupedAssets.entrySet()) {
                 String unitName = entry.getKey();
@@ -2741,27 +2733,20 @@ public class DataContentAssetServiceImpl extends ServiceImpl<DataContentAssetMap
                 ));
             }
 
-            // 执行批量同步
-            provinceAutoFillTool.batchSyncReportUnits(syncRequests);
-
-            // 🆕 新增：无条件跨表同步到网信资产表
-            log.info("🔄 开始无条件跨表同步到网信资产表");
-            int crossSyncCount = 0;
+            // 5. 登记发件箱事件：上报单位同步 + 跨表同步到网信资产表（无论省市是什么，分发时目标表存在该单位即同步）
+            //    与资产行同一事务提交，提交后由分发器异步应用，导入事务不再逐单位读写上报单位表
+            List<AssetSyncOutboxEvent> events = new ArrayList<>(syncRequests.size() * 2);
+            for (ProvinceAutoFillTool.UnitSyncRequest request : syncRequests) {
+                events.add(assetSyncOutbox.reportUnitSync(request));
+            }
             for (Map.Entry<String, List<DataContentAsset>> entry : unitGroupedAssets.entrySet()) {
-                String unitName = entry.getKey();
                 DataContentAsset firstAsset = entry.getValue().get(0);
-                String province = firstAsset.getProvince();
-                String city = firstAsset.getCity();
-
-                // 🎯 无论省市是什么，只要网信表存在就同步
-                if (checkUnitExistsInCyberTable(unitName)) {
-                    syncToCyberTable(unitName, province, city);
-                    crossSyncCount++;
-                    log.debug("✅ 跨表同步完成 - 单位: {}, 省市: {}-{}", unitName, province, city);
-                }
+                events.add(assetSyncOutbox.crossTableSync("dataContent", entry.getKey(),
+                        firstAsset.getProvince(), firstAsset.getCity()));
             }
+            assetSyncOutbox.enqueue(events);
 
-            log.info("🎉 数据内容资产批量导入完成，涉及{}个单位，跨表同步{}个单位", unitGroupedAssets.size(), crossSyncCount);
+            log.info("🎉 数据内容资产批量导入完成，涉及{}个单位，上报单位与跨表同步已入队", unitGroupedAssets.size());
 
         } catch (Exception e) {
             log.error("❌ 批量保存数据内容资产失败: {}", e.getMessage(), e);
@@ -3232,40 +3217,8 @@ public class DataContentAssetServiceImpl extends ServiceImpl<DataContentAssetMap
             log.info("执行数据资产联合查询 - 条件: reportUnit={}, province={}, city={}",
                     reportUnit, province, city);
 
-            // 构建查询条件
-            QueryWrapper<DataContentAsset> queryWrapper = new QueryWrapper<>();
-
-            // 动态添加查询条件 - 使用Java原生字符串判断
-            if (reportUnit != null && !reportUnit.trim().isEmpty()) {
-                queryWrapper.like("report_unit", reportUnit);
-            }
-            if (province != null && !province.trim().isEmpty()) {
-                queryWrapper.eq("province", province);
-            }
-            if (city != null && !city.trim().isEmpty()) {
-                queryWrapper.eq("city", city);
-            }
-            if (applicationField != null && !applicationField.trim().isEmpty()) {
-                queryWrapper.like("application_field", applicationField);
-            }
-            if (developmentTool != null && !developmentTool.trim().isEmpty()) {
-                queryWrapper.like("development_tool", developmentTool);
-            }
-            if (quantityMin != null) {
-                queryWrapper.ge("actual_quantity", quantityMin);
-            }
-            if (quantityMax != null) {
-                queryWrapper.le("actual_quantity", quantityMax);
-            }
-            if (updateCycle != null && !updateCycle.trim().isEmpty()) {
-                queryWrapper.eq("update_cycle", updateCycle);
-            }
-            if (updateMethod != null && !updateMethod.trim().isEmpty()) {
-                queryWrapper.eq("update_method", updateMethod);
-            }
-            if (inventoryUnit != null && !inventoryUnit.trim().isEmpty()) {
-                queryWrapper.like("inventory_unit", inventoryUnit);
-            }
+            // 构建查询条件（与流式导出共用）
+            QueryWrapper<DataContentAsset> queryWrapper = buildCombinedQueryWrapper(reportUnit, province, city, applicationField, developmentTool, quantityMin, quantityMax, updateCycle, updateMethod, inventoryUnit);
 
             // 执行分页查询
             Page<DataContentAsset> result = baseMapper.selectPage(pageInfo, queryWrapper);
@@ -3279,6 +3232,62 @@ public class DataContentAssetServiceImpl extends ServiceImpl<DataContentAssetMap
         }
     }
 
+    /**
+     * 构建数据资产联合查询条件
+     * 分页查询与流式导出共用同一构造逻辑，保证导出结果与查询结果一致
+     */
+    private QueryWrapper<DataContentAsset> buildCombinedQueryWrapper(String reportUnit, String province, String city,
+                                                                     String applicationField, String developmentTool, Integer quantityMin,
+                                                                     Integer quantityMax, String updateCycle, String updateMethod,
+                                                                     String inventoryUnit) {
+        QueryWrapper<DataContentAsset> queryWrapper = new QueryWrapper<>();
+
+        // 动态添加查询条件 - 使用Java原生字符串判断
+        fullTextSearchTool.contains(queryWrapper, "report_unit", reportUnit);
+        if (province != null && !province.trim().isEmpty()) {
+            queryWrapper.eq("province", province);
+        }
+        if (city != null && !city.trim().isEmpty()) {
+            queryWrapper.eq("city", city);
+        }
+        fullTextSearchTool.contains(queryWrapper, "application_field", applicationField);
+        fullTextSearchTool.contains(queryWrapper, "development_tool", developmentTool);
+        if (quantityMin != null) {
+            queryWrapper.ge("actual_quantity", quantityMin);
+        }
+        if (quantityMax != null) {
+            queryWrapper.le("actual_quantity", quantityMax);
+        }
+        if (updateCycle != null && !updateCycle.trim().isEmpty()) {
+            queryWrapper.eq("update_cycle", updateCycle);
+        }
+        if (updateMethod != null && !updateMethod.trim().isEmpty()) {
+            queryWrapper.eq("update_method", updateMethod);
+        }
+        fullTextSearchTool.contains(queryWrapper, "inventory_unit", inventoryUnit);
+
+        return queryWrapper;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long streamCombinedQuery(DataContentQueryVO queryVO, int batchSize, Consumer<List<DataContentAsset>> batchConsumer) {
+        QueryWrapper<DataContentAsset> queryWrapper = buildCombinedQueryWrapper(
+                queryVO.getReportUnit(),
+                queryVO.getProvince(),
+                queryVO.getCity(),
+                queryVO.getApplicationField(),
+                queryVO.getDevelopmentTool(),
+                queryVO.getQuantityMin(),
+                queryVO.getQuantityMax(),
+                queryVO.getUpdateCycle(),
+                queryVO.getUpdateMethod(),
+                queryVO.getInventoryUnit());
+        long total = StreamingQueryUtils.forEachBatch(baseMapper.streamByWrapper(queryWrapper), batchSize, batchConsumer);
+        log.info("数据资产流式查询完成，共读取{}条数据", total);
+        return total;
+    }
+
     // ============================== 新增：各省份资产统计方法 ==============================
     /**
      * 获取各省份数据资产统计概览
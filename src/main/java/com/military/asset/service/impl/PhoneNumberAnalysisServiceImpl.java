@@ -1,39 +1,74 @@
 package com.military.asset.service.impl;
 
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.military.asset.mapper.CyberAssetMapper;
 import com.military.asset.service.PhoneNumberAnalysisService;
+import com.military.asset.utils.AssetWriteTracker;
 import com.military.asset.vo.PhoneNumberAnalysisVO;
+import com.military.asset.vo.stat.PhoneNumberRollupRow;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeanUtils;
 import org.springframework.stereotype.Service;
 import org.springframework.util.CollectionUtils;
 import org.springframework.util.StringUtils;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * 电话号码分类分析服务实现。
+ * <p>
+ * 全国汇总模式：一次按上报单位分组的查询得到全部单位的四类号码数量，按与单位接口相同的公式计算指数，
+ * 省份结果由单位数量合并后再套用同一公式。结果按网信资产表的写入版本缓存为快照，表未变化时直接在快照上筛选、排序、分页。
+ * </p>
  */
 @Service
 @RequiredArgsConstructor
 @Slf4j
+@Timed(value = "asset.analytics", histogram = true)
 public class PhoneNumberAnalysisServiceImpl implements PhoneNumberAnalysisService {
 
-    private static final List<String> PHONE_CATEGORIES = Arrays.asList(
-            "人工电话号码",
-            "自动电话号码",
-            "移动手机号码",
-            "保密电话号码"
-    );
+    private static final String MANUAL = "人工电话号码";
+    private static final String AUTOMATIC = "自动电话号码";
+    private static final String MOBILE = "移动手机号码";
+    private static final String SECRECY = "保密电话号码";
+
+    private static final List<String> PHONE_CATEGORIES = Arrays.asList(MANUAL, AUTOMATIC, MOBILE, SECRECY);
 
     private static final BigDecimal HUNDRED = BigDecimal.valueOf(100);
 
+    private static final String CYBER = "cyber";
+    private static final String UNKNOWN_PROVINCE = "未知";
+    private static final String LEVEL_UNIT = "unit";
+    private static final String LEVEL_PROVINCE = "province";
+
+    /**
+     * 汇总结果排序字段：指数/数量降序，相同时按总数降序、名称升序
+     */
+    private static final Map<String, Function<PhoneNumberAnalysisVO, Comparable<?>>> SORT_KEYS = Map.of(
+            "service", PhoneNumberAnalysisVO::getServiceIndex,
+            "mobility", PhoneNumberAnalysisVO::getMobilityIndex,
+            "secrecy", PhoneNumberAnalysisVO::getSecrecyIndex,
+            "total", PhoneNumberAnalysisVO::getTotalCount
+    );
+
     private final CyberAssetMapper cyberAssetMapper;
+    private final AssetWriteTracker assetWriteTracker;
+
+    private volatile RollupSnapshot rollupSnapshot;
 
     @Override
     public PhoneNumberAnalysisVO analyze(String reportUnit) {
@@ -44,15 +79,134 @@ public class PhoneNumberAnalysisServiceImpl implements PhoneNumberAnalysisServic
         List<Map<String, Object>> rows = cyberAssetMapper.sumPhoneNumberQuantityByCategory(reportUnit, PHONE_CATEGORIES);
         Map<String, Integer> categoryCountMap = toCountMap(rows);
 
-        int manual = categoryCountMap.getOrDefault("人工电话号码", 0);
-        int automatic = categoryCountMap.getOrDefault("自动电话号码", 0);
-        int mobile = categoryCountMap.getOrDefault("移动手机号码", 0);
-        int secrecy = categoryCountMap.getOrDefault("保密电话号码", 0);
+        PhoneNumberAnalysisVO vo = buildAnalysis(
+                categoryCountMap.getOrDefault(MANUAL, 0),
+                categoryCountMap.getOrDefault(AUTOMATIC, 0),
+                categoryCountMap.getOrDefault(MOBILE, 0),
+                categoryCountMap.getOrDefault(SECRECY, 0));
+        vo.setReportUnit(reportUnit);
+        return vo;
+    }
+
+    @Override
+    public Page<PhoneNumberAnalysisVO> analyzeRollup(String level, String province, String type, String sortBy,
+                                                     long pageNum, long pageSize) {
+        if (pageNum < 1 || pageSize < 1) {
+            throw new IllegalArgumentException("页码和每页条数必须大于0");
+        }
+        String resolvedLevel = StringUtils.hasText(level) ? level : LEVEL_UNIT;
+        if (!LEVEL_UNIT.equals(resolvedLevel) && !LEVEL_PROVINCE.equals(resolvedLevel)) {
+            throw new IllegalArgumentException("汇总层级不合法，必须是: unit, province");
+        }
+        String resolvedSort = StringUtils.hasText(sortBy) ? sortBy : "total";
+        Function<PhoneNumberAnalysisVO, Comparable<?>> sortKey = SORT_KEYS.get(resolvedSort);
+        if (sortKey == null) {
+            throw new IllegalArgumentException("排序字段不合法，必须是: service, mobility, secrecy, total");
+        }
+
+        RollupSnapshot snapshot = currentRollup();
+        List<PhoneNumberAnalysisVO> source = LEVEL_UNIT.equals(resolvedLevel) ? snapshot.units : snapshot.provinces;
+        List<PhoneNumberAnalysisVO> ranked = source.stream()
+                .filter(vo -> !StringUtils.hasText(province) || province.equals(vo.getProvince()))
+                .filter(vo -> !StringUtils.hasText(type) || type.equals(vo.getType()))
+                .sorted(rankOrder(sortKey))
+                .collect(Collectors.toList());
+
+        long from = Math.min((pageNum - 1) * pageSize, ranked.size());
+        long to = Math.min(from + pageSize, ranked.size());
+        Page<PhoneNumberAnalysisVO> page = new Page<>(pageNum, pageSize, ranked.size());
+        // 快照中的VO在请求间共享，返回副本避免调用方修改污染后续请求
+        page.setRecords(ranked.subList((int) from, (int) to).stream()
+                .map(PhoneNumberAnalysisServiceImpl::copyOf)
+                .collect(Collectors.toList()));
+        return page;
+    }
+
+    private static PhoneNumberAnalysisVO copyOf(PhoneNumberAnalysisVO source) {
+        PhoneNumberAnalysisVO copy = new PhoneNumberAnalysisVO();
+        BeanUtils.copyProperties(source, copy);
+        return copy;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Comparator<PhoneNumberAnalysisVO> rankOrder(Function<PhoneNumberAnalysisVO, Comparable<?>> sortKey) {
+        Comparator<PhoneNumberAnalysisVO> byKey = Comparator.comparing(vo -> (Comparable) sortKey.apply(vo));
+        return byKey.reversed()
+                .thenComparing(Comparator.comparingInt(PhoneNumberAnalysisVO::getTotalCount).reversed())
+                .thenComparing(vo -> Objects.requireNonNullElse(
+                        vo.getReportUnit() != null ? vo.getReportUnit() : vo.getProvince(), ""));
+    }
+
+    /**
+     * 当前全国汇总快照（网信资产表写入版本变化时重建）
+     */
+    private RollupSnapshot currentRollup() {
+        RollupSnapshot current = rollupSnapshot;
+        if (current != null && current.version == assetWriteTracker.version(CYBER)) {
+            return current;
+        }
+        return rebuildRollup();
+    }
+
+    private synchronized RollupSnapshot rebuildRollup() {
+        long version = assetWriteTracker.version(CYBER);
+        RollupSnapshot current = rollupSnapshot;
+        if (current != null && current.version == version) {
+            return current;
+        }
+        long start = System.nanoTime();
+        List<PhoneNumberRollupRow> rows = cyberAssetMapper.sumPhoneNumberQuantityByUnit(MANUAL, AUTOMATIC, MOBILE, SECRECY);
+        if (rows == null) {
+            rows = Collections.emptyList();
+        }
+
+        List<PhoneNumberAnalysisVO> units = new ArrayList<>(rows.size());
+        Map<String, long[]> provinceCounts = new LinkedHashMap<>();
+        for (PhoneNumberRollupRow row : rows) {
+            String province = StringUtils.hasText(row.getProvince()) ? row.getProvince() : UNKNOWN_PROVINCE;
+            long[] counts = {valueOf(row.getManualCount()), valueOf(row.getAutomaticCount()),
+                    valueOf(row.getMobileCount()), valueOf(row.getSecrecyCount())};
+
+            PhoneNumberAnalysisVO unit = buildAnalysis(counts);
+            unit.setReportUnit(row.getReportUnit());
+            unit.setProvince(province);
+            units.add(unit);
+
+            long[] provinceTotal = provinceCounts.computeIfAbsent(province, key -> new long[PHONE_CATEGORIES.size()]);
+            for (int i = 0; i < counts.length; i++) {
+                provinceTotal[i] += counts[i];
+            }
+        }
+        List<PhoneNumberAnalysisVO> provinces = new ArrayList<>(provinceCounts.size());
+        provinceCounts.forEach((province, counts) -> {
+            PhoneNumberAnalysisVO vo = buildAnalysis(counts);
+            vo.setProvince(province);
+            provinces.add(vo);
+        });
+
+        RollupSnapshot rebuilt = new RollupSnapshot(version, List.copyOf(units), List.copyOf(provinces));
+        rollupSnapshot = rebuilt;
+        log.info("电话号码全国汇总快照已重建 - 单位: {}，省份: {}，耗时: {}ms",
+                units.size(), provinces.size(), (System.nanoTime() - start) / 1_000_000);
+        return rebuilt;
+    }
+
+    private PhoneNumberAnalysisVO buildAnalysis(long[] counts) {
+        return buildAnalysis(Math.toIntExact(counts[0]), Math.toIntExact(counts[1]),
+                Math.toIntExact(counts[2]), Math.toIntExact(counts[3]));
+    }
 
+    private long valueOf(Long value) {
+        return value == null ? 0L : value;
+    }
+
+    /**
+     * 按四类号码数量计算服务/机动/保密指数与单位类型（单位接口与全国汇总共用）
+     */
+    private PhoneNumberAnalysisVO buildAnalysis(int manual, int automatic, int mobile, int secrecy) {
         int total = manual + automatic + mobile + secrecy;
 
         PhoneNumberAnalysisVO vo = new PhoneNumberAnalysisVO();
-        vo.setReportUnit(reportUnit);
         vo.setManualCount(manual);
         vo.setAutomaticCount(automatic);
         vo.setMobileCount(mobile);
@@ -140,4 +294,20 @@ public class PhoneNumberAnalysisServiceImpl implements PhoneNumberAnalysisServic
     private BigDecimal scaleTwo(BigDecimal value) {
         return value.setScale(2, RoundingMode.HALF_UP);
     }
+
+    /**
+     * 全国汇总快照（列表不可变，元素VO只在服务内部读取，对外返回副本），按网信资产写入版本整体重建
+     */
+    private static final class RollupSnapshot {
+
+        private final long version;
+        private final List<PhoneNumberAnalysisVO> units;
+        private final List<PhoneNumberAnalysisVO> provinces;
+
+        private RollupSnapshot(long version, List<PhoneNumberAnalysisVO> units, List<PhoneNumberAnalysisVO> provinces) {
+            this.version = version;
+            this.units = units;
+            this.provinces = provinces;
+        }
+    }
 }
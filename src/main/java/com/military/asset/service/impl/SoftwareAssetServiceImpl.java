@@ -1,10 +1,17 @@
 package com.military.asset.service.impl;
 
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.military.asset.entity.DeploymentScopeAggregation;
 import com.military.asset.entity.SoftwareAsset;
 import com.military.asset.mapper.SoftwareAssetMapper;
 import com.military.asset.service.SoftwareAssetService;
-import com.military.asset.utils.CategoryMapUtils;
+import com.military.asset.utils.AssetWriteTracker;
+import com.military.asset.utils.StreamingQueryUtils;
+import com.military.asset.utils.AssetOptionRegistry;
+import com.military.asset.utils.ColumnarAssetStore;
+import com.military.asset.utils.FullTextSearchTool;
+import com.military.asset.utils.ImportStagingTool;
+import com.military.asset.utils.AssetSyncOutbox;
 import com.military.asset.utils.ProvinceAutoFillTool; // 新增：导入同步工具（仅用于上报单位同步）
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page; // 新增：导入Page类
 import com.military.asset.utils.ReportUnitImportanceUtils;
@@ -13,8 +20,11 @@ import com.military.asset.vo.*;
 import com.military.asset.vo.excel.SoftwareAssetExcelVO;
 import com.military.asset.vo.stat.SoftwareAssetStatisticRow;
 import com.military.asset.vo.stat.SoftwareAssetStatisticVO;
+import io.micrometer.core.annotation.Timed;
+import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
@@ -25,6 +35,7 @@ import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 //导出功能依赖
@@ -33,16 +44,15 @@ import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import org.springframework.beans.factory.annotation.Autowired;
 
 // ==================== 新增导入 ====================
+import com.military.asset.entity.AssetSyncOutboxEvent;
 import com.military.asset.entity.ReportUnit;
 import com.military.asset.mapper.ReportUnitMapper;
-import com.military.asset.entity.HasReportUnitAndProvince;
 
 
 /**
  * 软件资产业务层实现类
  * 实现SoftwareAssetService接口定义的所有业务逻辑，包含数据校验、数据库交互等
  * 继承MyBatis-Plus的ServiceImpl，自动获得baseMapper（无需手动注入）
- * - getExistingAssetsMap(): 实现完整资产对象Map的加载，用于导入时关键字段比较
 
  * 新增功能：
  * - 上报单位表同步：在增删改操作中同步上报单位表状态（软件资产表不需要省市字段）
@@ -55,13 +65,35 @@ public class SoftwareAssetServiceImpl extends ServiceImpl<SoftwareAssetMapper, S
     /**
      * 分类映射表：从工具类获取，存储分类编码与标准分类名称的对应关系
      */
-    private final Map<String, String> CATEGORY_MAP = CategoryMapUtils.initSoftwareCategoryMap();
+    private final Map<String, String> CATEGORY_MAP = AssetOptionRegistry.SOFTWARE.getCategoryMapping();
 
     /**
      * 合法服务状态列表：业务规则限定软件资产的服务状态只能是"在用"、"闲置"、"报废"、"封闭"
      */
     private final List<String> LEGAL_SERVICE_STATUS = List.of("在用", "闲置", "报废", "封闭");
 
+    /**
+     * 升级建议排序：必要性得分降序，其次按上报单位、资产主键升序保证分页稳定
+     */
+    private static final Comparator<SoftwareUpgradeRecommendationVO> UPGRADE_RANK_ORDER = Comparator
+            .comparing(SoftwareUpgradeRecommendationVO::getNecessityScore,
+                    Comparator.nullsLast(Comparator.<BigDecimal>reverseOrder()))
+            .thenComparing(SoftwareUpgradeRecommendationVO::getReportUnit, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(SoftwareUpgradeRecommendationVO::getAssetId, Comparator.nullsLast(Comparator.naturalOrder()));
+
+    /**
+     * 升级建议批量排名最多可翻到的名次：扫描时堆中保留 pageNum × pageSize 条，超出即拒绝，避免超大页码撑满堆内存
+     */
+    private static final long MAX_UPGRADE_RANK_WINDOW = 10_000L;
+
+    /**
+     * 重要性排序：综合得分降序，其次按上报单位升序
+     */
+    private static final Comparator<ReportUnitImportanceVO> IMPORTANCE_RANK_ORDER = Comparator
+            .comparing(ReportUnitImportanceVO::getImportanceScore,
+                    Comparator.nullsLast(Comparator.<BigDecimal>reverseOrder()))
+            .thenComparing(ReportUnitImportanceVO::getReportUnit, Comparator.nullsLast(Comparator.naturalOrder()));
+
     /**
 //     * 最大有效年限：业务规则限定资产投入使用日期不能早于当前时间50年 (1115修改不需要了)
 //     */
@@ -83,40 +115,48 @@ public class SoftwareAssetServiceImpl extends ServiceImpl<SoftwareAssetMapper, S
     @Resource
     private ProvinceAutoFillTool provinceAutoFillTool;
 
+    /**
+     * 导入副作用发件箱：批量导入的上报单位同步、跨表同步随资产行同事务登记，提交后异步应用
+     */
+    @Resource
+    private AssetSyncOutbox assetSyncOutbox;
+
+    /**
+     * 全文检索条件构建：联合查询的模糊匹配字段走ngram FULLTEXT索引
+     */
+    @Resource
+    private FullTextSearchTool fullTextSearchTool;
+
+    /**
+     * 导入暂存表工具：暂存导入进行中时拒绝单条写入正式表（替换时会被整体覆盖）
+     */
+    @Resource
+    private ImportStagingTool importStagingTool;
+
     // ==================== 依赖注入区域 ====================
 
     /**
      * 上报单位表Mapper：用于检查单位存在性和同步操作
-     * 软件资产表虽然没有省市字段，但需要与上报单位表同步状态
+     * 软件资产表的省市为冗余列，以上报单位表的省份为准，并需要与上报单位表同步状态
      */
     @Resource
     private ReportUnitMapper reportUnitMapper;
 
-    // ============================ 新增方法实现 ============================
+    /**
+     * 列式内存副本（可选，asset.columnar.enabled=true 时存在）：重要性分析优先在快照上扫描
+     */
+    @Autowired
+    private ObjectProvider<ColumnarAssetStore> columnarAssetStore;
 
-    @Override
-    public Map<String, SoftwareAsset> getExistingAssetsMap() {
-        try {
-            // 查询所有已存在的软件资产（完整对象）
-            List<SoftwareAsset> existingAssets = baseMapper.selectAllExistingAssets();
-
-            // 转换为Map结构，键为资产ID，值为完整资产对象
-            // 使用Collectors.toMap提供O(1)的查询性能
-            Map<String, SoftwareAsset> assetsMap = existingAssets.stream()
-                    .collect(Collectors.toMap(
-                            SoftwareAsset::getId,  // 键：资产ID
-                            asset -> asset,        // 值：完整资产对象
-                            (existing, replacement) -> existing  // 冲突处理：保留现有值
-                    ));
+    /**
+     * 软件资产写入版本跟踪，用于判断重要性对照基准是否失效
+     */
+    @Resource
+    private AssetWriteTracker assetWriteTracker;
 
-            log.info("成功加载{}条软件资产到内存Map，用于导入时关键字段比较", assetsMap.size());
-            return assetsMap;
+    private volatile DeploymentScopeSummary importanceBaseline;
 
-        } catch (Exception e) {
-            log.error("加载软件资产Map失败，无法进行关键字段比较", e);
-            throw new RuntimeException("加载资产数据失败: " + e.getMessage());
-        }
-    }
+    // ============================ 新增方法实现 ============================
     @Override
     public List<SoftwareAssetStatisticVO> statisticsByReportUnit() {
         List<SoftwareAssetStatisticRow> rows = baseMapper.selectStatisticsByReportUnit();
@@ -129,8 +169,16 @@ public class SoftwareAssetServiceImpl extends ServiceImpl<SoftwareAssetMapper, S
     }
 
     @Override
+    @Timed(value = "asset.analytics", histogram = true)
     @Transactional(rollbackFor = Exception.class)
     public List<SoftwareUpgradeRecommendationVO> generateUpgradeRecommendations(String reportUnit) {
+        return generateUpgradeRecommendations(reportUnit, false);
+    }
+
+    @Override
+    @Timed(value = "asset.analytics", histogram = true)
+    @Transactional(rollbackFor = Exception.class)
+    public List<SoftwareUpgradeRecommendationVO> generateUpgradeRecommendations(String reportUnit, boolean codesOnly) {
         if (!StringUtils.hasText(reportUnit)) {
             throw new IllegalArgumentException("上报单位不能为空");
         }
@@ -144,89 +192,300 @@ public class SoftwareAssetServiceImpl extends ServiceImpl<SoftwareAssetMapper, S
         List<SoftwareUpgradeRecommendationVO> results = new ArrayList<>(assets.size());
 
         for (SoftwareAsset asset : assets) {
-            SoftwareUpgradeEvaluationRequest derived = SoftwareUpgradeFormulaUtils.deriveEvaluationFromAsset(asset);
+            results.add(buildUpgradeRecommendation(asset, codesOnly));
+        }
+
+        return results;
+    }
+
+    @Override
+    @Timed(value = "asset.analytics", histogram = true)
+    public Page<SoftwareUpgradeRecommendationVO> generateUpgradeRecommendationsBatch(Collection<String> reportUnits,
+                                                                                     long pageNum, long pageSize,
+                                                                                     boolean codesOnly) {
+        validatePageArgs(pageNum, pageSize);
+        if (pageNum > MAX_UPGRADE_RANK_WINDOW / pageSize) {
+            throw new IllegalArgumentException("升级建议排名最多查看前" + MAX_UPGRADE_RANK_WINDOW + "名，请缩小页码或按上报单位筛选");
+        }
+        // 只需保留前 pageNum × pageSize 名：堆顶为当前最靠后的一名，新结果更靠前时替换堆顶
+        long keepLimit = pageNum * pageSize;
+        PriorityQueue<SoftwareUpgradeRecommendationVO> topRanked = new PriorityQueue<>(UPGRADE_RANK_ORDER.reversed());
+        long[] total = {0};
+
+        softwareAssetMapper.scanUpgradeCandidates(normalizeReportUnits(reportUnits), context -> {
+            SoftwareUpgradeRecommendationVO vo = buildUpgradeRecommendation(context.getResultObject(), codesOnly);
+            total[0]++;
+            if (topRanked.size() < keepLimit) {
+                topRanked.offer(vo);
+            } else if (UPGRADE_RANK_ORDER.compare(vo, topRanked.peek()) < 0) {
+                topRanked.poll();
+                topRanked.offer(vo);
+            }
+        });
+
+        List<SoftwareUpgradeRecommendationVO> ranked = new ArrayList<>(topRanked);
+        ranked.sort(UPGRADE_RANK_ORDER);
+        // 堆中为前 pageNum × pageSize 名，只返回其中第 pageNum 页
+        long from = Math.min((pageNum - 1) * pageSize, ranked.size());
+        long to = Math.min(from + pageSize, ranked.size());
+        return toPage(ranked.subList((int) from, (int) to), total[0], pageNum, pageSize);
+    }
+
+    /**
+     * 计算单条资产的升级必要性；codesOnly 时只给出建议编码，跳过文案渲染
+     */
+    private SoftwareUpgradeRecommendationVO buildUpgradeRecommendation(SoftwareAsset asset, boolean codesOnly) {
+        SoftwareUpgradeEvaluationRequest derived = SoftwareUpgradeFormulaUtils.deriveEvaluationFromAsset(asset);
+
+        BigDecimal necessity = SoftwareUpgradeFormulaUtils.calculateNecessity(
+                derived.getCoefficient(),
+                derived.getSecurityIndicator(),
+                derived.getPerformanceIndicator(),
+                derived.getRequirementMatch());
+
+        SoftwareUpgradeRecommendationVO vo = new SoftwareUpgradeRecommendationVO();
+        vo.setAssetId(asset.getId());
+        vo.setAssetName(asset.getAssetName());
+        vo.setReportUnit(asset.getReportUnit());
+        vo.setNecessityScore(necessity);
+        vo.setUpgradeRequired(SoftwareUpgradeFormulaUtils.needsUpgrade(necessity));
+        vo.setRecommendationCode(SoftwareUpgradeFormulaUtils.recommendationCode(necessity));
+        if (!codesOnly) {
+            vo.setRecommendation(SoftwareUpgradeFormulaUtils.buildRecommendation(asset.getAssetName(), necessity));
+        }
+        return vo;
+    }
 
-            BigDecimal necessity = SoftwareUpgradeFormulaUtils.calculateNecessity(
-                    derived.getCoefficient(),
-                    derived.getSecurityIndicator(),
-                    derived.getPerformanceIndicator(),
-                    derived.getRequirementMatch());
+    @Override
+    @Timed(value = "asset.analytics", histogram = true)
+    public Page<ReportUnitImportanceVO> analyzeReportUnitImportanceBatch(Collection<String> reportUnits,
+                                                                         long pageNum, long pageSize,
+                                                                         boolean codesOnly) {
+        validatePageArgs(pageNum, pageSize);
+        DeploymentScopeSummary baseline = loadDeploymentScopeSummary();
+        if (baseline.getAssetRows() == 0) {
+            throw new IllegalArgumentException("暂无软件资产数据，无法计算对照得分");
+        }
 
-            String recommendation = SoftwareUpgradeFormulaUtils.buildRecommendation(asset.getAssetName(), necessity);
+        // 分组结果已按上报单位排序，按单位切分后逐个计算
+        Map<String, List<DeploymentScopeAggregation>> rowsByUnit = softwareAssetMapper
+                .aggregateDeploymentScopeByReportUnit(normalizeReportUnits(reportUnits)).stream()
+                .collect(Collectors.groupingBy(DeploymentScopeAggregation::getReportUnit,
+                        LinkedHashMap::new, Collectors.toList()));
+
+        List<ReportUnitImportanceVO> ranked = new ArrayList<>(rowsByUnit.size());
+        rowsByUnit.forEach((unit, rows) ->
+                ranked.add(buildImportance(unit, DeploymentScopeSummary.of(rows, 0L),
+                        baseline.getCompositeScore(), codesOnly)));
+        ranked.sort(IMPORTANCE_RANK_ORDER);
+
+        long from = Math.min((pageNum - 1) * pageSize, ranked.size());
+        long to = Math.min(from + pageSize, ranked.size());
+        return toPage(ranked.subList((int) from, (int) to), ranked.size(), pageNum, pageSize);
+    }
+
+    private ReportUnitImportanceVO buildImportance(String reportUnit, DeploymentScopeSummary unitStats,
+                                                   BigDecimal globalCompositeScore, boolean codesOnly) {
+        BigDecimal importanceScore = unitStats.getCompositeScore();
+        String level = ReportUnitImportanceUtils.importanceLevelCompared(importanceScore, globalCompositeScore);
+        String advice = codesOnly ? null
+                : ReportUnitImportanceUtils.buildAdvice(reportUnit, importanceScore, level, unitStats.getAssetRows());
+
+        ReportUnitImportanceVO vo = new ReportUnitImportanceVO();
+        vo.setReportUnit(reportUnit);
+        vo.setAssetCount(unitStats.getAssetRows());
+        vo.setImportanceScore(importanceScore);
+        vo.setGlobalImportanceScore(globalCompositeScore);
+        vo.setImportanceLevel(level);
+        vo.setAdvice(advice);
+        vo.setDeploymentScopeStats(unitStats.getDeploymentScopeStats());
+        return vo;
+    }
 
-            SoftwareUpgradeRecommendationVO vo = new SoftwareUpgradeRecommendationVO();
-            vo.setAssetId(asset.getId());
-            vo.setAssetName(asset.getAssetName());
-            vo.setReportUnit(asset.getReportUnit());
-            vo.setNecessityScore(necessity);
-            vo.setUpgradeRequired(SoftwareUpgradeFormulaUtils.needsUpgrade(necessity));
-            vo.setRecommendation(recommendation);
-            results.add(vo);
+    /**
+     * 批量接口的上报单位过滤条件：去空白、去重，全部为空时返回null表示不过滤
+     */
+    private List<String> normalizeReportUnits(Collection<String> reportUnits) {
+        if (reportUnits == null) {
+            return null;
+        }
+        List<String> normalized = reportUnits.stream()
+                .filter(StringUtils::hasText)
+                .map(String::trim)
+                .distinct()
+                .collect(Collectors.toList());
+        return normalized.isEmpty() ? null : normalized;
+    }
 
+    private void validatePageArgs(long pageNum, long pageSize) {
+        if (pageNum < 1 || pageSize < 1) {
+            throw new IllegalArgumentException("页码和每页条数必须大于0");
         }
+    }
 
-        return results;
+    private <T> Page<T> toPage(List<T> records, long total, long pageNum, long pageSize) {
+        Page<T> page = new Page<>(pageNum, pageSize, total);
+        page.setRecords(records);
+        return page;
     }
 
     @Override
+    @Timed(value = "asset.analytics", histogram = true)
     public List<ReportUnitImportanceVO> analyzeReportUnitImportance(String reportUnit) {
         if (!StringUtils.hasText(reportUnit)) {
             throw new IllegalArgumentException("上报单位不能为空");
         }
 
-        List<SoftwareAsset> allAssets = softwareAssetMapper.selectAllExistingAssets();
-        if (allAssets.isEmpty()) {
+        ColumnarAssetStore store = columnarAssetStore.getIfAvailable();
+        if (store != null) {
+            return analyzeReportUnitImportance(reportUnit, store.software());
+        }
+
+        DeploymentScopeSummary baseline = loadDeploymentScopeSummary();
+        if (baseline.getAssetRows() == 0) {
             throw new IllegalArgumentException("暂无软件资产数据，无法计算对照得分");
         }
+        BigDecimal globalCompositeScore = baseline.getCompositeScore();
 
-        Map<String, Long> globalDeploymentScopeStats = summarizeDeploymentScope(allAssets);
-        long globalQuantity = sumActualQuantity(allAssets);
-        long globalAssetRows = allAssets.size();
-        BigDecimal globalTotalScore = ReportUnitImportanceUtils.calculateImportanceScore(globalDeploymentScopeStats);
-        BigDecimal globalCompositeScore = ReportUnitImportanceUtils.calculateCompositeScore(globalTotalScore, globalQuantity, globalAssetRows);
+        DeploymentScopeSummary unitStats = DeploymentScopeSummary.of(
+                softwareAssetMapper.aggregateDeploymentScope(reportUnit.trim()), 0L);
+        if (unitStats.getAssetRows() == 0) {
+            throw new IllegalArgumentException("指定上报单位下未找到任何软件资产");
+        }
 
-        List<SoftwareAsset> assets = softwareAssetMapper.selectByReportUnitLight(reportUnit.trim());
+        return Collections.singletonList(buildImportance(reportUnit, unitStats, globalCompositeScore, false));
+    }
 
-        if (assets.isEmpty()) {
+    /**
+     * 基于列式快照计算上报单位重要性：全表基准取快照构建时预先累加的部署范围合计，
+     * 单位统计只遍历快照按上报单位建立的行号索引，结果与数据库路径一致
+     */
+    private List<ReportUnitImportanceVO> analyzeReportUnitImportance(String reportUnit,
+                                                                     ColumnarAssetStore.SoftwareColumns columns) {
+        if (columns.getSize() == 0) {
+            throw new IllegalArgumentException("暂无软件资产数据，无法计算对照得分");
+        }
+        int unitCode = columns.getReportUnits().codeOf(reportUnit.trim());
+        if (unitCode == ColumnarAssetStore.NULL_CODE) {
             throw new IllegalArgumentException("指定上报单位下未找到任何软件资产");
         }
 
-        Map<String, Long> deploymentScopeStats = summarizeDeploymentScope(assets);
-        long totalQuantity = sumActualQuantity(assets);
-        long assetRows = assets.size();
+        int[] rowOffsets = columns.getUnitRowOffsets();
+        int[] rowIndexes = columns.getUnitRowIndexes();
+        int[] scopeCodes = columns.getDeploymentScopeCodes();
+        int[] quantities = columns.getActualQuantities();
+        long[] globalScopeQuantities = columns.getDeploymentScopeQuantities();
+        boolean[] globalSeen = columns.getDeploymentScopesSeen();
+        // 最后一个槽位存放null编码（未填部署范围）
+        long[] unitScopeQuantities = new long[globalScopeQuantities.length];
+        boolean[] unitSeen = new boolean[globalScopeQuantities.length];
+        int from = rowOffsets[columns.unitSlot(unitCode)];
+        int to = rowOffsets[columns.unitSlot(unitCode) + 1];
+        for (int k = from; k < to; k++) {
+            int i = rowIndexes[k];
+            int slot = columns.deploymentScopeSlot(scopeCodes[i]);
+            unitScopeQuantities[slot] += quantities[i];
+            unitSeen[slot] = true;
+        }
+        long unitRows = to - from;
+
+        Map<String, Long> globalDeploymentScopeStats =
+                toDeploymentScopeStats(columns.getDeploymentScopes(), globalScopeQuantities, globalSeen);
+        long globalQuantity = Arrays.stream(globalScopeQuantities).sum();
+        BigDecimal globalTotalScore = ReportUnitImportanceUtils.calculateImportanceScore(globalDeploymentScopeStats);
+        BigDecimal globalCompositeScore = ReportUnitImportanceUtils.calculateCompositeScore(
+                globalTotalScore, globalQuantity, columns.getSize());
 
+        Map<String, Long> deploymentScopeStats =
+                toDeploymentScopeStats(columns.getDeploymentScopes(), unitScopeQuantities, unitSeen);
+        long totalQuantity = Arrays.stream(unitScopeQuantities).sum();
         BigDecimal totalScore = ReportUnitImportanceUtils.calculateImportanceScore(deploymentScopeStats);
-        BigDecimal importanceScore = ReportUnitImportanceUtils.calculateCompositeScore(totalScore, totalQuantity, assetRows);
+        BigDecimal importanceScore = ReportUnitImportanceUtils.calculateCompositeScore(totalScore, totalQuantity, unitRows);
         String level = ReportUnitImportanceUtils.importanceLevelCompared(importanceScore, globalCompositeScore);
-        String advice = ReportUnitImportanceUtils.buildAdvice(reportUnit, importanceScore, level, assetRows);
+        String advice = ReportUnitImportanceUtils.buildAdvice(reportUnit, importanceScore, level, unitRows);
 
         ReportUnitImportanceVO vo = new ReportUnitImportanceVO();
         vo.setReportUnit(reportUnit);
-        vo.setAssetCount(assetRows);
+        vo.setAssetCount(unitRows);
         vo.setImportanceScore(importanceScore);
         vo.setGlobalImportanceScore(globalCompositeScore);
         vo.setImportanceLevel(level);
         vo.setAdvice(advice);
         vo.setDeploymentScopeStats(deploymentScopeStats);
-
         return Collections.singletonList(vo);
     }
 
-    private Map<String, Long> summarizeDeploymentScope(List<SoftwareAsset> assets) {
-        return assets.stream()
-                .collect(Collectors.groupingBy(asset -> {
-                    String scope = asset.getDeploymentScope();
-                    return StringUtils.hasText(scope) ? scope : "未填部署范围";
-                }, LinkedHashMap::new, Collectors.summingLong(asset -> Optional
-                        .ofNullable(asset.getActualQuantity())
-                        .orElse(0))));
+    /**
+     * 将按字典编码累加的数量还原为"部署范围 → 实有数量"，空白部署范围归入"未填部署范围"
+     */
+    private Map<String, Long> toDeploymentScopeStats(ColumnarAssetStore.Dictionary scopes,
+                                                     long[] scopeQuantities, boolean[] seen) {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        for (int code = 0; code < seen.length; code++) {
+            if (!seen[code]) {
+                continue;
+            }
+            String scope = code == scopes.size() ? null : scopes.valueOf(code);
+            String key = StringUtils.hasText(scope) ? scope : "未填部署范围";
+            stats.merge(key, scopeQuantities[code], Long::sum);
+        }
+        return stats;
     }
 
-    private long sumActualQuantity(List<SoftwareAsset> assets) {
-        return assets.stream()
-                .mapToLong(asset -> Optional.ofNullable(asset.getActualQuantity()).orElse(0))
-                .sum();
+    /**
+     * 全表重要性对照基准：按软件资产写入版本缓存，版本变化后用一次分组查询重算
+     * 先读版本再查询，查询期间若有新写入，版本已前进，下次请求会再次重算
+     */
+    private DeploymentScopeSummary loadDeploymentScopeSummary() {
+        long version = assetWriteTracker.version("software");
+        DeploymentScopeSummary cached = importanceBaseline;
+        if (cached != null && cached.getVersion() == version) {
+            return cached;
+        }
+        DeploymentScopeSummary rebuilt = DeploymentScopeSummary.of(softwareAssetMapper.aggregateDeploymentScope(null), version);
+        importanceBaseline = rebuilt;
+        return rebuilt;
     }
+
+    /**
+     * 部署范围汇总及其综合得分（全表基准或单个上报单位）
+     */
+    @Getter
+    private static final class DeploymentScopeSummary {
+        private final long version;
+        private final Map<String, Long> deploymentScopeStats;
+        private final long totalQuantity;
+        private final long assetRows;
+        private final BigDecimal compositeScore;
+
+        private DeploymentScopeSummary(long version, Map<String, Long> deploymentScopeStats,
+                                   long totalQuantity, long assetRows) {
+            this.version = version;
+            this.deploymentScopeStats = Collections.unmodifiableMap(deploymentScopeStats);
+            this.totalQuantity = totalQuantity;
+            this.assetRows = assetRows;
+            BigDecimal totalScore = ReportUnitImportanceUtils.calculateImportanceScore(deploymentScopeStats);
+            this.compositeScore = ReportUnitImportanceUtils.calculateCompositeScore(totalScore, totalQuantity, assetRows);
+        }
+
+        /**
+         * 合并分组结果：空白部署范围统一归入"未填部署范围"
+         */
+        static DeploymentScopeSummary of(List<DeploymentScopeAggregation> rows, long version) {
+            Map<String, Long> stats = new LinkedHashMap<>();
+            long quantity = 0;
+            long assetRows = 0;
+            for (DeploymentScopeAggregation row : rows) {
+                String scope = StringUtils.hasText(row.getDeploymentScope()) ? row.getDeploymentScope() : "未填部署范围";
+                long rowQuantity = Optional.ofNullable(row.getActualQuantity()).orElse(0L);
+                stats.merge(scope, rowQuantity, Long::sum);
+                quantity += rowQuantity;
+                assetRows += Optional.ofNullable(row.getAssetRows()).orElse(0L);
+            }
+            return new DeploymentScopeSummary(version, stats, quantity, assetRows);
+        }
+    }
+
     // ============================ 原有方法实现（添加上报单位同步） ============================
 
     @Override
@@ -236,18 +495,6 @@ public class SoftwareAssetServiceImpl extends ServiceImpl<SoftwareAssetMapper, S
         batchSaveValidData(validDataList);
     }
 
-    @Override
-    public List<String> getExistingIds() {
-        try {
-            List<String> ids = baseMapper.selectAllExistingIds();
-            log.info("查询软件资产已存在ID完成，共{}条记录", ids.size());
-            return ids;
-        } catch (Exception e) {
-            log.error("查询软件资产ID列表失败", e);
-            throw new RuntimeException("查询资产ID失败：" + e.getMessage());
-        }
-    }
-
     @Override
     @Transactional(rollbackFor = Exception.class)
     public void batchSaveValidData(List<SoftwareAssetExcelVO> validVoList) {
@@ -264,11 +511,12 @@ public class SoftwareAssetServiceImpl extends ServiceImpl<SoftwareAssetMapper, S
             entities.add(entity);
         }
 
+        fillProvinceCityFromReportUnits(entities);
         baseMapper.insertBatch(entities);
         log.info("软件资产批量保存成功，共{}条记录", entities.size());
 
         // ============ 新增：上报单位表同步（批量导入场景） ============
-        // 注意：软件资产表没有省市字段，所以省份参数传null
+        // 注意：软件资产省份以上报单位表为准，同步时省份参数传null
         // 遍历所有成功保存的实体，同步上报单位表状态
         for (SoftwareAsset entity : entities) {
             provinceAutoFillTool.syncReportUnit(
@@ -352,7 +600,7 @@ public class SoftwareAssetServiceImpl extends ServiceImpl<SoftwareAssetMapper, S
      * 新增软件应用资产（集成上报单位表同步）
      * 功能概述：
      * 本方法用于新增单条软件资产记录，包含完整的数据校验、业务处理、数据保存和上报单位表同步功能。
-     * 软件资产表与其他资产表的主要区别：没有省市字段，所有省市信息通过上报单位表间接管理。
+     * 软件资产表与其他资产表的主要区别：省市为冗余列，以上报单位表的省份为准，不接受用户输入。
      * 核心流程：
      *  1. 自动填充省市阶段 → 2. 数据校验阶段 → 3. 数据处理阶段 → 4. 数据保存阶段 → 5. 上报单位表同步阶段
      * 数据校验规则（按字段顺序）：
@@ -383,7 +631,7 @@ public class SoftwareAssetServiceImpl extends ServiceImpl<SoftwareAssetMapper, S
      * - 需要完整校验和上报单位同步的业务场景
      * - 单条记录新增操作
      * 注意事项：
-     * - 软件资产表没有省市字段，所有省市信息通过上报单位名称自动推导
+     * - 软件资产省市以上报单位表为准，单位不存在时通过上报单位名称自动推导
      * - 分类编码与资产分类必须严格匹配预设映射，否则校验失败
      * - 投入使用日期有严格的时间范围限制（1949年至今）
      * - 金额计算尊重用户输入，仅在金额为空时自动计算
@@ -398,6 +646,7 @@ public class SoftwareAssetServiceImpl extends ServiceImpl<SoftwareAssetMapper, S
     @Transactional(rollbackFor = Exception.class)
     public void add(SoftwareAsset asset) {
         log.info("开始新增软件资产，ID：{}", asset.getId());
+        importStagingTool.checkWritable("software");
 
         // ==================== 1. 数据校验阶段 ====================
 
@@ -451,6 +700,10 @@ public class SoftwareAssetServiceImpl extends ServiceImpl<SoftwareAssetMapper, S
         // 2.2 计算金额（如果金额为空，且有单价和数量，则自动计算）
         calculateAmount(asset);
 
+        // 2.3 填充冗余省市与上报单位ID（单位已存在时不会再触发同步，需在插入前写入）
+        String unitName = asset.getReportUnit();
+        Map<String, ReportUnit> existingUnits = fillProvinceCityFromReportUnits(Collections.singletonList(asset));
+
         // ==================== 3. 数据保存阶段 ====================
 
         baseMapper.insert(asset);
@@ -458,16 +711,14 @@ public class SoftwareAssetServiceImpl extends ServiceImpl<SoftwareAssetMapper, S
 
         // ==================== 4. 上报单位表同步阶段 ====================
 
-        // 4.1 🎯 优化：检查上报单位表是否存在，不存在才同步
-        String unitName = asset.getReportUnit();
-        boolean unitExists = checkReportUnitExistence(unitName);
+        // 4.1 🎯 优化：上报单位已在填充省市时查询，不存在才同步
+        boolean unitExists = existingUnits.containsKey(unitName);
 
         if (!unitExists) {
             // 🎯 单位不存在 → 推导省市并新增
-            String derivedProvince = deriveProvinceFromUnit(unitName);
             provinceAutoFillTool.syncReportUnit(
                     unitName,           // 上报单位名称
-                    derivedProvince,    // 推导出的省份
+                    asset.getProvince(), // 推导出的省份（与冗余省份一致）
                     "software",         // 资产类型：软件
                     false               // isDelete=false：新增场景
             );
@@ -478,26 +729,6 @@ public class SoftwareAssetServiceImpl extends ServiceImpl<SoftwareAssetMapper, S
         }
     }
 
-    /**
-     * 🎯 检查上报单位表是否存在指定单位
-     *
-     * @param unitName 单位名称
-     * @return 是否存在（true：存在，false：不存在）
-     */
-    private boolean checkReportUnitExistence(String unitName) {
-        if (!StringUtils.hasText(unitName)) {
-            return false;
-        }
-
-        try {
-            ReportUnit reportUnit = reportUnitMapper.selectByReportUnitName(unitName);
-            return reportUnit != null;
-        } catch (Exception e) {
-            log.error("❌ 检查上报单位存在性失败，单位[{}]", unitName, e);
-            return false;
-        }
-    }
-
 // ==================== 详细的校验方法 ====================
 
     /**
@@ -514,8 +745,8 @@ public class SoftwareAssetServiceImpl extends ServiceImpl<SoftwareAssetMapper, S
             throw new RuntimeException("主键格式错误，必须由字母和数字组成");
         }
 
-        // 唯一性校验
-        if (getExistingIds().contains(asset.getId())) {
+        // 唯一性校验：按主键做存在性查询，不再为单条新增加载全表ID
+        if (baseMapper.exists(new QueryWrapper<SoftwareAsset>().eq("id", asset.getId()))) {
             throw new RuntimeException("主键已存在：" + asset.getId() + "，请更换ID");
         }
     }
@@ -797,6 +1028,7 @@ public class SoftwareAssetServiceImpl extends ServiceImpl<SoftwareAssetMapper, S
     @Transactional(rollbackFor = Exception.class)
     public void update(SoftwareAsset asset) {
         log.info("🔄 开始修改软件资产，ID：{}", asset.getId());
+        importStagingTool.checkWritable("software");
 
         // ==================== 1. 数据存在性校验阶段 ====================
 
@@ -869,6 +1101,15 @@ public class SoftwareAssetServiceImpl extends ServiceImpl<SoftwareAssetMapper, S
 
         // 3.2 创建时间将在数据更新成功后设置为当前时间（见第4步）
 
+        // 3.3 上报单位变更时重新填充冗余省市；未变更时省市不参与更新（字段为null不更新）
+        if (reportUnitChanged) {
+            fillProvinceCityFromReportUnits(Collections.singletonList(asset));
+        } else {
+            asset.setProvince(null);
+            asset.setCity(null);
+            asset.setReportUnitId(null);
+        }
+
         log.debug("🛠️ 数据处理完成，准备更新数据");
 
         // ==================== 4. 数据更新阶段 ====================
@@ -964,6 +1205,7 @@ public class SoftwareAssetServiceImpl extends ServiceImpl<SoftwareAssetMapper, S
     @Transactional(rollbackFor = Exception.class)
     public void remove(String id) {
         log.info("🚀 开始删除软件资产，ID：{}", id);
+        importStagingTool.checkWritable("software");
 
         // ==================== 1. 资产存在性校验阶段 ====================
 
@@ -1130,23 +1372,16 @@ public class SoftwareAssetServiceImpl extends ServiceImpl<SoftwareAssetMapper, S
     @Override
     public List<Map<String, Object>> getProvinceUnitStats() {
         /**
-         * 实现软件资产表省份单位统计（新逻辑：关联report_unit表）
-
-         * 原问题：software_asset表没有province列，直接查询会报错
-         * 新解决方案：通过关联report_unit表获取省份信息
+         * 实现软件资产表省份单位统计（使用冗余省份列）
 
          * SQL执行逻辑：
-         *   SELECT ru.province, COUNT(DISTINCT sa.report_unit) as count
-         *   FROM software_asset sa
-         *   INNER JOIN report_unit ru ON sa.report_unit = ru.report_unit
-         *   WHERE ru.province IS NOT NULL AND ru.province != ''
-         *   GROUP BY ru.province
+         *   SELECT province, COUNT(DISTINCT report_unit) as count
+         *   FROM software_asset
+         *   WHERE province IS NOT NULL AND province != ''
+         *   GROUP BY province
          *   ORDER BY count DESC
 
-         * 优势：
-         * - 解决了表结构限制问题
-         * - 统一了省份信息来源
-         * - 确保数据准确性和一致性
+         * 说明：software_asset.province 冗余自上报单位表，无需再关联report_unit
          */
         return this.getBaseMapper().selectProvinceUnitStats();
     }
@@ -1195,9 +1430,9 @@ public class SoftwareAssetServiceImpl extends ServiceImpl<SoftwareAssetMapper, S
      * 批量保存软件资产并同步省市信息（导入专用-优化版）
      *
      * ==================== 核心逻辑 ====================
-     * 🎯 软件表特殊处理（无省市字段）：
-     * 1. 如果上报单位表已存在该单位 → 不操作（保持现有省市）
-     * 2. 如果上报单位表不存在该单位 → 通过单位推导省市，新增到上报单位表
+     * 🎯 软件表特殊处理（省市为冗余列，保存前统一填充）：
+     * 1. 如果上报单位表已存在该单位 → 沿用单位省份写入资产行，不修改上报单位表
+     * 2. 如果上报单位表不存在该单位 → 通过单位推导省市，写入资产行并新增到上报单位表
      *
      * 💡 设计优势：
      * - 避免覆盖网信表和数据内容表已存在的准确省市信息
@@ -1223,22 +1458,22 @@ public class SoftwareAssetServiceImpl extends ServiceImpl<SoftwareAssetMapper, S
         log.info("💾 开始批量保存软件资产并同步省市信息，共{}条数据", assets.size());
 
         try {
-            // 1. 批量保存到software_asset表
+            // 1. 批量查询上报单位表，填充冗余省市与上报单位ID（已存在单位沿用其省份）
+            Map<String, ReportUnit> existingUnits = fillProvinceCityFromReportUnits(assets);
+
+            // 2. 批量保存到software_asset表
             boolean saveResult = saveBatch(assets);
             if (!saveResult) {
                 throw new RuntimeException("批量保存软件资产失败");
             }
             log.info("✅ 批量保存软件资产成功，共{}条", assets.size());
 
-            // 2. 按上报单位分组，用于批量同步
+            // 3. 按上报单位分组，用于批量同步
             Map<String, List<SoftwareAsset>> unitGroupedAssets = assets.stream()
                     .collect(Collectors.groupingBy(SoftwareAsset::getReportUnit));
 
             log.info("📊 按单位分组完成，共{}个不同单位", unitGroupedAssets.size());
 
-            // 3. 🎯 优化：批量检查上报单位表存在性，避免重复查询
-            List<String> existingUnits = batchCheckReportUnitExistence(unitGroupedAssets.keySet());
-
             // 4. 只同步不存在的单位
             List<ProvinceAutoFillTool.UnitSyncRequest> syncRequests = new ArrayList<>();
             int newUnitCount = 0;
@@ -1247,14 +1482,14 @@ public class SoftwareAssetServiceImpl extends ServiceImpl<SoftwareAssetMapper, S
             for (Map.Entry<String, List<SoftwareAsset>> entry : unitGroupedAssets.entrySet()) {
                 String unitName = entry.getKey();
 
-                if (existingUnits.contains(unitName)) {
+                if (existingUnits.containsKey(unitName)) {
                     // 🎯 单位已存在 → 不操作（保持现有省市）
                     existingUnitCount++;
 //                    log.debug("⏭️ 单位[{}]已存在上报单位表，跳过省市推导", unitName);
                 } else {
-                    // 🎯 单位不存在 → 推导省市并新增
+                    // 🎯 单位不存在 → 使用已推导的省份新增
                     newUnitCount++;
-                    String derivedProvince = deriveProvinceFromUnit(unitName);
+                    String derivedProvince = entry.getValue().get(0).getProvince();
                     syncRequests.add(new ProvinceAutoFillTool.UnitSyncRequest(
                             unitName,
                             derivedProvince,  // 使用推导出的省份
@@ -1265,10 +1500,14 @@ public class SoftwareAssetServiceImpl extends ServiceImpl<SoftwareAssetMapper, S
                 }
             }
 
-            // 5. 执行批量同步（只同步新单位）
+            // 5. 登记发件箱事件（只同步新单位），提交后由分发器异步同步上报单位表
             if (!syncRequests.isEmpty()) {
-                provinceAutoFillTool.batchSyncReportUnits(syncRequests);
-                log.info("✅ 软件资产批量导入完成 - 新增{}个单位，跳过{}个已存在单位",
+                List<AssetSyncOutboxEvent> events = new ArrayList<>(syncRequests.size());
+                for (ProvinceAutoFillTool.UnitSyncRequest request : syncRequests) {
+                    events.add(assetSyncOutbox.reportUnitSync(request));
+                }
+                assetSyncOutbox.enqueue(events);
+                log.info("✅ 软件资产批量导入完成 - 新增{}个单位（上报单位同步已入队），跳过{}个已存在单位",
                         newUnitCount, existingUnitCount);
             } else {
                 log.info("✅ 软件资产批量导入完成 - 所有单位已存在，无需新增");
@@ -1281,117 +1520,79 @@ public class SoftwareAssetServiceImpl extends ServiceImpl<SoftwareAssetMapper, S
     }
 
     /**
-     * 🎯 批量检查上报单位表存在性（优化性能）
+     * 🎯 批量填充软件资产的冗余省市（software_asset.province/city）
      *
      * ==================== 方法说明 ====================
-     * 批量查询上报单位表，检查哪些单位已存在，避免在循环中重复查询数据库
+     * 1次批量查询上报单位表，按单位逐一确定省市：
+     * - 单位已存在 → 省份沿用上报单位表（不覆盖网信/数据资产确定的省份），同时写入上报单位ID
+     * - 单位不存在 → 按单位名称推导省市，上报单位ID由后续同步回填
+     * 同一单位只推导一次
      *
-     * 💡 性能优化：
-     * - 1次批量查询替代N次单条查询
-     * - 使用Set.contains()实现O(1)的查找性能
-     * - 减少数据库连接开销
-     *
-     * @param unitNames 单位名称集合
-     * @return 已存在的单位名称列表
+     * @param assets 待保存的软件资产
+     * @return 已存在的上报单位（单位名称 → 记录）
      */
-    private List<String> batchCheckReportUnitExistence(Set<String> unitNames) {
-        if (unitNames == null || unitNames.isEmpty()) {
-            return Collections.emptyList();
-        }
-
-        try {
-            // 🎯 使用现有的上报单位Mapper批量查询
-            // 🆕 修复：转换为List
-            List<String> unitNameList = new ArrayList<>(unitNames);
-            List<ReportUnit> existingReportUnits = reportUnitMapper.selectByReportUnitNames(unitNameList);
-
-            // 提取已存在的单位名称
-            List<String> existingUnitNames = existingReportUnits.stream()
-                    .map(ReportUnit::getReportUnit)
-                    .filter(Objects::nonNull)
-                    .collect(Collectors.toList());
-
-            log.debug("🔍 批量检查上报单位存在性 - 查询{}个单位，存在{}个",
-                    unitNames.size(), existingUnitNames.size());
-
-            return existingUnitNames;
-
-        } catch (Exception e) {
-            log.error("❌ 批量检查上报单位存在性失败", e);
-            return Collections.emptyList();
-        }
+    private Map<String, ReportUnit> fillProvinceCityFromReportUnits(Collection<SoftwareAsset> assets) {
+        Set<String> unitNames = assets.stream()
+                .map(SoftwareAsset::getReportUnit)
+                .filter(StringUtils::hasText)
+                .collect(Collectors.toSet());
+        Map<String, ReportUnit> existingUnits = batchLoadExistingReportUnits(unitNames);
+
+        Map<String, SoftwareAsset> derivedByUnit = new HashMap<>();
+        for (SoftwareAsset asset : assets) {
+            String unitName = asset.getReportUnit();
+            if (!StringUtils.hasText(unitName)) {
+                continue;
+            }
+            ReportUnit existingUnit = existingUnits.get(unitName);
+            SoftwareAsset derived = derivedByUnit.computeIfAbsent(unitName, name -> {
+                SoftwareAsset holder = new SoftwareAsset();
+                holder.setReportUnit(name);
+                provinceAutoFillTool.fillSoftwareProvinceCity(holder,
+                        existingUnit != null ? existingUnit.getProvince() : null);
+                return holder;
+            });
+            asset.setProvince(derived.getProvince());
+            asset.setCity(derived.getCity());
+            asset.setReportUnitId(existingUnit != null ? existingUnit.getId() : null);
+        }
+        return existingUnits;
     }
 
     /**
-     * 🎯 根据单位名称推导省市信息
+     * 🎯 批量查询已存在的上报单位（优化性能）
      *
      * ==================== 方法说明 ====================
-     * 使用现有的 ProvinceAutoFillTool 根据单位名称智能推导省市
-     * 软件表没有省市字段，但上报单位表需要省市信息
+     * 批量查询上报单位表，避免在循环中重复查询数据库
      *
-     * 💡 推导逻辑：
-     * - 使用工具类现有的智能推导算法
-     * - 优先返回推导出的省份，城市信息不保存（软件表不需要）
-     * - 推导失败返回"未知"
+     * 💡 性能优化：
+     * - 1次批量查询替代N次单条查询
+     * - 使用Map实现O(1)的查找性能
+     * - 减少数据库连接开销
      *
-     * @param unitName 单位名称
-     * @return 推导出的省份名称（如"北京市"、"广东省"、"未知"）
+     * @param unitNames 单位名称集合
+     * @return 已存在的上报单位（单位名称 → 记录）
      */
-    private String deriveProvinceFromUnit(String unitName) {
-        if (!StringUtils.hasText(unitName)) {
-            log.warn("⚠️ 单位名称为空，无法推导省市");
-            return "未知";
+    private Map<String, ReportUnit> batchLoadExistingReportUnits(Set<String> unitNames) {
+        if (unitNames == null || unitNames.isEmpty()) {
+            return Collections.emptyMap();
         }
 
         try {
-            // 🎯 使用现有的工具类进行省市推导
-            // 创建临时对象实现 HasReportUnitAndProvince 接口
-            HasReportUnitAndProvince tempAsset = new HasReportUnitAndProvince() {
-                private String province;
-                private String city;
-
-                @Override
-                public String getReportUnit() {
-                    return unitName;
-                }
-
-                @Override
-                public String getProvince() {
-                    return this.province;
-                }
-
-                @Override
-                public void setProvince(String province) {
-                    this.province = province;
-                }
-
-                @Override
-                public String getCity() {
-                    return this.city;
-                }
+            List<ReportUnit> existingReportUnits = reportUnitMapper.selectByReportUnitNames(new ArrayList<>(unitNames));
 
-                @Override
-                public void setCity(String city) {
-                    this.city = city;
-                }
-            };
+            Map<String, ReportUnit> existingUnits = existingReportUnits.stream()
+                    .filter(unit -> unit.getReportUnit() != null)
+                    .collect(Collectors.toMap(ReportUnit::getReportUnit, unit -> unit, (a, b) -> a));
 
-            // 🎯 调用现有的自动填充工具进行省市推导
-            provinceAutoFillTool.fillAssetProvinceCity(tempAsset, false);
+            log.debug("🔍 批量检查上报单位存在性 - 查询{}个单位，存在{}个",
+                    unitNames.size(), existingUnits.size());
 
-            String derivedProvince = tempAsset.getProvince();
-
-            if (StringUtils.hasText(derivedProvince) && !"未知".equals(derivedProvince)) {
-                log.debug("✅ 单位[{}]推导省市成功: {}", unitName, derivedProvince);
-                return derivedProvince;
-            } else {
-                log.warn("⚠️ 单位[{}]推导省市失败，返回未知", unitName);
-                return "未知";
-            }
+            return existingUnits;
 
         } catch (Exception e) {
-            log.error("❌ 单位[{}]推导省市异常", unitName, e);
-            return "未知";
+            log.error("❌ 批量检查上报单位存在性失败", e);
+            return Collections.emptyMap();
         }
     }
 
@@ -1434,49 +1635,8 @@ public class SoftwareAssetServiceImpl extends ServiceImpl<SoftwareAssetMapper, S
             log.info("执行软件资产联合查询 - 条件: reportUnit={}, categoryCode={}, assetCategory={}",
                     reportUnit, categoryCode, assetCategory);
 
-            // 构建查询条件
-            QueryWrapper<SoftwareAsset> queryWrapper = new QueryWrapper<>();
-
-            // 动态添加查询条件 - 使用Java原生字符串判断
-            if (reportUnit != null && !reportUnit.trim().isEmpty()) {
-                queryWrapper.like("report_unit", reportUnit);
-            }
-            if (categoryCode != null && !categoryCode.trim().isEmpty()) {
-                queryWrapper.like("category_code", categoryCode);
-            }
-            if (assetCategory != null && !assetCategory.trim().isEmpty()) {
-                queryWrapper.like("asset_category", assetCategory);
-            }
-            if (acquisitionMethod != null && !acquisitionMethod.trim().isEmpty()) {
-                queryWrapper.eq("acquisition_method", acquisitionMethod);
-            }
-            if (deploymentScope != null && !deploymentScope.trim().isEmpty()) {
-                queryWrapper.eq("deployment_scope", deploymentScope);
-            }
-            if (deploymentForm != null && !deploymentForm.trim().isEmpty()) {
-                queryWrapper.eq("deployment_form", deploymentForm);
-            }
-            if (bearingNetwork != null && !bearingNetwork.trim().isEmpty()) {
-                queryWrapper.eq("bearing_network", bearingNetwork);
-            }
-            if (quantityMin != null) {
-                queryWrapper.ge("actual_quantity", quantityMin);
-            }
-            if (quantityMax != null) {
-                queryWrapper.le("actual_quantity", quantityMax);
-            }
-            if (serviceStatus != null && !serviceStatus.trim().isEmpty()) {
-                queryWrapper.eq("service_status", serviceStatus);
-            }
-            if (startUseDateStart != null && !startUseDateStart.trim().isEmpty()) {
-                queryWrapper.ge("put_into_use_date", startUseDateStart);
-            }
-            if (startUseDateEnd != null && !startUseDateEnd.trim().isEmpty()) {
-                queryWrapper.le("put_into_use_date", startUseDateEnd);
-            }
-            if (inventoryUnit != null && !inventoryUnit.trim().isEmpty()) {
-                queryWrapper.like("inventory_unit", inventoryUnit);
-            }
+            // 构建查询条件（与流式导出共用）
+            QueryWrapper<SoftwareAsset> queryWrapper = buildCombinedQueryWrapper(reportUnit, categoryCode, assetCategory, acquisitionMethod, deploymentScope, deploymentForm, bearingNetwork, quantityMin, quantityMax, serviceStatus, startUseDateStart, startUseDateEnd, inventoryUnit);
 
             // 执行分页查询
             Page<SoftwareAsset> result = baseMapper.selectPage(pageInfo, queryWrapper);
@@ -1490,6 +1650,75 @@ public class SoftwareAssetServiceImpl extends ServiceImpl<SoftwareAssetMapper, S
         }
     }
 
+    /**
+     * 构建软件资产联合查询条件
+     * 分页查询与流式导出共用同一构造逻辑，保证导出结果与查询结果一致
+     */
+    private QueryWrapper<SoftwareAsset> buildCombinedQueryWrapper(String reportUnit, String categoryCode, String assetCategory,
+                                                                  String acquisitionMethod, String deploymentScope, String deploymentForm,
+                                                                  String bearingNetwork, Integer quantityMin, Integer quantityMax,
+                                                                  String serviceStatus, String startUseDateStart, String startUseDateEnd,
+                                                                  String inventoryUnit) {
+        QueryWrapper<SoftwareAsset> queryWrapper = new QueryWrapper<>();
+
+        // 动态添加查询条件 - 使用Java原生字符串判断
+        fullTextSearchTool.contains(queryWrapper, "report_unit", reportUnit);
+        fullTextSearchTool.contains(queryWrapper, "category_code", categoryCode);
+        fullTextSearchTool.contains(queryWrapper, "asset_category", assetCategory);
+        if (acquisitionMethod != null && !acquisitionMethod.trim().isEmpty()) {
+            queryWrapper.eq("acquisition_method", acquisitionMethod);
+        }
+        if (deploymentScope != null && !deploymentScope.trim().isEmpty()) {
+            queryWrapper.eq("deployment_scope", deploymentScope);
+        }
+        if (deploymentForm != null && !deploymentForm.trim().isEmpty()) {
+            queryWrapper.eq("deployment_form", deploymentForm);
+        }
+        if (bearingNetwork != null && !bearingNetwork.trim().isEmpty()) {
+            queryWrapper.eq("bearing_network", bearingNetwork);
+        }
+        if (quantityMin != null) {
+            queryWrapper.ge("actual_quantity", quantityMin);
+        }
+        if (quantityMax != null) {
+            queryWrapper.le("actual_quantity", quantityMax);
+        }
+        if (serviceStatus != null && !serviceStatus.trim().isEmpty()) {
+            queryWrapper.eq("service_status", serviceStatus);
+        }
+        if (startUseDateStart != null && !startUseDateStart.trim().isEmpty()) {
+            queryWrapper.ge("put_into_use_date", startUseDateStart);
+        }
+        if (startUseDateEnd != null && !startUseDateEnd.trim().isEmpty()) {
+            queryWrapper.le("put_into_use_date", startUseDateEnd);
+        }
+        fullTextSearchTool.contains(queryWrapper, "inventory_unit", inventoryUnit);
+
+        return queryWrapper;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long streamCombinedQuery(SoftwareQueryVO queryVO, int batchSize, Consumer<List<SoftwareAsset>> batchConsumer) {
+        QueryWrapper<SoftwareAsset> queryWrapper = buildCombinedQueryWrapper(
+                queryVO.getReportUnit(),
+                queryVO.getCategoryCode(),
+                queryVO.getAssetCategory(),
+                queryVO.getAcquisitionMethod(),
+                queryVO.getDeploymentScope(),
+                queryVO.getDeploymentForm(),
+                queryVO.getBearingNetwork(),
+                queryVO.getQuantityMin(),
+                queryVO.getQuantityMax(),
+                queryVO.getServiceStatus(),
+                queryVO.getStartUseDateStart(),
+                queryVO.getStartUseDateEnd(),
+                queryVO.getInventoryUnit());
+        long total = StreamingQueryUtils.forEachBatch(baseMapper.streamByWrapper(queryWrapper), batchSize, batchConsumer);
+        log.info("软件资产流式查询完成，共读取{}条数据", total);
+        return total;
+    }
+
     // ============================== 新增：各省份资产统计方法 ==============================
     /**
      * 获取各省份软件资产统计概览
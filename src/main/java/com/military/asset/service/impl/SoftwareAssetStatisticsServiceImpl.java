@@ -9,11 +9,16 @@ import com.military.asset.mapper.ReportUnitMapper;
 import com.military.asset.mapper.SoftwareAssetStatisticsMapper;
 import com.military.asset.service.SoftwareAssetService;
 import com.military.asset.service.SoftwareAssetStatisticsService;
+import com.military.asset.utils.AgingReferenceSettings;
+import com.military.asset.utils.ColumnarAssetStore;
+import com.military.asset.utils.SoftwareAgingHistogram;
 import com.military.asset.utils.StatisticsCalculator;
 import com.military.asset.utils.SoftwareAssetAgingCalculator;
 import com.military.asset.vo.stat.*;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 
@@ -21,9 +26,11 @@ import org.springframework.util.StringUtils;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.*;
 import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 /**
  * 软件资产统计服务实现，封装聚合查询与占比计算逻辑。
@@ -31,12 +38,16 @@ import java.util.stream.Collectors;
 @Service
 @RequiredArgsConstructor
 @Slf4j
+@Timed(value = "asset.analytics", histogram = true)
 public class SoftwareAssetStatisticsServiceImpl implements SoftwareAssetStatisticsService {
 
     private final SoftwareAssetStatisticsMapper statisticsMapper;
     private final ProvinceMapper provinceMapper;
     private final ReportUnitMapper reportUnitMapper;
     private final SoftwareAssetService softwareAssetService;
+    private final ObjectProvider<ColumnarAssetStore> columnarAssetStore;
+    private final AgingReferenceSettings agingReferenceSettings;
+    private final SoftwareAgingHistogram softwareAgingHistogram;
 
     @Override
     public List<SoftwareAssetAcquisitionStatisticVO> listAcquisitionStatistics() {
@@ -64,44 +75,32 @@ public class SoftwareAssetStatisticsServiceImpl implements SoftwareAssetStatisti
 
     @Override
     public List<SoftwareAssetAgingStatisticVO> listProvinceAgingStatistics() {
-        List<Province> provinces = provinceMapper.selectAll();
-        Map<String, ProvinceAgingAccumulator> accumulatorMap = new LinkedHashMap<>();
-        if (provinces != null) {
-            for (Province province : provinces) {
-                if (province == null) {
-                    continue;
-                }
-                String name = province.getName();
-                if (name != null && !name.isEmpty()) {
-                    accumulatorMap.putIfAbsent(name, new ProvinceAgingAccumulator(name));
-                }
-            }
-        }
-
-        List<SoftwareAssetProvinceUsageDetail> details = fetchAllProvinceDetails();
-        if (details.isEmpty()) {
+        Map<String, ProvinceAgingAccumulator> accumulatorMap = newProvinceAccumulatorMap(provinceMapper.selectAll());
+        // 与SoftwareAssetAgingCalculator.requiresUpgrade一致：投入使用日期早于阈值日期；
+        // 总量只计参考日期当天及之前投入使用的资产，与指定参考日期的直方图路径口径一致
+        LocalDate referenceDate = agingReferenceSettings.referenceDate();
+        LocalDate thresholdDate = SoftwareAssetAgingCalculator.thresholdDate(
+                referenceDate, agingReferenceSettings.softwareThresholdYears());
+
+        ColumnarAssetStore store = columnarAssetStore.getIfAvailable();
+        if (store != null) {
+            accumulateProvinceAging(store.software(), accumulatorMap, referenceDate, thresholdDate);
             return accumulatorMap.values().stream()
                     .map(ProvinceAgingAccumulator::toStatistic)
                     .collect(Collectors.toList());
         }
 
-        LocalDate today = LocalDate.now();
-        for (SoftwareAssetProvinceUsageDetail detail : details) {
-            if (detail == null) {
-                continue;
-            }
-            int quantity = SoftwareAssetAgingCalculator.safeQuantity(detail.getActualQuantity());
-            if (quantity <= 0) {
+        for (SoftwareAssetProvinceAgingRow row : fetchProvinceAgingTotals(referenceDate, thresholdDate)) {
+            if (row == null) {
                 continue;
             }
-            boolean inUse = Objects.equals(IN_USE_STATUS, detail.getServiceStatus());
-            boolean requiresUpgrade = SoftwareAssetAgingCalculator.requiresUpgrade(detail.getPutIntoUseDate(), today);
-            String provinceName = detail.getProvince();
+            String provinceName = row.getProvince();
             if (provinceName != null) {
                 provinceName = provinceName.trim();
             }
-            ProvinceAgingAccumulator accumulator = resolveAccumulator(accumulatorMap, provinceName);
-            accumulator.add(inUse, quantity, requiresUpgrade);
+            resolveAccumulator(accumulatorMap, provinceName).addTotals(
+                    row.getInUseTotalQuantity(), row.getInUseUpgradeQuantity(),
+                    row.getNotInUseTotalQuantity(), row.getNotInUseUpgradeQuantity());
         }
 
         return accumulatorMap.values().stream()
@@ -109,18 +108,96 @@ public class SoftwareAssetStatisticsServiceImpl implements SoftwareAssetStatisti
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public List<SoftwareAssetAgingStatisticVO> listProvinceAgingStatistics(LocalDate referenceDate, Integer thresholdYears) {
+        if (referenceDate == null && thresholdYears == null) {
+            return listProvinceAgingStatistics();
+        }
+        LocalDate resolvedDate = agingReferenceSettings.resolveReferenceDate(referenceDate);
+        int resolvedYears = agingReferenceSettings.resolveSoftwareThresholdYears(thresholdYears);
+        return computeProvinceAging(softwareAgingHistogram.current(), newProvinceAccumulatorMap(provinceMapper.selectAll()),
+                resolvedDate, SoftwareAssetAgingCalculator.thresholdDate(resolvedDate, resolvedYears));
+    }
+
+    @Override
+    public List<SoftwareAssetAgingTrendVO> listProvinceAgingTrend(LocalDate from, LocalDate to, Integer thresholdYears) {
+        LocalDate end = agingReferenceSettings.resolveReferenceDate(to);
+        LocalDate start = from != null ? from : end.minusMonths(DEFAULT_TREND_MONTHS - 1);
+        if (start.isAfter(end)) {
+            throw new IllegalArgumentException("趋势起始日期不能晚于结束日期");
+        }
+        int resolvedYears = agingReferenceSettings.resolveSoftwareThresholdYears(thresholdYears);
+
+        // 直方图与省份列表只加载一次，每个时间点只做分组内的前缀和查找
+        SoftwareAgingHistogram.Snapshot histogram = softwareAgingHistogram.current();
+        List<Province> provinces = provinceMapper.selectAll();
+        List<SoftwareAssetAgingTrendVO> trend = new ArrayList<>();
+        for (int month = 0; !start.plusMonths(month).isAfter(end); month++) {
+            if (month >= MAX_TREND_POINTS) {
+                throw new IllegalArgumentException("趋势时间点过多，最多支持" + MAX_TREND_POINTS + "个月");
+            }
+            LocalDate point = start.plusMonths(month);
+            SoftwareAssetAgingTrendVO vo = new SoftwareAssetAgingTrendVO();
+            vo.setReferenceDate(point);
+            vo.setThresholdYears(resolvedYears);
+            vo.setProvinces(computeProvinceAging(histogram, newProvinceAccumulatorMap(provinces),
+                    point, SoftwareAssetAgingCalculator.thresholdDate(point, resolvedYears)));
+            trend.add(vo);
+        }
+        return trend;
+    }
+
+    @Override
+    public List<SoftwareAssetAgingHistogramVO> listAgingHistogram(String province, String reportUnit) {
+        String provinceFilter = StringUtils.hasText(province) ? province.trim() : null;
+        String unitFilter = StringUtils.hasText(reportUnit) ? reportUnit.trim() : null;
+
+        // key：月份（yyyy-MM），未填日期使用null键；value：[在用, 非在用]
+        Map<String, long[]> buckets = new TreeMap<>(Comparator.nullsLast(Comparator.naturalOrder()));
+        for (SoftwareAgingHistogram.Group group : softwareAgingHistogram.current().getGroups()) {
+            if (provinceFilter != null && !provinceFilter.equals(trimToNull(group.getProvince()))) {
+                continue;
+            }
+            if (unitFilter != null && !unitFilter.equals(group.getReportUnit())) {
+                continue;
+            }
+            int slot = group.isInUse(IN_USE_STATUS) ? 0 : 1;
+            int[] epochDays = group.getEpochDays();
+            long[] quantities = group.getQuantities();
+            for (int i = 0; i < epochDays.length; i++) {
+                String month = YearMonth.from(LocalDate.ofEpochDay(epochDays[i])).toString();
+                buckets.computeIfAbsent(month, key -> new long[2])[slot] += quantities[i];
+            }
+            if (group.getUndatedQuantity() > 0) {
+                buckets.computeIfAbsent(null, key -> new long[2])[slot] += group.getUndatedQuantity();
+            }
+        }
+
+        List<SoftwareAssetAgingHistogramVO> histogram = new ArrayList<>(buckets.size());
+        buckets.forEach((month, quantities) -> {
+            SoftwareAssetAgingHistogramVO vo = new SoftwareAssetAgingHistogramVO();
+            vo.setMonth(month);
+            vo.setInUseQuantity(quantities[0]);
+            vo.setNotInUseQuantity(quantities[1]);
+            histogram.add(vo);
+        });
+        return histogram;
+    }
+
     @Override
     public SoftwareAssetUpgradeStatusVO determineAssetUpgradeStatus(String assetId) {
         SoftwareAsset asset = softwareAssetService.getById(assetId);
-        LocalDate today = LocalDate.now();
+        LocalDate referenceDate = agingReferenceSettings.referenceDate();
+        int thresholdYears = agingReferenceSettings.softwareThresholdYears();
         SoftwareAssetUpgradeStatusVO vo = new SoftwareAssetUpgradeStatusVO();
         vo.setAssetId(asset.getId());
         vo.setAssetName(asset.getAssetName());
         vo.setServiceStatus(asset.getServiceStatus());
         vo.setPutIntoUseDate(asset.getPutIntoUseDate());
-        vo.setReferenceDate(today);
-        vo.setThresholdYears(SoftwareAssetAgingCalculator.DEFAULT_THRESHOLD_YEARS);
-        vo.setRequiresUpgrade(SoftwareAssetAgingCalculator.requiresUpgrade(asset.getPutIntoUseDate(), today));
+        vo.setReferenceDate(referenceDate);
+        vo.setThresholdYears(thresholdYears);
+        vo.setRequiresUpgrade(SoftwareAssetAgingCalculator.requiresUpgrade(
+                asset.getPutIntoUseDate(), referenceDate, thresholdYears));
         return vo;
     }
 
@@ -132,7 +209,8 @@ public class SoftwareAssetStatisticsServiceImpl implements SoftwareAssetStatisti
         }
 
         String trimmedReportUnit = reportUnit.trim();
-        LocalDate today = LocalDate.now();
+        LocalDate referenceDate = agingReferenceSettings.referenceDate();
+        int thresholdYears = agingReferenceSettings.softwareThresholdYears();
 
         List<SoftwareAsset> assets = softwareAssetService.list(new QueryWrapper<SoftwareAsset>()
                 .eq("report_unit", trimmedReportUnit)
@@ -150,7 +228,8 @@ public class SoftwareAssetStatisticsServiceImpl implements SoftwareAssetStatisti
                     vo.setUnit(asset.getUnit());
                     vo.setServiceStatus(asset.getServiceStatus());
                     vo.setPutIntoUseDate(asset.getPutIntoUseDate());
-                    vo.setRequiresUpgrade(SoftwareAssetAgingCalculator.requiresUpgrade(asset.getPutIntoUseDate(), today));
+                    vo.setRequiresUpgrade(SoftwareAssetAgingCalculator.requiresUpgrade(
+                            asset.getPutIntoUseDate(), referenceDate, thresholdYears));
                     return vo;
                 })
                 .collect(Collectors.toList());
@@ -238,9 +317,124 @@ public class SoftwareAssetStatisticsServiceImpl implements SoftwareAssetStatisti
         return rows == null ? Collections.emptyList() : rows;
     }
 
-    private List<SoftwareAssetProvinceUsageDetail> fetchAllProvinceDetails() {
-        List<SoftwareAssetProvinceUsageDetail> details = statisticsMapper.selectAllProvinceUsageDetails();
-        return details == null ? Collections.emptyList() : details;
+    /**
+     * 基于列式快照累加省份老化统计：省份与服务状态按字典编码预先解析，逐行只做整数比较；
+     * 投入使用日期晚于参考日期的资产不计入
+     */
+    private void accumulateProvinceAging(ColumnarAssetStore.SoftwareColumns columns,
+                                         Map<String, ProvinceAgingAccumulator> accumulatorMap,
+                                         LocalDate referenceDate,
+                                         LocalDate thresholdDate) {
+        ColumnarAssetStore.Dictionary provinces = columns.getProvinces();
+        // 最后一个槽位对应null省份
+        ProvinceAgingAccumulator[] accumulators = new ProvinceAgingAccumulator[provinces.size() + 1];
+        for (int code = 0; code < provinces.size(); code++) {
+            String name = provinces.valueOf(code).trim();
+            accumulators[code] = resolveAccumulator(accumulatorMap, name);
+        }
+        accumulators[provinces.size()] = resolveAccumulator(accumulatorMap, null);
+
+        int inUseCode = columns.getServiceStatuses().codeOf(IN_USE_STATUS);
+        int referenceEpochDay = (int) referenceDate.toEpochDay();
+        int thresholdEpochDay = (int) thresholdDate.toEpochDay();
+
+        // 按块并行扫描：每块使用独立的计数数组（fork-join公共池），最后逐槽位合并，无共享写
+        int chunkCount = Math.max(1, (columns.getSize() + AGING_SCAN_CHUNK_SIZE - 1) / AGING_SCAN_CHUNK_SIZE);
+        long[] totals = IntStream.range(0, chunkCount)
+                .parallel()
+                .mapToObj(chunk -> scanAgingChunk(columns, chunk * AGING_SCAN_CHUNK_SIZE,
+                        Math.min(columns.getSize(), (chunk + 1) * AGING_SCAN_CHUNK_SIZE),
+                        accumulators.length, inUseCode, referenceEpochDay, thresholdEpochDay))
+                .reduce((left, right) -> {
+                    for (int k = 0; k < left.length; k++) {
+                        left[k] += right[k];
+                    }
+                    return left;
+                })
+                .orElseThrow();
+        for (int slot = 0; slot < accumulators.length; slot++) {
+            int base = slot * AGING_COUNTERS;
+            accumulators[slot].addTotals(totals[base], totals[base + 1], totals[base + 2], totals[base + 3]);
+        }
+    }
+
+    /**
+     * 扫描[from, to)区间，按省份槽位累加：在用总量、在用需升级、非在用总量、非在用需升级
+     */
+    private static long[] scanAgingChunk(ColumnarAssetStore.SoftwareColumns columns, int from, int to,
+                                         int slotCount, int inUseCode, int referenceEpochDay, int thresholdEpochDay) {
+        int nullSlot = slotCount - 1;
+        int[] provinceCodes = columns.getProvinceCodes();
+        int[] statusCodes = columns.getServiceStatusCodes();
+        int[] quantities = columns.getActualQuantities();
+        int[] epochDays = columns.getPutIntoUseEpochDays();
+        long[] counters = new long[slotCount * AGING_COUNTERS];
+        for (int i = from; i < to; i++) {
+            int quantity = quantities[i];
+            if (quantity <= 0 || (epochDays[i] != ColumnarAssetStore.NO_DATE && epochDays[i] > referenceEpochDay)) {
+                continue;
+            }
+            boolean inUse = inUseCode != ColumnarAssetStore.NULL_CODE && statusCodes[i] == inUseCode;
+            boolean requiresUpgrade = epochDays[i] != ColumnarAssetStore.NO_DATE && epochDays[i] < thresholdEpochDay;
+            int slot = provinceCodes[i] == ColumnarAssetStore.NULL_CODE ? nullSlot : provinceCodes[i];
+            int base = slot * AGING_COUNTERS + (inUse ? 0 : 2);
+            counters[base] += quantity;
+            if (requiresUpgrade) {
+                counters[base + 1] += quantity;
+            }
+        }
+        return counters;
+    }
+
+    /**
+     * 按直方图计算各省份老化统计：每个分组的需升级数量为阈值日期之前分桶的前缀和，
+     * 总量为参考日期当天及之前已投入使用的数量（含未填日期），参考日期之后投入使用的资产不计入该时间点
+     */
+    private List<SoftwareAssetAgingStatisticVO> computeProvinceAging(SoftwareAgingHistogram.Snapshot histogram,
+                                                                    Map<String, ProvinceAgingAccumulator> accumulatorMap,
+                                                                    LocalDate referenceDate,
+                                                                    LocalDate thresholdDate) {
+        for (SoftwareAgingHistogram.Group group : histogram.getGroups()) {
+            long total = group.quantityPutIntoUseBy(referenceDate);
+            long upgrade = group.quantityBefore(thresholdDate);
+            ProvinceAgingAccumulator accumulator = resolveAccumulator(accumulatorMap, trimToNull(group.getProvince()));
+            if (group.isInUse(IN_USE_STATUS)) {
+                accumulator.addTotals(total, upgrade, 0L, 0L);
+            } else {
+                accumulator.addTotals(0L, 0L, total, upgrade);
+            }
+        }
+        return accumulatorMap.values().stream()
+                .map(ProvinceAgingAccumulator::toStatistic)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * 以省份表预置累加器，保证没有资产的省份也返回一行
+     */
+    private Map<String, ProvinceAgingAccumulator> newProvinceAccumulatorMap(List<Province> provinces) {
+        Map<String, ProvinceAgingAccumulator> accumulatorMap = new LinkedHashMap<>();
+        if (provinces != null) {
+            for (Province province : provinces) {
+                if (province == null) {
+                    continue;
+                }
+                String name = province.getName();
+                if (name != null && !name.isEmpty()) {
+                    accumulatorMap.putIfAbsent(name, new ProvinceAgingAccumulator(name));
+                }
+            }
+        }
+        return accumulatorMap;
+    }
+
+    private static String trimToNull(String value) {
+        return value == null ? null : value.trim();
+    }
+
+    private List<SoftwareAssetProvinceAgingRow> fetchProvinceAgingTotals(LocalDate referenceDate, LocalDate thresholdDate) {
+        List<SoftwareAssetProvinceAgingRow> rows = statisticsMapper.selectProvinceAgingTotals(referenceDate, thresholdDate);
+        return rows == null ? Collections.emptyList() : rows;
     }
 
     private SoftwareAssetAcquisitionStatisticVO convertAcquisition(SoftwareAssetStatisticRow row) {
@@ -294,6 +488,14 @@ public class SoftwareAssetStatisticsServiceImpl implements SoftwareAssetStatisti
     }
 
     private static final String IN_USE_STATUS = "在用";
+    /** 老化趋势默认月份数（含结束月） */
+    private static final int DEFAULT_TREND_MONTHS = 12;
+    /** 老化趋势最多时间点数 */
+    private static final int MAX_TREND_POINTS = 240;
+    /** 列式快照并行扫描的分块行数 */
+    private static final int AGING_SCAN_CHUNK_SIZE = 64 * 1024;
+    /** 每个省份槽位的计数器个数：在用总量、在用需升级、非在用总量、非在用需升级 */
+    private static final int AGING_COUNTERS = 4;
     private static final String CATEGORY_PURCHASE = "购置";
     private static final String CATEGORY_SELF_DEVELOPED = "自主开发";
     private static final String CATEGORY_CO_DEVELOPED = "合作开发";
@@ -562,38 +764,39 @@ public class SoftwareAssetStatisticsServiceImpl implements SoftwareAssetStatisti
     private static class ProvinceAgingAccumulator {
 
         private final String province;
-        private int inUseTotal;
-        private int inUseUpgrade;
-        private int notInUseTotal;
-        private int notInUseUpgrade;
+        private long inUseTotal;
+        private long inUseUpgrade;
+        private long notInUseTotal;
+        private long notInUseUpgrade;
 
         private ProvinceAgingAccumulator(String province) {
             this.province = province;
         }
 
-        private void add(boolean inUse, int quantity, boolean requiresUpgrade) {
-            if (inUse) {
-                inUseTotal += quantity;
-                if (requiresUpgrade) {
-                    inUseUpgrade += quantity;
-                }
-            } else {
-                notInUseTotal += quantity;
-                if (requiresUpgrade) {
-                    notInUseUpgrade += quantity;
-                }
-            }
+        /**
+         * 合并已按省份汇总好的数量（分组SQL或并行扫描结果），空值按0处理；按long累加，输出时再做溢出校验
+         */
+        private void addTotals(Long inUse, Long inUseUpgradeQuantity, Long notInUse, Long notInUseUpgradeQuantity) {
+            inUseTotal += Objects.requireNonNullElse(inUse, 0L);
+            inUseUpgrade += Objects.requireNonNullElse(inUseUpgradeQuantity, 0L);
+            notInUseTotal += Objects.requireNonNullElse(notInUse, 0L);
+            notInUseUpgrade += Objects.requireNonNullElse(notInUseUpgradeQuantity, 0L);
         }
 
         private SoftwareAssetAgingStatisticVO toStatistic() {
             SoftwareAssetAgingStatisticVO vo = new SoftwareAssetAgingStatisticVO();
             vo.setProvince(province);
-            vo.setInUseTotalQuantity(inUseTotal);
-            vo.setInUseUpgradeRequiredQuantity(inUseUpgrade);
-            vo.setInUseAgingRatio(SoftwareAssetAgingCalculator.calculateAgingRatio(inUseUpgrade, inUseTotal));
-            vo.setNotInUseTotalQuantity(notInUseTotal);
-            vo.setNotInUseUpgradeRequiredQuantity(notInUseUpgrade);
-            vo.setNotInUseAgingRatio(SoftwareAssetAgingCalculator.calculateAgingRatio(notInUseUpgrade, notInUseTotal));
+            // 统计结果字段为int，超出范围时抛出ArithmeticException而不是静默截断
+            int inUse = Math.toIntExact(inUseTotal);
+            int inUseUpgradeQuantity = Math.toIntExact(inUseUpgrade);
+            int notInUse = Math.toIntExact(notInUseTotal);
+            int notInUseUpgradeQuantity = Math.toIntExact(notInUseUpgrade);
+            vo.setInUseTotalQuantity(inUse);
+            vo.setInUseUpgradeRequiredQuantity(inUseUpgradeQuantity);
+            vo.setInUseAgingRatio(SoftwareAssetAgingCalculator.calculateAgingRatio(inUseUpgradeQuantity, inUse));
+            vo.setNotInUseTotalQuantity(notInUse);
+            vo.setNotInUseUpgradeRequiredQuantity(notInUseUpgradeQuantity);
+            vo.setNotInUseAgingRatio(SoftwareAssetAgingCalculator.calculateAgingRatio(notInUseUpgradeQuantity, notInUse));
             return vo;
         }
     }
@@ -0,0 +1,80 @@
+package com.military.asset.utils;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+
+/**
+ * 老化判定的参考日期与阈值配置
+ * 默认以当天为参考日期；配置 asset.aging.reference-date 后所有老化类统计均按该日期计算（时间回溯分析模式）
+
+ * 配置项：
+ * - asset.aging.reference-date：参考日期（yyyy-MM-dd），为空表示当天
+ * - asset.aging.software-threshold-years：软件资产老化阈值（年），默认5
+ * - asset.aging.cyber-threshold-years：网信资产老化阈值（年），默认8
+ */
+@Component
+public class AgingReferenceSettings {
+
+    private final LocalDate fixedReferenceDate;
+    private final int softwareThresholdYears;
+    private final int cyberThresholdYears;
+
+    public AgingReferenceSettings(@Value("${asset.aging.reference-date:}") String referenceDate,
+                                  @Value("${asset.aging.software-threshold-years:5}") int softwareThresholdYears,
+                                  @Value("${asset.aging.cyber-threshold-years:8}") int cyberThresholdYears) {
+        this.fixedReferenceDate = parseReferenceDate(referenceDate);
+        this.softwareThresholdYears = requirePositive(softwareThresholdYears);
+        this.cyberThresholdYears = requirePositive(cyberThresholdYears);
+    }
+
+    /**
+     * 当前生效的参考日期：配置了固定日期则返回该日期，否则返回当天
+     */
+    public LocalDate referenceDate() {
+        return fixedReferenceDate != null ? fixedReferenceDate : LocalDate.now();
+    }
+
+    /**
+     * 请求指定的参考日期优先，未指定时使用配置值
+     */
+    public LocalDate resolveReferenceDate(LocalDate requested) {
+        return requested != null ? requested : referenceDate();
+    }
+
+    /**
+     * 请求指定的软件老化阈值优先，未指定时使用配置值
+     */
+    public int resolveSoftwareThresholdYears(Integer requested) {
+        return requested != null ? requirePositive(requested) : softwareThresholdYears;
+    }
+
+    public int softwareThresholdYears() {
+        return softwareThresholdYears;
+    }
+
+    public int cyberThresholdYears() {
+        return cyberThresholdYears;
+    }
+
+    private static LocalDate parseReferenceDate(String referenceDate) {
+        if (!StringUtils.hasText(referenceDate)) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(referenceDate.trim());
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("老化参考日期格式错误（应为yyyy-MM-dd）：" + referenceDate, e);
+        }
+    }
+
+    private static int requirePositive(int thresholdYears) {
+        if (thresholdYears <= 0) {
+            throw new IllegalArgumentException("老化阈值年限必须大于0：" + thresholdYears);
+        }
+        return thresholdYears;
+    }
+}
@@ -0,0 +1,100 @@
+package com.military.asset.utils;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * 资产系统指标记录工具
+ * 统一封装导入阶段计时、导入行数计数等Micrometer指标，指标经/actuator/prometheus对外暴露
+
+ * 指标说明：
+ * - asset.import.stage：导入各阶段耗时（标签：assetType、stage），阶段包括
+ *   validate/clear/parse/convert/batchSaveForImport/batchSyncReportUnits/crossTableSync；
+ *   一次处理多种资产类型的阶段（如跨类型合并的批量同步上报单位）assetType记为mixed
+ * - asset.import.total：单次导入整体耗时（标签：assetType、outcome）
+ * - asset.import.rows：导入行数计数（标签：assetType、outcome=valid/error），rate()即为每秒处理行数
+ */
+@Component
+@RequiredArgsConstructor
+public class AssetMetricsTool {
+
+    public static final String IMPORT_STAGE_TIMER = "asset.import.stage";
+    public static final String IMPORT_TOTAL_TIMER = "asset.import.total";
+    public static final String IMPORT_ROWS_COUNTER = "asset.import.rows";
+
+    public static final String STAGE_VALIDATE = "validate";
+    public static final String STAGE_CLEAR = "clear";
+    public static final String STAGE_SWAP = "swap";
+    public static final String STAGE_PARSE = "parse";
+    public static final String STAGE_CONVERT = "convert";
+    public static final String STAGE_BATCH_SAVE = "batchSaveForImport";
+    public static final String STAGE_SYNC_REPORT_UNITS = "batchSyncReportUnits";
+    public static final String STAGE_CROSS_TABLE_SYNC = "crossTableSync";
+
+    public static final String ASSET_TYPE_MIXED = "mixed";
+
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * 开始计时，返回的样本在阶段结束时交给stopStage/stopImport
+     */
+    public Timer.Sample start() {
+        return Timer.start(meterRegistry);
+    }
+
+    /**
+     * 结束某个导入阶段的计时
+     */
+    public void stopStage(Timer.Sample sample, String assetType, String stage) {
+        sample.stop(Timer.builder(IMPORT_STAGE_TIMER)
+                .description("资产导入各阶段耗时")
+                .tag("assetType", assetType)
+                .tag("stage", stage)
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+    }
+
+    /**
+     * 结束整次导入的计时
+     */
+    public void stopImport(Timer.Sample sample, String assetType, boolean success) {
+        sample.stop(Timer.builder(IMPORT_TOTAL_TIMER)
+                .description("资产导入整体耗时")
+                .tag("assetType", assetType)
+                .tag("outcome", success ? "success" : "failure")
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+    }
+
+    /**
+     * 同步执行并记录某个阶段的耗时（适用于无受检异常的阶段）
+     */
+    public void recordStage(String assetType, String stage, Runnable action) {
+        Timer.Sample sample = start();
+        try {
+            action.run();
+        } finally {
+            stopStage(sample, assetType, stage);
+        }
+    }
+
+    /**
+     * 累加导入行数
+     *
+     * @param outcome valid=校验通过，error=校验失败
+     */
+    public void countRows(String assetType, String outcome, long rows) {
+        if (rows <= 0) {
+            return;
+        }
+        Counter.builder(IMPORT_ROWS_COUNTER)
+                .description("资产导入处理行数")
+                .tag("assetType", assetType)
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment(rows);
+    }
+}
@@ -0,0 +1,169 @@
+package com.military.asset.utils;
+
+import com.alibaba.excel.EasyExcel;
+import com.alibaba.excel.metadata.Head;
+import com.alibaba.excel.write.handler.SheetWriteHandler;
+import com.alibaba.excel.write.metadata.holder.WriteSheetHolder;
+import com.alibaba.excel.write.metadata.holder.WriteWorkbookHolder;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.military.asset.vo.ResultVO;
+import com.military.asset.vo.excel.CyberAssetExcelVO;
+import com.military.asset.vo.excel.DataContentAssetExcelVO;
+import com.military.asset.vo.excel.SoftwareAssetExcelVO;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.poi.ss.SpreadsheetVersion;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.DataValidation;
+import org.apache.poi.ss.usermodel.DataValidationHelper;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.ss.util.CellRangeAddressList;
+import org.apache.poi.ss.util.CellReference;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 固定选项的预生成响应
+ * 选项来自AssetOptionRegistry，运行期不变，因此：
+
+ * - 固定选项接口：启动时把ResultVO序列化成JSON字节并计算强ETag，请求时直接输出（未变化返回304）
+ * - 生成式导入模板：按Excel VO的表头生成空模板，分类编码、资产分类及各固定选项列加下拉校验；
+ *   选项写在隐藏的“选项”工作表中按区域引用，不受Excel直接列表255字符的限制。首次下载时生成并缓存
+ */
+@Slf4j
+@Component
+public class AssetOptionCatalog {
+
+    /** 生成式模板中存放下拉选项的隐藏工作表 */
+    private static final String OPTION_SHEET_NAME = "选项";
+
+    private final long cacheMaxAgeSeconds;
+    private final long startupMillis = System.currentTimeMillis();
+    private final Map<String, TemplateFileCache.CachedTemplate> fixedOptionsJson;
+    private final Map<String, TemplateFileCache.CachedTemplate> generatedTemplates = new ConcurrentHashMap<>();
+
+    public AssetOptionCatalog(ObjectMapper objectMapper,
+                              @Value("${asset.template.cache-max-age-seconds:600}") long cacheMaxAgeSeconds) {
+        this.cacheMaxAgeSeconds = cacheMaxAgeSeconds;
+        Map<String, TemplateFileCache.CachedTemplate> json = new ConcurrentHashMap<>();
+        json.put(AssetOptionRegistry.SOFTWARE.getAssetType(),
+                toJson(objectMapper, AssetOptionRegistry.SOFTWARE, "获取软件应用资产固定选项成功"));
+        json.put(AssetOptionRegistry.CYBER.getAssetType(),
+                toJson(objectMapper, AssetOptionRegistry.CYBER, "获取网信基础资产固定选项成功"));
+        json.put(AssetOptionRegistry.DATA_CONTENT.getAssetType(),
+                toJson(objectMapper, AssetOptionRegistry.DATA_CONTENT, "获取数据内容资产固定选项成功"));
+        this.fixedOptionsJson = Collections.unmodifiableMap(json);
+    }
+
+    public long getCacheMaxAgeSeconds() {
+        return cacheMaxAgeSeconds;
+    }
+
+    /**
+     * 固定选项接口的完整响应体（{code, message, data}的JSON）
+     */
+    public TemplateFileCache.CachedTemplate fixedOptionsJson(AssetOptionRegistry.AssetOptions options) {
+        return fixedOptionsJson.get(options.getAssetType());
+    }
+
+    /**
+     * 带下拉校验的导入模板（首次调用时生成）
+     *
+     * @param options   资产表固定选项
+     * @param sheetName 数据工作表名称
+     */
+    public TemplateFileCache.CachedTemplate generatedTemplate(AssetOptionRegistry.AssetOptions options, String sheetName) {
+        return generatedTemplates.computeIfAbsent(options.getAssetType(), type -> {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            EasyExcel.write(out, excelClassOf(options))
+                    .registerWriteHandler(new DropDownHandler(options))
+                    .sheet(sheetName)
+                    .doWrite(Collections.emptyList());
+            TemplateFileCache.CachedTemplate template = TemplateFileCache.CachedTemplate.of(out.toByteArray(), startupMillis);
+            log.info("生成式导入模板已生成: {}，大小: {} bytes，ETag: {}", type, template.getLength(), template.getETag());
+            return template;
+        });
+    }
+
+    private TemplateFileCache.CachedTemplate toJson(ObjectMapper objectMapper,
+                                                    AssetOptionRegistry.AssetOptions options, String message) {
+        try {
+            byte[] body = objectMapper.writeValueAsBytes(ResultVO.success(options.toOptionsMap(), message));
+            return TemplateFileCache.CachedTemplate.of(body, startupMillis);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("固定选项序列化失败：" + options.getAssetType(), e);
+        }
+    }
+
+    private static Class<?> excelClassOf(AssetOptionRegistry.AssetOptions options) {
+        if (options == AssetOptionRegistry.SOFTWARE) {
+            return SoftwareAssetExcelVO.class;
+        }
+        if (options == AssetOptionRegistry.CYBER) {
+            return CyberAssetExcelVO.class;
+        }
+        if (options == AssetOptionRegistry.DATA_CONTENT) {
+            return DataContentAssetExcelVO.class;
+        }
+        throw new IllegalArgumentException("不支持的资产类型：" + options.getAssetType());
+    }
+
+    /**
+     * 数据工作表创建后：按表头找到有固定选项的列，选项写入隐藏工作表，数据行（表头以下）引用该区域做下拉校验
+     */
+    private static final class DropDownHandler implements SheetWriteHandler {
+
+        private final AssetOptionRegistry.AssetOptions options;
+
+        private DropDownHandler(AssetOptionRegistry.AssetOptions options) {
+            this.options = options;
+        }
+
+        @Override
+        public void afterSheetCreate(WriteWorkbookHolder writeWorkbookHolder, WriteSheetHolder writeSheetHolder) {
+            Workbook workbook = writeWorkbookHolder.getWorkbook();
+            Sheet dataSheet = writeSheetHolder.getSheet();
+            Sheet optionSheet = workbook.createSheet(OPTION_SHEET_NAME);
+            workbook.setSheetHidden(workbook.getSheetIndex(optionSheet), true);
+
+            List<Row> optionRows = new ArrayList<>();
+            DataValidationHelper helper = dataSheet.getDataValidationHelper();
+            int lastRowIndex = SpreadsheetVersion.EXCEL2007.getLastRowIndex();
+            int optionColumn = 0;
+            for (Map.Entry<Integer, Head> entry : writeSheetHolder.getExcelWriteHeadProperty().getHeadMap().entrySet()) {
+                List<String> headNames = entry.getValue().getHeadNameList();
+                List<String> values = options.optionsForHeader(headNames.get(headNames.size() - 1));
+                if (values == null || values.isEmpty()) {
+                    continue;
+                }
+                for (int i = 0; i < values.size(); i++) {
+                    while (optionRows.size() <= i) {
+                        optionRows.add(optionSheet.createRow(optionRows.size()));
+                    }
+                    Cell cell = optionRows.get(i).createCell(optionColumn);
+                    cell.setCellValue(values.get(i));
+                }
+                String columnName = CellReference.convertNumToColString(optionColumn);
+                String formula = "'" + OPTION_SHEET_NAME + "'!$" + columnName + "$1:$" + columnName + "$" + values.size();
+
+                // 表头占第0行，下拉校验从第1行覆盖到工作表末行
+                CellRangeAddressList range = new CellRangeAddressList(1, lastRowIndex, entry.getKey(), entry.getKey());
+                DataValidation validation = helper.createValidation(helper.createFormulaListConstraint(formula), range);
+                validation.setShowErrorBox(true);
+                validation.setErrorStyle(DataValidation.ErrorStyle.STOP);
+                validation.createErrorBox("输入值不合法", "请从下拉列表中选择" + headNames.get(headNames.size() - 1));
+                dataSheet.addValidationData(validation);
+                optionColumn++;
+            }
+        }
+    }
+}
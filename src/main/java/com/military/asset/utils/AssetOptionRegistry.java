@@ -0,0 +1,236 @@
+package com.military.asset.utils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 三表固定选项注册表（分类编码/资产分类 + 各下拉字段的固定选项）
+ * 类加载时构建一次，之后只读：
+
+ * - 固定选项接口（/api/asset/xxx/fixed-options）按此输出，顺序即前端下拉顺序
+ * - 导入监听器、Service的分类编码→资产分类校验共用同一份映射，不再每次new HashMap
+ * - 生成式导入模板按此给对应列加下拉校验
+
+ * 修改说明：调整分类或固定选项时只改本类，接口、校验和模板同步生效
+ */
+public final class AssetOptionRegistry {
+
+    /** 分类编码列的Excel表头 */
+    public static final String CATEGORY_CODE_HEADER = "分类编码";
+    /** 资产分类列的Excel表头 */
+    public static final String ASSET_CATEGORY_HEADER = "资产分类";
+
+    /**
+     * 软件应用资产（匹配software_asset表约束）
+     */
+    public static final AssetOptions SOFTWARE = new Builder("software")
+            .category("006004002001001", "操作系统")
+            .category("006004002001002", "数据库系统")
+            .category("006004002001003", "中间件")
+            .category("006004002001004", "软件开发环境")
+            .category("006004002002001", "网络通信软件")
+            .category("006004002002002", "文档处理软件")
+            .category("006004002002003", "图形图像软件")
+            .category("006004002002004", "数据处理软件")
+            .category("006004002002005", "模型算法软件")
+            .category("006004002002006", "地理信息系统")
+            .category("006004002002007", "移动应用软件")
+            .category("006004002002008", "安全防护软件")
+            .category("006004002002009", "设备管理软件")
+            .category("006004002003001", "作战指挥软件")
+            .category("006004002003002", "业务管理软件")
+            .category("006004002003003", "日常办公软件")
+            .field("acquisitionMethod", "取得方式", "购置", "自主开发", "合作开发", "其他")
+            .field("deploymentScope", "部署范围", "军以下", "全军", "战区", "军级单位内部", "军种")
+            .field("serviceStatus", "服务状态", "在用", "闲置", "报废", "封闭")
+            .build();
+
+    /**
+     * 网信基础资产（匹配cyber_asset表约束）
+     */
+    public static final AssetOptions CYBER = new Builder("cyber")
+            .category("006004001001", "自动电话号码")
+            .category("006004001002", "人工电话号码")
+            .category("006004001003", "保密电话号码")
+            .category("006004001004", "移动手机号码")
+            .category("006004001005", "有线信道")
+            .category("006004001006", "光缆纤芯")
+            .category("006004001007", "骨干网节点互联网络地址")
+            .category("006004001008", "骨干网节点设备管理地址")
+            .category("006004001009", "网络地址")
+            .category("006004001010", "文电名录")
+            .category("006004001011", "军事网络域名")
+            .category("006004001012", "互联网域名")
+            .category("006004001014", "无线电报代号")
+            .category("006004001015", "电磁频谱")
+            .category("006004001016", "数据中心计算资产")
+            .category("006004001017", "数据中心存储资产")
+            .category("006004001999", "其他网信基础资产")
+            .build();
+
+    /**
+     * 数据内容资产（匹配data_content_asset表约束）
+     */
+    public static final AssetOptions DATA_CONTENT = new Builder("data")
+            .category("006004003", "数据内容资产")
+            .field("applicationField", "应用领域",
+                    "后勤保障", "建设规划", "日常办公", "战备管理", "政治工作", "装备保障", "作战指挥", "其他")
+            .field("developmentTool", "开发工具",
+                    "Oracle", "MySql", "SQL Server", "HDFS", "达梦", "高斯", "南大通用", "人大金仓", "神州通用", "其他")
+            .field("updateCycle", "更新周期",
+                    "实时", "每天", "每月", "每季度", "每半年", "每年", "不更新", "其他")
+            .field("updateMethod", "更新方式",
+                    "自动采集", "在线填报", "离线填报", "商业购置", "上级请领", "其他")
+            .build();
+
+    private AssetOptionRegistry() {
+    }
+
+    /**
+     * 单张资产表的固定选项（不可变）
+     */
+    public static final class AssetOptions {
+
+        private final String assetType;
+        private final Map<String, String> categoryMapping;
+        private final List<String> categoryCodes;
+        private final List<String> assetCategories;
+        private final List<OptionField> fields;
+
+        private AssetOptions(String assetType, Map<String, String> categoryMapping, List<OptionField> fields) {
+            this.assetType = assetType;
+            this.categoryMapping = Collections.unmodifiableMap(new LinkedHashMap<>(categoryMapping));
+            this.categoryCodes = List.copyOf(categoryMapping.keySet());
+            this.assetCategories = List.copyOf(categoryMapping.values());
+            this.fields = List.copyOf(fields);
+        }
+
+        public String getAssetType() {
+            return assetType;
+        }
+
+        /**
+         * 分类编码→资产分类（有序、只读）
+         */
+        public Map<String, String> getCategoryMapping() {
+            return categoryMapping;
+        }
+
+        public List<String> getCategoryCodes() {
+            return categoryCodes;
+        }
+
+        public List<String> getAssetCategories() {
+            return assetCategories;
+        }
+
+        /**
+         * 分类之外的固定选项字段（按接口输出顺序）
+         */
+        public List<OptionField> getFields() {
+            return fields;
+        }
+
+        /**
+         * 分类编码对应的合法资产分类
+         *
+         * @param categoryCode 分类编码（调用方负责trim）
+         * @return 资产分类；编码不合法时返回null
+         */
+        public String categoryOf(String categoryCode) {
+            return categoryCode == null ? null : categoryMapping.get(categoryCode);
+        }
+
+        /**
+         * 按Excel表头取下拉选项：分类编码、资产分类及各固定选项字段
+         *
+         * @return 选项列表；该列没有固定选项时返回null
+         */
+        public List<String> optionsForHeader(String header) {
+            if (CATEGORY_CODE_HEADER.equals(header)) {
+                return categoryCodes;
+            }
+            if (ASSET_CATEGORY_HEADER.equals(header)) {
+                return assetCategories;
+            }
+            for (OptionField field : fields) {
+                if (field.getHeader().equals(header)) {
+                    return field.getValues();
+                }
+            }
+            return null;
+        }
+
+        /**
+         * 固定选项接口的data部分：categoryMapping/categoryCodes/assetCategories + 各字段key→选项列表
+         */
+        public Map<String, Object> toOptionsMap() {
+            Map<String, Object> options = new LinkedHashMap<>();
+            options.put("categoryMapping", categoryMapping);
+            options.put("categoryCodes", categoryCodes);
+            options.put("assetCategories", assetCategories);
+            for (OptionField field : fields) {
+                options.put(field.getKey(), field.getValues());
+            }
+            return options;
+        }
+    }
+
+    /**
+     * 固定选项字段：接口中的key、Excel表头、有序选项
+     */
+    public static final class OptionField {
+
+        private final String key;
+        private final String header;
+        private final List<String> values;
+
+        private OptionField(String key, String header, List<String> values) {
+            this.key = key;
+            this.header = header;
+            this.values = List.copyOf(values);
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public String getHeader() {
+            return header;
+        }
+
+        public List<String> getValues() {
+            return values;
+        }
+    }
+
+    private static final class Builder {
+
+        private final String assetType;
+        private final Map<String, String> categoryMapping = new LinkedHashMap<>();
+        private final List<OptionField> fields = new ArrayList<>();
+
+        private Builder(String assetType) {
+            this.assetType = assetType;
+        }
+
+        private Builder category(String code, String category) {
+            if (categoryMapping.put(code, category) != null) {
+                throw new IllegalStateException("分类编码重复：" + code);
+            }
+            return this;
+        }
+
+        private Builder field(String key, String header, String... values) {
+            fields.add(new OptionField(key, header, List.of(values)));
+            return this;
+        }
+
+        private AssetOptions build() {
+            return new AssetOptions(assetType, categoryMapping, fields);
+        }
+    }
+}
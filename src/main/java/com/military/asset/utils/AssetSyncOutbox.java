@@ -0,0 +1,110 @@
+package com.military.asset.utils;
+
+import com.military.asset.entity.AssetSyncOutboxEvent;
+import com.military.asset.mapper.AssetSyncOutboxMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+/**
+ * 导入副作用发件箱（写入端）
+ * 批量导入的事务只写资产行和本类登记的事件，上报单位同步与跨表省市同步由AssetSyncOutboxDispatcher在提交后异步应用：
+
+ * - 导入事务不再逐单位读写report_unit，对上报单位表的行锁不再持有到整个导入结束
+ * - 事件与资产行同一事务提交：导入回滚则事件一并消失，不会出现“单位已标记但资产不存在”
+ * - 事务提交后立即唤醒分发器；分发器另有定时轮询兜底（重试、实例重启）
+
+ * - 暂存表导入期间（ImportStagingContext）事件先缓存，暂存表替换为正式表后由ImportStagingTool写入
+
+ * 注意：分发完成前，新单位在上报单位表中的状态标记、资产行的report_unit_id、跨表省市短暂保持旧值
+ */
+@Slf4j
+@Component
+public class AssetSyncOutbox {
+
+    /**
+     * 单条INSERT的最大事件数，避免超长SQL
+     */
+    private static final int INSERT_CHUNK_SIZE = 1000;
+
+    private final AssetSyncOutboxMapper assetSyncOutboxMapper;
+    private final AssetSyncOutboxDispatcher dispatcher;
+
+    public AssetSyncOutbox(AssetSyncOutboxMapper assetSyncOutboxMapper, AssetSyncOutboxDispatcher dispatcher) {
+        this.assetSyncOutboxMapper = assetSyncOutboxMapper;
+        this.dispatcher = dispatcher;
+    }
+
+    /**
+     * 上报单位同步事件（对应ProvinceAutoFillTool.batchSyncReportUnits的新增模式）
+     *
+     * @param request 单位同步请求（删除场景仍同步执行，不走发件箱）
+     * @return 待写入的事件，调用方汇总后交给enqueue一次写入
+     */
+    public AssetSyncOutboxEvent reportUnitSync(ProvinceAutoFillTool.UnitSyncRequest request) {
+        if (request.isDelete()) {
+            throw new IllegalArgumentException("删除场景的上报单位同步不支持异步执行：" + request.getUnitName());
+        }
+        return newEvent(AssetSyncOutboxEvent.REPORT_UNIT_SYNC, request.getAssetType(),
+                request.getUnitName(), request.getProvince(), null);
+    }
+
+    /**
+     * 跨表省市同步事件：来源为网信资产时同步到数据内容资产表，来源为数据内容资产时同步到网信资产表
+     *
+     * @param sourceAssetType 来源资产类型：cyber / dataContent
+     * @param reportUnit      上报单位
+     * @param province        省份
+     * @param city            城市
+     * @return 待写入的事件，调用方汇总后交给enqueue一次写入
+     */
+    public AssetSyncOutboxEvent crossTableSync(String sourceAssetType, String reportUnit, String province, String city) {
+        if (!"cyber".equals(sourceAssetType) && !"dataContent".equals(sourceAssetType)) {
+            throw new IllegalArgumentException("跨表同步只支持网信资产与数据内容资产：" + sourceAssetType);
+        }
+        return newEvent(AssetSyncOutboxEvent.CROSS_TABLE_SYNC, sourceAssetType, reportUnit, province, city);
+    }
+
+    /**
+     * 写入事件（调用方事务内），并在事务提交后唤醒分发器；暂存表导入期间只缓存，不写入
+     */
+    public void enqueue(List<AssetSyncOutboxEvent> events) {
+        if (events == null || events.isEmpty()) {
+            return;
+        }
+        if (ImportStagingContext.defer(events)) {
+            log.info("📮 暂存导入中，{}条事件待替换后登记（来源: {}）", events.size(), events.get(0).getAssetType());
+            return;
+        }
+        for (int from = 0; from < events.size(); from += INSERT_CHUNK_SIZE) {
+            assetSyncOutboxMapper.insertBatch(events.subList(from, Math.min(from + INSERT_CHUNK_SIZE, events.size())));
+        }
+        log.info("📮 发件箱登记{}条事件（来源: {}）", events.size(), events.get(0).getAssetType());
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronization wakeUp = new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    dispatcher.requestDispatch();
+                }
+            };
+            TransactionSynchronizationManager.registerSynchronization(wakeUp);
+        } else {
+            dispatcher.requestDispatch();
+        }
+    }
+
+    private static AssetSyncOutboxEvent newEvent(String eventType, String assetType, String reportUnit,
+                                                 String province, String city) {
+        AssetSyncOutboxEvent event = new AssetSyncOutboxEvent();
+        event.setEventType(eventType);
+        event.setAssetType(assetType);
+        event.setReportUnit(reportUnit);
+        event.setProvince(province);
+        event.setCity(city);
+        return event;
+    }
+}
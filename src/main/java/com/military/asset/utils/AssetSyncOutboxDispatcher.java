@@ -0,0 +1,247 @@
+package com.military.asset.utils;
+
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.military.asset.entity.AssetSyncOutboxEvent;
+import com.military.asset.entity.CyberAsset;
+import com.military.asset.entity.DataContentAsset;
+import com.military.asset.mapper.AssetSyncOutboxMapper;
+import com.military.asset.mapper.CyberAssetMapper;
+import com.military.asset.mapper.DataContentAssetMapper;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 导入副作用发件箱分发器
+ * 在单独的后台线程中按id顺序认领asset_sync_outbox中的事件，分段应用：
+
+ * - 连续的同类事件为一段，每段一个事务：应用副作用并删除事件。上报单位同步不区分来源资产类型
+ *   （批量导入多类资产时只做一次同步、一次清理），跨表同步按来源资产类型分段
+ * - 同一段内同一单位只应用最后一条（后导入的省份覆盖先导入的）
+ * - REPORT_UNIT_SYNC：交给ProvinceAutoFillTool.batchSyncReportUnits（按实际数据重算状态标记、回填各类资产的report_unit_id）
+ * - CROSS_TABLE_SYNC：每个单位一条覆盖省市的UPDATE，目标表无该单位时影响0行
+ * - 某段失败：该段事件按退避放回（超过次数置为FAILED），本批其余事件放回；认领带顺序屏障，
+ *   失败事件退避期间其后的事件不会被认领，到期后从失败事件开始按id顺序重新处理
+
+ * 以上操作重复执行结果不变，认领超时（实例中途退出）的事件被重新认领后再应用一次不会产生副作用
+ */
+@Slf4j
+@Component
+public class AssetSyncOutboxDispatcher {
+
+    private final AssetSyncOutboxMapper assetSyncOutboxMapper;
+    private final CyberAssetMapper cyberAssetMapper;
+    private final DataContentAssetMapper dataContentAssetMapper;
+    private final ProvinceAutoFillTool provinceAutoFillTool;
+    private final AssetMetricsTool assetMetricsTool;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final long claimTimeoutSeconds;
+
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "asset-outbox-dispatcher");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * 已提交但尚未开始执行的分发任务标记：多次唤醒合并为一次
+     */
+    private final AtomicBoolean dispatchQueued = new AtomicBoolean();
+
+    public AssetSyncOutboxDispatcher(AssetSyncOutboxMapper assetSyncOutboxMapper,
+                                     CyberAssetMapper cyberAssetMapper,
+                                     DataContentAssetMapper dataContentAssetMapper,
+                                     ProvinceAutoFillTool provinceAutoFillTool,
+                                     AssetMetricsTool assetMetricsTool,
+                                     PlatformTransactionManager transactionManager,
+                                     @Value("${asset.outbox.batch-size:500}") int batchSize,
+                                     @Value("${asset.outbox.max-attempts:10}") int maxAttempts,
+                                     @Value("${asset.outbox.claim-timeout-seconds:300}") long claimTimeoutSeconds) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("asset.outbox.batch-size 必须大于0");
+        }
+        if (maxAttempts <= 0) {
+            throw new IllegalArgumentException("asset.outbox.max-attempts 必须大于0");
+        }
+        this.assetSyncOutboxMapper = assetSyncOutboxMapper;
+        this.cyberAssetMapper = cyberAssetMapper;
+        this.dataContentAssetMapper = dataContentAssetMapper;
+        this.provinceAutoFillTool = provinceAutoFillTool;
+        this.assetMetricsTool = assetMetricsTool;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.claimTimeoutSeconds = claimTimeoutSeconds;
+    }
+
+    /**
+     * 唤醒分发（导入事务提交后调用），不阻塞调用方
+     */
+    public void requestDispatch() {
+        if (dispatchQueued.compareAndSet(false, true)) {
+            worker.execute(() -> {
+                dispatchQueued.set(false);
+                drain();
+            });
+        }
+    }
+
+    /**
+     * 定时轮询兜底：到期的重试事件、认领超时的事件、其他实例登记的事件
+     */
+    @Scheduled(initialDelayString = "${asset.outbox.poll-interval-ms:5000}",
+            fixedDelayString = "${asset.outbox.poll-interval-ms:5000}")
+    public void poll() {
+        requestDispatch();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        worker.shutdownNow();
+    }
+
+    /**
+     * 连续处理，直到没有可认领的事件或某段失败
+     */
+    private void drain() {
+        try {
+            while (dispatchBatch() == batchSize) {
+                // 整批认领满，可能还有积压，继续
+            }
+        } catch (Exception e) {
+            log.error("❌ 发件箱分发失败: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 认领并应用一批事件
+     *
+     * @return 本批认领条数；某段失败时返回0，等待下一轮
+     */
+    private int dispatchBatch() {
+        String claimToken = UUID.randomUUID().toString();
+        int claimed = assetSyncOutboxMapper.claimBatch(claimToken, batchSize, claimTimeoutSeconds);
+        if (claimed == 0) {
+            return 0;
+        }
+        List<AssetSyncOutboxEvent> events = assetSyncOutboxMapper.selectClaimed(claimToken);
+        List<List<AssetSyncOutboxEvent>> segments = segment(events);
+        for (int i = 0; i < segments.size(); i++) {
+            List<AssetSyncOutboxEvent> segment = segments.get(i);
+            List<Long> ids = segment.stream().map(AssetSyncOutboxEvent::getId).toList();
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    apply(segment);
+                    assetSyncOutboxMapper.deleteBatchIds(ids);
+                });
+            } catch (Exception e) {
+                log.error("❌ 发件箱事件应用失败 - 类型: {}，来源: {}，事件数: {}，将退避重试: {}",
+                        segment.get(0).getEventType(), segment.get(0).getAssetType(), ids.size(), e.getMessage(), e);
+                assetSyncOutboxMapper.markFailed(ids, String.valueOf(e.getMessage()), maxAttempts);
+                List<Long> remaining = segments.subList(i + 1, segments.size()).stream()
+                        .flatMap(List::stream)
+                        .map(AssetSyncOutboxEvent::getId)
+                        .toList();
+                if (!remaining.isEmpty()) {
+                    assetSyncOutboxMapper.release(remaining);
+                }
+                return 0;
+            }
+        }
+        log.info("📬 发件箱分发完成 - 事件: {}，分段: {}", events.size(), segments.size());
+        return claimed;
+    }
+
+    /**
+     * 按id顺序切分：事件类型相同的连续事件为一段，跨表同步还要求来源资产类型相同
+     */
+    private static List<List<AssetSyncOutboxEvent>> segment(List<AssetSyncOutboxEvent> events) {
+        List<List<AssetSyncOutboxEvent>> segments = new ArrayList<>();
+        List<AssetSyncOutboxEvent> current = null;
+        for (AssetSyncOutboxEvent event : events) {
+            if (current == null
+                    || !Objects.equals(current.get(0).getEventType(), event.getEventType())
+                    || (!AssetSyncOutboxEvent.REPORT_UNIT_SYNC.equals(event.getEventType())
+                    && !Objects.equals(current.get(0).getAssetType(), event.getAssetType()))) {
+                current = new ArrayList<>();
+                segments.add(current);
+            }
+            current.add(event);
+        }
+        return segments;
+    }
+
+    private void apply(List<AssetSyncOutboxEvent> segment) {
+        String eventType = segment.get(0).getEventType();
+        String assetType = segment.get(0).getAssetType();
+        if (AssetSyncOutboxEvent.REPORT_UNIT_SYNC.equals(eventType)) {
+            // 倒序交给batchSyncReportUnits：其合并规则为同一单位取第一条，即段内最后登记的一条；
+            // 不预先去重，保留每条事件的资产类型，回填覆盖段内出现的所有资产类型
+            List<ProvinceAutoFillTool.UnitSyncRequest> requests = new ArrayList<>(segment.size());
+            for (int i = segment.size() - 1; i >= 0; i--) {
+                AssetSyncOutboxEvent event = segment.get(i);
+                requests.add(new ProvinceAutoFillTool.UnitSyncRequest(
+                        event.getReportUnit(), event.getProvince(), event.getAssetType(), false));
+            }
+            provinceAutoFillTool.batchSyncReportUnits(requests);
+        } else if (AssetSyncOutboxEvent.CROSS_TABLE_SYNC.equals(eventType)) {
+            // 同一单位只保留段内最后一条事件
+            Map<String, AssetSyncOutboxEvent> latestByUnit = new LinkedHashMap<>();
+            for (AssetSyncOutboxEvent event : segment) {
+                latestByUnit.remove(event.getReportUnit());
+                latestByUnit.put(event.getReportUnit(), event);
+            }
+            applyCrossTableSync(assetType, latestByUnit.values());
+        } else {
+            throw new IllegalStateException("未知的发件箱事件类型：" + eventType);
+        }
+    }
+
+    /**
+     * 跨表省市同步：网信 → 数据内容资产表，数据内容 → 网信资产表，只更新省市两列
+     */
+    private void applyCrossTableSync(String sourceAssetType, Iterable<AssetSyncOutboxEvent> events) {
+        Timer.Sample sample = assetMetricsTool.start();
+        int updatedUnits = 0;
+        for (AssetSyncOutboxEvent event : events) {
+            int updated;
+            if ("cyber".equals(sourceAssetType)) {
+                DataContentAsset updateEntity = new DataContentAsset();
+                updateEntity.setProvince(event.getProvince());
+                updateEntity.setCity(event.getCity());
+                updated = dataContentAssetMapper.update(updateEntity,
+                        new QueryWrapper<DataContentAsset>().eq("report_unit", event.getReportUnit()));
+            } else if ("dataContent".equals(sourceAssetType)) {
+                CyberAsset updateEntity = new CyberAsset();
+                updateEntity.setProvince(event.getProvince());
+                updateEntity.setCity(event.getCity());
+                updated = cyberAssetMapper.update(updateEntity,
+                        new QueryWrapper<CyberAsset>().eq("report_unit", event.getReportUnit()));
+            } else {
+                throw new IllegalStateException("跨表同步不支持的来源资产类型：" + sourceAssetType);
+            }
+            if (updated > 0) {
+                updatedUnits++;
+            }
+        }
+        assetMetricsTool.stopStage(sample, sourceAssetType, AssetMetricsTool.STAGE_CROSS_TABLE_SYNC);
+        log.info("🔄 跨表同步完成 - 来源: {}，同步单位: {}", sourceAssetType, updatedUnits);
+    }
+}
@@ -0,0 +1,86 @@
+package com.military.asset.utils;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 资产表写入版本跟踪
+ * 由MyBatis写语句拦截器在事务提交后递增对应资产表的版本号，
+ * 内存快照、聚合缓存等派生数据通过比较版本号判断是否需要重建
+
+ * 版本规则：
+ * - software_asset 写入 → 软件版本+1
+ * - cyber_asset 写入 → 网信版本+1
+ * - data_content_asset 写入 → 数据内容版本+1
+ * - report_unit 写入 → 三类资产版本均+1（上报单位省份是资产省份统计口径的一部分）
+ */
+@Component
+public class AssetWriteTracker {
+
+    /**
+     * 写语句的目标表：INSERT INTO / REPLACE INTO / UPDATE / DELETE FROM / TRUNCATE TABLE 之后的第一个表名
+     */
+    private static final Pattern TARGET_TABLE = Pattern.compile(
+            "^\\s*(?:insert\\s+(?:ignore\\s+)?into|replace\\s+into|update|delete\\s+from|truncate(?:\\s+table)?)\\s+`?(\\w+)`?");
+
+    private final AtomicLong softwareVersion = new AtomicLong();
+    private final AtomicLong cyberVersion = new AtomicLong();
+    private final AtomicLong dataContentVersion = new AtomicLong();
+
+    /**
+     * 当前版本号
+     *
+     * @param assetType 资产类型："software"/"cyber"/"dataContent"
+     */
+    public long version(String assetType) {
+        return counter(assetType).get();
+    }
+
+    /**
+     * 标记资产表已写入（版本+1）
+     */
+    public void markWritten(String assetType) {
+        counter(assetType).incrementAndGet();
+    }
+
+    /**
+     * 根据写语句的目标表标记资产表
+     *
+     * @param sql 已执行的写语句
+     */
+    public void markWrittenBySql(String sql) {
+        if (sql == null) {
+            return;
+        }
+        Matcher matcher = TARGET_TABLE.matcher(sql.toLowerCase(Locale.ROOT));
+        if (!matcher.find()) {
+            return;
+        }
+        switch (matcher.group(1)) {
+            case "software_asset" -> softwareVersion.incrementAndGet();
+            case "cyber_asset" -> cyberVersion.incrementAndGet();
+            case "data_content_asset" -> dataContentVersion.incrementAndGet();
+            case "report_unit" -> {
+                softwareVersion.incrementAndGet();
+                cyberVersion.incrementAndGet();
+                dataContentVersion.incrementAndGet();
+            }
+            default -> {
+                // 其他表与资产派生数据无关
+            }
+        }
+    }
+
+    private AtomicLong counter(String assetType) {
+        return switch (assetType) {
+            case "software" -> softwareVersion;
+            case "cyber" -> cyberVersion;
+            case "dataContent" -> dataContentVersion;
+            default -> throw new IllegalArgumentException("未知的资产类型：" + assetType);
+        };
+    }
+}
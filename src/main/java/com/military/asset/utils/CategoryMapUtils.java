@@ -11,7 +11,8 @@ import java.util.Map;
 /**
  * 三表分类映射工具类（后续开发完成后启用，当前未集成到监听器）
  * 作用：为监听器提供“分类编码-资产分类”合法对应关系，匹配数据库表category_code/asset_category约束
- * 修改说明：后续调整分类时，直接修改initXXXCategoryMap()中的Map即可
+ * 修改说明：分类对应关系已统一到AssetOptionRegistry，调整分类时修改该类即可；
+ * 需要只读共享映射时直接使用AssetOptionRegistry.XXX.getCategoryMapping()，避免每次复制
  */
 public class CategoryMapUtils {
     /**
@@ -53,25 +54,8 @@ public class CategoryMapUtils {
      *
      */
     public static Map<String, String> initSoftwareCategoryMap() {
-        Map<String, String> softwareCategoryMap = new HashMap<>();
-        // 示例对应关系（后续可按实际需求修改）
-        softwareCategoryMap.put("006004002001001", "操作系统");
-        softwareCategoryMap.put("006004002001002", "数据库系统");
-        softwareCategoryMap.put("006004002001003", "中间件");
-        softwareCategoryMap.put("006004002001004", "软件开发环境");
-        softwareCategoryMap.put("006004002002001", "网络通信软件");
-        softwareCategoryMap.put("006004002002002", "文档处理软件");
-        softwareCategoryMap.put("006004002002003", "图形图像软件");
-        softwareCategoryMap.put("006004002002004", "数据处理软件");
-        softwareCategoryMap.put("006004002002005", "模型算法软件");
-        softwareCategoryMap.put("006004002002006", "地理信息系统");
-        softwareCategoryMap.put("006004002002007", "移动应用软件");
-        softwareCategoryMap.put("006004002002008", "安全防护软件");
-        softwareCategoryMap.put("006004002002009", "设备管理软件");
-        softwareCategoryMap.put("006004002003001", "作战指挥软件");
-        softwareCategoryMap.put("006004002003002", "业务管理软件");
-        softwareCategoryMap.put("006004002003003", "日常办公软件");
-        return softwareCategoryMap;
+        // 对应关系统一维护在AssetOptionRegistry，这里返回可修改的副本
+        return new HashMap<>(AssetOptionRegistry.SOFTWARE.getCategoryMapping());
     }
 
     /**
@@ -97,26 +81,8 @@ public class CategoryMapUtils {
      * 006004001999	其他网信基础资产
      */
     public static Map<String, String> initCyberCategoryMap() {
-        Map<String, String> cyberCategoryMap = new HashMap<>();
-        // 示例对应关系（后续可按实际需求修改）
-        cyberCategoryMap.put("006004001001", "自动电话号码");
-        cyberCategoryMap.put("006004001002", "人工电话号码");
-        cyberCategoryMap.put("006004001003", "保密电话号码");
-        cyberCategoryMap.put("006004001004", "移动手机号码");
-        cyberCategoryMap.put("006004001005", "有线信道");
-        cyberCategoryMap.put("006004001006", "光缆纤芯");
-        cyberCategoryMap.put("006004001007", "骨干网节点互联网络地址");
-        cyberCategoryMap.put("006004001008", "骨干网节点设备管理地址");
-        cyberCategoryMap.put("006004001009", "网络地址");
-        cyberCategoryMap.put("006004001010", "文电名录");
-        cyberCategoryMap.put("006004001011", "军事网络域名");
-        cyberCategoryMap.put("006004001012", "互联网域名");
-        cyberCategoryMap.put("006004001014", "无线电报代号");
-        cyberCategoryMap.put("006004001015", "电磁频谱");
-        cyberCategoryMap.put("006004001016", "数据中心计算资产");
-        cyberCategoryMap.put("006004001017", "数据中心存储资产");
-        cyberCategoryMap.put("006004001999", "其他网信基础资产");
-        return cyberCategoryMap;
+        // 对应关系统一维护在AssetOptionRegistry，这里返回可修改的副本
+        return new HashMap<>(AssetOptionRegistry.CYBER.getCategoryMapping());
     }
 
     /**
@@ -124,9 +90,7 @@ public class CategoryMapUtils {
      * @return 数据表分类映射Map
      */
     public static Map<String, String> initDataCategoryMap() {
-        Map<String, String> dataCategoryMap = new HashMap<>();
-        // 示例对应关系（后续可按实际需求修改）
-        dataCategoryMap.put("006004003", "数据内容资产");
-        return dataCategoryMap;
+        // 对应关系统一维护在AssetOptionRegistry，这里返回可修改的副本
+        return new HashMap<>(AssetOptionRegistry.DATA_CONTENT.getCategoryMapping());
     }
 }
\ No newline at end of file
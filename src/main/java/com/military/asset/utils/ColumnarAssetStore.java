@@ -0,0 +1,454 @@
+package com.military.asset.utils;
+
+import com.military.asset.entity.CyberAsset;
+import com.military.asset.entity.SoftwareAsset;
+import com.military.asset.mapper.CyberAssetMapper;
+import com.military.asset.mapper.SoftwareAssetMapper;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 资产列式内存副本（可选组件，asset.columnar.enabled=true 时启用）
+
+ * ==================== 设计说明 ====================
+ * 分析类接口（上报单位重要性、省份老化统计、网信使用率省份对照）原本每次请求都从MySQL
+ * 读取整批行再在Java中折叠。本组件将分析所需的列保存为列式快照：
+ * - 字符串列（上报单位、省份、部署范围、服务状态、资产分类）字典编码为int
+ * - 数量列为int[]，日期列为epochDay的int[]（无日期记为NO_DATE）
+ * 分析服务在原始数组上顺序扫描，不再产生实体对象
+ * 软件资产快照构建时另外按上报单位编码建立行号索引，并预先累加全表各部署范围的实有数量，
+ * 单个上报单位的重要性分析只访问该单位的行，不再扫描整个数组
+
+ * ==================== 一致性 ====================
+ * 1. 写路径：AssetWriteTrackingInterceptor在事务提交后递增AssetWriteTracker版本号
+ * 2. 读路径：快照记录构建时的版本号，读取时版本落后则提交后台重建并立即返回当前快照；
+ *    同一资产表同时最多一个重建在执行、一个在排队，导入期间每个分块递增的版本合并为少数几次重建，
+ *    请求线程不做全表扫描（只有首次读取、尚无快照时同步构建）
+ * 3. 版本落后期间读取到的是上一个快照，写入在后台重建完成后可见（通常为一次全表扫描的耗时）
+ * 4. 定期对账：按 asset.columnar.reconcile-interval-ms 周期全量重建，
+ *    兜底覆盖绕过本应用的写入（手工SQL、其他实例）
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "asset.columnar", name = "enabled", havingValue = "true")
+public class ColumnarAssetStore {
+
+    /**
+     * 日期列中表示"无日期"的值
+     */
+    public static final int NO_DATE = Integer.MIN_VALUE;
+
+    /**
+     * 字典编码中表示null的编码
+     */
+    public static final int NULL_CODE = -1;
+
+    private static final String SOFTWARE = "software";
+    private static final String CYBER = "cyber";
+
+    private final SoftwareAssetMapper softwareAssetMapper;
+    private final CyberAssetMapper cyberAssetMapper;
+    private final AssetWriteTracker assetWriteTracker;
+
+    /**
+     * 后台重建执行器（单线程：重建依次执行，不与请求争用多个数据库连接）
+     */
+    private final Executor rebuildExecutor;
+    private final ExecutorService ownedExecutor;
+
+    /**
+     * 已提交但尚未开始执行的重建任务标记：多次版本落后的读取合并为一次重建
+     */
+    private final AtomicBoolean softwareRebuildQueued = new AtomicBoolean();
+    private final AtomicBoolean cyberRebuildQueued = new AtomicBoolean();
+
+    private volatile SoftwareColumns softwareColumns;
+    private volatile CyberColumns cyberColumns;
+
+    @Autowired
+    public ColumnarAssetStore(SoftwareAssetMapper softwareAssetMapper,
+                              CyberAssetMapper cyberAssetMapper,
+                              AssetWriteTracker assetWriteTracker) {
+        this(softwareAssetMapper, cyberAssetMapper, assetWriteTracker, Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "columnar-snapshot-rebuild");
+            thread.setDaemon(true);
+            return thread;
+        }));
+    }
+
+    ColumnarAssetStore(SoftwareAssetMapper softwareAssetMapper,
+                       CyberAssetMapper cyberAssetMapper,
+                       AssetWriteTracker assetWriteTracker,
+                       Executor rebuildExecutor) {
+        this.softwareAssetMapper = softwareAssetMapper;
+        this.cyberAssetMapper = cyberAssetMapper;
+        this.assetWriteTracker = assetWriteTracker;
+        this.rebuildExecutor = rebuildExecutor;
+        this.ownedExecutor = rebuildExecutor instanceof ExecutorService executorService ? executorService : null;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (ownedExecutor != null) {
+            ownedExecutor.shutdownNow();
+        }
+    }
+
+    /**
+     * 软件资产列式快照：版本落后时提交后台重建，重建完成前返回上一个快照
+     */
+    public SoftwareColumns software() {
+        SoftwareColumns current = softwareColumns;
+        if (current == null) {
+            return rebuildSoftware(false);
+        }
+        if (current.version != assetWriteTracker.version(SOFTWARE)) {
+            requestRebuild(softwareRebuildQueued, () -> rebuildSoftware(false), SOFTWARE);
+        }
+        return current;
+    }
+
+    /**
+     * 网信资产列式快照：版本落后时提交后台重建，重建完成前返回上一个快照
+     */
+    public CyberColumns cyber() {
+        CyberColumns current = cyberColumns;
+        if (current == null) {
+            return rebuildCyber(false);
+        }
+        if (current.version != assetWriteTracker.version(CYBER)) {
+            requestRebuild(cyberRebuildQueued, () -> rebuildCyber(false), CYBER);
+        }
+        return current;
+    }
+
+    /**
+     * 提交后台重建；已有排队中的重建时不再提交。排队标记在任务开始时清除，
+     * 重建期间的新写入会再排入一次重建，最终快照不落后于最后一次写入
+     */
+    private void requestRebuild(AtomicBoolean queued, Runnable rebuild, String assetType) {
+        if (!queued.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            rebuildExecutor.execute(() -> {
+                queued.set(false);
+                try {
+                    rebuild.run();
+                } catch (RuntimeException e) {
+                    log.error("❌ 列式快照后台重建失败: {}", assetType, e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            queued.set(false);
+            log.warn("⚠️ 列式快照重建任务提交失败（应用关闭中）: {}", assetType);
+        }
+    }
+
+    /**
+     * 定期对账：无条件重建全部快照
+     */
+    @Scheduled(initialDelayString = "${asset.columnar.reconcile-interval-ms:300000}",
+            fixedDelayString = "${asset.columnar.reconcile-interval-ms:300000}")
+    public void reconcile() {
+        try {
+            rebuildSoftware(true);
+            rebuildCyber(true);
+        } catch (Exception e) {
+            log.error("❌ 列式快照定期对账失败", e);
+        }
+    }
+
+    private synchronized SoftwareColumns rebuildSoftware(boolean force) {
+        long version = assetWriteTracker.version(SOFTWARE);
+        SoftwareColumns current = softwareColumns;
+        if (!force && current != null && current.version == version) {
+            return current;
+        }
+        long start = System.nanoTime();
+        SoftwareColumns.Builder builder = new SoftwareColumns.Builder();
+        softwareAssetMapper.scanColumnarSnapshot(context -> builder.add(context.getResultObject()));
+        SoftwareColumns rebuilt = builder.build(version);
+        softwareColumns = rebuilt;
+        log.info("🧊 软件资产列式快照已重建 - 行数: {}，单位: {}，耗时: {}ms", rebuilt.size,
+                rebuilt.reportUnits.size(), (System.nanoTime() - start) / 1_000_000);
+        return rebuilt;
+    }
+
+    private synchronized CyberColumns rebuildCyber(boolean force) {
+        long version = assetWriteTracker.version(CYBER);
+        CyberColumns current = cyberColumns;
+        if (!force && current != null && current.version == version) {
+            return current;
+        }
+        long start = System.nanoTime();
+        CyberColumns.Builder builder = new CyberColumns.Builder();
+        cyberAssetMapper.scanColumnarSnapshot(context -> builder.add(context.getResultObject()));
+        CyberColumns rebuilt = builder.build(version);
+        cyberColumns = rebuilt;
+        log.info("🧊 网信资产列式快照已重建 - 行数: {}，单位: {}，耗时: {}ms", rebuilt.size,
+                rebuilt.reportUnits.size(), (System.nanoTime() - start) / 1_000_000);
+        return rebuilt;
+    }
+
+    // ============================ 快照结构 ============================
+
+    /**
+     * 软件资产列式快照（不可变）
+     */
+    @Getter
+    public static final class SoftwareColumns {
+        private final long version;
+        private final int size;
+        private final Dictionary reportUnits;
+        private final Dictionary provinces;
+        private final Dictionary deploymentScopes;
+        private final Dictionary serviceStatuses;
+        private final int[] reportUnitCodes;
+        private final int[] provinceCodes;
+        private final int[] deploymentScopeCodes;
+        private final int[] serviceStatusCodes;
+        private final int[] actualQuantities;
+        private final int[] putIntoUseEpochDays;
+        /**
+         * 按上报单位编码分组的行号：编码为c的行是unitRowIndexes[unitRowOffsets[c] .. unitRowOffsets[c + 1])，
+         * 最后一组（编码reportUnits.size()）为上报单位为空的行
+         */
+        private final int[] unitRowOffsets;
+        private final int[] unitRowIndexes;
+        /**
+         * 全表各部署范围的实有数量合计，下标为部署范围编码，最后一个槽位为未填部署范围
+         */
+        private final long[] deploymentScopeQuantities;
+        /**
+         * 全表是否出现过该部署范围（与deploymentScopeQuantities下标一致）
+         */
+        private final boolean[] deploymentScopesSeen;
+
+        private SoftwareColumns(Builder builder, long version) {
+            this.version = version;
+            this.size = builder.size;
+            this.reportUnits = builder.reportUnits.freeze();
+            this.provinces = builder.provinces.freeze();
+            this.deploymentScopes = builder.deploymentScopes.freeze();
+            this.serviceStatuses = builder.serviceStatuses.freeze();
+            this.reportUnitCodes = Arrays.copyOf(builder.reportUnitCodes, builder.size);
+            this.provinceCodes = Arrays.copyOf(builder.provinceCodes, builder.size);
+            this.deploymentScopeCodes = Arrays.copyOf(builder.deploymentScopeCodes, builder.size);
+            this.serviceStatusCodes = Arrays.copyOf(builder.serviceStatusCodes, builder.size);
+            this.actualQuantities = Arrays.copyOf(builder.actualQuantities, builder.size);
+            this.putIntoUseEpochDays = Arrays.copyOf(builder.putIntoUseEpochDays, builder.size);
+
+            // 计数排序：一次计数、一次放置，行号在组内保持原顺序
+            int unitSlots = reportUnits.size() + 1;
+            this.unitRowOffsets = new int[unitSlots + 1];
+            for (int i = 0; i < size; i++) {
+                unitRowOffsets[unitSlot(reportUnitCodes[i]) + 1]++;
+            }
+            for (int slot = 0; slot < unitSlots; slot++) {
+                unitRowOffsets[slot + 1] += unitRowOffsets[slot];
+            }
+            int[] next = Arrays.copyOf(unitRowOffsets, unitSlots);
+            this.unitRowIndexes = new int[size];
+            for (int i = 0; i < size; i++) {
+                unitRowIndexes[next[unitSlot(reportUnitCodes[i])]++] = i;
+            }
+
+            int scopeSlots = deploymentScopes.size() + 1;
+            this.deploymentScopeQuantities = new long[scopeSlots];
+            this.deploymentScopesSeen = new boolean[scopeSlots];
+            for (int i = 0; i < size; i++) {
+                int slot = deploymentScopeSlot(deploymentScopeCodes[i]);
+                deploymentScopeQuantities[slot] += actualQuantities[i];
+                deploymentScopesSeen[slot] = true;
+            }
+        }
+
+        /**
+         * 上报单位编码对应的行号分组槽位（NULL_CODE对应最后一组）
+         */
+        public int unitSlot(int reportUnitCode) {
+            return reportUnitCode == NULL_CODE ? reportUnits.size() : reportUnitCode;
+        }
+
+        /**
+         * 部署范围编码对应的累加槽位（NULL_CODE对应最后一个槽位）
+         */
+        public int deploymentScopeSlot(int deploymentScopeCode) {
+            return deploymentScopeCode == NULL_CODE ? deploymentScopes.size() : deploymentScopeCode;
+        }
+
+        private static final class Builder {
+            private int size;
+            private final Dictionary reportUnits = new Dictionary();
+            private final Dictionary provinces = new Dictionary();
+            private final Dictionary deploymentScopes = new Dictionary();
+            private final Dictionary serviceStatuses = new Dictionary();
+            private int[] reportUnitCodes = new int[1024];
+            private int[] provinceCodes = new int[1024];
+            private int[] deploymentScopeCodes = new int[1024];
+            private int[] serviceStatusCodes = new int[1024];
+            private int[] actualQuantities = new int[1024];
+            private int[] putIntoUseEpochDays = new int[1024];
+
+            private void add(SoftwareAsset row) {
+                if (size == reportUnitCodes.length) {
+                    int capacity = size + (size >> 1);
+                    reportUnitCodes = Arrays.copyOf(reportUnitCodes, capacity);
+                    provinceCodes = Arrays.copyOf(provinceCodes, capacity);
+                    deploymentScopeCodes = Arrays.copyOf(deploymentScopeCodes, capacity);
+                    serviceStatusCodes = Arrays.copyOf(serviceStatusCodes, capacity);
+                    actualQuantities = Arrays.copyOf(actualQuantities, capacity);
+                    putIntoUseEpochDays = Arrays.copyOf(putIntoUseEpochDays, capacity);
+                }
+                reportUnitCodes[size] = reportUnits.encode(row.getReportUnit());
+                provinceCodes[size] = provinces.encode(row.getProvince());
+                deploymentScopeCodes[size] = deploymentScopes.encode(row.getDeploymentScope());
+                serviceStatusCodes[size] = serviceStatuses.encode(row.getServiceStatus());
+                actualQuantities[size] = row.getActualQuantity() == null ? 0 : row.getActualQuantity();
+                putIntoUseEpochDays[size] = toEpochDay(row.getPutIntoUseDate());
+                size++;
+            }
+
+            private SoftwareColumns build(long version) {
+                return new SoftwareColumns(this, version);
+            }
+        }
+    }
+
+    /**
+     * 网信资产列式快照（不可变）
+     */
+    @Getter
+    public static final class CyberColumns {
+        private final long version;
+        private final int size;
+        private final Dictionary reportUnits;
+        private final Dictionary provinces;
+        private final Dictionary assetCategories;
+        private final int[] reportUnitCodes;
+        private final int[] provinceCodes;
+        private final int[] assetCategoryCodes;
+        private final int[] usedQuantities;
+        private final int[] actualQuantities;
+
+        private CyberColumns(Builder builder, long version) {
+            this.version = version;
+            this.size = builder.size;
+            this.reportUnits = builder.reportUnits.freeze();
+            this.provinces = builder.provinces.freeze();
+            this.assetCategories = builder.assetCategories.freeze();
+            this.reportUnitCodes = Arrays.copyOf(builder.reportUnitCodes, builder.size);
+            this.provinceCodes = Arrays.copyOf(builder.provinceCodes, builder.size);
+            this.assetCategoryCodes = Arrays.copyOf(builder.assetCategoryCodes, builder.size);
+            this.usedQuantities = Arrays.copyOf(builder.usedQuantities, builder.size);
+            this.actualQuantities = Arrays.copyOf(builder.actualQuantities, builder.size);
+        }
+
+        private static final class Builder {
+            private int size;
+            private final Dictionary reportUnits = new Dictionary();
+            private final Dictionary provinces = new Dictionary();
+            private final Dictionary assetCategories = new Dictionary();
+            private int[] reportUnitCodes = new int[1024];
+            private int[] provinceCodes = new int[1024];
+            private int[] assetCategoryCodes = new int[1024];
+            private int[] usedQuantities = new int[1024];
+            private int[] actualQuantities = new int[1024];
+
+            private void add(CyberAsset row) {
+                if (size == reportUnitCodes.length) {
+                    int capacity = size + (size >> 1);
+                    reportUnitCodes = Arrays.copyOf(reportUnitCodes, capacity);
+                    provinceCodes = Arrays.copyOf(provinceCodes, capacity);
+                    assetCategoryCodes = Arrays.copyOf(assetCategoryCodes, capacity);
+                    usedQuantities = Arrays.copyOf(usedQuantities, capacity);
+                    actualQuantities = Arrays.copyOf(actualQuantities, capacity);
+                }
+                reportUnitCodes[size] = reportUnits.encode(row.getReportUnit());
+                provinceCodes[size] = provinces.encode(row.getProvince());
+                assetCategoryCodes[size] = assetCategories.encode(row.getAssetCategory());
+                usedQuantities[size] = row.getUsedQuantity() == null ? 0 : row.getUsedQuantity();
+                actualQuantities[size] = row.getActualQuantity() == null ? 0 : row.getActualQuantity();
+                size++;
+            }
+
+            private CyberColumns build(long version) {
+                return new CyberColumns(this, version);
+            }
+        }
+    }
+
+    /**
+     * 字符串字典：按首次出现顺序分配编码，null编码为NULL_CODE
+     */
+    public static final class Dictionary {
+        private final List<String> values = new ArrayList<>();
+        private final Map<String, Integer> codes = new HashMap<>();
+        private String[] frozenValues;
+
+        private int encode(String value) {
+            if (value == null) {
+                return NULL_CODE;
+            }
+            Integer code = codes.get(value);
+            if (code == null) {
+                code = values.size();
+                values.add(value);
+                codes.put(value, code);
+            }
+            return code;
+        }
+
+        private Dictionary freeze() {
+            frozenValues = values.toArray(new String[0]);
+            return this;
+        }
+
+        /**
+         * 字典大小（不含null）
+         */
+        public int size() {
+            return frozenValues.length;
+        }
+
+        /**
+         * 编码对应的原值，NULL_CODE返回null
+         */
+        public String valueOf(int code) {
+            return code == NULL_CODE ? null : frozenValues[code];
+        }
+
+        /**
+         * 原值对应的编码，不存在时返回NULL_CODE
+         */
+        public int codeOf(String value) {
+            if (value == null) {
+                return NULL_CODE;
+            }
+            Integer code = codes.get(value);
+            return code == null ? NULL_CODE : code;
+        }
+    }
+
+    private static int toEpochDay(LocalDate date) {
+        return date == null ? NO_DATE : (int) date.toEpochDay();
+    }
+}
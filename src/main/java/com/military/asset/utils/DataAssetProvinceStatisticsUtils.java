@@ -2,21 +2,18 @@ package com.military.asset.utils;
 
 import com.military.asset.vo.FieldQuantityStatisticsVO;
 
-import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
-import java.util.stream.Collectors;
 
 /**
  * 省份维度下的应用领域资产数量统计工具类。
+ * 统计口径由FieldQuantityAccumulator实现；查询侧应逐行喂入累加器后调用summarize，
+ * 列表入参的方法保留给已有按领域分组好的调用方。
  */
 public final class DataAssetProvinceStatisticsUtils {
 
-    private static final int SCALE = 2;
-
     private DataAssetProvinceStatisticsUtils() {
         throw new IllegalStateException("Utility class");
     }
@@ -31,63 +28,29 @@ public final class DataAssetProvinceStatisticsUtils {
         if (fieldQuantities == null || fieldQuantities.isEmpty()) {
             return Collections.emptyMap();
         }
-        return fieldQuantities.entrySet().stream()
-                .collect(Collectors.toMap(Map.Entry::getKey, entry -> buildStatistics(entry.getValue())));
-    }
-
-    private static FieldQuantityStatisticsVO buildStatistics(List<Integer> quantities) {
-        List<Integer> sanitized = sanitize(quantities);
-        long total = sanitized.stream().mapToLong(Integer::longValue).sum();
-        BigDecimal average = sanitized.isEmpty()
-                ? BigDecimal.ZERO.setScale(SCALE, RoundingMode.HALF_UP)
-                : BigDecimal.valueOf(total)
-                        .divide(BigDecimal.valueOf(sanitized.size()), SCALE, RoundingMode.HALF_UP);
-        BigDecimal median = calculateMedian(sanitized);
-        BigDecimal variance = calculateVariance(sanitized);
-
-        FieldQuantityStatisticsVO vo = new FieldQuantityStatisticsVO();
-        vo.setTotal(total);
-        vo.setAverage(average);
-        vo.setMedian(median);
-        vo.setVariance(variance);
-        return vo;
-    }
-
-    private static List<Integer> sanitize(List<Integer> quantities) {
-        if (quantities == null) {
-            return Collections.emptyList();
-        }
-        return quantities.stream()
-                .filter(Objects::nonNull)
-                .collect(Collectors.toList());
-    }
-
-    private static BigDecimal calculateMedian(List<Integer> values) {
-        if (values.isEmpty()) {
-            return BigDecimal.ZERO.setScale(SCALE, RoundingMode.HALF_UP);
-        }
-        List<Integer> sorted = values.stream().sorted().collect(Collectors.toList());
-        int size = sorted.size();
-        if (size % 2 == 1) {
-            return BigDecimal.valueOf(sorted.get(size / 2)).setScale(SCALE, RoundingMode.HALF_UP);
+        Map<String, FieldQuantityAccumulator> accumulators = new LinkedHashMap<>();
+        for (Map.Entry<String, List<Integer>> entry : fieldQuantities.entrySet()) {
+            FieldQuantityAccumulator accumulator = new FieldQuantityAccumulator();
+            if (entry.getValue() != null) {
+                entry.getValue().forEach(accumulator::add);
+            }
+            accumulators.put(entry.getKey(), accumulator);
         }
-        BigDecimal low = BigDecimal.valueOf(sorted.get(size / 2 - 1));
-        BigDecimal high = BigDecimal.valueOf(sorted.get(size / 2));
-        return low.add(high)
-                .divide(BigDecimal.valueOf(2), SCALE, RoundingMode.HALF_UP);
+        return summarize(accumulators);
     }
 
-    private static BigDecimal calculateVariance(List<Integer> values) {
-        if (values.isEmpty()) {
-            return BigDecimal.ZERO.setScale(SCALE, RoundingMode.HALF_UP);
-        }
-        BigDecimal mean = BigDecimal.valueOf(values.stream().mapToLong(Integer::longValue).sum())
-                .divide(BigDecimal.valueOf(values.size()), SCALE + 2, RoundingMode.HALF_UP);
-        BigDecimal sumSquares = BigDecimal.ZERO;
-        for (Integer value : values) {
-            BigDecimal diff = BigDecimal.valueOf(value).subtract(mean);
-            sumSquares = sumSquares.add(diff.multiply(diff));
+    /**
+     * 由逐行累计好的各领域累加器生成统计结果（保持累加器的领域顺序）。
+     *
+     * @param accumulators key 为应用领域，value 为该领域的实有数量累加器
+     * @return 统计结果映射
+     */
+    public static Map<String, FieldQuantityStatisticsVO> summarize(Map<String, FieldQuantityAccumulator> accumulators) {
+        if (accumulators == null || accumulators.isEmpty()) {
+            return Collections.emptyMap();
         }
-        return sumSquares.divide(BigDecimal.valueOf(values.size()), SCALE, RoundingMode.HALF_UP);
+        Map<String, FieldQuantityStatisticsVO> statistics = new LinkedHashMap<>();
+        accumulators.forEach((field, accumulator) -> statistics.put(field, accumulator.toStatistics()));
+        return statistics;
     }
 }
@@ -0,0 +1,156 @@
+package com.military.asset.utils;
+
+import com.military.asset.vo.FieldQuantityStatisticsVO;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 单个应用领域的实有数量累加器。
+ * 调用方逐行喂入数量，不再先按领域组装装箱的List&lt;Integer&gt;：
+ * 数值存放在可扩容的int数组中，同时累计记录数、总和与平方和，
+ * 中位数在出结果时用快速选择求得，方差由总和与平方和精确推导。
+ * 非线程安全，一个累加器只在一次统计内使用。
+ */
+public final class FieldQuantityAccumulator {
+
+    private static final int SCALE = 2;
+    private static final int INITIAL_CAPACITY = 16;
+
+    private int[] values = new int[INITIAL_CAPACITY];
+    private int count;
+    private long sum;
+    /**
+     * 平方和的低位部分；单个int的平方不超过2^62，累加将溢出时转入sumOfSquaresCarry
+     */
+    private long sumOfSquares;
+    private BigInteger sumOfSquaresCarry = BigInteger.ZERO;
+
+    /**
+     * 喂入一条记录的实有数量，null忽略（与原列表统计中过滤空值一致）
+     */
+    public void add(Integer quantity) {
+        if (quantity != null) {
+            add(quantity.intValue());
+        }
+    }
+
+    public void add(int quantity) {
+        if (count == values.length) {
+            values = Arrays.copyOf(values, count + (count >> 1));
+        }
+        values[count++] = quantity;
+        sum += quantity;
+        long square = (long) quantity * quantity;
+        if (sumOfSquares > Long.MAX_VALUE - square) {
+            sumOfSquaresCarry = sumOfSquaresCarry.add(BigInteger.valueOf(sumOfSquares));
+            sumOfSquares = 0;
+        }
+        sumOfSquares += square;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public long getSum() {
+        return sum;
+    }
+
+    /**
+     * 生成统计结果：总量、平均数、中位数、方差（保留2位小数，HALF_UP）。
+     * 求中位数会重排内部数组，调用后不应再继续add。
+     */
+    public FieldQuantityStatisticsVO toStatistics() {
+        FieldQuantityStatisticsVO vo = new FieldQuantityStatisticsVO();
+        vo.setTotal(sum);
+        if (count == 0) {
+            BigDecimal zero = BigDecimal.ZERO.setScale(SCALE, RoundingMode.HALF_UP);
+            vo.setAverage(zero);
+            vo.setMedian(zero);
+            vo.setVariance(zero);
+            return vo;
+        }
+        BigDecimal n = BigDecimal.valueOf(count);
+        vo.setAverage(BigDecimal.valueOf(sum).divide(n, SCALE, RoundingMode.HALF_UP));
+        vo.setMedian(median());
+        vo.setVariance(variance(n));
+        return vo;
+    }
+
+    /**
+     * 方差：先把均值按4位小数取整，再求Σ(x-m)²/n，与逐项相减平方再求和的结果完全一致。
+     * Σ(x-m)² = Σx² - 2mΣx + n·m²，各项均为精确BigDecimal运算
+     */
+    private BigDecimal variance(BigDecimal n) {
+        BigDecimal mean = BigDecimal.valueOf(sum).divide(n, SCALE + 2, RoundingMode.HALF_UP);
+        BigDecimal squares = new BigDecimal(sumOfSquaresCarry.add(BigInteger.valueOf(sumOfSquares)));
+        BigDecimal deviation = squares
+                .subtract(mean.multiply(BigDecimal.valueOf(sum)).multiply(BigDecimal.valueOf(2)))
+                .add(n.multiply(mean).multiply(mean));
+        return deviation.divide(n, SCALE, RoundingMode.HALF_UP);
+    }
+
+    private BigDecimal median() {
+        int upper = count / 2;
+        int high = select(upper);
+        if ((count & 1) == 1) {
+            return BigDecimal.valueOf(high).setScale(SCALE, RoundingMode.HALF_UP);
+        }
+        // select之后[0, upper)均不大于values[upper]，其中最大值即为第upper-1小的元素
+        int low = values[0];
+        for (int i = 1; i < upper; i++) {
+            if (values[i] > low) {
+                low = values[i];
+            }
+        }
+        return BigDecimal.valueOf(low).add(BigDecimal.valueOf(high))
+                .divide(BigDecimal.valueOf(2), SCALE, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * 快速选择：返回第k小（从0开始）的元素，并使values[k]左侧均不大于它、右侧均不小于它。
+     * 随机选取枢轴，避免按数据库顺序输入时退化
+     */
+    private int select(int k) {
+        int left = 0;
+        int right = count - 1;
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (left < right) {
+            int pivotIndex = left + random.nextInt(right - left + 1);
+            int pivot = values[pivotIndex];
+            swap(pivotIndex, right);
+            int store = left;
+            for (int i = left; i < right; i++) {
+                if (values[i] < pivot) {
+                    swap(i, store++);
+                }
+            }
+            swap(store, right);
+            // 与枢轴相等的元素聚到一起，大量重复值时也能快速收敛
+            int equalEnd = store + 1;
+            for (int i = equalEnd; i <= right; i++) {
+                if (values[i] == pivot) {
+                    swap(i, equalEnd++);
+                }
+            }
+            if (k < store) {
+                right = store - 1;
+            } else if (k >= equalEnd) {
+                left = equalEnd;
+            } else {
+                return pivot;
+            }
+        }
+        return values[k];
+    }
+
+    private void swap(int i, int j) {
+        int tmp = values[i];
+        values[i] = values[j];
+        values[j] = tmp;
+    }
+}
@@ -0,0 +1,81 @@
+package com.military.asset.utils;
+
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * 全文检索条件构建工具
+ * 联合查询中的模糊匹配字段（上报单位、分类编码、资产分类、应用领域、开发工具、盘点单位）
+ * 由 '%关键词%' 改为 ngram FULLTEXT 索引上的短语匹配（见 V5__ngram_fulltext_search.sql）
+
+ * 匹配规则：
+ * - 纯中日韩文字且长度 ≥ ngram_token_size：MATCH(列) AGAINST('"关键词"' IN BOOLEAN MODE)，
+ *   短语模式要求所有ngram连续出现
+ * - 含拉丁字母、数字、空白或符号的关键词（如"Java"、分类编码）：退回LIKE。
+ *   V5建索引时使用InnoDB默认停用词表，ngram分词会丢弃包含停用词（a、i、in、on、of、it等）的词元，
+ *   这类关键词走短语匹配可能查不到LIKE能查到的记录；停用词均为英文，纯中文词元不受影响
+ * - 关键词过短（如单个汉字）：ngram索引中不存在该长度的词元，退回LIKE
+ * - asset.search.fulltext-enabled=false 时全部退回LIKE（未执行V5迁移的环境）
+
+ * 注意：InnoDB全文索引在事务提交后才可见，同一事务内新写入的记录检索不到
+ */
+@Component
+public class FullTextSearchTool {
+
+    /**
+     * 脚本属性为COMMON的假名标记：长音符（全角、半角）与浊音/半浊音符号（独立、半角）
+     */
+    private static final String KANA_COMMON_MARKS = "\u30FC\uFF70\u309B\u309C\uFF9E\uFF9F";
+
+    @Value("${asset.search.fulltext-enabled:true}")
+    private boolean fullTextEnabled;
+
+    /**
+     * 与MySQL服务端 ngram_token_size 保持一致（默认2）
+     */
+    @Value("${asset.search.ngram-token-size:2}")
+    private int ngramTokenSize;
+
+    /**
+     * 为查询条件追加"字段包含关键词"的匹配条件
+     *
+     * @param queryWrapper 查询条件
+     * @param column       数据库列名（必须是代码中的常量，且该列已建立FULLTEXT索引）
+     * @param keyword      用户输入的关键词，为空时不追加条件
+     */
+    public <T> void contains(QueryWrapper<T> queryWrapper, String column, String keyword) {
+        if (keyword == null || keyword.trim().isEmpty()) {
+            return;
+        }
+        String trimmed = keyword.trim();
+        // 双引号在布尔模式中表示短语边界，关键词内出现时直接去除
+        String phrase = trimmed.replace("\"", "");
+        if (!fullTextEnabled || !isCjkOnly(phrase) || phrase.codePointCount(0, phrase.length()) < ngramTokenSize) {
+            queryWrapper.like(column, trimmed);
+            return;
+        }
+        queryWrapper.apply("MATCH(" + column + ") AGAINST({0} IN BOOLEAN MODE)", "\"" + phrase + "\"");
+    }
+
+    /**
+     * 关键词是否全部由中日韩文字组成（ngram短语匹配只对这类关键词与子串匹配结果一致）
+     * 汉字、平假名、片假名、谚文之外，还接受Unicode脚本属性为COMMON、但只在假名词中出现的
+     * 长音符“ー”与浊音/半浊音符号，否则“データ”这类普通片假名词会被误判
+     */
+    static boolean isCjkOnly(String keyword) {
+        if (keyword.isEmpty()) {
+            return false;
+        }
+        return keyword.codePoints().allMatch(codePoint -> {
+            if (KANA_COMMON_MARKS.indexOf(codePoint) >= 0) {
+                return true;
+            }
+            Character.UnicodeScript script = Character.UnicodeScript.of(codePoint);
+            return script == Character.UnicodeScript.HAN
+                    || script == Character.UnicodeScript.HIRAGANA
+                    || script == Character.UnicodeScript.KATAKANA
+                    || script == Character.UnicodeScript.HANGUL;
+        });
+    }
+}
@@ -0,0 +1,464 @@
+package com.military.asset.utils;
+
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.update.UpdateWrapper;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.military.asset.entity.AssetImportCheckpoint;
+import com.military.asset.entity.AssetSyncOutboxEvent;
+import com.military.asset.mapper.AssetImportCheckpointMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 可续传导入检查点
+ * 全量导入中途失败（如写库出错）后，按导入编号从最后提交的分块继续，无需重新上传、解析与校验：
+
+ * - 开始：上传文件存入本地内容寻址存储（ImportFileStore），登记检查点（RUNNING）；
+ *   导入期间定时刷新updated_time（心跳），超过stale-seconds未刷新的RUNNING检查点视为实例中途退出
+ * - 解析完成：监听器的有效数据与错误数据已在暂存文件中，seal写出偏移量索引并刷盘
+ * - 每个分块：资产行与committed_rows（暂存表导入还有已缓存的发件箱事件）在同一事务提交
+ * - 失败：检查点置为FAILED并保留暂存文件与暂存表；续传接口认领后从committed_rows继续写入、发布
+ * - 暂存文件缺失（如解析阶段中断）时，续传从内容存储重新读取原文件，跳过已提交的行
+
+ * 同一资产类型开始新的全量导入后，旧的未完成检查点置为ABANDONED（暂存表已重建或正式表已清空）；
+ * FAILED超过保留期同样放弃，定时清理已结束检查点的文件与记录
+ * asset.import.checkpoint.enabled=false时start返回不记录进度的检查点，各方法无操作
+ */
+@Slf4j
+@Component
+public class ImportCheckpointTool {
+
+    private static final TypeReference<List<AssetSyncOutboxEvent>> EVENT_LIST = new TypeReference<>() {
+    };
+
+    private final AssetImportCheckpointMapper assetImportCheckpointMapper;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final Path spillDirectory;
+    private final ImportFileStore fileStore;
+    private final long staleSeconds;
+    private final long retentionHours;
+
+    /**
+     * 本实例正在导入的检查点编号，由heartbeat定时刷新
+     */
+    private final Set<String> active = ConcurrentHashMap.newKeySet();
+
+    public ImportCheckpointTool(AssetImportCheckpointMapper assetImportCheckpointMapper,
+                                ObjectMapper objectMapper,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${asset.import.checkpoint.enabled:true}") boolean enabled,
+                                @Value("${asset.import.checkpoint.dir:}") String directory,
+                                @Value("${asset.import.checkpoint.stale-seconds:600}") long staleSeconds,
+                                @Value("${asset.import.checkpoint.heartbeat-interval-ms:60000}") long heartbeatIntervalMs,
+                                @Value("${asset.import.checkpoint.retention-hours:72}") long retentionHours) {
+        if (staleSeconds <= 0) {
+            throw new IllegalArgumentException("asset.import.checkpoint.stale-seconds 必须大于0");
+        }
+        if (heartbeatIntervalMs <= 0 || heartbeatIntervalMs >= staleSeconds * 1000) {
+            throw new IllegalArgumentException("asset.import.checkpoint.heartbeat-interval-ms 必须大于0且小于stale-seconds");
+        }
+        Path root = StringUtils.hasText(directory)
+                ? Path.of(directory)
+                : Path.of(System.getProperty("java.io.tmpdir"), "asset-import", "checkpoints");
+        this.assetImportCheckpointMapper = assetImportCheckpointMapper;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.spillDirectory = root.resolve("spill");
+        this.fileStore = new ImportFileStore(root.resolve("files"));
+        this.staleSeconds = staleSeconds;
+        this.retentionHours = retentionHours;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 开始一次可续传的全量导入（在ImportStagingTool.begin之后调用）
+     *
+     * @param assetType 资产类型
+     * @param file      上传文件
+     * @param staged    是否暂存表导入
+     * @return 检查点；未开启时返回不记录进度的检查点
+     */
+    public Checkpoint start(String assetType, MultipartFile file, boolean staged) throws IOException {
+        if (!enabled) {
+            return new Checkpoint(null);
+        }
+        // 先放弃旧检查点：其上传文件可能与本次相同，须在本次存入之前按引用删除
+        abandonUnfinished(assetType);
+        ImportFileStore.StoredFile stored;
+        try (InputStream content = file.getInputStream()) {
+            stored = fileStore.put(content);
+        }
+        AssetImportCheckpoint entity = new AssetImportCheckpoint();
+        entity.setImportId(UUID.randomUUID().toString());
+        entity.setAssetType(assetType);
+        entity.setFileName(file.getOriginalFilename());
+        entity.setFileHash(stored.hash());
+        entity.setFileSize(stored.size());
+        entity.setStaged(staged);
+        entity.setStatus(AssetImportCheckpoint.STATUS_RUNNING);
+        entity.setCommittedRows(0);
+        assetImportCheckpointMapper.insert(entity);
+        active.add(entity.getImportId());
+        log.info("📌 导入检查点已登记: {}（{}，文件{}）", entity.getImportId(), assetType, stored.hash());
+        return new Checkpoint(entity);
+    }
+
+    /**
+     * 认领并加载待续传的检查点
+     *
+     * @throws IllegalStateException 未开启续传，或检查点不存在、已完成、正在导入中
+     */
+    public Checkpoint resume(String importId) {
+        if (!enabled) {
+            throw new IllegalStateException("未开启可续传导入（asset.import.checkpoint.enabled）");
+        }
+        if (assetImportCheckpointMapper.claimForResume(importId, staleSeconds) == 0) {
+            throw new IllegalStateException("导入检查点不存在、已完成或正在导入中：" + importId);
+        }
+        active.add(importId);
+        AssetImportCheckpoint entity = assetImportCheckpointMapper.selectById(importId);
+        log.info("▶️ 续传导入: {}（{}），已提交{}行", importId, entity.getAssetType(), entity.getCommittedRows());
+        return new Checkpoint(entity);
+    }
+
+    /**
+     * 心跳：刷新本实例正在导入的检查点，解析大文件等长时间没有分块提交时，续传接口不会将其认领为中断的导入
+     */
+    @Scheduled(initialDelayString = "${asset.import.checkpoint.heartbeat-interval-ms:60000}",
+            fixedDelayString = "${asset.import.checkpoint.heartbeat-interval-ms:60000}")
+    public void heartbeat() {
+        if (!enabled || active.isEmpty()) {
+            return;
+        }
+        try {
+            assetImportCheckpointMapper.touch(List.copyOf(active));
+        } catch (Exception e) {
+            log.warn("⚠️ 刷新导入检查点心跳失败: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 定时清理：FAILED超过保留期置为ABANDONED；已结束且超过保留期的检查点删除文件与记录
+     */
+    @Scheduled(initialDelayString = "${asset.import.checkpoint.cleanup-interval-ms:3600000}",
+            fixedDelayString = "${asset.import.checkpoint.cleanup-interval-ms:3600000}")
+    public void cleanup() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            LocalDateTime expiredBefore = LocalDateTime.now().minusHours(retentionHours);
+            List<AssetImportCheckpoint> expiredFailed = assetImportCheckpointMapper.selectList(
+                    new QueryWrapper<AssetImportCheckpoint>()
+                            .select("import_id", "file_hash")
+                            .eq("status", AssetImportCheckpoint.STATUS_FAILED)
+                            .lt("updated_time", expiredBefore));
+            for (AssetImportCheckpoint checkpoint : expiredFailed) {
+                assetImportCheckpointMapper.update(null, new UpdateWrapper<AssetImportCheckpoint>()
+                        .set("status", AssetImportCheckpoint.STATUS_ABANDONED)
+                        .eq("import_id", checkpoint.getImportId())
+                        .eq("status", AssetImportCheckpoint.STATUS_FAILED));
+                deleteFiles(checkpoint);
+            }
+            List<AssetImportCheckpoint> expired = assetImportCheckpointMapper.selectList(
+                    new QueryWrapper<AssetImportCheckpoint>()
+                            .select("import_id", "file_hash")
+                            .in("status", AssetImportCheckpoint.STATUS_COMPLETED, AssetImportCheckpoint.STATUS_ABANDONED)
+                            .lt("updated_time", expiredBefore));
+            for (AssetImportCheckpoint checkpoint : expired) {
+                deleteFiles(checkpoint);
+                assetImportCheckpointMapper.deleteById(checkpoint.getImportId());
+            }
+            if (!expiredFailed.isEmpty() || !expired.isEmpty()) {
+                log.info("🧹 导入检查点清理完成 - 过期放弃: {}，删除记录: {}", expiredFailed.size(), expired.size());
+            }
+        } catch (Exception e) {
+            log.warn("⚠️ 清理导入检查点失败: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 新的全量导入开始后（ImportStagingTool.begin已重建暂存表或清空正式表），同类资产旧的未完成检查点不再可续传：
+     * 置为ABANDONED并立即删除其暂存文件。批量导入不记录检查点，开始各类型时同样调用
+     */
+    public void abandonUnfinished(String assetType) {
+        if (!enabled) {
+            return;
+        }
+        List<AssetImportCheckpoint> previous = assetImportCheckpointMapper.selectList(
+                new QueryWrapper<AssetImportCheckpoint>()
+                        .select("import_id", "file_hash")
+                        .eq("asset_type", assetType)
+                        .in("status", AssetImportCheckpoint.STATUS_RUNNING, AssetImportCheckpoint.STATUS_FAILED));
+        if (previous.isEmpty()) {
+            return;
+        }
+        assetImportCheckpointMapper.abandonUnfinished(assetType);
+        previous.forEach(this::deleteFiles);
+        log.info("🗑️ {}个未完成的{}导入检查点已放弃（新的全量导入已开始）", previous.size(), assetType);
+    }
+
+    /**
+     * 删除检查点的暂存文件与索引；上传文件不再被未完成的检查点引用时一并删除
+     */
+    private void deleteFiles(AssetImportCheckpoint checkpoint) {
+        try {
+            Files.deleteIfExists(spillFile(checkpoint.getImportId()));
+            Files.deleteIfExists(indexFile(checkpoint.getImportId()));
+        } catch (IOException e) {
+            log.warn("⚠️ 删除导入检查点文件失败: {}，{}", checkpoint.getImportId(), e.getMessage());
+        }
+        if (assetImportCheckpointMapper.countUnfinishedByFileHash(checkpoint.getFileHash()) == 0) {
+            fileStore.delete(checkpoint.getFileHash());
+        }
+    }
+
+    private Path spillFile(String importId) {
+        return spillDirectory.resolve(importId + ".spill");
+    }
+
+    private Path indexFile(String importId) {
+        return spillDirectory.resolve(importId + ".idx");
+    }
+
+    /**
+     * 一次可续传导入的检查点；未开启续传时entity为null，各方法无操作
+     */
+    public final class Checkpoint {
+
+        private final AssetImportCheckpoint entity;
+        private int committedRows;
+        private ImportSpillStore spillStore;
+
+        private Checkpoint(AssetImportCheckpoint entity) {
+            this.entity = entity;
+            this.committedRows = entity == null ? 0 : entity.getCommittedRows();
+        }
+
+        public boolean isEnabled() {
+            return entity != null;
+        }
+
+        public String getImportId() {
+            return entity == null ? null : entity.getImportId();
+        }
+
+        public String getAssetType() {
+            return entity == null ? null : entity.getAssetType();
+        }
+
+        public boolean isStaged() {
+            return entity != null && Boolean.TRUE.equals(entity.getStaged());
+        }
+
+        /**
+         * 已提交的有效行数，分块保存从此处继续
+         */
+        public int getCommittedRows() {
+            return committedRows;
+        }
+
+        /**
+         * 已提交分块缓存的发件箱事件（暂存表导入续传时还原到暂存范围）
+         */
+        public List<AssetSyncOutboxEvent> getDeferredEvents() {
+            if (entity == null || !StringUtils.hasText(entity.getDeferredEvents())) {
+                return List.of();
+            }
+            try {
+                return objectMapper.readValue(entity.getDeferredEvents(), EVENT_LIST);
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("导入检查点中的缓存事件无法解析：" + entity.getImportId(), e);
+            }
+        }
+
+        /**
+         * 创建本次导入的暂存文件（固定文件名，失败后可由续传接口打开）；未开启续传时返回null
+         */
+        public ImportSpillStore createSpillStore() throws IOException {
+            if (entity == null) {
+                return null;
+            }
+            Files.deleteIfExists(indexFile(entity.getImportId()));
+            spillStore = ImportSpillStore.createFile(spillFile(entity.getImportId()));
+            return spillStore;
+        }
+
+        /**
+         * 打开上次解析完成后seal的暂存文件；不存在（解析阶段中断或已清理）时返回null
+         */
+        public ImportSpillStore openSealedSpillStore() throws IOException {
+            if (entity == null) {
+                return null;
+            }
+            Path file = spillFile(entity.getImportId());
+            Path index = indexFile(entity.getImportId());
+            if (!Files.exists(file) || !Files.exists(index)) {
+                return null;
+            }
+            spillStore = ImportSpillStore.openSealed(file, index);
+            return spillStore;
+        }
+
+        /**
+         * 从内容存储重新读取上传的原文件
+         */
+        public InputStream openUploadedFile() throws IOException {
+            if (entity == null) {
+                throw new IllegalStateException("未开启可续传导入，没有存储上传文件");
+            }
+            return fileStore.open(entity.getFileHash());
+        }
+
+        /**
+         * 解析完成：写出有效数据与错误数据的索引（sealedList下标0、1），记录行数
+         */
+        public void seal(List<?> validDataList, List<?> errorDataList) throws IOException {
+            if (entity == null) {
+                return;
+            }
+            spillStore.seal(indexFile(entity.getImportId()), validDataList, errorDataList);
+            AssetImportCheckpoint update = new AssetImportCheckpoint();
+            update.setImportId(entity.getImportId());
+            update.setValidRows(validDataList.size());
+            update.setErrorRows(errorDataList.size());
+            assetImportCheckpointMapper.updateById(update);
+        }
+
+        /**
+         * 提交一个分块：保存操作与进度在同一事务提交，事务回滚时进度不变
+         *
+         * @param committedRowsAfter 本块提交后的已提交有效行数
+         * @param save               本块的保存操作（batchSaveForImport加入本事务）
+         */
+        public void commitChunk(int committedRowsAfter, Runnable save) {
+            if (entity == null) {
+                save.run();
+                return;
+            }
+            transactionTemplate.executeWithoutResult(status -> {
+                save.run();
+                assetImportCheckpointMapper.updateProgress(entity.getImportId(), committedRowsAfter,
+                        isStaged() ? toJson(ImportStagingContext.currentDeferredEvents()) : null);
+            });
+            committedRows = committedRowsAfter;
+        }
+
+        /**
+         * 导入已发布：检查点完成，删除索引与（不再被引用的）上传文件；暂存文件随请求结束删除
+         */
+        public void complete() {
+            if (entity == null) {
+                return;
+            }
+            release();
+            try {
+                assetImportCheckpointMapper.update(null, new UpdateWrapper<AssetImportCheckpoint>()
+                        .set("status", AssetImportCheckpoint.STATUS_COMPLETED)
+                        .set("deferred_events", null)
+                        .eq("import_id", entity.getImportId()));
+                deleteIndexAndUnreferencedFile();
+            } catch (RuntimeException e) {
+                // 数据已发布；检查点未更新时过期后由定时清理放弃
+                log.warn("⚠️ 导入已完成，但检查点状态更新失败: {}，{}", entity.getImportId(), e.getMessage());
+            }
+        }
+
+        /**
+         * 导入失败：可续传时置为FAILED并保留暂存文件，否则放弃并删除文件
+         * 检查点已不是RUNNING（导入期间被新的全量导入放弃）时不改状态，也不再可续传
+         *
+         * @param error     失败原因
+         * @param resumable 已提交的数据是否仍在（暂存表未删除，或清空模式）
+         * @return 检查点是否可续传（未开启续传时为false）
+         */
+        public boolean fail(Exception error, boolean resumable) {
+            if (entity == null) {
+                return false;
+            }
+            release();
+            try {
+                String status = resumable ? AssetImportCheckpoint.STATUS_FAILED : AssetImportCheckpoint.STATUS_ABANDONED;
+                int updated = assetImportCheckpointMapper.failIfRunning(entity.getImportId(), status,
+                        StringUtils.truncate(String.valueOf(error.getMessage()), 500));
+                if (updated == 0) {
+                    // 放弃方已删除检查点文件；本次的暂存文件未保留，随请求结束删除
+                    log.warn("⚠️ 导入检查点已被新的导入放弃，不可续传: {}", entity.getImportId());
+                    return false;
+                }
+                if (resumable) {
+                    retainSpillFile();
+                    log.info("⏸️ 导入失败，可从第{}条有效数据续传: {}", committedRows + 1, entity.getImportId());
+                } else {
+                    deleteIndexAndUnreferencedFile();
+                }
+                return resumable;
+            } catch (RuntimeException e) {
+                // 状态仍为RUNNING，超过stale-seconds后可续传，文件须保留
+                log.warn("⚠️ 导入检查点失败状态记录失败: {}，{}", entity.getImportId(), e.getMessage());
+                if (resumable) {
+                    retainSpillFile();
+                }
+                return resumable;
+            }
+        }
+
+        /**
+         * 本次请求结束：停止心跳（complete/fail已调用时无操作）；检查点未结束时超过stale-seconds后可续传
+         */
+        public void release() {
+            if (entity != null) {
+                active.remove(entity.getImportId());
+            }
+        }
+
+        private void retainSpillFile() {
+            if (spillStore != null) {
+                spillStore.retainFile();
+            }
+        }
+
+        private void deleteIndexAndUnreferencedFile() {
+            try {
+                Files.deleteIfExists(indexFile(entity.getImportId()));
+            } catch (IOException e) {
+                log.warn("⚠️ 删除导入检查点索引失败: {}，{}", entity.getImportId(), e.getMessage());
+            }
+            if (assetImportCheckpointMapper.countUnfinishedByFileHash(entity.getFileHash()) == 0) {
+                fileStore.delete(entity.getFileHash());
+            }
+        }
+
+        private String toJson(List<AssetSyncOutboxEvent> events) {
+            try {
+                return objectMapper.writeValueAsString(events);
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("导入检查点缓存事件序列化失败", e);
+            }
+        }
+    }
+}
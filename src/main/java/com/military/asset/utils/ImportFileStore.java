@@ -0,0 +1,104 @@
+package com.military.asset.utils;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * 上传文件的本地内容寻址存储
+ * 文件按内容的SHA-256保存为 根目录/前两位/完整哈希：同一文件重复上传只存一份，
+ * 可续传导入失败后按哈希重新读取原文件，无需用户重新上传
+ */
+@Slf4j
+public final class ImportFileStore {
+
+    private final Path root;
+
+    public ImportFileStore(Path root) {
+        this.root = root;
+    }
+
+    /**
+     * 边读边计算哈希写入临时文件，再原子移动到哈希路径；内容相同的文件已存在时直接复用
+     *
+     * @param content 上传文件内容（由调用方关闭）
+     * @return 存储结果：哈希与字节数
+     */
+    public StoredFile put(InputStream content) throws IOException {
+        Files.createDirectories(root);
+        Path tempFile = Files.createTempFile(root, "upload-", ".tmp");
+        try {
+            MessageDigest digest = sha256();
+            long size;
+            try (DigestInputStream in = new DigestInputStream(content, digest);
+                 OutputStream out = Files.newOutputStream(tempFile)) {
+                size = in.transferTo(out);
+            }
+            String hash = HexFormat.of().formatHex(digest.digest());
+            Path target = path(hash);
+            if (Files.exists(target)) {
+                log.debug("上传文件已存在于内容存储: {}", hash);
+            } else {
+                Files.createDirectories(target.getParent());
+                try {
+                    Files.move(tempFile, target, StandardCopyOption.ATOMIC_MOVE);
+                } catch (FileAlreadyExistsException e) {
+                    // 并发上传同一文件，已由另一请求写入
+                    log.debug("上传文件已由并发请求写入内容存储: {}", hash);
+                }
+            }
+            return new StoredFile(hash, size);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    /**
+     * 打开已存储的文件
+     *
+     * @throws IllegalStateException 文件已被清理
+     */
+    public InputStream open(String hash) throws IOException {
+        Path file = path(hash);
+        if (!Files.exists(file)) {
+            throw new IllegalStateException("上传文件已不在内容存储中：" + hash);
+        }
+        return Files.newInputStream(file);
+    }
+
+    public void delete(String hash) {
+        try {
+            Files.deleteIfExists(path(hash));
+        } catch (IOException e) {
+            log.warn("⚠️ 删除内容存储中的上传文件失败: {}，{}", hash, e.getMessage());
+        }
+    }
+
+    private Path path(String hash) {
+        return root.resolve(hash.substring(0, 2)).resolve(hash);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("当前JDK不支持SHA-256", e);
+        }
+    }
+
+    /**
+     * 存储结果：内容哈希（SHA-256十六进制）与文件字节数
+     */
+    public record StoredFile(String hash, long size) {
+    }
+}
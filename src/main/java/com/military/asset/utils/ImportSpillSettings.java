@@ -0,0 +1,59 @@
+package com.military.asset.utils;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * 导入中间结果暂存配置
+
+ * 配置项：
+ * - asset.import.spill.enabled：监听器的有效数据、错误与重复记录写入内存映射暂存文件，默认开启
+ * - asset.import.spill.dir：暂存目录，为空时使用系统临时目录下的asset-import
+ * - asset.import.save-chunk-size：有效数据分块转换与保存的行数，堆上同时只保留一块实体
+ */
+@Component
+public class ImportSpillSettings {
+
+    private final boolean enabled;
+    private final Path directory;
+    private final int saveChunkSize;
+
+    public ImportSpillSettings(@Value("${asset.import.spill.enabled:true}") boolean enabled,
+                               @Value("${asset.import.spill.dir:}") String directory,
+                               @Value("${asset.import.save-chunk-size:5000}") int saveChunkSize) {
+        if (saveChunkSize <= 0) {
+            throw new IllegalArgumentException("asset.import.save-chunk-size 必须大于0");
+        }
+        this.enabled = enabled;
+        this.directory = StringUtils.hasText(directory)
+                ? Path.of(directory)
+                : Path.of(System.getProperty("java.io.tmpdir"), "asset-import");
+        this.saveChunkSize = saveChunkSize;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    public int getSaveChunkSize() {
+        return saveChunkSize;
+    }
+
+    /**
+     * 为一次导入创建暂存文件
+     *
+     * @param assetType 资产类型（文件名前缀）
+     * @return 暂存文件；未开启时返回null（监听器使用堆内列表）
+     */
+    public ImportSpillStore open(String assetType) throws IOException {
+        return enabled ? ImportSpillStore.create(directory, assetType) : null;
+    }
+}
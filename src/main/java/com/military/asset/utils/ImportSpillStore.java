@@ -0,0 +1,583 @@
+package com.military.asset.utils;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.RecordComponent;
+import java.math.BigDecimal;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * 导入中间结果暂存文件（内存映射，堆外）
+ * 导入监听器的有效数据、错误数据与重复记录不再以对象形式常驻堆内：
+
+ * - 每行按紧凑二进制编码（空值位图 + 变长整数 + UTF-8字符串）追加写入映射文件，堆上只保留每行8字节的偏移量
+ * - SpillList以List形式暴露（按下标读取时解码），转换、分块保存、构建导入结果与响应序列化都可逐行读取
+ * - 文件按64MB分段映射，由操作系统页缓存管理，导入行数不再受堆大小限制
+ * - close时删除文件；在此之前可反复读取（生成报告、重试保存），无需重新解析Excel
+ * - 可续传导入：解析完成后seal写出各列表的偏移量索引并刷盘，retainFile后close保留文件，
+ *   续传时openSealed只读打开，按索引还原列表（同一版本的VO类，字段顺序不变）
+
+ * 支持的字段类型：String、Integer/int、Long/long、Double/double、Boolean/boolean、BigDecimal、LocalDate、LocalDateTime；
+ * 普通类需有无参构造器（按字段读写），record按规范构造器重建
+ * 写入只在一个线程上进行；写完后可被多个线程并发读取
+ */
+@Slf4j
+public final class ImportSpillStore implements Closeable {
+
+    private static final int SEGMENT_SHIFT = 26;
+    private static final int SEGMENT_SIZE = 1 << SEGMENT_SHIFT;
+    private static final int LENGTH_BYTES = Integer.BYTES;
+
+    private static final Map<Class<?>, RowCodec<?>> CODECS = new ConcurrentHashMap<>();
+
+    private final Path file;
+    private final FileChannel channel;
+    private final boolean readOnly;
+    private final List<MappedByteBuffer> segments = new CopyOnWriteArrayList<>();
+    private int writeSegment;
+    private int writePosition;
+    private long[][] sealedOffsets;
+    private volatile boolean retained;
+    private volatile boolean closed;
+
+    private ImportSpillStore(Path file, boolean readOnly) throws IOException {
+        this.file = file;
+        this.readOnly = readOnly;
+        this.channel = readOnly
+                ? FileChannel.open(file, StandardOpenOption.READ)
+                : FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    /**
+     * 在指定目录创建暂存文件
+     *
+     * @param directory 暂存目录，不存在时创建
+     * @param name      文件名前缀（资产类型）
+     */
+    public static ImportSpillStore create(Path directory, String name) throws IOException {
+        Files.createDirectories(directory);
+        Path file = Files.createTempFile(directory, "import-" + name + "-", ".spill");
+        log.debug("导入暂存文件已创建: {}", file);
+        return new ImportSpillStore(file, false);
+    }
+
+    /**
+     * 在指定路径创建暂存文件（可续传导入使用固定文件名，已存在时覆盖）
+     */
+    public static ImportSpillStore createFile(Path file) throws IOException {
+        Files.createDirectories(file.getParent());
+        Files.deleteIfExists(file);
+        Files.createFile(file);
+        return new ImportSpillStore(file, false);
+    }
+
+    /**
+     * 只读打开已seal的暂存文件
+     *
+     * @param file      暂存文件
+     * @param indexFile seal写出的偏移量索引
+     * @return 暂存文件，按seal时的列表顺序用sealedList读取
+     */
+    public static ImportSpillStore openSealed(Path file, Path indexFile) throws IOException {
+        long[][] offsets;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(indexFile)))) {
+            offsets = new long[in.readInt()][];
+            for (int i = 0; i < offsets.length; i++) {
+                offsets[i] = new long[in.readInt()];
+                for (int j = 0; j < offsets[i].length; j++) {
+                    offsets[i][j] = in.readLong();
+                }
+            }
+        }
+        ImportSpillStore store = new ImportSpillStore(file, true);
+        store.sealedOffsets = offsets;
+        return store;
+    }
+
+    /**
+     * 创建列表：有暂存文件时为SpillList，否则为普通ArrayList
+     */
+    public static <T> List<T> listOf(ImportSpillStore store, Class<T> type) {
+        return store == null ? new ArrayList<>() : store.newList(type);
+    }
+
+    public <T> SpillList<T> newList(Class<T> type) {
+        return new SpillList<>(this, codecOf(type));
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * 写出各列表的偏移量索引（先写临时文件再原子替换），并把映射内容刷到磁盘；
+     * 之后即使进程退出，也可用openSealed按相同顺序还原这些列表
+     *
+     * @param indexFile 索引文件
+     * @param lists     本暂存文件上的SpillList
+     */
+    public void seal(Path indexFile, List<?>... lists) throws IOException {
+        ensureOpen();
+        for (MappedByteBuffer segment : segments) {
+            segment.force();
+        }
+        Path tempFile = indexFile.resolveSibling(indexFile.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+            out.writeInt(lists.length);
+            for (List<?> list : lists) {
+                if (!(list instanceof SpillList<?> spillList) || spillList.store != this) {
+                    throw new IllegalArgumentException("只能索引本暂存文件上的列表");
+                }
+                out.writeInt(spillList.size);
+                for (int i = 0; i < spillList.size; i++) {
+                    out.writeLong(spillList.offsets[i]);
+                }
+            }
+        }
+        Files.move(tempFile, indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * 按seal时的顺序读取列表（只读）
+     *
+     * @param index seal时列表的位置
+     * @param type  列表元素类型
+     */
+    public <T> SpillList<T> sealedList(int index, Class<T> type) {
+        if (sealedOffsets == null || index < 0 || index >= sealedOffsets.length) {
+            throw new IllegalStateException("暂存文件没有第" + index + "个已索引的列表：" + file);
+        }
+        SpillList<T> list = new SpillList<>(this, codecOf(type));
+        list.offsets = sealedOffsets[index];
+        list.size = sealedOffsets[index].length;
+        return list;
+    }
+
+    /**
+     * close时保留文件（可续传导入失败后，续传接口再次打开）
+     */
+    public void retainFile() {
+        retained = true;
+    }
+
+    /**
+     * 已写入的字节数（含各段末尾未用满的部分）
+     */
+    public long getWrittenBytes() {
+        return ((long) writeSegment << SEGMENT_SHIFT) + writePosition;
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        segments.clear();
+        try {
+            channel.close();
+            if (retained) {
+                log.debug("导入暂存文件已保留: {}", file);
+                return;
+            }
+            Files.deleteIfExists(file);
+            log.debug("导入暂存文件已删除: {}", file);
+        } catch (IOException e) {
+            log.warn("⚠️ 删除导入暂存文件失败: {}，{}", file, e.getMessage());
+        }
+    }
+
+    /**
+     * 追加一条记录，返回其偏移量；记录不跨段，当前段剩余空间不足时从下一段开头写入
+     */
+    synchronized long append(byte[] record) {
+        ensureOpen();
+        if (readOnly) {
+            throw new IllegalStateException("导入暂存文件为只读：" + file);
+        }
+        int required = LENGTH_BYTES + record.length;
+        if (required > SEGMENT_SIZE) {
+            throw new IllegalArgumentException("单条记录超过暂存分段大小：" + record.length + " bytes");
+        }
+        if (writePosition + required > SEGMENT_SIZE) {
+            writeSegment++;
+            writePosition = 0;
+        }
+        MappedByteBuffer segment = segment(writeSegment);
+        long offset = ((long) writeSegment << SEGMENT_SHIFT) + writePosition;
+        segment.putInt(writePosition, record.length);
+        segment.put(writePosition + LENGTH_BYTES, record);
+        writePosition += required;
+        return offset;
+    }
+
+    byte[] read(long offset) {
+        ensureOpen();
+        MappedByteBuffer segment = segment((int) (offset >>> SEGMENT_SHIFT));
+        int position = (int) (offset & (SEGMENT_SIZE - 1));
+        byte[] record = new byte[segment.getInt(position)];
+        segment.get(position + LENGTH_BYTES, record);
+        return record;
+    }
+
+    private MappedByteBuffer segment(int index) {
+        if (index < segments.size()) {
+            return segments.get(index);
+        }
+        synchronized (this) {
+            try {
+                while (segments.size() <= index) {
+                    segments.add(channel.map(readOnly ? FileChannel.MapMode.READ_ONLY : FileChannel.MapMode.READ_WRITE,
+                            (long) segments.size() << SEGMENT_SHIFT, SEGMENT_SIZE));
+                }
+            } catch (IOException e) {
+                throw new IllegalStateException("映射导入暂存文件失败：" + file, e);
+            }
+            return segments.get(index);
+        }
+    }
+
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException("导入暂存文件已关闭：" + file);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> RowCodec<T> codecOf(Class<T> type) {
+        return (RowCodec<T>) CODECS.computeIfAbsent(type, RowCodec::new);
+    }
+
+    /**
+     * 以暂存文件为存储的列表：堆上只保存偏移量，读取时解码为新对象（修改读出的对象不会写回文件）
+     * 支持追加、按下标插入与读取，不支持删除与替换
+     */
+    public static final class SpillList<T> extends AbstractList<T> {
+
+        private final ImportSpillStore store;
+        private final RowCodec<T> codec;
+        private long[] offsets = new long[64];
+        private int size;
+
+        private SpillList(ImportSpillStore store, RowCodec<T> codec) {
+            this.store = store;
+            this.codec = codec;
+        }
+
+        @Override
+        public T get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+            }
+            return codec.decode(store.read(offsets[index]));
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public void add(int index, T element) {
+            if (index < 0 || index > size) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+            }
+            long offset = store.append(codec.encode(element));
+            if (size == offsets.length) {
+                offsets = Arrays.copyOf(offsets, size + (size >> 1));
+            }
+            System.arraycopy(offsets, index, offsets, index + 1, size - index);
+            offsets[index] = offset;
+            size++;
+            modCount++;
+        }
+    }
+
+    /**
+     * 字段类型
+     */
+    private enum Kind {
+        STRING, INT, LONG, DOUBLE, BOOLEAN, BIG_DECIMAL, LOCAL_DATE, LOCAL_DATE_TIME;
+
+        static Kind of(Class<?> type) {
+            if (type == String.class) {
+                return STRING;
+            }
+            if (type == Integer.class || type == int.class) {
+                return INT;
+            }
+            if (type == Long.class || type == long.class) {
+                return LONG;
+            }
+            if (type == Double.class || type == double.class) {
+                return DOUBLE;
+            }
+            if (type == Boolean.class || type == boolean.class) {
+                return BOOLEAN;
+            }
+            if (type == BigDecimal.class) {
+                return BIG_DECIMAL;
+            }
+            if (type == LocalDate.class) {
+                return LOCAL_DATE;
+            }
+            if (type == LocalDateTime.class) {
+                return LOCAL_DATE_TIME;
+            }
+            throw new IllegalArgumentException("导入暂存不支持的字段类型：" + type.getName());
+        }
+    }
+
+    /**
+     * 按类的字段（record按组件）顺序编码：空值位图 + 各非空字段值
+     */
+    private static final class RowCodec<T> {
+
+        private final Class<T> type;
+        private final boolean record;
+        private final Field[] fields;
+        private final RecordComponent[] components;
+        private final Kind[] kinds;
+        private final Constructor<T> constructor;
+
+        private RowCodec(Class<?> rawType) {
+            @SuppressWarnings("unchecked")
+            Class<T> type = (Class<T>) rawType;
+            this.type = type;
+            this.record = type.isRecord();
+            try {
+                if (record) {
+                    this.components = type.getRecordComponents();
+                    this.fields = null;
+                    Class<?>[] parameterTypes = Arrays.stream(components).map(RecordComponent::getType).toArray(Class<?>[]::new);
+                    this.kinds = Arrays.stream(parameterTypes).map(Kind::of).toArray(Kind[]::new);
+                    this.constructor = type.getDeclaredConstructor(parameterTypes);
+                    Arrays.stream(components).forEach(component -> component.getAccessor().setAccessible(true));
+                } else {
+                    List<Field> instanceFields = new ArrayList<>();
+                    for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+                        for (Field field : c.getDeclaredFields()) {
+                            int modifiers = field.getModifiers();
+                            if (!Modifier.isStatic(modifiers) && !Modifier.isTransient(modifiers)) {
+                                field.setAccessible(true);
+                                instanceFields.add(field);
+                            }
+                        }
+                    }
+                    this.components = null;
+                    this.fields = instanceFields.toArray(Field[]::new);
+                    this.kinds = instanceFields.stream().map(field -> Kind.of(field.getType())).toArray(Kind[]::new);
+                    this.constructor = type.getDeclaredConstructor();
+                }
+                this.constructor.setAccessible(true);
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalArgumentException("导入暂存无法处理类型：" + type.getName(), e);
+            }
+        }
+
+        byte[] encode(T value) {
+            try {
+                int count = kinds.length;
+                Object[] values = new Object[count];
+                for (int i = 0; i < count; i++) {
+                    values[i] = record ? components[i].getAccessor().invoke(value) : fields[i].get(value);
+                }
+                Output out = new Output();
+                int bitmapBytes = (count + 7) >>> 3;
+                for (int b = 0; b < bitmapBytes; b++) {
+                    int bits = 0;
+                    for (int i = b << 3; i < Math.min(count, (b + 1) << 3); i++) {
+                        if (values[i] == null) {
+                            bits |= 1 << (i & 7);
+                        }
+                    }
+                    out.writeByte(bits);
+                }
+                for (int i = 0; i < count; i++) {
+                    if (values[i] != null) {
+                        write(out, kinds[i], values[i]);
+                    }
+                }
+                return out.toByteArray();
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("导入暂存编码失败：" + type.getName(), e);
+            }
+        }
+
+        T decode(byte[] bytes) {
+            try {
+                int count = kinds.length;
+                Input in = new Input(bytes);
+                int bitmapBytes = (count + 7) >>> 3;
+                byte[] bitmap = new byte[bitmapBytes];
+                for (int b = 0; b < bitmapBytes; b++) {
+                    bitmap[b] = (byte) in.readByte();
+                }
+                Object[] values = new Object[count];
+                for (int i = 0; i < count; i++) {
+                    if ((bitmap[i >>> 3] & (1 << (i & 7))) == 0) {
+                        values[i] = read(in, kinds[i]);
+                    }
+                }
+                if (record) {
+                    return constructor.newInstance(values);
+                }
+                T instance = constructor.newInstance();
+                for (int i = 0; i < count; i++) {
+                    if (values[i] != null) {
+                        fields[i].set(instance, values[i]);
+                    }
+                }
+                return instance;
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("导入暂存解码失败：" + type.getName(), e);
+            }
+        }
+
+        private static void write(Output out, Kind kind, Object value) {
+            switch (kind) {
+                case STRING -> out.writeString((String) value);
+                case INT -> out.writeVarLong((Integer) value);
+                case LONG -> out.writeVarLong((Long) value);
+                case DOUBLE -> out.writeFixedLong(Double.doubleToRawLongBits((Double) value));
+                case BOOLEAN -> out.writeByte((Boolean) value ? 1 : 0);
+                case BIG_DECIMAL -> out.writeString(((BigDecimal) value).toString());
+                case LOCAL_DATE -> out.writeVarLong(((LocalDate) value).toEpochDay());
+                case LOCAL_DATE_TIME -> {
+                    LocalDateTime dateTime = (LocalDateTime) value;
+                    out.writeVarLong(dateTime.toEpochSecond(ZoneOffset.UTC));
+                    out.writeVarLong(dateTime.getNano());
+                }
+                default -> throw new IllegalStateException("未知字段类型：" + kind);
+            }
+        }
+
+        private static Object read(Input in, Kind kind) {
+            return switch (kind) {
+                case STRING -> in.readString();
+                case INT -> (int) in.readVarLong();
+                case LONG -> in.readVarLong();
+                case DOUBLE -> Double.longBitsToDouble(in.readFixedLong());
+                case BOOLEAN -> in.readByte() != 0;
+                case BIG_DECIMAL -> new BigDecimal(in.readString());
+                case LOCAL_DATE -> LocalDate.ofEpochDay(in.readVarLong());
+                case LOCAL_DATE_TIME -> LocalDateTime.ofEpochSecond(in.readVarLong(), (int) in.readVarLong(), ZoneOffset.UTC);
+            };
+        }
+    }
+
+    /**
+     * 编码输出：可扩容字节数组，整数为zigzag变长编码
+     */
+    private static final class Output {
+
+        private byte[] buffer = new byte[256];
+        private int length;
+
+        void writeByte(int value) {
+            ensure(1);
+            buffer[length++] = (byte) value;
+        }
+
+        void writeVarLong(long value) {
+            long zigzag = (value << 1) ^ (value >> 63);
+            ensure(10);
+            while ((zigzag & ~0x7FL) != 0) {
+                buffer[length++] = (byte) ((zigzag & 0x7F) | 0x80);
+                zigzag >>>= 7;
+            }
+            buffer[length++] = (byte) zigzag;
+        }
+
+        void writeFixedLong(long value) {
+            ensure(Long.BYTES);
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                buffer[length++] = (byte) (value >>> shift);
+            }
+        }
+
+        void writeString(String value) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarLong(bytes.length);
+            ensure(bytes.length);
+            System.arraycopy(bytes, 0, buffer, length, bytes.length);
+            length += bytes.length;
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buffer, length);
+        }
+
+        private void ensure(int extra) {
+            if (length + extra > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length << 1, length + extra));
+            }
+        }
+    }
+
+    private static final class Input {
+
+        private final byte[] buffer;
+        private int position;
+
+        Input(byte[] buffer) {
+            this.buffer = buffer;
+        }
+
+        int readByte() {
+            return buffer[position++] & 0xFF;
+        }
+
+        long readVarLong() {
+            long zigzag = 0;
+            int shift = 0;
+            int b;
+            do {
+                b = buffer[position++];
+                zigzag |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            return (zigzag >>> 1) ^ -(zigzag & 1);
+        }
+
+        long readFixedLong() {
+            long value = 0;
+            for (int i = 0; i < Long.BYTES; i++) {
+                value = (value << 8) | (buffer[position++] & 0xFF);
+            }
+            return value;
+        }
+
+        String readString() {
+            int length = (int) readVarLong();
+            String value = new String(buffer, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+    }
+}
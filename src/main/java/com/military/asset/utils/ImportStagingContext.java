@@ -0,0 +1,138 @@
+package com.military.asset.utils;
+
+import com.military.asset.entity.AssetSyncOutboxEvent;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 导入暂存上下文（线程级）。
+ * <p>
+ * 暂存表导入期间，导入线程上的资产表读写由ImportStagingTableInterceptor改写到对应的暂存表，
+ * 其他线程（查询接口、统计看板）不受影响，继续读取现有数据。
+ * 同一范围内登记的发件箱事件先缓存在范围中，暂存表替换为正式表后再写入发件箱，
+ * 避免分发器在替换前把上报单位同步、跨表同步应用到旧数据上。
+ * 同一（事件类型、资产类型、上报单位）只缓存最后一条（与分发器的合并规则一致），
+ * 缓存量随单位数而非行数增长，可续传导入每个分块保存的事件JSON也随之有界。
+ * </p>
+ */
+public final class ImportStagingContext {
+
+    private static final ThreadLocal<Scope> CURRENT = new ThreadLocal<>();
+
+    private ImportStagingContext() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * 打开暂存范围，由ImportStagingTool在建好暂存表后调用。
+     *
+     * @param liveTable    正式表名
+     * @param stagingTable 暂存表名
+     * @return 暂存范围，使用完毕后必须close
+     */
+    static Scope open(String liveTable, String stagingTable) {
+        if (CURRENT.get() != null) {
+            throw new IllegalStateException("当前线程已有进行中的暂存导入：" + CURRENT.get().liveTable);
+        }
+        Scope scope = new Scope(liveTable, stagingTable);
+        CURRENT.set(scope);
+        return scope;
+    }
+
+    public static boolean isActive() {
+        return CURRENT.get() != null;
+    }
+
+    /**
+     * 表名映射：当前线程处于暂存范围且为正式表时返回暂存表名，否则原样返回。
+     */
+    public static String resolve(String tableName) {
+        Scope scope = CURRENT.get();
+        if (scope != null && scope.liveTable.equalsIgnoreCase(tableName)) {
+            return scope.stagingTable;
+        }
+        return tableName;
+    }
+
+    /**
+     * 暂存范围内缓存发件箱事件。
+     *
+     * @return true表示已缓存（调用方不再写入发件箱）；不在暂存范围内返回false
+     */
+    public static boolean defer(List<AssetSyncOutboxEvent> events) {
+        Scope scope = CURRENT.get();
+        if (scope == null) {
+            return false;
+        }
+        scope.addDeferredEvents(events);
+        return true;
+    }
+
+    /**
+     * 当前线程暂存范围内已缓存的发件箱事件（可续传导入随分块进度保存），不在暂存范围内返回空列表。
+     */
+    static List<AssetSyncOutboxEvent> currentDeferredEvents() {
+        Scope scope = CURRENT.get();
+        return scope == null ? List.of() : scope.getDeferredEvents();
+    }
+
+    /**
+     * 暂存范围：正式表与暂存表的对应关系，以及范围内缓存的发件箱事件。
+     */
+    public static final class Scope implements AutoCloseable {
+
+        private final String liveTable;
+        private final String stagingTable;
+        private final Map<EventKey, AssetSyncOutboxEvent> deferredEvents = new LinkedHashMap<>();
+
+        private Scope(String liveTable, String stagingTable) {
+            this.liveTable = liveTable;
+            this.stagingTable = stagingTable;
+        }
+
+        public String getLiveTable() {
+            return liveTable;
+        }
+
+        public String getStagingTable() {
+            return stagingTable;
+        }
+
+        /**
+         * 已缓存的事件，按各键最后一次登记的顺序排列
+         */
+        public List<AssetSyncOutboxEvent> getDeferredEvents() {
+            return List.copyOf(deferredEvents.values());
+        }
+
+        /**
+         * 续传时还原检查点中保存的事件（已提交分块登记的事件）
+         */
+        void restoreDeferredEvents(List<AssetSyncOutboxEvent> events) {
+            addDeferredEvents(events);
+        }
+
+        /**
+         * 同键的旧事件移除后追加到末尾，保持最后登记的一条及其顺序
+         */
+        private void addDeferredEvents(List<AssetSyncOutboxEvent> events) {
+            for (AssetSyncOutboxEvent event : events) {
+                EventKey key = new EventKey(event.getEventType(), event.getAssetType(), event.getReportUnit());
+                deferredEvents.remove(key);
+                deferredEvents.put(key, event);
+            }
+        }
+
+        @Override
+        public void close() {
+            if (CURRENT.get() == this) {
+                CURRENT.remove();
+            }
+        }
+    }
+
+    private record EventKey(String eventType, String assetType, String reportUnit) {
+    }
+}
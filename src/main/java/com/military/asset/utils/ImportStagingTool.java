@@ -0,0 +1,429 @@
+package com.military.asset.utils;
+
+import com.military.asset.entity.AssetSyncOutboxEvent;
+import com.military.asset.mapper.CyberAssetMapper;
+import com.military.asset.mapper.DataContentAssetMapper;
+import com.military.asset.mapper.ImportStagingMapper;
+import com.military.asset.mapper.SoftwareAssetMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 导入暂存表与原子替换
+ * 全量覆盖导入不再先清空正式表：
+
+ * - 开始：按正式表结构新建空的暂存表（xxx_staging），导入线程打开ImportStagingContext暂存范围，
+ *   解析、校验、省市推导与批量写入都落在暂存表上；其他请求继续读取正式表，不受批量删除与写入影响
+ * - 发布：一条RENAME TABLE把暂存表换成正式表（旧表随即删除），再补回report_unit外键；
+ *   随后在一个事务内重置上报单位表该类资产的状态标记，并登记导入期间缓存的发件箱事件
+ * - 失败：删除暂存表，正式表与上报单位表保持导入前的数据
+
+ * 批量导入（多个资产类型）：各类型分别加载到自己的暂存表，publishAll用一条RENAME TABLE同时替换，
+ * 各类型缓存的发件箱事件合并后一次登记（上报单位同步在前、跨表同步在后），分发器只做一次上报单位同步
+
+ * 续传（ImportCheckpointTool）：失败的导入代suspend后保留暂存表，resume在新的请求上重新打开暂存范围，
+ * 还原已提交分块缓存的事件后继续写入，发布流程不变
+
+ * 注意：
+ * - 同一资产类型同时只允许一个导入（本实例内互斥，清空模式与续传同样互斥；暂存表名固定，多实例部署时也不应并发导入同一类资产）
+ * - 暂存模式下该类资产导入进行中时，单条新增/修改/删除由checkWritable拒绝（ImportInProgressException），
+ *   否则写入正式表的数据会随替换一并丢弃；导入失败保留暂存表等待续传期间不拦截，
+ *   这段时间的写入与导入开始前的写入一样，会在续传发布时被导入数据整体覆盖
+ * - 替换后补回外键失败时重试，仍失败则在刷新上报单位状态后抛出异常，导入结果报告失败，不会静默缺少外键
+ * - 替换后到发件箱事件分发完成前，上报单位表的状态标记短暂保持旧值（与清空模式下导入期间的状态一致）
+ * - asset.import.staging-swap=false时退回清空再导入（begin时执行传入的清空操作，publish无操作）
+ */
+@Slf4j
+@Component
+public class ImportStagingTool {
+
+    private static final String STAGING_SUFFIX = "_staging";
+    private static final String OLD_SUFFIX = "_old";
+
+    /**
+     * 替换后补回外键的尝试次数
+     */
+    private static final int FOREIGN_KEY_RESTORE_ATTEMPTS = 3;
+
+    /**
+     * 资产类型 → 正式表与report_unit外键（与V3迁移一致）
+     */
+    private static final Map<String, StagedTable> TABLES = Map.of(
+            "software", new StagedTable("software_asset", "fk_sa_report_unit"),
+            "cyber", new StagedTable("cyber_asset", "fk_ca_report_unit"),
+            "dataContent", new StagedTable("data_content_asset", "fk_dca_report_unit"));
+
+    private final ImportStagingMapper importStagingMapper;
+    private final SoftwareAssetMapper softwareAssetMapper;
+    private final CyberAssetMapper cyberAssetMapper;
+    private final DataContentAssetMapper dataContentAssetMapper;
+    private final AssetSyncOutbox assetSyncOutbox;
+    private final AssetWriteTracker assetWriteTracker;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+
+    /**
+     * 正在导入的资产类型；批量导入时由工作线程开始、请求线程发布，因此不用线程绑定的锁
+     */
+    private final Set<String> running = ConcurrentHashMap.newKeySet();
+
+    public ImportStagingTool(ImportStagingMapper importStagingMapper,
+                             SoftwareAssetMapper softwareAssetMapper,
+                             CyberAssetMapper cyberAssetMapper,
+                             DataContentAssetMapper dataContentAssetMapper,
+                             AssetSyncOutbox assetSyncOutbox,
+                             AssetWriteTracker assetWriteTracker,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${asset.import.staging-swap:true}") boolean enabled) {
+        this.importStagingMapper = importStagingMapper;
+        this.softwareAssetMapper = softwareAssetMapper;
+        this.cyberAssetMapper = cyberAssetMapper;
+        this.dataContentAssetMapper = dataContentAssetMapper;
+        this.assetSyncOutbox = assetSyncOutbox;
+        this.assetWriteTracker = assetWriteTracker;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 开始一次全量导入
+     *
+     * @param assetType  资产类型："software"/"cyber"/"dataContent"
+     * @param legacyClear 清空模式下执行的清空操作（清空正式表并重置上报单位表状态）
+     * @return 导入代，在当前线程打开暂存范围；导入成功后调用publish，无论成败最后都要close
+     * @throws ImportInProgressException 同类资产导入正在进行中
+     */
+    public Generation begin(String assetType, Runnable legacyClear) {
+        StagedTable table = TABLES.get(assetType);
+        if (table == null) {
+            throw new IllegalArgumentException("不支持暂存导入的资产类型：" + assetType);
+        }
+        if (!running.add(assetType)) {
+            throw new ImportInProgressException();
+        }
+        try {
+            if (!enabled) {
+                legacyClear.run();
+                return new Generation(assetType, null, null);
+            }
+            String stagingTable = table.liveTable + STAGING_SUFFIX;
+            // 上次异常退出可能残留暂存表
+            importStagingMapper.dropTableIfExists(stagingTable);
+            importStagingMapper.createTableLike(stagingTable, table.liveTable);
+            log.info("🗂️ 暂存表已创建: {}，导入期间查询继续读取{}", stagingTable, table.liveTable);
+            return new Generation(assetType, table, ImportStagingContext.open(table.liveTable, stagingTable));
+        } catch (RuntimeException e) {
+            running.remove(assetType);
+            throw e;
+        }
+    }
+
+    /**
+     * 单条写入前检查：暂存模式下该类资产导入进行中时拒绝写入正式表
+     * （导入发布时暂存表整体替换正式表，期间写入正式表的数据会丢失）。
+     * 在事务内调用时提交前再检查一次，写入事务执行期间开始的导入同样会使其回滚。
+     * 导入线程自身在暂存范围内写入暂存表，不受限制
+     *
+     * @param assetType 资产类型："software"/"cyber"/"dataContent"
+     * @throws ImportInProgressException 同类资产导入正在进行中
+     */
+    public void checkWritable(String assetType) {
+        if (!enabled || ImportStagingContext.isActive()) {
+            return;
+        }
+        if (running.contains(assetType)) {
+            throw new ImportInProgressException();
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    if (running.contains(assetType)) {
+                        throw new ImportInProgressException();
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * 续传一次未完成的全量导入：暂存模式下沿用保留的暂存表（不重建），清空模式下不再清空正式表
+     *
+     * @param assetType      资产类型
+     * @param staged         检查点记录的导入模式（须与当前配置一致）
+     * @param deferredEvents 已提交分块缓存的发件箱事件（清空模式下为空）
+     * @return 导入代，与begin返回的用法相同
+     * @throws ImportInProgressException 同类资产导入正在进行中（暂时冲突，稍后可再续传）
+     * @throws IllegalStateException     导入模式已变更或暂存表已不存在（无法再续传）
+     */
+    public Generation resume(String assetType, boolean staged, List<AssetSyncOutboxEvent> deferredEvents) {
+        StagedTable table = TABLES.get(assetType);
+        if (table == null) {
+            throw new IllegalArgumentException("不支持暂存导入的资产类型：" + assetType);
+        }
+        if (staged != enabled) {
+            throw new IllegalStateException("导入模式（asset.import.staging-swap）已变更，无法续传，请重新导入");
+        }
+        if (!running.add(assetType)) {
+            throw new ImportInProgressException();
+        }
+        if (!enabled) {
+            return new Generation(assetType, null, null);
+        }
+        try {
+            String stagingTable = table.liveTable + STAGING_SUFFIX;
+            if (importStagingMapper.countTable(stagingTable) == 0) {
+                throw new IllegalStateException("暂存表" + stagingTable + "已不存在，无法续传，请重新导入");
+            }
+            ImportStagingContext.Scope scope = ImportStagingContext.open(table.liveTable, stagingTable);
+            scope.restoreDeferredEvents(deferredEvents);
+            log.info("🗂️ 续传导入，沿用暂存表: {}，已还原{}条缓存事件", stagingTable, deferredEvents.size());
+            return new Generation(assetType, table, scope);
+        } catch (RuntimeException e) {
+            running.remove(assetType);
+            throw e;
+        }
+    }
+
+    /**
+     * 发布多个导入代：一条RENAME TABLE同时替换，再在一个事务内重置各类型的上报单位状态并合并登记发件箱事件
+     * 任一替换失败时全部暂存表删除，正式表均保持不变；清空模式的导入代直接跳过
+     *
+     * @param generations 已加载完成的导入代（按资产类型的导入顺序排列，决定同一单位省份的覆盖顺序）
+     */
+    public void publishAll(List<Generation> generations) {
+        List<Generation> staged = new ArrayList<>();
+        for (Generation generation : generations) {
+            if (!generation.finished) {
+                generation.finished = true;
+                generation.scope.close();
+                staged.add(generation);
+            }
+        }
+        if (staged.isEmpty()) {
+            return;
+        }
+        List<String> liveTables = staged.stream().map(generation -> generation.table.liveTable).toList();
+        // 外键补回时关闭了外键检查，不校验已有数据：替换前确认暂存表中没有指向不存在上报单位的行
+        List<String> orphans = new ArrayList<>();
+        for (Generation generation : staged) {
+            String stagingTable = generation.scope.getStagingTable();
+            int count = importStagingMapper.countOrphanReportUnitRefs(stagingTable);
+            if (count > 0) {
+                orphans.add(stagingTable + "：" + count + "条");
+            }
+        }
+        if (!orphans.isEmpty()) {
+            staged.forEach(generation -> importStagingMapper.dropTableIfExists(generation.scope.getStagingTable()));
+            throw new IllegalStateException("暂存数据引用了不存在的上报单位（report_unit_id），正式数据未变更: " + orphans);
+        }
+        try {
+            liveTables.forEach(table -> importStagingMapper.dropTableIfExists(table + OLD_SUFFIX));
+            importStagingMapper.swapTables(liveTables);
+        } catch (RuntimeException e) {
+            staged.forEach(generation -> importStagingMapper.dropTableIfExists(generation.scope.getStagingTable()));
+            throw new RuntimeException("暂存表替换失败，正式数据未变更: " + e.getMessage(), e);
+        }
+        staged.forEach(generation -> assetWriteTracker.markWritten(generation.assetType));
+        log.info("🔁 暂存表已替换为正式表: {}", liveTables);
+        dropOldTables(staged);
+        List<String> missingForeignKeys = restoreForeignKeys(staged);
+
+        // 上报单位同步事件排在跨表同步之前，分发器将连续的上报单位同步合并为一次
+        List<AssetSyncOutboxEvent> events = new ArrayList<>();
+        List<AssetSyncOutboxEvent> crossTableEvents = new ArrayList<>();
+        for (Generation generation : staged) {
+            for (AssetSyncOutboxEvent event : generation.scope.getDeferredEvents()) {
+                if (AssetSyncOutboxEvent.REPORT_UNIT_SYNC.equals(event.getEventType())) {
+                    events.add(event);
+                } else {
+                    crossTableEvents.add(event);
+                }
+            }
+        }
+        events.addAll(crossTableEvents);
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                staged.forEach(generation -> resetReportUnitStatus(generation.assetType));
+                assetSyncOutbox.enqueue(events);
+            });
+        } catch (RuntimeException e) {
+            // 资产数据已替换，仅上报单位状态未刷新；重新导入即可恢复
+            throw new RuntimeException("资产数据已替换，但上报单位状态刷新失败，请重新导入: " + e.getMessage(), e);
+        }
+        if (!missingForeignKeys.isEmpty()) {
+            throw new RuntimeException("资产数据已替换，但外键补回失败，请检查数据库后重新导入: " + missingForeignKeys);
+        }
+    }
+
+    /**
+     * 删除替换下来的旧表；失败不影响已生效的数据，下次导入替换前会再次删除
+     */
+    private void dropOldTables(List<Generation> staged) {
+        for (Generation generation : staged) {
+            try {
+                importStagingMapper.dropTableIfExists(generation.table.liveTable + OLD_SUFFIX);
+            } catch (RuntimeException e) {
+                log.warn("⚠️ 替换后删除旧表失败: {}_old，{}", generation.table.liveTable, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 旧表删除后外键名释放，再补到新的正式表上（CREATE TABLE LIKE不复制外键），每张表最多尝试FOREIGN_KEY_RESTORE_ATTEMPTS次
+     *
+     * @return 重试后仍未补回的外键名
+     */
+    private List<String> restoreForeignKeys(List<Generation> staged) {
+        List<String> missing = new ArrayList<>();
+        for (Generation generation : staged) {
+            StagedTable table = generation.table;
+            RuntimeException lastError = null;
+            for (int attempt = 1; attempt <= FOREIGN_KEY_RESTORE_ATTEMPTS; attempt++) {
+                try {
+                    restoreForeignKey(table);
+                    lastError = null;
+                    break;
+                } catch (RuntimeException e) {
+                    lastError = e;
+                    log.warn("⚠️ 补回外键失败（第{}/{}次）: {}.{}，{}", attempt, FOREIGN_KEY_RESTORE_ATTEMPTS,
+                            table.liveTable, table.foreignKey, e.getMessage());
+                }
+            }
+            if (lastError != null) {
+                log.error("❌ 外键补回失败，{}当前没有{}外键: {}", table.liveTable, table.foreignKey, lastError.getMessage(), lastError);
+                missing.add(table.liveTable + "." + table.foreignKey);
+            }
+        }
+        return missing;
+    }
+
+    private void restoreForeignKey(StagedTable table) {
+        if (importStagingMapper.countForeignKey(table.liveTable, table.foreignKey) > 0) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            importStagingMapper.setForeignKeyChecks(0);
+            try {
+                importStagingMapper.addReportUnitForeignKey(table.liveTable, table.foreignKey);
+            } finally {
+                importStagingMapper.setForeignKeyChecks(1);
+            }
+        });
+    }
+
+    private void resetReportUnitStatus(String assetType) {
+        if ("software".equals(assetType)) {
+            softwareAssetMapper.resetSoftwareAssetStatus();
+        } else if ("cyber".equals(assetType)) {
+            cyberAssetMapper.resetCyberAssetStatus();
+        } else {
+            dataContentAssetMapper.resetDataContentAssetStatus();
+        }
+    }
+
+    private record StagedTable(String liveTable, String foreignKey) {
+    }
+
+    /**
+     * 同类资产导入正在进行中：暂时冲突，当前导入结束后可重试（续传时检查点保持可续传）
+     */
+    public static class ImportInProgressException extends IllegalStateException {
+
+        public ImportInProgressException() {
+            super("该类资产正在导入中，请等待当前导入完成后再试");
+        }
+    }
+
+    /**
+     * 一次全量导入的数据代：占用该资产类型的导入直到close；暂存模式下还持有暂存范围，清空模式下其余方法均无操作
+     */
+    public final class Generation implements AutoCloseable {
+
+        private final String assetType;
+        private final StagedTable table;
+        private final ImportStagingContext.Scope scope;
+        private volatile boolean finished;
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private Generation(String assetType, StagedTable table, ImportStagingContext.Scope scope) {
+            this.assetType = assetType;
+            this.table = table;
+            this.scope = scope;
+            this.finished = scope == null;
+        }
+
+        /**
+         * 加载结束：关闭当前（加载）线程上的暂存范围，数据留在暂存表中等待发布。
+         * 批量导入的工作线程加载完成后调用，发布由请求线程统一执行
+         */
+        public void detach() {
+            if (scope != null) {
+                scope.close();
+            }
+        }
+
+        /**
+         * 发布：暂存表原子替换正式表，重置上报单位表状态并登记缓存的发件箱事件
+         */
+        public void publish() {
+            publishAll(List.of(this));
+        }
+
+        /**
+         * 保留未发布的暂存表供续传（关闭暂存范围，close时不再删除）
+         *
+         * @return true表示可续传：清空模式（已提交分块在正式表中），或暂存表尚未发布/删除
+         */
+        public boolean suspend() {
+            if (scope == null) {
+                return true;
+            }
+            if (finished) {
+                return false;
+            }
+            finished = true;
+            scope.close();
+            log.info("⏸️ 导入未完成，保留暂存表供续传: {}", scope.getStagingTable());
+            return true;
+        }
+
+        /**
+         * 结束导入：未发布时删除暂存表（正式表保持不变），释放该资产类型的导入占用
+         */
+        @Override
+        public void close() {
+            if (!closed.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                if (scope != null && !finished) {
+                    finished = true;
+                    scope.close();
+                    importStagingMapper.dropTableIfExists(scope.getStagingTable());
+                    log.info("🧹 导入未完成，已删除暂存表: {}，正式表保持不变", scope.getStagingTable());
+                }
+            } catch (RuntimeException e) {
+                log.warn("⚠️ 删除暂存表失败（下次导入开始时会重建）: {}", e.getMessage());
+            } finally {
+                running.remove(assetType);
+            }
+        }
+    }
+}
@@ -3,13 +3,17 @@ package com.military.asset.utils;
 import com.military.asset.entity.HasReportUnitAndProvince;
 import com.military.asset.entity.ReportUnit;
 import com.military.asset.mapper.ReportUnitMapper;
+import io.micrometer.core.instrument.Timer;
 import jakarta.annotation.Resource;
 import org.springframework.stereotype.Component;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Objects;
 import lombok.Getter;
+import lombok.Setter;
 import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 
 
 /**
@@ -109,7 +113,8 @@ import lombok.AllArgsConstructor;
  * 7. 扩展性：支持新的资产类型扩展
 
  * ==================== 使用注意事项 ====================
- * 1. 软件资产表没有省市字段，相关操作传递null值
+ * 1. 软件资产表的省市为冗余列（与上报单位表省份一致），同步上报单位时省份仍传null，
+ *    单位省份变更后由本工具统一回写软件资产表
  * 2. 更新模式会强制重新推导省市，覆盖原有值
  * 3. 新增/导入模式尊重Excel原有值，仅在空值时填充
  * 4. 状态同步基于实际数据统计，确保准确性
@@ -126,6 +131,7 @@ import lombok.AllArgsConstructor;
  * 2. 批量清理：批量操作后全面扫描并清理所有无效记录
  *
  */
+@Slf4j
 @Component
 public class ProvinceAutoFillTool {
 
@@ -145,6 +151,12 @@ public class ProvinceAutoFillTool {
     @Resource
     private ReportUnitMapper reportUnitMapper;
 
+    /**
+     * 指标记录工具：记录批量同步上报单位的耗时
+     */
+    @Resource
+    private AssetMetricsTool assetMetricsTool;
+
     // ============================ 新增：战区映射常量 ============================
     private static final Map<String, String> WAR_ZONE_MAPPING = new HashMap<>();
     static {
@@ -294,11 +306,22 @@ public class ProvinceAutoFillTool {
      *                 false=新增/修改场景（标记有数据）
      */
     public void syncReportUnit(String unitName, String province, String assetType, boolean isDelete) {
+        doSyncReportUnit(unitName, province, assetType, isDelete, true);
+    }
+
+    /**
+     * 上报单位同步的实际实现
+     *
+     * @param bindAssetIds 是否立即将该单位的资产记录绑定到上报单位ID
+     *                     单条增删改传true；批量同步传false，结束后统一回填
+     */
+    private void doSyncReportUnit(String unitName, String province, String assetType, boolean isDelete,
+                                  boolean bindAssetIds) {
         // ============ 软件资产省份推导逻辑 ============
         // 如果省份为null（主要是软件资产），尝试根据单位名称推导省份
         if (province == null && !isDelete) {
             province = deriveProvinceFromUnitName(unitName);
-            System.out.println("软件资产推导省份: 单位=" + unitName + ", 推导省份=" + province);
+            log.debug("软件资产推导省份 - 单位: {}, 推导省份: {}", unitName, province);
         }
 
         // ============ 核心修正：无论什么操作，都重新检查所有资产表状态 ============
@@ -317,20 +340,22 @@ public class ProvinceAutoFillTool {
             reportUnit.setSource_table_software_asset((short) 0);
 
             reportUnitMapper.insert(reportUnit);
-            System.out.println("新增上报单位：" + unitName);
+            log.debug("➕ 新增上报单位: {}", unitName);
         }
 
         // ============ 重新获取最新记录（确保操作的是最新数据） ============
         reportUnit = reportUnitMapper.selectByReportUnitName(unitName);
         if (reportUnit == null) {
-            System.out.println("ERROR: 上报单位记录不存在，单位：" + unitName);
+            log.warn("⚠️ 上报单位记录不存在，跳过同步 - 单位: {}", unitName);
             return;
         }
 
+        String previousProvince = reportUnit.getProvince();
+
         // ============ 更新省份信息（仅限新增/修改操作） ============
         if (!isDelete && province != null && !province.trim().isEmpty()) {
             reportUnit.setProvince(province);
-            System.out.println("更新上报单位省份：" + unitName + " -> " + province);
+            log.debug("更新上报单位省份 - 单位: {} → {}", unitName, province);
         }
 
         // ============ 核心修正：重新检查并更新所有资产表状态 ============
@@ -340,30 +365,50 @@ public class ProvinceAutoFillTool {
         // ============ 保存更新 ============
         reportUnitMapper.updateById(reportUnit);
 
-        // ============ 记录操作日志 ============
-        if (isDelete) {
-            System.out.println("资产删除操作完成，单位：" + unitName + "，资产类型：" + assetType);
-        } else {
-            System.out.println("资产新增/修改操作完成，单位：" + unitName + "，资产类型：" + assetType);
+        // ============ 单位省份变更 → 同步软件资产表的冗余省市 ============
+        if (!isDelete && !Objects.equals(previousProvince, reportUnit.getProvince())) {
+            syncSoftwareAssetProvince(unitName, reportUnit.getProvince());
         }
 
-        // ============ 输出最终状态 ============
-        System.out.println("最终状态 - " + unitName +
-                " [软件:" + reportUnit.getSource_table_software_asset() +
-                ", 网信:" + reportUnit.getSource_table_cyber_asset() +
-                ", 数据:" + reportUnit.getSource_table_data_content_asset() + "]");
+        // ============ 绑定资产表的report_unit_id ============
+        if (bindAssetIds && !isDelete) {
+            bindAssetReportUnitId(unitName, reportUnit.getId(), assetType);
+        }
+
+        // ============ 记录操作日志与最终状态 ============
+        log.debug("资产{}操作完成 - 单位: {}, 资产类型: {}, 最终状态 [软件:{}, 网信:{}, 数据:{}]",
+                isDelete ? "删除" : "新增/修改", unitName, assetType,
+                reportUnit.getSource_table_software_asset(),
+                reportUnit.getSource_table_cyber_asset(),
+                reportUnit.getSource_table_data_content_asset());
 
         // ============ 🆕 新增：检查并删除三个状态都为0的记录 ============
         if (reportUnit.getSource_table_software_asset() == 0 &&
                 reportUnit.getSource_table_cyber_asset() == 0 &&
                 reportUnit.getSource_table_data_content_asset() == 0) {
 
-            System.out.println("🗑️ 检测到上报单位三个状态均为0，执行自动删除: " + unitName);
             reportUnitMapper.deleteById(reportUnit.getId()); // 或者使用 deleteByReportUnitName(unitName)
-            System.out.println("✅ 已删除无效上报单位: " + unitName);
+            log.info("🗑️ 上报单位三个状态均为0，已自动删除: {}", unitName);
         }
     }
 
+    /**
+     * 核心3：填充软件资产的冗余省市（software_asset.province/city）
+     * 省份以上报单位表为准；按单位名称推导出的省份一致时沿用推导的城市，否则取该省首府
+     *
+     * @param asset        软件资产（或临时对象）
+     * @param unitProvince 上报单位表中的省份，单位不存在时传null（完全按单位名称推导）
+     */
+    public void fillSoftwareProvinceCity(HasReportUnitAndProvince asset, String unitProvince) {
+        deriveByUnitName(asset, asset.getReportUnit());
+        if (!hasValue(unitProvince) || unitProvince.equals(asset.getProvince())) {
+            return;
+        }
+        String capital = areaCacheTool.getCapitalByProvinceName(unitProvince);
+        asset.setProvince(unitProvince);
+        asset.setCity(hasValue(capital) ? capital : "未知");
+    }
+
     // ============================ 辅助方法 ============================
 
     /**
@@ -516,6 +561,52 @@ public class ProvinceAutoFillTool {
         }
     }
 
+    /**
+     * 辅助3.1：将指定资产表中该单位的记录绑定到上报单位ID
+     *
+     * @param unitName 上报单位名称
+     * @param reportUnitId 上报单位ID
+     * @param assetType 资产类型
+     */
+    private void bindAssetReportUnitId(String unitName, Integer reportUnitId, String assetType) {
+        switch (assetType) {
+            case "software" -> reportUnitMapper.bindSoftwareAssetReportUnitId(unitName, reportUnitId);
+            case "cyber" -> reportUnitMapper.bindCyberAssetReportUnitId(unitName, reportUnitId);
+            case "dataContent" -> reportUnitMapper.bindDataContentAssetReportUnitId(unitName, reportUnitId);
+        }
+    }
+
+    /**
+     * 辅助3.2：按名称一次性回填指定资产表中未绑定上报单位ID的记录（批量导入专用）
+     *
+     * @param assetType 资产类型
+     */
+    private void backfillAssetReportUnitIds(String assetType) {
+        int updated = switch (assetType) {
+            case "software" -> reportUnitMapper.backfillSoftwareAssetReportUnitId();
+            case "cyber" -> reportUnitMapper.backfillCyberAssetReportUnitId();
+            case "dataContent" -> reportUnitMapper.backfillDataContentAssetReportUnitId();
+            default -> 0;
+        };
+        log.info("🔗 回填上报单位ID完成 - 资产类型: {}, 更新记录: {}", assetType, updated);
+    }
+
+    /**
+     * 上报单位省份变更后，回写该单位软件资产记录的冗余省市
+     */
+    private void syncSoftwareAssetProvince(String unitName, String province) {
+        if (!hasValue(province)) {
+            return;
+        }
+        ProvinceCityHolder holder = new ProvinceCityHolder(unitName);
+        fillSoftwareProvinceCity(holder, province);
+        int updated = reportUnitMapper.syncSoftwareAssetProvince(unitName, holder.getProvince(), holder.getCity());
+        if (updated > 0) {
+            log.info("🔄 同步软件资产冗余省市 - 单位: {} → {}-{}, 更新记录: {}",
+                    unitName, holder.getProvince(), holder.getCity(), updated);
+        }
+    }
+
     /**
      * 辅助4：判断字符串是否有值（避免null和空字符串）
      *
@@ -530,7 +621,7 @@ public class ProvinceAutoFillTool {
      * 辅助5：根据上报单位名称推导省份（新优先级逻辑，主要用于软件资产）
 
      * 推导规则：县级信息 → 城市信息 → 省份信息 → 战区信息 → 默认"未知"
-     * 注意：软件资产表没有省市字段，此方法仅用于推导省份并同步到上报单位表
+     * 注意：软件资产同步上报单位时省份传null，由此方法推导省份并写入上报单位表
      *
      * @param unitName 上报单位名称
      * @return 推导出的省份名称，如果无法推导则返回"未知"
@@ -622,10 +713,8 @@ public class ProvinceAutoFillTool {
         short dataContentStatus = dataContentCount > 0 ? (short) 1 : (short) 0;
         reportUnit.setSource_table_data_content_asset(dataContentStatus);
 
-        System.out.println("刷新所有资产表状态：" + unitName +
-                " [软件表:" + softwareCount + "条=" + softwareStatus +
-                ", 网信表:" + cyberCount + "条=" + cyberStatus +
-                ", 数据表:" + dataContentCount + "条=" + dataContentStatus + "]");
+        log.debug("刷新所有资产表状态 - 单位: {} [软件表:{}条={}, 网信表:{}条={}, 数据表:{}条={}]", unitName,
+                softwareCount, softwareStatus, cyberCount, cyberStatus, dataContentCount, dataContentStatus);
     }
 
     /**
@@ -1056,22 +1145,35 @@ public class ProvinceAutoFillTool {
             // 查找所有三个状态都为0的记录
             java.util.List<ReportUnit> zeroStatusUnits = reportUnitMapper.selectAllZeroStatusUnits();
             if (zeroStatusUnits != null && !zeroStatusUnits.isEmpty()) {
-                System.out.println("🗑️ 开始清理无效上报单位记录，数量: " + zeroStatusUnits.size());
                 for (ReportUnit unit : zeroStatusUnits) {
                     reportUnitMapper.deleteById(unit.getId());
-                    System.out.println("✅ 已删除无效上报单位: " + unit.getReportUnit());
+                    log.debug("已删除无效上报单位: {}", unit.getReportUnit());
                 }
-                System.out.println("✅ 自动清理完成，共删除 " + zeroStatusUnits.size() + " 个无效上报单位记录");
+                log.info("🗑️ 自动清理完成，共删除{}个无效上报单位记录", zeroStatusUnits.size());
             }
         } catch (Exception e) {
-            System.err.println("❌ 清理无效记录时出错: " + e.getMessage());
-            e.printStackTrace(); // 🆕 添加详细错误信息
+            log.error("❌ 清理无效上报单位记录时出错: {}", e.getMessage(), e);
         }
     }
 
 
     // ============================ 🆕 新增方法（批量同步专用） ============================
 
+    /**
+     * 省市推导临时对象：仅携带单位名称，用于推导软件资产的冗余省市
+     */
+    @Getter
+    @Setter
+    private static class ProvinceCityHolder implements HasReportUnitAndProvince {
+        private final String reportUnit;
+        private String province;
+        private String city;
+
+        ProvinceCityHolder(String reportUnit) {
+            this.reportUnit = reportUnit;
+        }
+    }
+
     /**
      * 批量同步请求内部类
      * 🎯 作用：封装批量同步所需的参数，便于统一处理
@@ -1104,12 +1206,28 @@ public class ProvinceAutoFillTool {
      */
     public void batchSyncReportUnits(java.util.List<UnitSyncRequest> unitSyncRequests) {
         if (unitSyncRequests == null || unitSyncRequests.isEmpty()) {
-            System.out.println("批量同步：无请求需要处理");
+            log.debug("批量同步上报单位：无请求需要处理");
             return;
         }
 
-        System.out.println("🔄 开始批量同步上报单位，数量: " + unitSyncRequests.size());
+        log.info("🔄 开始批量同步上报单位，请求数量: {}", unitSyncRequests.size());
+        // 请求可能混合多种资产类型，只有全部同类时才按该类型打标签
+        String metricsAssetType = unitSyncRequests.stream()
+                .map(UnitSyncRequest::getAssetType)
+                .distinct()
+                .count() == 1 ? unitSyncRequests.get(0).getAssetType() : AssetMetricsTool.ASSET_TYPE_MIXED;
+        Timer.Sample sample = assetMetricsTool.start();
+        try {
+            doBatchSyncReportUnits(unitSyncRequests);
+        } finally {
+            assetMetricsTool.stopStage(sample, metricsAssetType, AssetMetricsTool.STAGE_SYNC_REPORT_UNITS);
+        }
+    }
 
+    /**
+     * 批量同步上报单位的实际处理：合并请求、逐单位同步、清理无效记录、回填资产表上报单位ID
+     */
+    private void doBatchSyncReportUnits(java.util.List<UnitSyncRequest> unitSyncRequests) {
         // ============ 按单位名称分组，合并相同单位的请求 ============
         java.util.Map<String, UnitSyncRequest> mergedRequests = new java.util.HashMap<>();
         for (UnitSyncRequest request : unitSyncRequests) {
@@ -1121,7 +1239,7 @@ public class ProvinceAutoFillTool {
             }
         }
 
-        System.out.println("📊 合并后单位数量: " + mergedRequests.size());
+        log.info("📊 合并后单位数量: {}", mergedRequests.size());
 
         // ============ 批量处理每个单位的同步 ============
         int successCount = 0;
@@ -1130,21 +1248,28 @@ public class ProvinceAutoFillTool {
         for (UnitSyncRequest request : mergedRequests.values()) {
             try {
                 // 🆕 直接调用非静态方法（因为 batchSyncReportUnits 本身也是非静态的）
-                syncReportUnit(
+                doSyncReportUnit(
                         request.getUnitName(),
                         request.getProvince(),
                         request.getAssetType(),
-                        request.isDelete()
+                        request.isDelete(),
+                        false
                 );
                 successCount++;
             } catch (Exception e) {
                 errorCount++;
-                System.err.println("❌ 批量同步失败 - 单位: " + request.getUnitName() + ", 错误: " + e.getMessage());
+                log.error("❌ 批量同步失败 - 单位: {}, 错误: {}", request.getUnitName(), e.getMessage(), e);
             }
         }
 
-        System.out.println("✅ 批量同步上报单位完成 - 成功: " + successCount + "个, 失败: " + errorCount + "个");
+        log.info("✅ 批量同步上报单位完成 - 成功: {}个, 失败: {}个", successCount, errorCount);
         // ============ 🆕 新增：批量操作后清理所有无效记录 ============
         cleanupZeroStatusRecords();
+        // ============ 批量回填资产表的report_unit_id（每类资产一条语句，按合并前的请求取资产类型） ============
+        unitSyncRequests.stream()
+                .filter(request -> !request.isDelete())
+                .map(UnitSyncRequest::getAssetType)
+                .distinct()
+                .forEach(this::backfillAssetReportUnitIds);
     }
 }
\ No newline at end of file
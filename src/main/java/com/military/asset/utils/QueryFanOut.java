@@ -0,0 +1,328 @@
+package com.military.asset.utils;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * 组合查询并发扇出工具（结构化并发风格）。
+ * <p>
+ * 用法：在try-with-resources中打开一个{@link Scope}，fork出互相独立的查询，等待完成后再读取各子任务结果。
+ * 两种等待方式：
+ * <ul>
+ *     <li>{@link Scope#join()}：全部成功才返回，任一子任务失败时取消其余子任务并抛出该异常；</li>
+ *     <li>{@link Scope#joinPartial()}：最多等待 asset.query.fan-out.timeout-ms，超时的子任务标记为超时，
+ *     失败或超时都不抛出，调用方按子任务状态返回部分结果。</li>
+ * </ul>
+ * 超时或离开作用域时未完成的子任务一律取消：尚未开始的不再执行，已在执行的中断工作线程并丢弃结果
+ * （JDBC查询不响应中断，数据库端由MyBatis的default-statement-timeout兜底）。
+ * JDK 21 下可直接换用 StructuredTaskScope.ShutdownOnFailure，语义一致。
+ * </p>
+ * <p>
+ * 子任务运行在工作线程上，不参与调用方的事务，只适用于互不依赖的只读查询；
+ * 调用方线程的SQL统计范围会被挂载到工作线程，子任务的语句仍计入接口的@SqlBudget。
+ * </p>
+ */
+@Component
+public class QueryFanOut {
+
+    private final AsyncTaskExecutor executor;
+    private final Duration timeout;
+
+    public QueryFanOut(@Qualifier("queryFanOutExecutor") AsyncTaskExecutor executor,
+                       @Value("${asset.query.fan-out.timeout-ms:10000}") long timeoutMillis) {
+        if (timeoutMillis <= 0) {
+            throw new IllegalArgumentException("asset.query.fan-out.timeout-ms 必须大于0");
+        }
+        this.executor = executor;
+        this.timeout = Duration.ofMillis(timeoutMillis);
+    }
+
+    /**
+     * 打开一个扇出作用域，必须在调用方线程上使用并及时close。
+     */
+    public Scope open() {
+        return new Scope(executor, timeout, SqlStatementContext.capture());
+    }
+
+    /**
+     * 子任务状态。
+     */
+    public enum State {
+        RUNNING, SUCCESS, FAILED, TIMED_OUT, CANCELLED
+    }
+
+    /**
+     * 扇出作用域。
+     */
+    public static final class Scope implements AutoCloseable {
+
+        private final AsyncTaskExecutor executor;
+        private final Duration timeout;
+        private final List<SqlStatementContext.Scope> sqlScopes;
+        private final List<Subtask<?>> forks = new ArrayList<>();
+        private boolean joined;
+
+        private Scope(AsyncTaskExecutor executor, Duration timeout, List<SqlStatementContext.Scope> sqlScopes) {
+            this.executor = executor;
+            this.timeout = timeout;
+            this.sqlScopes = sqlScopes;
+        }
+
+        /**
+         * 提交一个子任务，名称按提交顺序自动生成。
+         */
+        public <T> Subtask<T> fork(Callable<T> task) {
+            return fork("task-" + forks.size(), task);
+        }
+
+        /**
+         * 提交一个子任务。
+         *
+         * @param name 子任务名称（用于耗时明细，如资产表名）
+         * @param task 独立的只读查询
+         * @return 子任务句柄，join之后读取结果
+         */
+        @SuppressWarnings("try")
+        public <T> Subtask<T> fork(String name, Callable<T> task) {
+            if (joined) {
+                throw new IllegalStateException("扇出作用域已join，不能再提交子任务");
+            }
+            Subtask<T> subtask = new Subtask<>(name);
+            forks.add(subtask);
+            CompletableFuture<T> future = subtask.future;
+            executor.execute(() -> {
+                if (!subtask.start()) {
+                    return;
+                }
+                try (SqlStatementContext.Attachment ignored = SqlStatementContext.attach(sqlScopes)) {
+                    future.complete(task.call());
+                } catch (Throwable e) {
+                    future.completeExceptionally(e);
+                } finally {
+                    subtask.finish();
+                }
+            });
+            return subtask;
+        }
+
+        /**
+         * 等待全部子任务完成；任一失败则取消其余子任务并抛出首个失败原因。
+         */
+        public void join() throws InterruptedException {
+            joined = true;
+            CompletableFuture<Void> firstFailure = new CompletableFuture<>();
+            forks.forEach(fork -> fork.future.whenComplete((value, error) -> {
+                if (error != null) {
+                    firstFailure.completeExceptionally(error);
+                }
+            }));
+            try {
+                CompletableFuture.anyOf(allForks(), firstFailure).get();
+            } catch (ExecutionException e) {
+                cancelAll();
+                throw propagate(e.getCause());
+            } catch (InterruptedException e) {
+                cancelAll();
+                throw e;
+            }
+        }
+
+        /**
+         * 部分结果模式：最多等待配置的超时时间，失败或超时的子任务不抛出异常。
+         * 返回后每个子任务都已结束，通过{@link Subtask#state()}判断是否可用。
+         */
+        public void joinPartial() throws InterruptedException {
+            joined = true;
+            try {
+                allForks().get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+            } catch (ExecutionException e) {
+                // allOf在全部子任务结束后才完成，个别失败已记录在各自的子任务中
+            } catch (TimeoutException e) {
+                TimeoutException timedOut = new TimeoutException("超过" + timeout.toMillis() + "ms未完成");
+                forks.forEach(fork -> fork.abort(timedOut));
+            } catch (InterruptedException e) {
+                cancelAll();
+                throw e;
+            }
+        }
+
+        /**
+         * 是否存在未成功的子任务（即结果为部分结果）。
+         */
+        public boolean isPartial() {
+            return forks.stream().anyMatch(fork -> fork.state() != State.SUCCESS);
+        }
+
+        /**
+         * 各子任务的状态与耗时明细，按提交顺序排列：
+         * {名称: {status, elapsedMs, error(仅失败/超时时)}}
+         */
+        public Map<String, Map<String, Object>> timings() {
+            Map<String, Map<String, Object>> timings = new LinkedHashMap<>();
+            for (Subtask<?> fork : forks) {
+                Map<String, Object> timing = new LinkedHashMap<>();
+                timing.put("status", fork.state().name());
+                timing.put("elapsedMs", fork.elapsedMillis());
+                Throwable error = fork.error();
+                if (error != null) {
+                    timing.put("error", error.getMessage());
+                }
+                timings.put(fork.name, timing);
+            }
+            return timings;
+        }
+
+        @Override
+        public void close() {
+            cancelAll();
+        }
+
+        private CompletableFuture<Void> allForks() {
+            return CompletableFuture.allOf(forks.stream().map(fork -> fork.future).toArray(CompletableFuture[]::new));
+        }
+
+        private void cancelAll() {
+            forks.forEach(fork -> fork.abort(null));
+        }
+
+        private static RuntimeException propagate(Throwable cause) {
+            Throwable unwrapped = cause instanceof CompletionException && cause.getCause() != null
+                    ? cause.getCause() : cause;
+            if (unwrapped instanceof RuntimeException runtimeException) {
+                return runtimeException;
+            }
+            if (unwrapped instanceof Error error) {
+                throw error;
+            }
+            return new RuntimeException("并发查询失败：" + unwrapped.getMessage(), unwrapped);
+        }
+    }
+
+    /**
+     * 子任务句柄。
+     */
+    public static final class Subtask<T> {
+
+        private final String name;
+        private final CompletableFuture<T> future = new CompletableFuture<>();
+        private final long forkedNanos = System.nanoTime();
+        private volatile long finishedNanos;
+        /**
+         * 正在执行本子任务的工作线程，未开始或已结束时为null（读写都在本对象锁内，避免中断已转去执行其他任务的线程）
+         */
+        private Thread runner;
+
+        private Subtask(String name) {
+            this.name = name;
+            future.whenComplete((value, error) -> finishedNanos = System.nanoTime());
+        }
+
+        public String name() {
+            return name;
+        }
+
+        /**
+         * 工作线程开始执行前登记；子任务已结束（已取消或超时）时返回false，不再执行。
+         */
+        private synchronized boolean start() {
+            if (future.isDone()) {
+                return false;
+            }
+            runner = Thread.currentThread();
+            return true;
+        }
+
+        /**
+         * 工作线程执行结束后注销，并清除结束前可能收到的中断，线程池线程不带中断状态执行下一个任务。
+         */
+        private synchronized void finish() {
+            runner = null;
+            Thread.interrupted();
+        }
+
+        /**
+         * 取消（cause为null）或以超时结束子任务；已结束的不受影响，正在执行的中断其工作线程。
+         */
+        private synchronized void abort(Throwable cause) {
+            boolean aborted = cause == null ? future.cancel(true) : future.completeExceptionally(cause);
+            if (aborted && runner != null) {
+                runner.interrupt();
+            }
+        }
+
+        /**
+         * 读取子任务结果，只能在join成功之后调用。
+         */
+        public T get() {
+            if (!future.isDone()) {
+                throw new IllegalStateException("子任务尚未完成，请先调用join");
+            }
+            try {
+                return future.join();
+            } catch (CancellationException e) {
+                throw new IllegalStateException("子任务已取消", e);
+            }
+        }
+
+        /**
+         * 部分结果模式下读取结果：成功返回结果，失败、超时或取消返回null。
+         */
+        public T getOrNull() {
+            return state() == State.SUCCESS ? future.join() : null;
+        }
+
+        public State state() {
+            if (!future.isDone()) {
+                return State.RUNNING;
+            }
+            if (future.isCancelled()) {
+                return State.CANCELLED;
+            }
+            if (!future.isCompletedExceptionally()) {
+                return State.SUCCESS;
+            }
+            return error() instanceof TimeoutException ? State.TIMED_OUT : State.FAILED;
+        }
+
+        /**
+         * 失败原因，未失败时返回null。
+         */
+        public Throwable error() {
+            if (!future.isCompletedExceptionally() || future.isCancelled()) {
+                return null;
+            }
+            try {
+                future.join();
+                return null;
+            } catch (CompletionException e) {
+                return e.getCause() != null ? e.getCause() : e;
+            }
+        }
+
+        /**
+         * 从提交到结束的耗时（毫秒），含排队等待；未结束（或结束回调尚未执行）时为截至当前的耗时。
+         */
+        public long elapsedMillis() {
+            long end = finishedNanos;
+            if (end == 0) {
+                end = System.nanoTime();
+            }
+            return TimeUnit.NANOSECONDS.toMillis(end - forkedNanos);
+        }
+    }
+}
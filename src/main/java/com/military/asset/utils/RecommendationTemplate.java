@@ -0,0 +1,75 @@
+package com.military.asset.utils;
+
+/**
+ * 预编译的建议文本模板。
+ * <p>
+ * 建议文本的结构固定为：名称 + 静态正文 + 若干段补充说明（补足到最小长度）+ 按最大长度截断。
+ * 静态正文与补充说明在编译时拼成一个足够长的常量尾部，渲染时只需计算最终长度，
+ * 再把名称和尾部前缀写入一个按最终长度预分配的缓冲区，不再逐段拼接和循环追加。
+ * 渲染结果与"拼接 → 循环补齐 → 截断"的逐步生成方式逐字一致。
+ * </p>
+ */
+public final class RecommendationTemplate {
+
+    private final int staticLength;
+    private final int appendixLength;
+    private final int minLength;
+    private final int maxLength;
+
+    /**
+     * 静态正文 + 名称为空时所需的最多补充段，任何名称所需的尾部都是它的前缀
+     */
+    private final String paddedTail;
+
+    private RecommendationTemplate(String body, String appendix, int minLength, int maxLength) {
+        this.staticLength = body.length();
+        this.appendixLength = appendix.length();
+        this.minLength = minLength;
+        this.maxLength = maxLength;
+        this.paddedTail = (body + appendix.repeat(appendixCount(body.length()))).intern();
+    }
+
+    /**
+     * 编译模板
+     *
+     * @param body      名称之后的静态正文
+     * @param appendix  长度不足时重复追加的补充说明
+     * @param minLength 最小长度（不足时整段追加补充说明直到达到）
+     * @param maxLength 最大长度（超出部分截断）
+     */
+    public static RecommendationTemplate compile(String body, String appendix, int minLength, int maxLength) {
+        if (appendix == null || appendix.isEmpty()) {
+            throw new IllegalArgumentException("补充说明不能为空");
+        }
+        if (minLength > maxLength) {
+            throw new IllegalArgumentException("最小长度不能大于最大长度");
+        }
+        return new RecommendationTemplate(body, appendix, minLength, maxLength);
+    }
+
+    /**
+     * 按名称渲染建议文本
+     *
+     * @param name 已处理好的名称（非空）
+     */
+    public String render(String name) {
+        int total = renderedLength(name.length());
+        if (name.length() >= total) {
+            return name.substring(0, total);
+        }
+        return new StringBuilder(total)
+                .append(name)
+                .append(paddedTail, 0, total - name.length())
+                .toString();
+    }
+
+    private int renderedLength(int nameLength) {
+        int base = nameLength + staticLength;
+        int total = base + appendixCount(base) * appendixLength;
+        return Math.min(total, maxLength);
+    }
+
+    private int appendixCount(int length) {
+        return length >= minLength ? 0 : (minLength - length + appendixLength - 1) / appendixLength;
+    }
+}
@@ -21,6 +21,22 @@ public final class ReportUnitImportanceUtils {
             "军级单位内部", new BigDecimal("0.2")
     );
 
+    private static final String LOW_LEVEL_ADVICE_DETAIL =
+            "该单位的软件资产得分偏低，可关注基础设施建设与关键应用补齐，循序推进能力提升。";
+
+    /**
+     * 各重要性等级对应的说明片段（高/中，其余等级使用偏低说明）。
+     */
+    private static final Map<String, String> LEVEL_ADVICE_DETAIL = Map.of(
+            "高", "该单位的软件资产成熟度高、覆盖面广，建议优先保障其资源与技术支持，维持领先优势。",
+            "中", "该单位的软件资产具备一定基础，建议根据业务优先级逐步升级或优化，以提升整体竞争力。"
+    );
+
+    /**
+     * 分析说明中除单位名称、等级说明外的大致长度（静态片段 + 得分 + 记录数），用于预分配缓冲区。
+     */
+    private static final int ADVICE_FIXED_LENGTH = 64;
+
     private ReportUnitImportanceUtils() {
         throw new IllegalStateException("Utility class");
     }
@@ -92,24 +108,27 @@ public final class ReportUnitImportanceUtils {
 
     /**
      * 生成分析说明。
+     * <p>
+     * 文案由静态片段与三个变量（单位、得分、记录数）组成，静态片段预先定义为常量，
+     * 按估算长度一次性分配缓冲区拼接，避免每个单位都解析格式串。
+     * </p>
      */
     public static String buildAdvice(String reportUnit, BigDecimal score, String level, long assetCount) {
         String unit = StringUtils.hasText(reportUnit) ? reportUnit : "该上报单位";
         BigDecimal safeScore = score == null ? BigDecimal.ZERO : score;
-        String base = String.format("%s的软件资产综合得分为%.4f，重要性等级判定为%s。", unit, safeScore, level);
-        String detail;
-        switch (level) {
-            case "高":
-                detail = "该单位的软件资产成熟度高、覆盖面广，建议优先保障其资源与技术支持，维持领先优势。";
-                break;
-            case "中":
-                detail = "该单位的软件资产具备一定基础，建议根据业务优先级逐步升级或优化，以提升整体竞争力。";
-                break;
-            default:
-                detail = "该单位的软件资产得分偏低，可关注基础设施建设与关键应用补齐，循序推进能力提升。";
-        }
-        String workload = String.format(" 本次计算覆盖%d条资产记录，结论适用于快速批量评估场景。", assetCount);
-        return base + detail + workload;
+        String detail = level == null ? LOW_LEVEL_ADVICE_DETAIL : LEVEL_ADVICE_DETAIL.getOrDefault(level, LOW_LEVEL_ADVICE_DETAIL);
+        return new StringBuilder(unit.length() + detail.length() + ADVICE_FIXED_LENGTH)
+                .append(unit)
+                .append("的软件资产综合得分为")
+                .append(safeScore.setScale(4, RoundingMode.HALF_UP).toPlainString())
+                .append("，重要性等级判定为")
+                .append(level)
+                .append("。")
+                .append(detail)
+                .append(" 本次计算覆盖")
+                .append(assetCount)
+                .append("条资产记录，结论适用于快速批量评估场景。")
+                .toString();
     }
 
     /**
@@ -0,0 +1,182 @@
+package com.military.asset.utils;
+
+import com.military.asset.mapper.SoftwareAssetStatisticsMapper;
+import com.military.asset.vo.stat.SoftwareAssetAgingBucketRow;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * 软件资产老化直方图
+ * 按（省份, 上报单位, 服务状态）分组，组内按投入使用日期分桶保存实有数量及其前缀和
+
+ * ==================== 设计说明 ====================
+ * 老化判定为"投入使用日期 早于 参考日期 - 阈值年限"，对任意参考日期与阈值，
+ * 每组需要升级的数量 = 阈值日期之前所有分桶之和，在组内二分查找前缀和即可得到，
+ * 不必再次扫描资产行；趋势图的N个时间点也只是N次O(分组数 × log 分桶数)的查找。
+
+ * ==================== 一致性 ====================
+ * 快照记录构建时AssetWriteTracker的软件资产版本号，读取时版本落后则用一次分组查询重建
+ * （写入路径多为批量导入/批量SQL，按版本整体重建比逐行增量维护更可靠）
+ */
+@Slf4j
+@Component
+public class SoftwareAgingHistogram {
+
+    private static final String SOFTWARE = "software";
+
+    private final SoftwareAssetStatisticsMapper statisticsMapper;
+    private final AssetWriteTracker assetWriteTracker;
+
+    private volatile Snapshot snapshot;
+
+    public SoftwareAgingHistogram(SoftwareAssetStatisticsMapper statisticsMapper,
+                                  AssetWriteTracker assetWriteTracker) {
+        this.statisticsMapper = statisticsMapper;
+        this.assetWriteTracker = assetWriteTracker;
+    }
+
+    /**
+     * 当前直方图快照（版本落后时先重建）
+     */
+    public Snapshot current() {
+        Snapshot current = snapshot;
+        if (current != null && current.version == assetWriteTracker.version(SOFTWARE)) {
+            return current;
+        }
+        return rebuild();
+    }
+
+    private synchronized Snapshot rebuild() {
+        long version = assetWriteTracker.version(SOFTWARE);
+        Snapshot current = snapshot;
+        if (current != null && current.version == version) {
+            return current;
+        }
+        long start = System.nanoTime();
+        List<SoftwareAssetAgingBucketRow> rows = statisticsMapper.selectAgingBuckets();
+        Snapshot rebuilt = Snapshot.of(version, rows == null ? Collections.emptyList() : rows);
+        snapshot = rebuilt;
+        log.info("📊 软件资产老化直方图已重建 - 分组: {}，分桶: {}，耗时: {}ms", rebuilt.groups.size(),
+                rows == null ? 0 : rows.size(), (System.nanoTime() - start) / 1_000_000);
+        return rebuilt;
+    }
+
+    // ============================ 快照结构 ============================
+
+    /**
+     * 直方图快照（不可变）
+     */
+    @Getter
+    public static final class Snapshot {
+        private final long version;
+        private final List<Group> groups;
+
+        private Snapshot(long version, List<Group> groups) {
+            this.version = version;
+            this.groups = Collections.unmodifiableList(groups);
+        }
+
+        static Snapshot of(long version, List<SoftwareAssetAgingBucketRow> rows) {
+            Map<List<String>, List<SoftwareAssetAgingBucketRow>> rowsByGroup = new LinkedHashMap<>();
+            for (SoftwareAssetAgingBucketRow row : rows) {
+                if (row == null || row.getQuantity() == null || row.getQuantity() <= 0) {
+                    continue;
+                }
+                rowsByGroup.computeIfAbsent(Arrays.asList(row.getProvince(), row.getReportUnit(), row.getServiceStatus()),
+                        key -> new ArrayList<>()).add(row);
+            }
+            List<Group> groups = new ArrayList<>(rowsByGroup.size());
+            rowsByGroup.forEach((key, groupRows) -> groups.add(Group.of(key.get(0), key.get(1), key.get(2), groupRows)));
+            return new Snapshot(version, groups);
+        }
+    }
+
+    /**
+     * 单个（省份, 上报单位, 服务状态）分组的日期分桶
+     */
+    @Getter
+    public static final class Group {
+        private final String province;
+        private final String reportUnit;
+        private final String serviceStatus;
+        /** 升序排列的投入使用日期（epochDay），不含空日期 */
+        private final int[] epochDays;
+        /** 每个日期分桶的实有数量，与epochDays一一对应 */
+        private final long[] quantities;
+        /** prefixSums[i] = quantities[0..i-1]之和，长度为分桶数+1 */
+        private final long[] prefixSums;
+        /** 未填写投入使用日期的实有数量 */
+        private final long undatedQuantity;
+        /** 组内实有数量合计（含未填日期） */
+        private final long totalQuantity;
+
+        private Group(String province, String reportUnit, String serviceStatus,
+                      int[] epochDays, long[] quantities, long undatedQuantity) {
+            this.province = province;
+            this.reportUnit = reportUnit;
+            this.serviceStatus = serviceStatus;
+            this.epochDays = epochDays;
+            this.quantities = quantities;
+            this.prefixSums = new long[quantities.length + 1];
+            for (int i = 0; i < quantities.length; i++) {
+                prefixSums[i + 1] = prefixSums[i] + quantities[i];
+            }
+            this.undatedQuantity = undatedQuantity;
+            this.totalQuantity = prefixSums[quantities.length] + undatedQuantity;
+        }
+
+        static Group of(String province, String reportUnit, String serviceStatus,
+                        List<SoftwareAssetAgingBucketRow> rows) {
+            List<SoftwareAssetAgingBucketRow> dated = new ArrayList<>(rows.size());
+            long undated = 0;
+            for (SoftwareAssetAgingBucketRow row : rows) {
+                if (row.getPutIntoUseDate() == null) {
+                    undated += row.getQuantity();
+                } else {
+                    dated.add(row);
+                }
+            }
+            dated.sort((left, right) -> left.getPutIntoUseDate().compareTo(right.getPutIntoUseDate()));
+            int[] epochDays = new int[dated.size()];
+            long[] quantities = new long[dated.size()];
+            for (int i = 0; i < dated.size(); i++) {
+                epochDays[i] = (int) dated.get(i).getPutIntoUseDate().toEpochDay();
+                quantities[i] = dated.get(i).getQuantity();
+            }
+            return new Group(province, reportUnit, serviceStatus, epochDays, quantities, undated);
+        }
+
+        /**
+         * 投入使用日期早于阈值日期的实有数量（与SoftwareAssetAgingCalculator.requiresUpgrade口径一致）
+         */
+        public long quantityBefore(LocalDate thresholdDate) {
+            int threshold = (int) thresholdDate.toEpochDay();
+            int index = Arrays.binarySearch(epochDays, threshold);
+            // 命中时index为该日期分桶（不含），未命中时-(插入点)-1
+            int bucketCount = index >= 0 ? index : -index - 1;
+            return prefixSums[bucketCount];
+        }
+
+        /**
+         * 截至参考日期（含当日）已投入使用的实有数量，未填日期的资产视为一直存在；
+         * 作为历史时间点的老化率分母，避免用当前总量稀释过去的老化率
+         */
+        public long quantityPutIntoUseBy(LocalDate referenceDate) {
+            return quantityBefore(referenceDate.plusDays(1)) + undatedQuantity;
+        }
+
+        public boolean isInUse(String inUseStatus) {
+            return Objects.equals(inUseStatus, serviceStatus);
+        }
+    }
+}
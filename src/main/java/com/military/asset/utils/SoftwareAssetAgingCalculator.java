@@ -36,11 +36,33 @@ public final class SoftwareAssetAgingCalculator {
      * @return {@code true} 表示距投入使用已超过指定阈值，建议升级
      */
     public static boolean requiresUpgrade(LocalDate putIntoUseDate, LocalDate referenceDate) {
+        return requiresUpgrade(putIntoUseDate, referenceDate, DEFAULT_THRESHOLD_YEARS);
+    }
+
+    /**
+     * 按指定参考日期与阈值年限判断软件资产是否需要升级。
+     *
+     * @param putIntoUseDate 投入使用日期
+     * @param referenceDate  判定的参考日期
+     * @param thresholdYears 老化阈值（年）
+     * @return {@code true} 表示投入使用日期早于“参考日期 - 阈值年限”
+     */
+    public static boolean requiresUpgrade(LocalDate putIntoUseDate, LocalDate referenceDate, int thresholdYears) {
         if (putIntoUseDate == null || referenceDate == null) {
             return false;
         }
-        LocalDate thresholdDate = referenceDate.minusYears(DEFAULT_THRESHOLD_YEARS);
-        return putIntoUseDate.isBefore(thresholdDate);
+        return putIntoUseDate.isBefore(thresholdDate(referenceDate, thresholdYears));
+    }
+
+    /**
+     * 老化阈值日期：投入使用日期早于该日期即视为需要升级。
+     *
+     * @param referenceDate  判定的参考日期
+     * @param thresholdYears 老化阈值（年）
+     * @return 阈值日期
+     */
+    public static LocalDate thresholdDate(LocalDate referenceDate, int thresholdYears) {
+        return referenceDate.minusYears(thresholdYears);
     }
 
     /**
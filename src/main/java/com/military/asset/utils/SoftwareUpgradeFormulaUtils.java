@@ -25,6 +25,30 @@ public final class SoftwareUpgradeFormulaUtils {
     private static final BigDecimal STRONG_RECOMMEND_THRESHOLD = new BigDecimal("0.5");
     private static final BigDecimal SOFT_RECOMMEND_THRESHOLD = new BigDecimal("0.2");
 
+    /**
+     * 建议编码：供只需要结论、不需要文案的机器调用方使用。
+     */
+    public static final String CODE_UPGRADE_URGENT = "UPGRADE_URGENT";
+    public static final String CODE_UPGRADE_PLANNED = "UPGRADE_PLANNED";
+    public static final String CODE_KEEP_MONITORING = "KEEP_MONITORING";
+
+    private static final String EVALUATION_DETAIL = " 安全指标、性能指标及需求匹配度已经过综合评估，建议结合单位的上线节奏、测试资源与合规要求排期，"
+            + "在升级前完成备份与回滚方案评审，并对关键业务连续性进行验证。";
+    private static final String PADDING_APPENDIX = " 请同步做好安全漏洞修复、性能压测和需求回归验证，确保升级过程满足作战与训练场景的稳定性。";
+
+    /**
+     * 三档建议文案的预编译模板（名称之后的部分均为静态文本）。
+     */
+    private static final RecommendationTemplate URGENT_TEMPLATE = RecommendationTemplate.compile(
+            "建议升级，建议时间为30~150日内完成。" + EVALUATION_DETAIL,
+            PADDING_APPENDIX, MIN_RECOMMENDATION_LENGTH, MAX_RECOMMENDATION_LENGTH);
+    private static final RecommendationTemplate PLANNED_TEMPLATE = RecommendationTemplate.compile(
+            "建议升级，建议时间为半年左右。" + EVALUATION_DETAIL,
+            PADDING_APPENDIX, MIN_RECOMMENDATION_LENGTH, MAX_RECOMMENDATION_LENGTH);
+    private static final RecommendationTemplate MONITORING_TEMPLATE = RecommendationTemplate.compile(
+            "当前版本满足主要需求，可持续关注行业版本演进后再评估升级计划。" + EVALUATION_DETAIL,
+            PADDING_APPENDIX, MIN_RECOMMENDATION_LENGTH, MAX_RECOMMENDATION_LENGTH);
+
     private SoftwareUpgradeFormulaUtils() {
         throw new IllegalStateException("Utility class");
     }
@@ -63,27 +87,32 @@ public final class SoftwareUpgradeFormulaUtils {
      */
     public static String buildRecommendation(String assetName, BigDecimal necessity) {
         String safeName = StringUtils.hasText(assetName) ? assetName.trim() : "该软件";
-        BigDecimal safeNecessity = defaultZero(necessity);
+        return templateOf(recommendationCode(necessity)).render(safeName);
+    }
 
-        String recommendation;
+    /**
+     * 根据升级必要性给出建议编码：≥0.5 → UPGRADE_URGENT；0.2~0.5 → UPGRADE_PLANNED；其他 → KEEP_MONITORING。
+     *
+     * @param necessity 升级必要性（0~1）
+     * @return 建议编码
+     */
+    public static String recommendationCode(BigDecimal necessity) {
+        BigDecimal safeNecessity = defaultZero(necessity);
         if (safeNecessity.compareTo(STRONG_RECOMMEND_THRESHOLD) >= 0) {
-            recommendation = String.format("%s建议升级，建议时间为30~150日内完成。", safeName);
-        } else if (safeNecessity.compareTo(SOFT_RECOMMEND_THRESHOLD) >= 0) {
-            recommendation = String.format("%s建议升级，建议时间为半年左右。", safeName);
-        } else {
-            recommendation = String.format("%s当前版本满足主要需求，可持续关注行业版本演进后再评估升级计划。", safeName);
+            return CODE_UPGRADE_URGENT;
         }
-
-        String detailed = recommendation + " 安全指标、性能指标及需求匹配度已经过综合评估，建议结合单位的上线节奏、测试资源与合规要求排期，"
-                + "在升级前完成备份与回滚方案评审，并对关键业务连续性进行验证。";
-
-        if (detailed.length() < MIN_RECOMMENDATION_LENGTH) {
-            detailed = padToMinimum(detailed);
+        if (safeNecessity.compareTo(SOFT_RECOMMEND_THRESHOLD) >= 0) {
+            return CODE_UPGRADE_PLANNED;
         }
+        return CODE_KEEP_MONITORING;
+    }
 
-        return detailed.length() > MAX_RECOMMENDATION_LENGTH
-                ? detailed.substring(0, MAX_RECOMMENDATION_LENGTH)
-                : detailed;
+    private static RecommendationTemplate templateOf(String code) {
+        return switch (code) {
+            case CODE_UPGRADE_URGENT -> URGENT_TEMPLATE;
+            case CODE_UPGRADE_PLANNED -> PLANNED_TEMPLATE;
+            default -> MONITORING_TEMPLATE;
+        };
     }
 
     /**
@@ -144,13 +173,4 @@ public final class SoftwareUpgradeFormulaUtils {
         }
         return BigDecimal.valueOf(0.8);
     }
-
-    private static String padToMinimum(String content) {
-        StringBuilder builder = new StringBuilder(content);
-        String appendix = " 请同步做好安全漏洞修复、性能压测和需求回归验证，确保升级过程满足作战与训练场景的稳定性。";
-        while (builder.length() < MIN_RECOMMENDATION_LENGTH) {
-            builder.append(appendix);
-        }
-        return builder.toString();
-    }
-}
\ No newline at end of file
+}
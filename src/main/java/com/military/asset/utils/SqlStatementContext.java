@@ -0,0 +1,177 @@
+package com.military.asset.utils;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * SQL语句统计上下文（线程级）。
+ * <p>
+ * 由HTTP请求拦截器或后台导入任务打开一个统计范围（Scope），
+ * MyBatis语句拦截器在每条SQL执行后累加语句数与耗时。
+ * 范围支持嵌套，一条SQL会同时计入所有已打开的范围。
+ * 并发扇出的子任务通过 {@link #capture()} / {@link #attach(List)} 把请求线程的范围带到工作线程，
+ * 子任务执行的SQL同样计入请求预算。
+ * </p>
+ */
+public final class SqlStatementContext {
+
+    private static final ThreadLocal<Deque<Scope>> SCOPES = ThreadLocal.withInitial(ArrayDeque::new);
+
+    private SqlStatementContext() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * 打开一个统计范围。
+     *
+     * @param name          范围名称（如接口路径、导入任务名）
+     * @param maxStatements 语句数预算，0表示不限制
+     * @param failOnExceed  超出预算时是否抛出异常（测试环境用于锁定N+1修复）
+     * @return 统计范围，使用完毕后必须close
+     */
+    public static Scope open(String name, int maxStatements, boolean failOnExceed) {
+        Scope scope = new Scope(name, maxStatements, failOnExceed);
+        SCOPES.get().push(scope);
+        return scope;
+    }
+
+    /**
+     * 累加一条SQL的执行耗时，由MyBatis拦截器调用。
+     *
+     * @throws SqlBudgetExceededException 当某个范围开启了失败模式且超出预算时
+     */
+    public static void record(long elapsedNanos) {
+        Deque<Scope> scopes = SCOPES.get();
+        if (scopes.isEmpty()) {
+            return;
+        }
+        for (Scope scope : scopes) {
+            scope.statements.incrementAndGet();
+            scope.elapsedNanos.addAndGet(elapsedNanos);
+        }
+        for (Scope scope : scopes) {
+            if (scope.isOverBudget() && scope.failOnExceed) {
+                throw new SqlBudgetExceededException(scope.name, scope.maxStatements, scope.statements.get());
+            }
+        }
+    }
+
+    /**
+     * 当前线程最内层的统计范围，无则返回null。
+     */
+    public static Scope current() {
+        return SCOPES.get().peek();
+    }
+
+    /**
+     * 捕获当前线程已打开的统计范围（由外到内），供并发子任务在工作线程上挂载。
+     */
+    public static List<Scope> capture() {
+        List<Scope> captured = new ArrayList<>(SCOPES.get());
+        Collections.reverse(captured);
+        return captured;
+    }
+
+    /**
+     * 在当前（工作）线程上挂载捕获的统计范围，返回值close时仅卸载这些范围，不关闭范围本身。
+     * 当前线程上已打开的范围不重复挂载（线程池饱和时子任务可能回到提交的请求线程上执行），一条SQL只计一次。
+     *
+     * @param captured {@link #capture()} 的返回值
+     * @return 挂载句柄
+     */
+    public static Attachment attach(List<Scope> captured) {
+        Deque<Scope> scopes = SCOPES.get();
+        List<Scope> attached = new ArrayList<>();
+        for (Scope scope : captured) {
+            if (!scopes.contains(scope)) {
+                scopes.push(scope);
+                attached.add(scope);
+            }
+        }
+        return new Attachment(attached);
+    }
+
+    /**
+     * 工作线程上的范围挂载句柄。
+     */
+    public static final class Attachment implements AutoCloseable {
+
+        private final List<Scope> attached;
+
+        private Attachment(List<Scope> attached) {
+            this.attached = attached;
+        }
+
+        @Override
+        public void close() {
+            Deque<Scope> scopes = SCOPES.get();
+            attached.forEach(scopes::remove);
+            if (scopes.isEmpty()) {
+                SCOPES.remove();
+            }
+        }
+    }
+
+    /**
+     * 统计范围：记录语句数与数据库耗时（计数器线程安全，可被并发子任务共同累加）。
+     */
+    public static final class Scope implements AutoCloseable {
+
+        private final String name;
+        private final int maxStatements;
+        private final boolean failOnExceed;
+        private final AtomicInteger statements = new AtomicInteger();
+        private final AtomicLong elapsedNanos = new AtomicLong();
+
+        private Scope(String name, int maxStatements, boolean failOnExceed) {
+            this.name = name;
+            this.maxStatements = maxStatements;
+            this.failOnExceed = failOnExceed;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public int getMaxStatements() {
+            return maxStatements;
+        }
+
+        public int getStatements() {
+            return statements.get();
+        }
+
+        public long getElapsedNanos() {
+            return elapsedNanos.get();
+        }
+
+        public boolean isOverBudget() {
+            return maxStatements > 0 && statements.get() > maxStatements;
+        }
+
+        @Override
+        public void close() {
+            Deque<Scope> scopes = SCOPES.get();
+            scopes.remove(this);
+            if (scopes.isEmpty()) {
+                SCOPES.remove();
+            }
+        }
+    }
+
+    /**
+     * SQL语句数超出预算异常。
+     */
+    public static class SqlBudgetExceededException extends RuntimeException {
+
+        public SqlBudgetExceededException(String scopeName, int maxStatements, int actualStatements) {
+            super(String.format("SQL语句数超出预算：%s 预算%d条，实际已执行%d条",
+                    scopeName, maxStatements, actualStatements));
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.military.asset.utils;
+
+import org.apache.ibatis.cursor.Cursor;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * 流式查询工具类。
+ * <p>
+ * 配合 Mapper 中 fetchSize=Integer.MIN_VALUE 的 {@link Cursor} 语句使用：MySQL 驱动逐行返回结果，
+ * 这里按固定批次交给调用方处理，JVM 中同时只保留一个批次，读到第一批即可开始处理。
+ * 注意：Cursor 依赖打开的 SqlSession，调用方法需运行在事务内（如 {@code @Transactional(readOnly = true)}），
+ * 且游标读取期间同一连接不能再执行其他语句。
+ * </p>
+ */
+public final class StreamingQueryUtils {
+
+    /**
+     * 导出等场景的默认批次大小。
+     */
+    public static final int DEFAULT_BATCH_SIZE = 2000;
+
+    private StreamingQueryUtils() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * 按批次消费游标，结束后关闭游标。
+     *
+     * @param cursor        Mapper 返回的游标
+     * @param batchSize     每批条数
+     * @param batchConsumer 批次处理逻辑
+     * @return 读取的总行数
+     */
+    public static <T> long forEachBatch(Cursor<T> cursor, int batchSize, Consumer<List<T>> batchConsumer) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("批次大小必须大于0");
+        }
+        long total = 0;
+        try (Cursor<T> rows = cursor) {
+            List<T> batch = new ArrayList<>(batchSize);
+            for (T row : rows) {
+                batch.add(row);
+                total++;
+                if (batch.size() >= batchSize) {
+                    batchConsumer.accept(batch);
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+            if (!batch.isEmpty()) {
+                batchConsumer.accept(batch);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("关闭查询游标失败：" + e.getMessage(), e);
+        }
+        return total;
+    }
+}
@@ -0,0 +1,156 @@
+package com.military.asset.utils;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 导入模板文件缓存
+ * 模板随应用打包、运行期不变，启动时（导入控制器预加载）整体读入内存并计算强ETag，之后的下载直接输出内存内容
+
+ * 缓存内容：
+ * - 文件字节：只读，仅通过writeTo/asResource输出
+ * - ETag：文件内容SHA-256的前16字节（十六进制，带引号的强校验值），内容不变则跨实例、跨重启一致
+ * - Last-Modified：classpath资源的修改时间（取不到时为应用启动时间），按秒截断
+ * - Cache-Control的max-age：asset.template.cache-max-age-seconds，过期后客户端带条件请求重新校验
+ */
+@Slf4j
+@Component
+public class TemplateFileCache {
+
+    private final long cacheMaxAgeSeconds;
+    private final long startupMillis = System.currentTimeMillis() / 1000 * 1000;
+    private final Map<String, CachedTemplate> templates = new ConcurrentHashMap<>();
+
+    public TemplateFileCache(@Value("${asset.template.cache-max-age-seconds:600}") long cacheMaxAgeSeconds) {
+        if (cacheMaxAgeSeconds < 0) {
+            throw new IllegalArgumentException("asset.template.cache-max-age-seconds 不能为负数");
+        }
+        this.cacheMaxAgeSeconds = cacheMaxAgeSeconds;
+    }
+
+    public long getCacheMaxAgeSeconds() {
+        return cacheMaxAgeSeconds;
+    }
+
+    /**
+     * 获取模板（首次访问时加载）
+     *
+     * @param classpathLocation classpath下的模板路径
+     * @return 模板；文件不存在时返回null（不缓存，文件补上后可再次加载）
+     */
+    public CachedTemplate get(String classpathLocation) {
+        CachedTemplate cached = templates.get(classpathLocation);
+        if (cached != null) {
+            return cached;
+        }
+        CachedTemplate loaded = load(classpathLocation);
+        if (loaded == null) {
+            return null;
+        }
+        CachedTemplate existing = templates.putIfAbsent(classpathLocation, loaded);
+        return existing != null ? existing : loaded;
+    }
+
+    private CachedTemplate load(String classpathLocation) {
+        Resource resource = new ClassPathResource(classpathLocation);
+        if (!resource.exists()) {
+            return null;
+        }
+        try (InputStream inputStream = resource.getInputStream()) {
+            byte[] content = StreamUtils.copyToByteArray(inputStream);
+            long lastModified = resolveLastModified(resource);
+            CachedTemplate template = new CachedTemplate(content, strongETag(content), lastModified);
+            log.info("导入模板已载入内存: {}，大小: {} bytes，ETag: {}", classpathLocation, content.length, template.getETag());
+            return template;
+        } catch (IOException e) {
+            throw new RuntimeException("读取模板文件失败：" + classpathLocation, e);
+        }
+    }
+
+    private long resolveLastModified(Resource resource) {
+        try {
+            long lastModified = resource.lastModified();
+            if (lastModified > 0) {
+                return lastModified / 1000 * 1000;
+            }
+        } catch (IOException e) {
+            log.debug("无法获取模板修改时间，使用启动时间: {}", e.getMessage());
+        }
+        return startupMillis;
+    }
+
+    private static String strongETag(byte[] content) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(content);
+            return "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("JVM不支持SHA-256", e);
+        }
+    }
+
+    /**
+     * 已缓存的模板文件（不可变）
+     */
+    public static final class CachedTemplate {
+
+        private final byte[] content;
+        private final String eTag;
+        private final long lastModified;
+
+        private CachedTemplate(byte[] content, String eTag, long lastModified) {
+            this.content = content;
+            this.eTag = eTag;
+            this.lastModified = lastModified;
+        }
+
+        /**
+         * 包装运行期生成的内容（生成式模板、固定选项JSON等），ETag计算方式与模板文件一致
+         *
+         * @param content      内容字节，调用方交出后不得再修改
+         * @param lastModified 修改时间（毫秒，按秒截断）
+         */
+        public static CachedTemplate of(byte[] content, long lastModified) {
+            return new CachedTemplate(content, strongETag(content), lastModified / 1000 * 1000);
+        }
+
+        public String getETag() {
+            return eTag;
+        }
+
+        public long getLastModified() {
+            return lastModified;
+        }
+
+        public int getLength() {
+            return content.length;
+        }
+
+        /**
+         * 以Resource形式交给ResponseEntity输出（只读使用，不复制内容）
+         */
+        public Resource asResource() {
+            return new ByteArrayResource(content);
+        }
+
+        /**
+         * 将模板内容写入输出流（一次写出，不再经过classpath读取）
+         */
+        public void writeTo(OutputStream outputStream) throws IOException {
+            outputStream.write(content);
+        }
+    }
+}
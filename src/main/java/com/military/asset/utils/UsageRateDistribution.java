@@ -0,0 +1,97 @@
+package com.military.asset.utils;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * 使用率分布（不可变）。
+ * <p>
+ * 保存同一分类下各单位使用率的有序数组，以及全量和、平方和，
+ * 均值、中位数、方差均为O(1)计算，结果与 {@link CyberAssetUsageFormulaUtils} 中
+ * calculateMean / calculateMedian / calculateVariance 对同一组数据的结果逐位一致：
+ * <ul>
+ *     <li>均值：非空值之和 ÷ 输入个数（含null，与原 calculateMean 一致），保留4位小数；</li>
+ *     <li>中位数：只取非空值，个数为偶数时取较小的中间值（与原实现一致）；</li>
+ *     <li>方差：只取非空值，先取其保留4位的均值 m，Σ(v-m)² = Σv² - 2mΣv + n·m²（精确值），再 ÷ 非空个数保留4位。</li>
+ * </ul>
+ * </p>
+ */
+public final class UsageRateDistribution {
+
+    private static final int SCALE = 4;
+    private static final RoundingMode ROUNDING_MODE = RoundingMode.HALF_UP;
+    private static final BigDecimal ZERO = BigDecimal.ZERO.setScale(SCALE, ROUNDING_MODE);
+
+    /** 空分布 */
+    public static final UsageRateDistribution EMPTY = new UsageRateDistribution(new BigDecimal[0], 0);
+
+    private final BigDecimal[] sortedRates;
+    /**
+     * 输入个数（含null），仅作均值分母
+     */
+    private final int inputCount;
+    private final BigDecimal sum;
+    private final BigDecimal sumOfSquares;
+
+    private UsageRateDistribution(BigDecimal[] sortedRates, int inputCount) {
+        this.sortedRates = sortedRates;
+        this.inputCount = inputCount;
+        BigDecimal total = BigDecimal.ZERO;
+        BigDecimal squares = BigDecimal.ZERO;
+        for (BigDecimal rate : sortedRates) {
+            total = total.add(rate);
+            squares = squares.add(rate.multiply(rate));
+        }
+        this.sum = total;
+        this.sumOfSquares = squares;
+    }
+
+    /**
+     * 由一组使用率构建分布，null值不参与排序与方差，但计入均值分母。
+     */
+    public static UsageRateDistribution of(List<BigDecimal> rates) {
+        if (rates == null || rates.isEmpty()) {
+            return EMPTY;
+        }
+        BigDecimal[] sorted = rates.stream().filter(Objects::nonNull).toArray(BigDecimal[]::new);
+        Arrays.sort(sorted);
+        return new UsageRateDistribution(sorted, rates.size());
+    }
+
+    public int size() {
+        return sortedRates.length;
+    }
+
+    public BigDecimal mean() {
+        if (inputCount == 0) {
+            return ZERO;
+        }
+        return sum.divide(BigDecimal.valueOf(inputCount), SCALE, ROUNDING_MODE);
+    }
+
+    public BigDecimal median() {
+        int size = sortedRates.length;
+        if (size == 0) {
+            return ZERO;
+        }
+        if (size % 2 == 1) {
+            return sortedRates[size / 2].setScale(SCALE, ROUNDING_MODE);
+        }
+        return sortedRates[size / 2 - 1];
+    }
+
+    public BigDecimal variance() {
+        int size = sortedRates.length;
+        if (size == 0) {
+            return ZERO;
+        }
+        BigDecimal mean = sum.divide(BigDecimal.valueOf(size), SCALE, ROUNDING_MODE);
+        BigDecimal squaredDeviations = sumOfSquares
+                .subtract(mean.multiply(sum).multiply(BigDecimal.valueOf(2)))
+                .add(mean.multiply(mean).multiply(BigDecimal.valueOf(size)));
+        return squaredDeviations.divide(BigDecimal.valueOf(size), SCALE, ROUNDING_MODE);
+    }
+}
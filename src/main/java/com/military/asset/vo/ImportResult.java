@@ -54,6 +54,13 @@ public class ImportResult {
      */
     private String message;
 
+    /**
+     * 可续传导入编号
+     * 导入失败且已提交的数据仍保留时返回，调用 POST /api/asset/import/resume/{importId} 从最后提交的分块继续，
+     * 无需重新上传文件
+     */
+    private String importId;
+
     /**
      * 详细的导入数据结果
      * 🆕 新的数据结构：
@@ -12,6 +12,11 @@ public class PhoneNumberAnalysisVO {
 
     private String reportUnit;
 
+    /**
+     * 所属省份（全国汇总结果填充；省份层级汇总时reportUnit为空）。
+     */
+    private String province;
+
     /**
      * 各类电话号码数量（空值会按0处理）。
      */
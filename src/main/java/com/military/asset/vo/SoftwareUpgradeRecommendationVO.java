@@ -27,7 +27,12 @@ public class SoftwareUpgradeRecommendationVO {
     private boolean upgradeRequired;
 
     /**
-     * 建议内容
+     * 建议编码：UPGRADE_URGENT / UPGRADE_PLANNED / KEEP_MONITORING
+     */
+    private String recommendationCode;
+
+    /**
+     * 建议内容（仅返回编码时为空）
      */
     private String recommendation;
 }
@@ -0,0 +1,31 @@
+package com.military.asset.vo.stat;
+
+import lombok.Data;
+
+/**
+ * 网信资产按上报单位分组的四类电话号码汇总行。
+ * <p>
+ * 由 Mapper 一次分组聚合直接返回，每个上报单位一行，四类号码的实有数量已按类别透视为列。
+ * </p>
+ */
+@Data
+public class PhoneNumberRollupRow {
+
+    /** 上报单位 */
+    private String reportUnit;
+
+    /** 所属省份（可能为空） */
+    private String province;
+
+    /** 人工电话号码实有数量合计 */
+    private Long manualCount;
+
+    /** 自动电话号码实有数量合计 */
+    private Long automaticCount;
+
+    /** 移动手机号码实有数量合计 */
+    private Long mobileCount;
+
+    /** 保密电话号码实有数量合计 */
+    private Long secrecyCount;
+}
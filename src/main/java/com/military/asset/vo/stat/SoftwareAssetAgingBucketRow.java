@@ -0,0 +1,31 @@
+package com.military.asset.vo.stat;
+
+import lombok.Data;
+
+import java.time.LocalDate;
+
+/**
+ * 软件资产老化直方图的分桶行。
+ * <p>
+ * 由 Mapper 按省份、上报单位、服务状态、投入使用日期分组汇总实有数量，
+ * 作为老化直方图的原始分桶数据。
+ * </p>
+ */
+@Data
+public class SoftwareAssetAgingBucketRow {
+
+    /** 所属省份（可能为空） */
+    private String province;
+
+    /** 上报单位 */
+    private String reportUnit;
+
+    /** 服务状态 */
+    private String serviceStatus;
+
+    /** 投入使用日期（可能为空） */
+    private LocalDate putIntoUseDate;
+
+    /** 实有数量合计 */
+    private Long quantity;
+}
@@ -0,0 +1,23 @@
+package com.military.asset.vo.stat;
+
+import lombok.Data;
+
+/**
+ * 软件资产按投入使用月份的数量分布。
+ * <p>
+ * 每个月份一条，分别给出在用与非在用的实有数量；
+ * 未填写投入使用日期的资产归入月份为空的一条。
+ * </p>
+ */
+@Data
+public class SoftwareAssetAgingHistogramVO {
+
+    /** 投入使用月份（yyyy-MM），为空表示未填写日期 */
+    private String month;
+
+    /** 在用实有数量 */
+    private long inUseQuantity;
+
+    /** 非在用实有数量 */
+    private long notInUseQuantity;
+}
@@ -0,0 +1,25 @@
+package com.military.asset.vo.stat;
+
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * 省份老化趋势中的一个时间点。
+ * <p>
+ * 以指定参考日期和阈值年限计算的各省份老化统计，多个时间点组成趋势曲线。
+ * </p>
+ */
+@Data
+public class SoftwareAssetAgingTrendVO {
+
+    /** 参考日期 */
+    private LocalDate referenceDate;
+
+    /** 老化阈值（年） */
+    private int thresholdYears;
+
+    /** 各省份老化统计 */
+    private List<SoftwareAssetAgingStatisticVO> provinces;
+}
@@ -0,0 +1,29 @@
+package com.military.asset.vo.stat;
+
+import lombok.Data;
+
+/**
+ * 软件资产按省份分组的老化汇总行。
+ * <p>
+ * 由 Mapper 分组聚合直接返回：在用/非在用两类的实有数量合计，
+ * 以及其中投入使用日期早于老化阈值日期的数量合计。
+ * </p>
+ */
+@Data
+public class SoftwareAssetProvinceAgingRow {
+
+    /** 所属省份（可能为空） */
+    private String province;
+
+    /** 在用实有数量合计 */
+    private Long inUseTotalQuantity;
+
+    /** 在用且需要升级的实有数量合计 */
+    private Long inUseUpgradeQuantity;
+
+    /** 非在用实有数量合计 */
+    private Long notInUseTotalQuantity;
+
+    /** 非在用且需要升级的实有数量合计 */
+    private Long notInUseUpgradeQuantity;
+}
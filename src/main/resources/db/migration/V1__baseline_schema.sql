@@ -0,0 +1,133 @@
+-- =====================================================================
+-- V1 基线表结构：软件资产 / 网信资产 / 数据内容资产 / 上报单位 / 省份
+-- 说明：
+--   1. 全部使用 CREATE TABLE IF NOT EXISTS，可在空库上直接初始化
+--   2. 已有数据的旧库通过 baseline-version=1 跳过本脚本，仅执行后续版本
+--   3. 字段与 entity 包下的实体类一一对应（驼峰 ↔ 下划线）
+-- =====================================================================
+
+-- 软件应用资产表（无省市字段，省市信息通过上报单位表管理）
+CREATE TABLE IF NOT EXISTS software_asset (
+    id                      VARCHAR(50)    NOT NULL COMMENT '主键',
+    title                   VARCHAR(150)   NULL COMMENT '标题',
+    data_audit_opinion      VARCHAR(150)   NULL COMMENT '数据审核意见',
+    report_unit             VARCHAR(150)   NOT NULL COMMENT '上报单位',
+    category_code           VARCHAR(50)    NOT NULL COMMENT '分类编码',
+    asset_category          VARCHAR(150)   NOT NULL COMMENT '资产分类',
+    asset_name              VARCHAR(150)   NOT NULL COMMENT '资产名称',
+    acquisition_method      VARCHAR(150)   NOT NULL COMMENT '取得方式',
+    function_brief          VARCHAR(150)   NULL COMMENT '功能简介',
+    deployment_scope        VARCHAR(150)   NOT NULL COMMENT '部署范围',
+    deployment_form         VARCHAR(150)   NULL COMMENT '部署形式',
+    bearing_network         VARCHAR(150)   NULL COMMENT '承载网络',
+    software_copyright      VARCHAR(150)   NULL COMMENT '软件著作权',
+    actual_quantity         INT            NOT NULL COMMENT '实有数量',
+    unit                    VARCHAR(20)    NOT NULL COMMENT '计量单位',
+    unit_price              DECIMAL(10, 2) NULL COMMENT '单价',
+    amount                  DECIMAL(10, 2) NULL COMMENT '金额',
+    pricing_method          VARCHAR(150)   NULL COMMENT '计价方法',
+    pricing_description     VARCHAR(150)   NULL COMMENT '计价说明',
+    service_status          VARCHAR(20)    NOT NULL COMMENT '服务状态',
+    put_into_use_date       DATE           NOT NULL COMMENT '投入使用日期',
+    inventory_unit          VARCHAR(150)   NOT NULL COMMENT '盘点单位',
+    inventory_remark        VARCHAR(150)   NULL COMMENT '盘点备注',
+    valuation_remark        VARCHAR(150)   NULL COMMENT '估值备注',
+    original_account_remark VARCHAR(150)   NULL COMMENT '原账备注',
+    create_time             DATETIME       DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    PRIMARY KEY (id)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4 COMMENT = '软件应用资产表';
+
+-- 网信基础资产表
+CREATE TABLE IF NOT EXISTS cyber_asset (
+    id                      VARCHAR(50)    NOT NULL COMMENT '主键',
+    report_unit             VARCHAR(150)   NOT NULL COMMENT '上报单位',
+    province                VARCHAR(50)    NULL COMMENT '省份',
+    city                    VARCHAR(50)    NULL COMMENT '城市',
+    category_code           VARCHAR(50)    NOT NULL COMMENT '分类编码',
+    asset_category          VARCHAR(150)   NOT NULL COMMENT '资产分类',
+    asset_name              VARCHAR(150)   NOT NULL COMMENT '资产名称',
+    asset_content           VARCHAR(200)   NOT NULL COMMENT '资产内容',
+    support_object          VARCHAR(150)   NULL COMMENT '保障对象',
+    actual_quantity         INT            NOT NULL COMMENT '实有数量',
+    unit                    VARCHAR(20)    NOT NULL COMMENT '计量单位',
+    used_quantity           INT            NOT NULL COMMENT '已用数量',
+    unit_price              DECIMAL(10, 2) NULL COMMENT '单价',
+    amount                  DECIMAL(10, 2) NULL COMMENT '金额',
+    pricing_method          VARCHAR(150)   NULL COMMENT '计价方法',
+    pricing_description     VARCHAR(150)   NULL COMMENT '计价说明',
+    put_into_use_date       DATE           NOT NULL COMMENT '投入使用日期',
+    inventory_unit          VARCHAR(150)   NOT NULL COMMENT '盘点单位',
+    inventory_remark        VARCHAR(150)   NULL COMMENT '盘点备注',
+    valuation_remark        VARCHAR(150)   NULL COMMENT '估值备注',
+    original_account_remark VARCHAR(150)   NULL COMMENT '原账备注',
+    create_time             DATETIME       DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    delete_flag             TINYINT        NOT NULL DEFAULT 0 COMMENT '删除标志（0=正常）',
+    PRIMARY KEY (id)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4 COMMENT = '网信基础资产表';
+
+-- 数据内容资产表
+CREATE TABLE IF NOT EXISTS data_content_asset (
+    id                      VARCHAR(50)    NOT NULL COMMENT '主键',
+    report_unit             VARCHAR(150)   NOT NULL COMMENT '上报单位',
+    province                VARCHAR(50)    NULL COMMENT '省份',
+    city                    VARCHAR(50)    NULL COMMENT '城市',
+    category_code           VARCHAR(50)    NOT NULL COMMENT '分类编码',
+    asset_category          VARCHAR(150)   NOT NULL COMMENT '资产分类',
+    asset_name              VARCHAR(150)   NOT NULL COMMENT '资产名称',
+    data_type               VARCHAR(50)    NULL COMMENT '数据类型',
+    acquisition_method      VARCHAR(150)   NULL COMMENT '取得方式',
+    function_brief          VARCHAR(150)   NULL COMMENT '功能简介',
+    application_field       VARCHAR(150)   NULL COMMENT '应用领域',
+    development_tool        VARCHAR(150)   NOT NULL COMMENT '开发工具',
+    actual_quantity         INT            NOT NULL COMMENT '实有数量',
+    unit                    VARCHAR(20)    NOT NULL COMMENT '计量单位',
+    unit_price              DECIMAL(10, 2) NULL COMMENT '单价',
+    amount                  DECIMAL(10, 2) NULL COMMENT '金额',
+    pricing_method          VARCHAR(150)   NULL COMMENT '计价方法',
+    pricing_description     VARCHAR(150)   NULL COMMENT '计价说明',
+    update_cycle            VARCHAR(50)    NULL COMMENT '更新周期',
+    update_method           VARCHAR(50)    NULL COMMENT '更新方式',
+    inventory_unit          VARCHAR(150)   NOT NULL COMMENT '盘点单位',
+    inventory_remark        VARCHAR(150)   NULL COMMENT '盘点备注',
+    valuation_remark        VARCHAR(150)   NULL COMMENT '估值备注',
+    original_account_remark VARCHAR(150)   NULL COMMENT '原账备注',
+    create_time             DATETIME       DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    delete_flag             TINYINT        NOT NULL DEFAULT 0 COMMENT '删除标志（0=正常）',
+    PRIMARY KEY (id)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4 COMMENT = '数据内容资产表';
+
+-- 上报单位表（维护单位省份及在三张资产表中的存在状态）
+CREATE TABLE IF NOT EXISTS report_unit (
+    id                              INT          NOT NULL AUTO_INCREMENT COMMENT '主键',
+    report_unit                     VARCHAR(150) NOT NULL COMMENT '上报单位名称',
+    province                        VARCHAR(50)  NULL COMMENT '所属省份',
+    source_table_cyber_asset        TINYINT      NOT NULL DEFAULT 0 COMMENT '网信资产表是否有数据（0/1）',
+    source_table_data_content_asset TINYINT      NOT NULL DEFAULT 0 COMMENT '数据内容资产表是否有数据（0/1）',
+    source_table_software_asset     TINYINT      NOT NULL DEFAULT 0 COMMENT '软件资产表是否有数据（0/1）',
+    PRIMARY KEY (id)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4 COMMENT = '上报单位表';
+
+-- 省份字典表
+CREATE TABLE IF NOT EXISTS province (
+    code  CHAR(36)    NOT NULL COMMENT '省份ID',
+    name  VARCHAR(32) NOT NULL COMMENT '省份名称',
+    level INT         NULL COMMENT '行政等级',
+    abbr  VARCHAR(8)  NULL COMMENT '省份简称',
+    alias CHAR(1)     NULL COMMENT '省份代号',
+    PRIMARY KEY (code)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4 COMMENT = '省份字典表';
+
+-- 省份字典初始数据（34个省级行政区，code使用行政区划代码）
+INSERT IGNORE INTO province (code, name, level, abbr) VALUES
+    ('110000', '北京市', 1, '京'), ('120000', '天津市', 1, '津'), ('130000', '河北省', 1, '冀'),
+    ('140000', '山西省', 1, '晋'), ('150000', '内蒙古自治区', 1, '蒙'), ('210000', '辽宁省', 1, '辽'),
+    ('220000', '吉林省', 1, '吉'), ('230000', '黑龙江省', 1, '黑'), ('310000', '上海市', 1, '沪'),
+    ('320000', '江苏省', 1, '苏'), ('330000', '浙江省', 1, '浙'), ('340000', '安徽省', 1, '皖'),
+    ('350000', '福建省', 1, '闽'), ('360000', '江西省', 1, '赣'), ('370000', '山东省', 1, '鲁'),
+    ('410000', '河南省', 1, '豫'), ('420000', '湖北省', 1, '鄂'), ('430000', '湖南省', 1, '湘'),
+    ('440000', '广东省', 1, '粤'), ('450000', '广西壮族自治区', 1, '桂'), ('460000', '海南省', 1, '琼'),
+    ('500000', '重庆市', 1, '渝'), ('510000', '四川省', 1, '川'), ('520000', '贵州省', 1, '贵'),
+    ('530000', '云南省', 1, '云'), ('540000', '西藏自治区', 1, '藏'), ('610000', '陕西省', 1, '陕'),
+    ('620000', '甘肃省', 1, '甘'), ('630000', '青海省', 1, '青'), ('640000', '宁夏回族自治区', 1, '宁'),
+    ('650000', '新疆维吾尔自治区', 1, '新'), ('710000', '台湾省', 1, '台'), ('810000', '香港特别行政区', 1, '港'),
+    ('820000', '澳门特别行政区', 1, '澳');
@@ -0,0 +1,91 @@
+-- =====================================================================
+-- V2 覆盖索引：面向热点查询的组合索引
+-- 设计原则：等值过滤/关联列在前，分组列居中，被聚合的数量列放在末尾，
+--           使查询只扫描二级索引即可完成（EXPLAIN Extra 显示 Using index）
+-- =====================================================================
+
+-- ---------------------------- software_asset ----------------------------
+-- selectStatistics / selectStatisticsByReportUnit(s)：按 report_unit 分组，按取得方式、服务状态累加实有数量
+-- countSoftwareAsset：WHERE report_unit = ? 可直接使用最左前缀
+ALTER TABLE software_asset
+    ADD INDEX idx_sa_unit_acq_status_qty (report_unit, acquisition_method, service_status, actual_quantity);
+
+-- 省份老化明细（按单位关联 report_unit 逐行读取）曾使用本索引；该查询已移除，
+-- 省份老化由 selectProvinceAgingTotals 走 V4 的 idx_sa_province_status_date_qty，本索引由 V8 删除
+ALTER TABLE software_asset
+    ADD INDEX idx_sa_unit_status_date_qty (report_unit, service_status, put_into_use_date, actual_quantity);
+
+-- selectSoftwareCategoryStatsByProvince / selectProvinceStatsByAssetCategory：按资产分类过滤后关联上报单位
+ALTER TABLE software_asset
+    ADD INDEX idx_sa_category_unit (asset_category, report_unit);
+
+-- ---------------------------- cyber_asset ----------------------------
+-- aggregateProvinceUsageByAssetCategory：按 report_unit、asset_category 分组累加已用/实有数量
+-- sumPhoneNumberQuantityByCategory：WHERE report_unit = ? AND asset_category IN (...)，累加实有数量
+-- countCyberAsset / countByReportUnit / selectByReportUnitExcludeId：report_unit 最左前缀
+ALTER TABLE cyber_asset
+    ADD INDEX idx_ca_unit_category_qty (report_unit, asset_category, used_quantity, actual_quantity);
+
+-- 省份维度的分类统计（selectCyberCategoryStatsByProvince 等）
+ALTER TABLE cyber_asset
+    ADD INDEX idx_ca_province_category (province, asset_category);
+
+-- ---------------------------- data_content_asset ----------------------------
+-- 按上报单位的应用领域 / 更新周期分析；countDataContentAsset / countByReportUnit 使用最左前缀
+ALTER TABLE data_content_asset
+    ADD INDEX idx_dca_unit_field_cycle_qty (report_unit, application_field, update_cycle, actual_quantity);
+
+-- 省份维度：countUnitsByProvinceAndAppField、按领域/开发工具/更新方式分组统计
+ALTER TABLE data_content_asset
+    ADD INDEX idx_dca_province_field_unit (province, application_field, report_unit);
+
+-- selectProvinceStatsByApplicationField：WHERE application_field = ? GROUP BY province
+ALTER TABLE data_content_asset
+    ADD INDEX idx_dca_field_province (application_field, province);
+
+-- ---------------------------- report_unit ----------------------------
+-- 旧库（baseline-on-migrate接入）可能存在同名单位，添加唯一键前先合并：
+-- 保留每个名称id最小的一行，省份取保留行的值（为空时取重复行中的非空值），三个来源标记取并集，其余行删除。
+-- 此时资产表仍按名称关联上报单位（report_unit_id由V3添加），删除重复行不影响资产数据
+UPDATE report_unit ru
+    INNER JOIN (SELECT report_unit,
+                       MIN(id)                              AS keep_id,
+                       MAX(province)                        AS any_province,
+                       MAX(source_table_cyber_asset)        AS cyber_flag,
+                       MAX(source_table_data_content_asset) AS data_content_flag,
+                       MAX(source_table_software_asset)     AS software_flag
+                FROM report_unit
+                GROUP BY report_unit
+                HAVING COUNT(*) > 1) dup ON ru.id = dup.keep_id
+SET ru.province                        = COALESCE(ru.province, dup.any_province),
+    ru.source_table_cyber_asset        = dup.cyber_flag,
+    ru.source_table_data_content_asset = dup.data_content_flag,
+    ru.source_table_software_asset     = dup.software_flag;
+
+DELETE ru
+FROM report_unit ru
+    INNER JOIN (SELECT report_unit, MIN(id) AS keep_id
+                FROM report_unit
+                GROUP BY report_unit
+                HAVING COUNT(*) > 1) dup ON ru.report_unit = dup.report_unit AND ru.id <> dup.keep_id;
+
+-- selectByReportUnitName(s) 与三张资产表的 JOIN ON report_unit：单位名称唯一
+ALTER TABLE report_unit
+    ADD UNIQUE INDEX uk_report_unit (report_unit);
+
+-- selectReportUnitsByProvince / selectProvinceUnitStats：按省份过滤或分组
+ALTER TABLE report_unit
+    ADD INDEX idx_ru_province_unit (province, report_unit);
+
+-- ---------------------------- province ----------------------------
+-- 省份字典按名称查询，code不被其他表引用；同名省份只保留code最小的一行
+DELETE p
+FROM province p
+    INNER JOIN (SELECT name, MIN(code) AS keep_code
+                FROM province
+                GROUP BY name
+                HAVING COUNT(*) > 1) dup ON p.name = dup.name AND p.code <> dup.keep_code;
+
+-- selectByName：按省份名称查询
+ALTER TABLE province
+    ADD UNIQUE INDEX uk_province_name (name);
@@ -0,0 +1,39 @@
+-- =====================================================================
+-- V3 上报单位代理键：三张资产表新增 report_unit_id（INT）外键
+-- 目的：关联/分组由变长中文字符串改为4字节整数键
+-- 说明：
+--   1. report_unit 列保留（导入、展示及按名称查询仍然使用）
+--   2. 新增列允许为空：导入时先写资产行、后同步上报单位，再统一回填
+--   3. 上报单位记录仅在三张资产表均无数据时才会被删除，外键使用 ON DELETE SET NULL 兜底
+-- =====================================================================
+
+ALTER TABLE software_asset
+    ADD COLUMN report_unit_id INT NULL COMMENT '上报单位ID（report_unit.id）' AFTER report_unit;
+ALTER TABLE cyber_asset
+    ADD COLUMN report_unit_id INT NULL COMMENT '上报单位ID（report_unit.id）' AFTER report_unit;
+ALTER TABLE data_content_asset
+    ADD COLUMN report_unit_id INT NULL COMMENT '上报单位ID（report_unit.id）' AFTER report_unit;
+
+-- 按名称回填已有数据
+UPDATE software_asset sa JOIN report_unit ru ON sa.report_unit = ru.report_unit
+SET sa.report_unit_id = ru.id;
+UPDATE cyber_asset ca JOIN report_unit ru ON ca.report_unit = ru.report_unit
+SET ca.report_unit_id = ru.id;
+UPDATE data_content_asset dca JOIN report_unit ru ON dca.report_unit = ru.report_unit
+SET dca.report_unit_id = ru.id;
+
+-- 覆盖索引：aggregateProvinceUsageByAssetCategory（网信）；软件、数据内容资产的索引用于支撑外键
+-- （软件资产的组合索引由 V8 替换为单列索引，省份老化改用 V4 的 idx_sa_province_status_date_qty）
+ALTER TABLE software_asset
+    ADD INDEX idx_sa_unitid_status_date_qty (report_unit_id, service_status, put_into_use_date, actual_quantity);
+ALTER TABLE cyber_asset
+    ADD INDEX idx_ca_unitid_category_qty (report_unit_id, asset_category, used_quantity, actual_quantity);
+ALTER TABLE data_content_asset
+    ADD INDEX idx_dca_unitid (report_unit_id);
+
+ALTER TABLE software_asset
+    ADD CONSTRAINT fk_sa_report_unit FOREIGN KEY (report_unit_id) REFERENCES report_unit (id) ON DELETE SET NULL;
+ALTER TABLE cyber_asset
+    ADD CONSTRAINT fk_ca_report_unit FOREIGN KEY (report_unit_id) REFERENCES report_unit (id) ON DELETE SET NULL;
+ALTER TABLE data_content_asset
+    ADD CONSTRAINT fk_dca_report_unit FOREIGN KEY (report_unit_id) REFERENCES report_unit (id) ON DELETE SET NULL;
@@ -0,0 +1,42 @@
+-- =====================================================================
+-- V4 软件资产表冗余省市：software_asset 新增 province、city 列
+-- 目的：省份维度的软件资产统计只扫描事实表，不再关联 report_unit
+-- 说明：
+--   1. 省份与上报单位表保持一致，由 ProvinceAutoFillTool 在单位省份变更时同步
+--   2. 城市取同单位网信/数据资产的城市，无可用值时保留为空，由后续新增/修改补齐
+-- =====================================================================
+
+ALTER TABLE software_asset
+    ADD COLUMN province VARCHAR(50) NULL COMMENT '省份（冗余自上报单位表）' AFTER report_unit_id,
+    ADD COLUMN city     VARCHAR(50) NULL COMMENT '城市（冗余，按上报单位推导）' AFTER province;
+
+-- 按上报单位ID回填省份
+UPDATE software_asset sa JOIN report_unit ru ON sa.report_unit_id = ru.id
+SET sa.province = ru.province;
+
+-- 同单位网信资产的城市（省份一致时）优先，其次数据内容资产
+UPDATE software_asset sa
+    JOIN (SELECT report_unit, province, MIN(city) AS city
+          FROM cyber_asset
+          WHERE city IS NOT NULL AND city != ''
+          GROUP BY report_unit, province) ca
+    ON sa.report_unit = ca.report_unit AND sa.province = ca.province
+SET sa.city = ca.city;
+UPDATE software_asset sa
+    JOIN (SELECT report_unit, province, MIN(city) AS city
+          FROM data_content_asset
+          WHERE city IS NOT NULL AND city != ''
+          GROUP BY report_unit, province) dca
+    ON sa.report_unit = dca.report_unit AND sa.province = dca.province
+SET sa.city = dca.city
+WHERE sa.city IS NULL;
+
+-- selectProvinceSoftwareStats / selectSoftwareCountByProvince / selectSoftwareCategoryStatsByProvince
+ALTER TABLE software_asset
+    ADD INDEX idx_sa_province_category (province, asset_category);
+-- selectProvinceStatsByAssetCategory：WHERE asset_category = ? GROUP BY province
+ALTER TABLE software_asset
+    ADD INDEX idx_sa_category_province (asset_category, province);
+-- selectProvinceAgingTotals：按省份汇总服务状态、投入使用日期、实有数量（覆盖索引）
+ALTER TABLE software_asset
+    ADD INDEX idx_sa_province_status_date_qty (province, service_status, put_into_use_date, actual_quantity);
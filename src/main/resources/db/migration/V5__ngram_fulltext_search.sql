@@ -0,0 +1,28 @@
+-- =====================================================================
+-- V5 全文检索：联合查询中的模糊匹配字段改用 ngram FULLTEXT 索引
+-- 目的：'%关键词%' 前导通配无法使用B-tree索引，百万级数据下每次检索均为全表扫描；
+--       ngram 分词（默认 ngram_token_size=2）支持中文任意子串的短语匹配
+-- 说明：
+--   1. 查询侧由 FullTextSearchTool 生成 MATCH ... AGAINST('"关键词"' IN BOOLEAN MODE)，
+--      关键词短于 ngram_token_size 时仍退回 LIKE
+--   2. MATCH 的列必须与某个FULLTEXT索引的列完全一致，因此每个检索字段单独建索引
+--   3. InnoDB 每条 ALTER 只能新增一个 FULLTEXT 索引，故逐条执行
+-- =====================================================================
+
+-- ---------------------------- software_asset ----------------------------
+ALTER TABLE software_asset ADD FULLTEXT INDEX ft_sa_report_unit (report_unit) WITH PARSER ngram;
+ALTER TABLE software_asset ADD FULLTEXT INDEX ft_sa_category_code (category_code) WITH PARSER ngram;
+ALTER TABLE software_asset ADD FULLTEXT INDEX ft_sa_asset_category (asset_category) WITH PARSER ngram;
+ALTER TABLE software_asset ADD FULLTEXT INDEX ft_sa_inventory_unit (inventory_unit) WITH PARSER ngram;
+
+-- ---------------------------- cyber_asset ----------------------------
+ALTER TABLE cyber_asset ADD FULLTEXT INDEX ft_ca_report_unit (report_unit) WITH PARSER ngram;
+ALTER TABLE cyber_asset ADD FULLTEXT INDEX ft_ca_category_code (category_code) WITH PARSER ngram;
+ALTER TABLE cyber_asset ADD FULLTEXT INDEX ft_ca_asset_category (asset_category) WITH PARSER ngram;
+ALTER TABLE cyber_asset ADD FULLTEXT INDEX ft_ca_inventory_unit (inventory_unit) WITH PARSER ngram;
+
+-- ---------------------------- data_content_asset ----------------------------
+ALTER TABLE data_content_asset ADD FULLTEXT INDEX ft_dca_report_unit (report_unit) WITH PARSER ngram;
+ALTER TABLE data_content_asset ADD FULLTEXT INDEX ft_dca_application_field (application_field) WITH PARSER ngram;
+ALTER TABLE data_content_asset ADD FULLTEXT INDEX ft_dca_development_tool (development_tool) WITH PARSER ngram;
+ALTER TABLE data_content_asset ADD FULLTEXT INDEX ft_dca_inventory_unit (inventory_unit) WITH PARSER ngram;
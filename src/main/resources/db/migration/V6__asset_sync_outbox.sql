@@ -0,0 +1,27 @@
+-- =====================================================================
+-- V6 导入副作用发件箱：asset_sync_outbox
+-- 目的：导入事务只写资产行和发件箱事件，上报单位同步、跨表省市同步由后台分发器异步执行
+-- 说明：
+--   1. 事件与资产行同一事务提交，事务回滚则事件一并消失
+--   2. 分发器按id顺序认领（PENDING → PROCESSING），应用成功后删除；失败退避重试，超过次数置为FAILED
+--   3. 上报单位同步按实际数据重算状态、跨表同步为覆盖式UPDATE，重复应用结果不变
+-- =====================================================================
+
+CREATE TABLE IF NOT EXISTS asset_sync_outbox (
+    id                BIGINT       NOT NULL AUTO_INCREMENT COMMENT '主键（即应用顺序）',
+    event_type        VARCHAR(32)  NOT NULL COMMENT '事件类型：REPORT_UNIT_SYNC / CROSS_TABLE_SYNC',
+    asset_type        VARCHAR(20)  NOT NULL COMMENT '来源资产类型：software / cyber / dataContent',
+    report_unit       VARCHAR(150) NOT NULL COMMENT '上报单位',
+    province          VARCHAR(50)  NULL COMMENT '省份',
+    city              VARCHAR(50)  NULL COMMENT '城市',
+    status            VARCHAR(16)  NOT NULL DEFAULT 'PENDING' COMMENT '状态：PENDING / PROCESSING / FAILED',
+    attempts          INT          NOT NULL DEFAULT 0 COMMENT '已失败次数',
+    next_attempt_time DATETIME     NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '最早可重试时间',
+    claim_token       VARCHAR(36)  NULL COMMENT '认领批次标识',
+    claimed_time      DATETIME     NULL COMMENT '认领时间（超时未完成可被重新认领）',
+    last_error        VARCHAR(500) NULL COMMENT '最近一次失败原因',
+    created_time      DATETIME     NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    PRIMARY KEY (id),
+    KEY idx_aso_status_next (status, next_attempt_time),
+    KEY idx_aso_claim_token (claim_token)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4 COMMENT = '导入副作用发件箱';
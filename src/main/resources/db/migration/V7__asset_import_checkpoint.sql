@@ -0,0 +1,30 @@
+-- =====================================================================
+-- V7 可续传导入检查点：asset_import_checkpoint
+-- 目的：大文件导入中途失败（如第18万行写库出错）后无需重新上传，从最后提交的分块继续
+-- 说明：
+--   1. 上传文件按SHA-256存入本地内容寻址目录（file_hash），校验通过的行另存为可续读的暂存文件
+--   2. 每个分块的资产行与committed_rows（已提交的有效行数）在同一事务提交，二者始终一致
+--   3. 暂存表导入期间缓存的发件箱事件随分块一并保存（deferred_events），续传后发布时统一登记
+--   4. 状态：RUNNING / FAILED（可续传） / COMPLETED / ABANDONED（被新的导入取代或超过保留期）
+-- =====================================================================
+
+CREATE TABLE IF NOT EXISTS asset_import_checkpoint (
+    import_id       VARCHAR(36)  NOT NULL COMMENT '导入编号（续传接口参数）',
+    asset_type      VARCHAR(20)  NOT NULL COMMENT '资产类型：software / cyber / dataContent',
+    file_name       VARCHAR(255) NULL COMMENT '上传文件名',
+    file_hash       CHAR(64)     NOT NULL COMMENT '上传文件SHA-256（内容寻址存储的键）',
+    file_size       BIGINT       NOT NULL COMMENT '上传文件大小（字节）',
+    staged          TINYINT(1)   NOT NULL COMMENT '是否暂存表导入（1暂存表，0清空再导入）',
+    status          VARCHAR(16)  NOT NULL DEFAULT 'RUNNING' COMMENT '状态：RUNNING / FAILED / COMPLETED / ABANDONED',
+    valid_rows      INT          NULL COMMENT '校验通过的行数（解析完成后写入）',
+    error_rows      INT          NULL COMMENT '校验失败的行数（解析完成后写入）',
+    committed_rows  INT          NOT NULL DEFAULT 0 COMMENT '已提交的有效行数（续传起点）',
+    deferred_events LONGTEXT     NULL COMMENT '暂存表导入已提交分块缓存的发件箱事件（JSON）',
+    last_error      VARCHAR(500) NULL COMMENT '最近一次失败原因',
+    created_time    DATETIME     NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    updated_time    DATETIME     NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间（RUNNING超时视为实例中途退出）',
+    PRIMARY KEY (import_id),
+    KEY idx_aic_type_status (asset_type, status),
+    KEY idx_aic_file_hash (file_hash),
+    KEY idx_aic_status_updated (status, updated_time)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4 COMMENT = '可续传导入检查点';
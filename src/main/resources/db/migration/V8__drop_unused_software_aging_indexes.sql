@@ -0,0 +1,17 @@
+-- =====================================================================
+-- V8 删除软件资产表上无查询使用的老化索引
+-- 说明：
+--   1. idx_sa_unit_status_date_qty（V2）为已移除的省份老化明细查询建立，现无查询使用，只增加每次导入的写入开销
+--   2. idx_sa_unitid_status_date_qty（V3）同样只服务于该查询，但同时是 fk_sa_report_unit 外键所依赖的索引，
+--      先新增单列索引接替外键（与数据内容资产的 idx_dca_unitid 一致），再删除组合索引
+--   3. 省份老化统计 selectProvinceAgingTotals 使用 V4 的 idx_sa_province_status_date_qty
+-- =====================================================================
+
+ALTER TABLE software_asset
+    DROP INDEX idx_sa_unit_status_date_qty;
+
+ALTER TABLE software_asset
+    ADD INDEX idx_sa_unitid (report_unit_id);
+
+ALTER TABLE software_asset
+    DROP INDEX idx_sa_unitid_status_date_qty;
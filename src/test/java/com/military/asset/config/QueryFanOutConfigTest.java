@@ -0,0 +1,74 @@
+package com.military.asset.config;
+
+import com.military.asset.utils.QueryFanOut;
+import com.military.asset.utils.SqlStatementContext;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 平台线程池模式：等待队列有界，队列已满时子任务回到请求线程执行；
+ * 请求线程的SQL统计范围挂载到工作线程，子任务的语句计入该范围，回到请求线程执行时不重复计数
+ */
+class QueryFanOutConfigTest {
+
+    @Test
+    void platformExecutorHasBoundedQueueAndCallerRunsPolicy() {
+        ThreadPoolTaskExecutor executor = (ThreadPoolTaskExecutor) new QueryFanOutConfig().queryFanOutExecutor(false, 2, 4);
+        try {
+            ThreadPoolExecutor pool = executor.getThreadPoolExecutor();
+            assertEquals(4, pool.getQueue().remainingCapacity());
+            assertInstanceOf(ThreadPoolExecutor.CallerRunsPolicy.class, pool.getRejectedExecutionHandler());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void sqlScopeIsVisibleOnWorkerThreadsAndCountedOnce() throws Exception {
+        // 1个线程、队列长度1：第一个子任务占住线程，第二个排队，第三个在请求线程上执行
+        ThreadPoolTaskExecutor executor = (ThreadPoolTaskExecutor) new QueryFanOutConfig().queryFanOutExecutor(false, 1, 1);
+        QueryFanOut fanOut = new QueryFanOut(executor, 10_000);
+        Thread requestThread = Thread.currentThread();
+        CountDownLatch release = new CountDownLatch(1);
+        try (SqlStatementContext.Scope scope = SqlStatementContext.open("/api/test", 0, false);
+             QueryFanOut.Scope fanOutScope = fanOut.open()) {
+            QueryFanOut.Subtask<Thread> blocking = fanOutScope.fork(() -> {
+                assertTrue(release.await(10, TimeUnit.SECONDS));
+                return recordAndReturnThread(scope);
+            });
+            QueryFanOut.Subtask<Thread> queued = fanOutScope.fork(() -> recordAndReturnThread(scope));
+            QueryFanOut.Subtask<Thread> callerRuns = fanOutScope.fork(() -> recordAndReturnThread(scope));
+            release.countDown();
+
+            fanOutScope.join();
+
+            assertNotSame(requestThread, blocking.get());
+            assertNotSame(requestThread, queued.get());
+            assertSame(requestThread, callerRuns.get());
+            assertEquals(3, scope.getStatements());
+            assertSame(scope, SqlStatementContext.current(), "回到请求线程执行的子任务不应卸载请求自己的范围");
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * 模拟子任务执行一条SQL：确认当前线程上挂载的是请求的统计范围并记录一次
+     */
+    private static Thread recordAndReturnThread(SqlStatementContext.Scope expected) {
+        assertSame(expected, SqlStatementContext.current());
+        SqlStatementContext.record(1_000);
+        return Thread.currentThread();
+    }
+}
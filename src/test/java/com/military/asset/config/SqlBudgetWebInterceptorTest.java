@@ -0,0 +1,159 @@
+package com.military.asset.config;
+
+import com.military.asset.utils.SqlStatementContext;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.datasource.unpooled.UnpooledDataSource;
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.LocalCacheScope;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.apache.ibatis.transaction.jdbc.JdbcTransactionFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * SQL语句预算测试：接口执行的SQL超出@SqlBudget声明的条数时，失败模式下请求直接失败
+ * 语句经真实MyBatis会话（H2内存库）执行，由SqlStatementCountInterceptor计数，
+ * 与生产环境的计数路径一致
+ */
+class SqlBudgetWebInterceptorTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private SqlSession sqlSession;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+
+        UnpooledDataSource dataSource = new UnpooledDataSource(
+                "org.h2.Driver", "jdbc:h2:mem:sql_budget;DB_CLOSE_DELAY=-1", "sa", "");
+        Configuration configuration = new Configuration(
+                new Environment("test", new JdbcTransactionFactory(), dataSource));
+        configuration.addMapper(ProbeMapper.class);
+        configuration.addInterceptor(new SqlStatementCountInterceptor(meterRegistry));
+        // 关闭一级缓存，保证每次调用都真实执行SQL
+        configuration.setLocalCacheScope(LocalCacheScope.STATEMENT);
+        SqlSessionFactory sqlSessionFactory = new SqlSessionFactoryBuilder().build(configuration);
+        sqlSession = sqlSessionFactory.openSession(true);
+
+        mockMvc = MockMvcBuilders.standaloneSetup(new ProbeController(sqlSession.getMapper(ProbeMapper.class)))
+                .addInterceptors(new SqlBudgetWebInterceptor(meterRegistry, 0, true))
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        sqlSession.close();
+        assertNull(SqlStatementContext.current(), "请求结束后统计范围应已关闭");
+    }
+
+    @Test
+    void requestWithinBudgetSucceedsAndRecordsStatements() throws Exception {
+        mockMvc.perform(get("/probe").param("queries", "3"))
+                .andExpect(status().isOk());
+
+        assertEquals(3.0, meterRegistry.get("asset.sql.statements").counter().count());
+        assertEquals(3.0, meterRegistry.get("asset.sql.statements.per.request")
+                .tag("uri", "/probe").summary().totalAmount());
+        assertTrue(meterRegistry.find("asset.sql.budget.exceeded").counters().isEmpty());
+    }
+
+    @Test
+    void requestExceedingBudgetFails() {
+        Exception e = assertThrows(Exception.class,
+                () -> mockMvc.perform(get("/probe").param("queries", "4")));
+
+        assertTrue(hasCause(e, SqlStatementContext.SqlBudgetExceededException.class),
+                "超出预算应抛出SqlBudgetExceededException，实际：" + e);
+        // 第4条语句执行后即失败，不会继续执行后续语句
+        assertEquals(4.0, meterRegistry.get("asset.sql.statements").counter().count());
+        assertEquals(1.0, meterRegistry.get("asset.sql.budget.exceeded")
+                .tag("uri", "/probe").counter().count());
+    }
+
+    @Test
+    void nPlusOneLoopIsCaughtAtFirstExtraStatement() {
+        Exception e = assertThrows(Exception.class,
+                () -> mockMvc.perform(get("/probe").param("queries", "100")));
+
+        assertTrue(hasCause(e, SqlStatementContext.SqlBudgetExceededException.class));
+        assertEquals(4.0, meterRegistry.get("asset.sql.statements").counter().count());
+    }
+
+    @Test
+    void scopeFailsWhenBudgetExceededOutsideWebRequest() {
+        ProbeMapper mapper = sqlSession.getMapper(ProbeMapper.class);
+        try (SqlStatementContext.Scope scope = SqlStatementContext.open("importTask", 2, true)) {
+            mapper.selectOne();
+            mapper.selectOne();
+            Exception e = assertThrows(Exception.class, mapper::selectOne);
+            assertTrue(hasCause(e, SqlStatementContext.SqlBudgetExceededException.class));
+            assertEquals(3, scope.getStatements());
+            assertTrue(scope.isOverBudget());
+        }
+    }
+
+    @Test
+    void scopeOnlyReportsWhenFailModeDisabled() {
+        ProbeMapper mapper = sqlSession.getMapper(ProbeMapper.class);
+        try (SqlStatementContext.Scope scope = SqlStatementContext.open("importTask", 2, false)) {
+            for (int i = 0; i < 5; i++) {
+                mapper.selectOne();
+            }
+            assertEquals(5, scope.getStatements());
+            assertTrue(scope.isOverBudget());
+        }
+    }
+
+    private static boolean hasCause(Throwable e, Class<? extends Throwable> type) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (type.isInstance(t)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    interface ProbeMapper {
+
+        @Select("SELECT 1")
+        Integer selectOne();
+    }
+
+    @RestController
+    static class ProbeController {
+
+        private final ProbeMapper probeMapper;
+
+        ProbeController(ProbeMapper probeMapper) {
+            this.probeMapper = probeMapper;
+        }
+
+        @GetMapping("/probe")
+        @SqlBudget(maxStatements = 3)
+        public int probe(@RequestParam int queries) {
+            int sum = 0;
+            for (int i = 0; i < queries; i++) {
+                sum += probeMapper.selectOne();
+            }
+            return sum;
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package com.military.asset.controller;
+
+import com.alibaba.excel.EasyExcel;
+import com.military.asset.mapper.CyberAssetMapper;
+import com.military.asset.mapper.DataContentAssetMapper;
+import com.military.asset.mapper.ImportStagingMapper;
+import com.military.asset.mapper.SoftwareAssetMapper;
+import com.military.asset.service.CyberAssetService;
+import com.military.asset.service.DataContentAssetService;
+import com.military.asset.service.SoftwareAssetService;
+import com.military.asset.utils.AssetMetricsTool;
+import com.military.asset.utils.AssetSyncOutbox;
+import com.military.asset.utils.AssetWriteTracker;
+import com.military.asset.utils.ImportCheckpointTool;
+import com.military.asset.utils.ImportSpillSettings;
+import com.military.asset.utils.ImportStagingTool;
+import com.military.asset.vo.ResultVO;
+import com.military.asset.vo.excel.SoftwareAssetExcelVO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * 批量导入（zip）：解压总量超过上限时在开始任何导入前拒绝；
+ * 某类资产失败时整体失败——暂存模式下删除全部暂存表、不替换正式表，清空模式下正式表已清空无法回退，
+ * 两种模式下导入占用都会释放
+ */
+class AssetImportControllerBulkTest {
+
+    private static final long MAX_UNZIPPED_MB = 1;
+
+    private final SoftwareAssetService softwareAssetService = mock(SoftwareAssetService.class);
+    private final CyberAssetService cyberAssetService = mock(CyberAssetService.class);
+    private final DataContentAssetService dataContentAssetService = mock(DataContentAssetService.class);
+    private final ImportStagingMapper importStagingMapper = mock(ImportStagingMapper.class);
+
+    @TempDir
+    Path spillDirectory;
+
+    @Test
+    void rejectsZipBeyondUnzippedCapBeforeClearing() throws IOException {
+        AssetImportController controller = controller(tool(false));
+        Map<String, byte[]> entries = new LinkedHashMap<>();
+        // 单个文件均未超限，累计超过上限
+        entries.put("software.xlsx", new byte[600 * 1024]);
+        entries.put("cyber.xlsx", new byte[600 * 1024]);
+
+        ResultVO<?> result = controller.importBulk(zip(entries));
+
+        assertFailed(result, "压缩包解压后超过" + MAX_UNZIPPED_MB + "MB");
+        verify(softwareAssetService, never()).clearSoftwareTableAndResetStatus();
+        verify(cyberAssetService, never()).clearCyberTableAndResetStatus();
+    }
+
+    @Test
+    void clearModeFailureReportsErrorAndReleasesImportSlots() throws IOException {
+        ImportStagingTool tool = tool(false);
+        AssetImportController controller = controller(tool);
+
+        ResultVO<?> result = controller.importBulk(zip(softwareOkCyberBroken()));
+
+        assertFailed(result, "cyber.xlsx导入失败");
+        // 清空模式：各类型开始时即清空正式表，失败无法回退
+        verify(softwareAssetService).clearSoftwareTableAndResetStatus();
+        verify(cyberAssetService).clearCyberTableAndResetStatus();
+        verify(cyberAssetService, never()).batchSaveForImport(any());
+        assertSlotsReleased(tool);
+    }
+
+    @Test
+    void stagingModeFailureDropsStagingTablesWithoutSwap() throws IOException {
+        ImportStagingTool tool = tool(true);
+        AssetImportController controller = controller(tool);
+
+        ResultVO<?> result = controller.importBulk(zip(softwareOkCyberBroken()));
+
+        assertFailed(result, "cyber.xlsx导入失败");
+        assertWorkFilesDeleted();
+        verify(importStagingMapper, never()).swapTables(any());
+        verify(softwareAssetService, never()).clearSoftwareTableAndResetStatus();
+        // 开始时清理残留一次，失败收尾再删除一次
+        verify(importStagingMapper, times(2)).dropTableIfExists("software_asset_staging");
+        verify(importStagingMapper, times(2)).dropTableIfExists("cyber_asset_staging");
+        assertSlotsReleased(tool);
+    }
+
+    private static void assertFailed(ResultVO<?> result, String expectedMessage) {
+        assertEquals(500, result.getCode());
+        assertTrue(result.getMessage().contains(expectedMessage), result.getMessage());
+    }
+
+    /**
+     * 压缩包条目解压到暂存目录下的临时文件，导入结束后删除
+     */
+    private void assertWorkFilesDeleted() throws IOException {
+        try (Stream<Path> files = Files.list(spillDirectory)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    private static void assertSlotsReleased(ImportStagingTool tool) {
+        tool.begin("software", () -> { }).close();
+        tool.begin("cyber", () -> { }).close();
+    }
+
+    @Test
+    void rejectsEntryThatIsNotExcel() throws IOException {
+        AssetImportController controller = controller(tool(false));
+        Map<String, byte[]> entries = new LinkedHashMap<>();
+        entries.put("software.xlsx", "不是Excel文件".getBytes(StandardCharsets.UTF_8));
+
+        ResultVO<?> result = controller.importBulk(zip(entries));
+
+        // 不会被当作CSV读出0行而“成功”
+        assertFailed(result, "software.xlsx不是有效的Excel文件");
+        verify(softwareAssetService, never()).batchSaveForImport(any());
+    }
+
+    @Test
+    void rejectsWorkbookWithoutHeader() throws IOException {
+        AssetImportController controller = controller(tool(false));
+        ByteArrayOutputStream workbook = new ByteArrayOutputStream();
+        EasyExcel.write(workbook).sheet("软件").doWrite(new ArrayList<>());
+        Map<String, byte[]> entries = new LinkedHashMap<>();
+        entries.put("software.xlsx", workbook.toByteArray());
+
+        ResultVO<?> result = controller.importBulk(zip(entries));
+
+        assertFailed(result, "software.xlsx缺少表头");
+    }
+
+    /**
+     * 软件为只有表头、没有数据行的有效Excel，网信文件内容损坏
+     */
+    private static Map<String, byte[]> softwareOkCyberBroken() {
+        ByteArrayOutputStream workbook = new ByteArrayOutputStream();
+        EasyExcel.write(workbook, SoftwareAssetExcelVO.class).sheet("软件").doWrite(new ArrayList<>());
+        Map<String, byte[]> entries = new LinkedHashMap<>();
+        entries.put("software.xlsx", workbook.toByteArray());
+        entries.put("cyber.xlsx", "不是Excel文件".getBytes(StandardCharsets.UTF_8));
+        return entries;
+    }
+
+    private static MockMultipartFile zip(Map<String, byte[]> entries) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(bytes)) {
+            for (Map.Entry<String, byte[]> entry : entries.entrySet()) {
+                zip.putNextEntry(new ZipEntry(entry.getKey()));
+                zip.write(entry.getValue());
+                zip.closeEntry();
+            }
+        }
+        return new MockMultipartFile("file", "bulk.zip", "application/zip", bytes.toByteArray());
+    }
+
+    private ImportStagingTool tool(boolean stagingSwap) {
+        return new ImportStagingTool(importStagingMapper, mock(SoftwareAssetMapper.class),
+                mock(CyberAssetMapper.class), mock(DataContentAssetMapper.class), mock(AssetSyncOutbox.class),
+                mock(AssetWriteTracker.class), mock(PlatformTransactionManager.class), stagingSwap);
+    }
+
+    private AssetImportController controller(ImportStagingTool importStagingTool) {
+        AssetImportController controller = new AssetImportController();
+        ReflectionTestUtils.setField(controller, "softwareAssetService", softwareAssetService);
+        ReflectionTestUtils.setField(controller, "cyberAssetService", cyberAssetService);
+        ReflectionTestUtils.setField(controller, "dataContentAssetService", dataContentAssetService);
+        ReflectionTestUtils.setField(controller, "assetMetricsTool", new AssetMetricsTool(new SimpleMeterRegistry()));
+        ReflectionTestUtils.setField(controller, "importStagingTool", importStagingTool);
+        // 同步执行，各类型按软件、网信、数据内容的顺序依次导入
+        ReflectionTestUtils.setField(controller, "bulkImportExecutor", new TaskExecutorAdapter(Runnable::run));
+        ReflectionTestUtils.setField(controller, "importSpillSettings", new ImportSpillSettings(false, spillDirectory.toString(), 5000));
+        ReflectionTestUtils.setField(controller, "importCheckpointTool", mock(ImportCheckpointTool.class));
+        ReflectionTestUtils.setField(controller, "bulkMaxUnzippedMb", MAX_UNZIPPED_MB);
+        return controller;
+    }
+}
@@ -0,0 +1,84 @@
+package com.military.asset.controller;
+
+import com.military.asset.utils.TemplateFileCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 模板下载的条件请求：首次下载带ETag、Last-Modified与Cache-Control；If-None-Match或If-Modified-Since命中时返回304且不输出内容
+ */
+class AssetImportControllerTemplateTest {
+
+    private final TemplateFileCache templateFileCache = new TemplateFileCache(600);
+    private AssetImportController controller;
+    private TemplateFileCache.CachedTemplate template;
+
+    @BeforeEach
+    void setUp() {
+        controller = new AssetImportController();
+        ReflectionTestUtils.setField(controller, "templateFileCache", templateFileCache);
+        template = templateFileCache.get("templates/software_asset_template.xlsx");
+    }
+
+    @Test
+    void unconditionalRequestReturnsTemplateWithValidators() throws IOException {
+        MockHttpServletResponse response = download(new MockHttpServletRequest("GET", "/api/asset/import/template/software"));
+
+        assertEquals(200, response.getStatus());
+        assertEquals(template.getETag(), response.getHeader(HttpHeaders.ETAG));
+        assertEquals(template.getLastModified(), response.getDateHeader(HttpHeaders.LAST_MODIFIED));
+        assertEquals("max-age=600, must-revalidate, public", response.getHeader(HttpHeaders.CACHE_CONTROL));
+        assertEquals(template.getLength(), response.getContentLengthLong());
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        template.writeTo(expected);
+        assertArrayEquals(expected.toByteArray(), response.getContentAsByteArray());
+    }
+
+    @Test
+    void matchingETagReturnsNotModifiedWithoutBody() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/asset/import/template/software");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, template.getETag());
+
+        MockHttpServletResponse response = download(request);
+
+        assertEquals(304, response.getStatus());
+        assertEquals(0, response.getContentAsByteArray().length);
+        assertEquals(template.getETag(), response.getHeader(HttpHeaders.ETAG));
+    }
+
+    @Test
+    void staleETagReturnsFullTemplate() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/asset/import/template/software");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"00000000000000000000000000000000\"");
+
+        MockHttpServletResponse response = download(request);
+
+        assertEquals(200, response.getStatus());
+        assertTrue(response.getContentAsByteArray().length > 0);
+    }
+
+    @Test
+    void unchangedSinceLastModifiedReturnsNotModified() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/asset/import/template/software");
+        request.addHeader(HttpHeaders.IF_MODIFIED_SINCE, template.getLastModified());
+
+        assertEquals(304, download(request).getStatus());
+    }
+
+    private MockHttpServletResponse download(MockHttpServletRequest request) {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        controller.downloadSoftwareTemplate(request, response);
+        return response;
+    }
+}
@@ -0,0 +1,139 @@
+package com.military.asset.mapper;
+
+import com.military.asset.entity.AssetImportCheckpoint;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * 可续传导入检查点的条件更新：续传认领、失败结束与新导入放弃之间互不覆盖
+ */
+class AssetImportCheckpointMapperTest extends MySqlMigrationSupport {
+
+    private static final long STALE_SECONDS = 600;
+
+    private static SqlSessionFactory sqlSessionFactory;
+
+    private SqlSession sqlSession;
+    private AssetImportCheckpointMapper mapper;
+
+    @BeforeAll
+    static void createSessionFactory() throws Exception {
+        sqlSessionFactory = sqlSessionFactory("mapper/AssetImportCheckpointMapper.xml");
+    }
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        execute("DELETE FROM asset_import_checkpoint");
+        sqlSession = sqlSessionFactory.openSession(true);
+        mapper = sqlSession.getMapper(AssetImportCheckpointMapper.class);
+    }
+
+    @AfterEach
+    void tearDown() {
+        sqlSession.close();
+    }
+
+    @Test
+    void failIfRunningRecordsStatusAndError() {
+        String importId = insertCheckpoint("software", AssetImportCheckpoint.STATUS_RUNNING);
+
+        assertEquals(1, mapper.failIfRunning(importId, AssetImportCheckpoint.STATUS_FAILED, "写库失败"));
+
+        AssetImportCheckpoint checkpoint = mapper.selectById(importId);
+        assertEquals(AssetImportCheckpoint.STATUS_FAILED, checkpoint.getStatus());
+        assertEquals("写库失败", checkpoint.getLastError());
+    }
+
+    /**
+     * 导入期间同类资产开始了新的全量导入：旧检查点已放弃，失败时不能改回FAILED
+     */
+    @Test
+    void failIfRunningKeepsCheckpointAbandonedByNewImport() {
+        String importId = insertCheckpoint("cyber", AssetImportCheckpoint.STATUS_RUNNING);
+        assertEquals(1, mapper.abandonUnfinished("cyber"));
+
+        assertEquals(0, mapper.failIfRunning(importId, AssetImportCheckpoint.STATUS_FAILED, "写库失败"));
+
+        AssetImportCheckpoint checkpoint = mapper.selectById(importId);
+        assertEquals(AssetImportCheckpoint.STATUS_ABANDONED, checkpoint.getStatus());
+        assertNull(checkpoint.getLastError());
+    }
+
+    @Test
+    void claimForResumeClaimsFailedCheckpointOnce() {
+        String importId = insertCheckpoint("software", AssetImportCheckpoint.STATUS_FAILED);
+
+        assertEquals(1, mapper.claimForResume(importId, STALE_SECONDS));
+        assertEquals(0, mapper.claimForResume(importId, STALE_SECONDS), "续传进行中不应被再次认领");
+        assertEquals(AssetImportCheckpoint.STATUS_RUNNING, mapper.selectById(importId).getStatus());
+    }
+
+    @Test
+    void claimForResumeReclaimsOnlyStaleRunningCheckpoint() throws SQLException {
+        String importId = insertCheckpoint("dataContent", AssetImportCheckpoint.STATUS_RUNNING);
+        assertEquals(0, mapper.claimForResume(importId, STALE_SECONDS));
+
+        execute("UPDATE asset_import_checkpoint SET updated_time = NOW() - INTERVAL " + (STALE_SECONDS + 1)
+                + " SECOND WHERE import_id = '" + importId + "'");
+
+        assertEquals(1, mapper.claimForResume(importId, STALE_SECONDS));
+    }
+
+    /**
+     * 解析阶段没有分块提交：心跳刷新updated_time后，运行中的导入不会被当作中断认领
+     */
+    @Test
+    void touchKeepsRunningCheckpointFromBeingClaimed() throws SQLException {
+        String running = insertCheckpoint("software", AssetImportCheckpoint.STATUS_RUNNING);
+        String failed = insertCheckpoint("cyber", AssetImportCheckpoint.STATUS_FAILED);
+        execute("UPDATE asset_import_checkpoint SET updated_time = NOW() - INTERVAL " + (STALE_SECONDS + 1) + " SECOND");
+
+        assertEquals(1, mapper.touch(List.of(running, failed)), "只刷新RUNNING的检查点");
+
+        assertEquals(0, mapper.claimForResume(running, STALE_SECONDS));
+        assertEquals(1, mapper.claimForResume(failed, STALE_SECONDS));
+    }
+
+    @Test
+    void claimForResumeRejectsFinishedCheckpoints() {
+        String completed = insertCheckpoint("software", AssetImportCheckpoint.STATUS_COMPLETED);
+        String abandoned = insertCheckpoint("software", AssetImportCheckpoint.STATUS_ABANDONED);
+
+        assertEquals(0, mapper.claimForResume(completed, STALE_SECONDS));
+        assertEquals(0, mapper.claimForResume(abandoned, STALE_SECONDS));
+    }
+
+    private String insertCheckpoint(String assetType, String status) {
+        AssetImportCheckpoint checkpoint = new AssetImportCheckpoint();
+        checkpoint.setImportId(UUID.randomUUID().toString());
+        checkpoint.setAssetType(assetType);
+        checkpoint.setFileName("导入.xlsx");
+        checkpoint.setFileHash("0".repeat(64));
+        checkpoint.setFileSize(1024L);
+        checkpoint.setStaged(true);
+        checkpoint.setStatus(status);
+        checkpoint.setCommittedRows(0);
+        assertEquals(1, mapper.insert(checkpoint));
+        return checkpoint.getImportId();
+    }
+
+    private static void execute(String sql) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+}
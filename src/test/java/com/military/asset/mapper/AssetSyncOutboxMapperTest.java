@@ -0,0 +1,246 @@
+package com.military.asset.mapper;
+
+import com.military.asset.entity.AssetSyncOutboxEvent;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 发件箱认领、失败退避、放回的SQL（MySQL方言：UPDATE ... ORDER BY LIMIT、INTERVAL、按书写顺序赋值）
+ */
+class AssetSyncOutboxMapperTest extends MySqlMigrationSupport {
+
+    private static final long CLAIM_TIMEOUT_SECONDS = 300;
+    private static final int MAX_ATTEMPTS = 3;
+
+    private static SqlSessionFactory sqlSessionFactory;
+
+    private SqlSession sqlSession;
+    private AssetSyncOutboxMapper mapper;
+
+    @BeforeAll
+    static void createSessionFactory() throws Exception {
+        sqlSessionFactory = sqlSessionFactory("mapper/AssetSyncOutboxMapper.xml");
+    }
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        execute("DELETE FROM asset_sync_outbox");
+        sqlSession = sqlSessionFactory.openSession(true);
+        mapper = sqlSession.getMapper(AssetSyncOutboxMapper.class);
+    }
+
+    @AfterEach
+    void tearDown() {
+        sqlSession.close();
+    }
+
+    @Test
+    void claimBatchClaimsDueEventsInIdOrderUpToLimit() throws SQLException {
+        List<Long> ids = insertEvents(5);
+
+        assertEquals(3, mapper.claimBatch("token-1", 3, CLAIM_TIMEOUT_SECONDS));
+
+        List<AssetSyncOutboxEvent> claimed = mapper.selectClaimed("token-1");
+        assertEquals(ids.subList(0, 3), claimed.stream().map(AssetSyncOutboxEvent::getId).toList());
+        assertEquals("单位1", claimed.get(0).getReportUnit());
+        assertEquals(0, claimed.get(0).getAttempts());
+        // 本批应用完成（删除）后，下一批从第4条开始
+        mapper.deleteBatchIds(ids.subList(0, 3));
+        assertEquals(2, mapper.claimBatch("token-2", 10, CLAIM_TIMEOUT_SECONDS));
+        assertEquals(ids.subList(3, 5), mapper.selectClaimed("token-2").stream().map(AssetSyncOutboxEvent::getId).toList());
+        // 已认领且未超时的事件不会被再次认领
+        assertEquals(0, mapper.claimBatch("token-3", 10, CLAIM_TIMEOUT_SECONDS));
+    }
+
+    @Test
+    void claimBatchReclaimsTimedOutProcessingEvents() throws SQLException {
+        List<Long> ids = insertEvents(2);
+        assertEquals(2, mapper.claimBatch("crashed", 10, CLAIM_TIMEOUT_SECONDS));
+        execute("UPDATE asset_sync_outbox SET claimed_time = NOW() - INTERVAL 301 SECOND");
+
+        assertEquals(2, mapper.claimBatch("token-1", 10, CLAIM_TIMEOUT_SECONDS));
+        assertEquals(ids, mapper.selectClaimed("token-1").stream().map(AssetSyncOutboxEvent::getId).toList());
+        assertTrue(mapper.selectClaimed("crashed").isEmpty());
+    }
+
+    @Test
+    void markFailedBacksOffAndCountsAttempts() throws SQLException {
+        List<Long> ids = insertEvents(1);
+        mapper.claimBatch("token-1", 10, CLAIM_TIMEOUT_SECONDS);
+
+        assertEquals(1, mapper.markFailed(ids, "x".repeat(600), MAX_ATTEMPTS));
+
+        OutboxRow row = row(ids.get(0));
+        assertEquals("PENDING", row.status());
+        assertEquals(1, row.attempts());
+        assertNull(row.claimToken());
+        assertNull(row.claimedTime());
+        assertEquals(500, row.lastError().length());
+        // 第1次失败退避2^1秒
+        assertTrue(row.backoffSeconds() >= 1 && row.backoffSeconds() <= 2, "退避秒数：" + row.backoffSeconds());
+        assertEquals(0, mapper.claimBatch("token-2", 10, CLAIM_TIMEOUT_SECONDS), "退避期间不应被认领");
+    }
+
+    @Test
+    void markFailedDeadLettersAfterMaxAttempts() throws SQLException {
+        List<Long> ids = insertEvents(1);
+        for (int attempt = 1; attempt <= MAX_ATTEMPTS; attempt++) {
+            makeDue();
+            assertEquals(1, mapper.claimBatch("token-" + attempt, 10, CLAIM_TIMEOUT_SECONDS));
+            mapper.markFailed(ids, "失败" + attempt, MAX_ATTEMPTS);
+            OutboxRow row = row(ids.get(0));
+            assertEquals(attempt, row.attempts());
+            assertEquals(attempt < MAX_ATTEMPTS ? "PENDING" : "FAILED",
+                    row.status());
+        }
+        makeDue();
+        assertEquals(0, mapper.claimBatch("token-final", 10, CLAIM_TIMEOUT_SECONDS));
+    }
+
+    @Test
+    void releaseReturnsEventsWithoutCountingAttempts() throws SQLException {
+        List<Long> ids = insertEvents(2);
+        mapper.claimBatch("token-1", 10, CLAIM_TIMEOUT_SECONDS);
+
+        assertEquals(2, mapper.release(ids));
+
+        for (Long id : ids) {
+            OutboxRow row = row(id);
+            assertEquals("PENDING", row.status());
+            assertEquals(0, row.attempts());
+            assertNull(row.claimToken());
+            assertNull(row.claimedTime());
+        }
+        assertEquals(2, mapper.claimBatch("token-2", 10, CLAIM_TIMEOUT_SECONDS));
+    }
+
+    /**
+     * 分发器某段失败时：失败段markFailed退避，其后的事件release放回。
+     * 退避期间后续事件不能越过失败事件先被应用，否则失败的旧跨表UPDATE重试时会覆盖新的省市
+     */
+    @Test
+    void releasedEventsStayBehindFailedEventUntilItIsDue() throws SQLException {
+        List<Long> ids = insertEvents(4);
+        assertEquals(4, mapper.claimBatch("token-1", 10, CLAIM_TIMEOUT_SECONDS));
+        mapper.markFailed(ids.subList(1, 2), "跨表同步失败", MAX_ATTEMPTS);
+        mapper.release(ids.subList(2, 4));
+        mapper.deleteBatchIds(ids.subList(0, 1));
+
+        assertEquals(0, mapper.claimBatch("token-2", 10, CLAIM_TIMEOUT_SECONDS), "失败事件退避期间，其后的事件不应被认领");
+
+        makeDue();
+        assertEquals(3, mapper.claimBatch("token-3", 10, CLAIM_TIMEOUT_SECONDS));
+        assertEquals(ids.subList(1, 4), mapper.selectClaimed("token-3").stream().map(AssetSyncOutboxEvent::getId).toList());
+    }
+
+    @Test
+    void eventsAfterInFlightBatchWaitForIt() throws SQLException {
+        List<Long> ids = insertEvents(2);
+        assertEquals(1, mapper.claimBatch("token-1", 1, CLAIM_TIMEOUT_SECONDS));
+        List<Long> later = insertEvents(1);
+
+        // 第1批仍在处理中（认领未超时）：第2条及之后新登记的事件都在屏障之后
+        assertEquals(0, mapper.claimBatch("token-2", 10, CLAIM_TIMEOUT_SECONDS));
+
+        mapper.deleteBatchIds(ids.subList(0, 1));
+        assertEquals(2, mapper.claimBatch("token-3", 10, CLAIM_TIMEOUT_SECONDS));
+        assertEquals(List.of(ids.get(1), later.get(0)),
+                mapper.selectClaimed("token-3").stream().map(AssetSyncOutboxEvent::getId).toList());
+    }
+
+    @Test
+    void deadLetteredEventDoesNotBlockLaterEvents() throws SQLException {
+        List<Long> ids = insertEvents(2);
+        execute("UPDATE asset_sync_outbox SET status = 'FAILED', attempts = " + MAX_ATTEMPTS + " WHERE id = " + ids.get(0));
+
+        assertEquals(1, mapper.claimBatch("token-1", 10, CLAIM_TIMEOUT_SECONDS));
+        assertEquals(ids.subList(1, 2), mapper.selectClaimed("token-1").stream().map(AssetSyncOutboxEvent::getId).toList());
+    }
+
+    private List<Long> insertEvents(int count) throws SQLException {
+        List<AssetSyncOutboxEvent> events = new ArrayList<>();
+        long existing = countRows();
+        for (int i = 1; i <= count; i++) {
+            AssetSyncOutboxEvent event = new AssetSyncOutboxEvent();
+            event.setEventType(AssetSyncOutboxEvent.CROSS_TABLE_SYNC);
+            event.setAssetType("cyber");
+            event.setReportUnit("单位" + (existing + i));
+            event.setProvince("北京市");
+            event.setCity("北京市");
+            events.add(event);
+        }
+        assertEquals(count, mapper.insertBatch(events));
+        List<Long> ids = new ArrayList<>();
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(
+                     "SELECT id FROM asset_sync_outbox ORDER BY id DESC LIMIT ?")) {
+            statement.setInt(1, count);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    ids.add(0, resultSet.getLong(1));
+                }
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * 退避到期：把所有事件的最早重试时间拨到当前之前
+     */
+    private static void makeDue() throws SQLException {
+        execute("UPDATE asset_sync_outbox SET next_attempt_time = NOW() - INTERVAL 1 SECOND");
+    }
+
+    private static long countRows() throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT COUNT(*) FROM asset_sync_outbox")) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+
+    private static OutboxRow row(long id) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(
+                     "SELECT status, attempts, claim_token, claimed_time, last_error, "
+                             + "TIMESTAMPDIFF(SECOND, NOW(), next_attempt_time) AS backoff "
+                             + "FROM asset_sync_outbox WHERE id = ?")) {
+            statement.setLong(1, id);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                assertTrue(resultSet.next(), "事件不存在：" + id);
+                return new OutboxRow(resultSet.getString("status"), resultSet.getInt("attempts"),
+                        resultSet.getString("claim_token"), resultSet.getTimestamp("claimed_time"),
+                        resultSet.getString("last_error"), resultSet.getLong("backoff"));
+            }
+        }
+    }
+
+    private static void execute(String sql) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    private record OutboxRow(String status, int attempts, String claimToken, Timestamp claimedTime,
+                             String lastError, long backoffSeconds) {
+    }
+}
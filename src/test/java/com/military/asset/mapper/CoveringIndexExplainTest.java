@@ -0,0 +1,195 @@
+package com.military.asset.mapper;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 覆盖索引校验：对热点统计查询执行EXPLAIN，断言命中V2~V4建立的组合索引且只扫描索引（Extra含Using index）
+ * 查询语句与对应Mapper XML中的SQL保持一致，修改SQL或索引时须同步更新本测试
+ */
+class CoveringIndexExplainTest extends MySqlMigrationSupport {
+
+    private static final int UNIT_COUNT = 50;
+
+    @BeforeAll
+    static void seed() throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("INSERT INTO report_unit (report_unit, province) "
+                    + "WITH RECURSIVE seq(n) AS (SELECT 1 UNION ALL SELECT n + 1 FROM seq WHERE n < " + UNIT_COUNT + ") "
+                    + "SELECT CONCAT('单位', n), ELT(n % 5 + 1, '北京市', '河北省', '山东省', '广东省', '四川省') FROM seq");
+            statement.execute("INSERT INTO software_asset (id, report_unit, report_unit_id, province, category_code, "
+                    + "asset_category, asset_name, acquisition_method, deployment_scope, actual_quantity, unit, "
+                    + "service_status, put_into_use_date, inventory_unit) "
+                    + "WITH RECURSIVE seq(n) AS (SELECT 1 UNION ALL SELECT n + 1 FROM seq WHERE n < 1000) "
+                    + "SELECT CONCAT('SA', n), ru.report_unit, ru.id, ru.province, 'C01', "
+                    + "ELT(n % 4 + 1, '操作系统', '数据库', '中间件', '办公软件'), CONCAT('软件', n), "
+                    + "ELT(n % 4 + 1, '购置', '自主开发', '合作开发', '其他'), '全军', n % 7 + 1, '套', "
+                    + "ELT(n % 4 + 1, '在用', '闲置', '报废', '封闭'), DATE_SUB('2024-01-01', INTERVAL n DAY), '盘点单位' "
+                    + "FROM seq JOIN report_unit ru ON ru.id = n % " + UNIT_COUNT + " + 1");
+            statement.execute("INSERT INTO cyber_asset (id, report_unit, report_unit_id, province, category_code, "
+                    + "asset_category, asset_name, asset_content, actual_quantity, unit, used_quantity, "
+                    + "put_into_use_date, inventory_unit) "
+                    + "WITH RECURSIVE seq(n) AS (SELECT 1 UNION ALL SELECT n + 1 FROM seq WHERE n < 1000) "
+                    + "SELECT CONCAT('CA', n), ru.report_unit, ru.id, ru.province, 'C02', "
+                    + "ELT(n % 4 + 1, '固定电话', '移动电话', '服务器', '交换机'), CONCAT('网信', n), '内容', "
+                    + "n % 9 + 1, '台', n % 5, DATE_SUB('2024-01-01', INTERVAL n DAY), '盘点单位' "
+                    + "FROM seq JOIN report_unit ru ON ru.id = n % " + UNIT_COUNT + " + 1");
+            statement.execute("INSERT INTO data_content_asset (id, report_unit, report_unit_id, province, category_code, "
+                    + "asset_category, asset_name, application_field, development_tool, actual_quantity, unit, "
+                    + "update_cycle, inventory_unit) "
+                    + "WITH RECURSIVE seq(n) AS (SELECT 1 UNION ALL SELECT n + 1 FROM seq WHERE n < 1000) "
+                    + "SELECT CONCAT('DA', n), ru.report_unit, ru.id, ru.province, 'C03', '数据库', CONCAT('数据', n), "
+                    + "ELT(n % 4 + 1, '作战', '训练', '保障', '管理'), '工具', n % 3 + 1, '个', "
+                    + "ELT(n % 3 + 1, '实时', '每日', '每月'), '盘点单位' "
+                    + "FROM seq JOIN report_unit ru ON ru.id = n % " + UNIT_COUNT + " + 1");
+            statement.execute("ANALYZE TABLE report_unit, software_asset, cyber_asset, data_content_asset");
+        }
+    }
+
+    /**
+     * SoftwareAssetStatisticsMapper.selectStatistics：全表按上报单位分组，只扫描组合索引
+     */
+    @Test
+    void softwareStatisticsUsesCoveringIndex() throws SQLException {
+        ExplainRow row = explainTable("SELECT report_unit, SUM(COALESCE(actual_quantity, 0)), "
+                + "SUM(CASE WHEN acquisition_method = '购置' THEN COALESCE(actual_quantity, 0) ELSE 0 END), "
+                + "SUM(CASE WHEN service_status = '在用' THEN COALESCE(actual_quantity, 0) ELSE 0 END) "
+                + "FROM software_asset GROUP BY report_unit ORDER BY report_unit", "software_asset");
+
+        assertEquals("idx_sa_unit_acq_status_qty", row.key());
+        assertCovering(row);
+    }
+
+    /**
+     * SoftwareAssetMapper.selectProvinceStatsByAssetCategory：按资产分类过滤、按省份分组
+     */
+    @Test
+    void softwareProvinceStatsByCategoryUsesCoveringIndex() throws SQLException {
+        ExplainRow row = explainTable("SELECT COALESCE(province, '未知') AS province, COUNT(*) AS count "
+                + "FROM software_asset WHERE asset_category = '数据库' GROUP BY province ORDER BY count DESC",
+                "software_asset");
+
+        assertEquals("idx_sa_category_province", row.key());
+        assertCovering(row);
+    }
+
+    /**
+     * SoftwareAssetStatisticsMapper.selectProvinceAgingTotals：按省份汇总服务状态、投入使用日期、实有数量
+     */
+    @Test
+    void softwareProvinceAgingTotalsUsesCoveringIndex() throws SQLException {
+        ExplainRow row = explainTable("SELECT province, "
+                + "SUM(CASE WHEN service_status = '在用' AND actual_quantity > 0 THEN actual_quantity ELSE 0 END), "
+                + "SUM(CASE WHEN service_status = '在用' AND actual_quantity > 0 AND put_into_use_date < '2019-01-01' "
+                + "THEN actual_quantity ELSE 0 END), "
+                + "SUM(CASE WHEN NOT (service_status <=> '在用') AND actual_quantity > 0 THEN actual_quantity ELSE 0 END), "
+                + "SUM(CASE WHEN NOT (service_status <=> '在用') AND actual_quantity > 0 AND put_into_use_date < '2019-01-01' "
+                + "THEN actual_quantity ELSE 0 END) "
+                + "FROM software_asset GROUP BY province", "software_asset");
+
+        assertEquals("idx_sa_province_status_date_qty", row.key());
+        assertCovering(row);
+    }
+
+    /**
+     * CyberAssetMapper.sumPhoneNumberQuantityByCategory：单位等值 + 分类IN，累加实有数量
+     */
+    @Test
+    void cyberPhoneNumberSumUsesCoveringIndex() throws SQLException {
+        ExplainRow row = explainTable("SELECT asset_category, SUM(COALESCE(actual_quantity, 0)) "
+                + "FROM cyber_asset WHERE report_unit = '单位1' AND asset_category IN ('固定电话', '移动电话') "
+                + "GROUP BY asset_category", "cyber_asset");
+
+        assertEquals("idx_ca_unit_category_qty", row.key());
+        assertCovering(row);
+    }
+
+    /**
+     * CyberAssetMapper.aggregateProvinceUsageByAssetCategory：按省份关联上报单位，经整数外键读取资产表
+     */
+    @Test
+    void cyberProvinceUsageAggregationUsesCoveringIndex() throws SQLException {
+        List<ExplainRow> rows = explain("SELECT ca.report_unit, ca.asset_category, "
+                + "SUM(ca.used_quantity), SUM(ca.actual_quantity) "
+                + "FROM cyber_asset ca INNER JOIN report_unit ru ON ca.report_unit_id = ru.id "
+                + "WHERE ru.province = '北京市' "
+                + "GROUP BY ca.report_unit_id, ca.report_unit, ca.asset_category");
+
+        ExplainRow unit = find(rows, "ru");
+        assertEquals("idx_ru_province_unit", unit.key());
+        ExplainRow asset = find(rows, "ca");
+        assertNotNull(asset.key(), "网信资产表应按report_unit_id走索引：" + asset);
+        assertTrue(asset.key().startsWith("idx_ca_unit"), "网信资产表应使用上报单位组合索引：" + asset);
+    }
+
+    /**
+     * DataContentAssetMapper.selectProvinceStatsByApplicationField：按应用领域过滤、按省份分组
+     */
+    @Test
+    void dataContentProvinceStatsByFieldUsesCoveringIndex() throws SQLException {
+        ExplainRow row = explainTable("SELECT COALESCE(province, '未知') AS province, COUNT(*) AS count "
+                + "FROM data_content_asset WHERE application_field = '作战' GROUP BY province ORDER BY count DESC",
+                "data_content_asset");
+
+        assertEquals("idx_dca_field_province", row.key());
+        assertCovering(row);
+    }
+
+    /**
+     * countByReportUnit等按单位计数：使用上报单位最左前缀，不回表
+     */
+    @Test
+    void countByReportUnitUsesIndexPrefix() throws SQLException {
+        ExplainRow row = explainTable("SELECT COUNT(*) FROM data_content_asset WHERE report_unit = '单位1'",
+                "data_content_asset");
+
+        assertEquals("idx_dca_unit_field_cycle_qty", row.key());
+        assertEquals("ref", row.type());
+        assertCovering(row);
+    }
+
+    private static void assertCovering(ExplainRow row) {
+        assertNotNull(row.extra(), "EXPLAIN缺少Extra列：" + row);
+        assertTrue(row.extra().contains("Using index"), "应只扫描索引（Using index）：" + row);
+    }
+
+    private static ExplainRow explainTable(String sql, String table) throws SQLException {
+        return find(explain(sql), table);
+    }
+
+    private static ExplainRow find(List<ExplainRow> rows, String table) {
+        return rows.stream()
+                .filter(row -> table.equals(row.table()))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("EXPLAIN结果中没有表" + table + "：" + rows));
+    }
+
+    private static List<ExplainRow> explain(String sql) throws SQLException {
+        List<ExplainRow> rows = new ArrayList<>();
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql);
+             ResultSet resultSet = statement.executeQuery()) {
+            while (resultSet.next()) {
+                rows.add(new ExplainRow(resultSet.getString("table"), resultSet.getString("type"),
+                        resultSet.getString("key"), resultSet.getString("Extra")));
+            }
+        }
+        return rows;
+    }
+
+    private record ExplainRow(String table, String type, String key, String extra) {
+    }
+}
@@ -0,0 +1,95 @@
+package com.military.asset.mapper;
+
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.military.asset.entity.SoftwareAsset;
+import com.military.asset.utils.FullTextSearchTool;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * 联合查询的全文检索条件与子串匹配（LIKE '%关键词%'）结果一致：
+ * 中文关键词走V5的ngram FULLTEXT索引，拉丁字母/字母数字关键词（含停用词词元）退回LIKE
+ */
+class FullTextSearchMapperTest extends MySqlMigrationSupport {
+
+    private static final String[] REPORT_UNITS = {
+            "北京Java研发中心", "上海数据中心", "Java实验室", "AI研究所", "广州信息中心", "it运维保障队", "C01分类试点单位"
+    };
+
+    private static SqlSessionFactory sqlSessionFactory;
+
+    private final FullTextSearchTool fullTextSearchTool = new FullTextSearchTool();
+
+    private SqlSession sqlSession;
+    private SoftwareAssetMapper mapper;
+
+    @BeforeAll
+    static void seed() throws Exception {
+        sqlSessionFactory = sqlSessionFactory("mapper/SoftwareAssetMapper.xml");
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            for (int i = 0; i < REPORT_UNITS.length; i++) {
+                statement.execute("INSERT INTO software_asset (id, report_unit, category_code, asset_category, "
+                        + "asset_name, acquisition_method, deployment_scope, actual_quantity, unit, service_status, "
+                        + "put_into_use_date, inventory_unit) VALUES ('FT" + i + "', '" + REPORT_UNITS[i] + "', "
+                        + "'C0" + i + "', '数据库', '软件" + i + "', '购置', '全军', 1, '套', '在用', '2024-01-01', '盘点单位')");
+            }
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(fullTextSearchTool, "fullTextEnabled", true);
+        ReflectionTestUtils.setField(fullTextSearchTool, "ngramTokenSize", 2);
+        sqlSession = sqlSessionFactory.openSession(true);
+        mapper = sqlSession.getMapper(SoftwareAssetMapper.class);
+    }
+
+    @AfterEach
+    void tearDown() {
+        sqlSession.close();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"Java", "java", "AI", "it", "C01", "Java研发", "数据中心", "中心", "研究所", "信息中心", "北"})
+    void reportUnitSearchMatchesSubstringSearch(String keyword) {
+        List<String> expected = ids(new QueryWrapper<SoftwareAsset>().like("report_unit", keyword));
+        assertFalse(expected.isEmpty(), "样例数据应能按子串匹配到：" + keyword);
+
+        QueryWrapper<SoftwareAsset> queryWrapper = new QueryWrapper<>();
+        fullTextSearchTool.contains(queryWrapper, "report_unit", keyword);
+
+        assertEquals(expected, ids(queryWrapper), "关键词：" + keyword);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"C0", "C03"})
+    void categoryCodeSearchMatchesSubstringSearch(String keyword) {
+        List<String> expected = ids(new QueryWrapper<SoftwareAsset>().like("category_code", keyword));
+
+        QueryWrapper<SoftwareAsset> queryWrapper = new QueryWrapper<>();
+        fullTextSearchTool.contains(queryWrapper, "category_code", keyword);
+
+        assertEquals(expected, ids(queryWrapper), "关键词：" + keyword);
+    }
+
+    private List<String> ids(QueryWrapper<SoftwareAsset> queryWrapper) {
+        return mapper.selectList(queryWrapper.likeRight("id", "FT").orderByAsc("id")).stream()
+                .map(SoftwareAsset::getId)
+                .toList();
+    }
+}
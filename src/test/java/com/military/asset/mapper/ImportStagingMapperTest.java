@@ -0,0 +1,52 @@
+package com.military.asset.mapper;
+
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 替换前的孤立引用校验（countOrphanReportUnitRefs）：暂存表中report_unit_id指向不存在的上报单位的行计入，
+ * report_unit_id为空或指向存在的上报单位的行不计；外键以关闭检查的方式补回，这些行不会被数据库拒绝
+ */
+class ImportStagingMapperTest extends MySqlMigrationSupport {
+
+    private static SqlSessionFactory sqlSessionFactory;
+
+    @BeforeAll
+    static void seed() throws Exception {
+        sqlSessionFactory = sqlSessionFactory("mapper/ImportStagingMapper.xml");
+        try (SqlSession sqlSession = sqlSessionFactory.openSession(true)) {
+            ImportStagingMapper mapper = sqlSession.getMapper(ImportStagingMapper.class);
+            mapper.dropTableIfExists("software_asset_staging");
+            mapper.createTableLike("software_asset_staging", "software_asset");
+        }
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("INSERT INTO report_unit (id, report_unit) VALUES (1, '存在的单位')");
+            String[] reportUnitIds = {"1", "NULL", "404", "404"};
+            for (int i = 0; i < reportUnitIds.length; i++) {
+                statement.execute("INSERT INTO software_asset_staging (id, report_unit, report_unit_id, category_code, "
+                        + "asset_category, asset_name, acquisition_method, deployment_scope, actual_quantity, unit, "
+                        + "service_status, put_into_use_date, inventory_unit) VALUES ('OR" + i + "', '单位" + i + "', "
+                        + reportUnitIds[i] + ", 'C01', '数据库', '软件" + i + "', '购置', '全军', 1, '套', '在用', "
+                        + "'2020-01-01', '盘点单位')");
+            }
+        }
+    }
+
+    @Test
+    void countsOnlyRowsReferencingMissingReportUnits() {
+        try (SqlSession sqlSession = sqlSessionFactory.openSession(true)) {
+            ImportStagingMapper mapper = sqlSession.getMapper(ImportStagingMapper.class);
+
+            assertEquals(2, mapper.countOrphanReportUnitRefs("software_asset_staging"));
+            assertEquals(0, mapper.countOrphanReportUnitRefs("software_asset"));
+        }
+    }
+}
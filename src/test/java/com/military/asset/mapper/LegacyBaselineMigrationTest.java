@@ -0,0 +1,132 @@
+package com.military.asset.mapper;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 旧库接入：V1表结构下已有同名上报单位、同名省份时，V2先合并重复行再添加唯一键，迁移不中断；
+ * V3按名称为已有资产回填report_unit_id（指向合并后保留的行），V4为软件资产同步上报单位省份，
+ * 城市取同单位同省份网信资产的城市，其次数据内容资产
+ */
+class LegacyBaselineMigrationTest extends MySqlMigrationSupport {
+
+    @Test
+    void duplicateNamesAreMergedBeforeUniqueKeys() throws SQLException {
+        Flyway flyway = migrateFreshToV1();
+        execute("INSERT INTO report_unit (id, report_unit, province, source_table_cyber_asset, "
+                + "source_table_data_content_asset, source_table_software_asset) VALUES "
+                + "(1, '单位1', NULL, 1, 0, 0), (2, '单位1', '北京市', 0, 1, 0), (3, '单位1', '河北省', 0, 0, 0), "
+                + "(4, '单位2', '山东省', 0, 0, 1)");
+        execute("INSERT INTO province (code, name) VALUES ('11', '北京市'), ('99', '北京市'), ('13', '河北省')");
+
+        flyway.migrate();
+
+        assertEquals(2, count("SELECT COUNT(*) FROM report_unit"));
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT id, province, source_table_cyber_asset, "
+                     + "source_table_data_content_asset, source_table_software_asset "
+                     + "FROM report_unit WHERE report_unit = '单位1'")) {
+            resultSet.next();
+            assertEquals(1, resultSet.getInt("id"));
+            assertEquals("河北省", resultSet.getString("province"));
+            assertEquals(1, resultSet.getInt("source_table_cyber_asset"));
+            assertEquals(1, resultSet.getInt("source_table_data_content_asset"));
+            assertEquals(0, resultSet.getInt("source_table_software_asset"));
+        }
+        assertEquals(1, count("SELECT COUNT(*) FROM province WHERE name = '北京市' AND code = '11'"));
+        assertEquals(2, count("SELECT COUNT(*) FROM province"));
+    }
+
+    @Test
+    void assetsAreLinkedToReportUnitsAndSoftwareGetsProvinceAndCity() throws SQLException {
+        Flyway flyway = migrateFreshToV1();
+        execute("INSERT INTO report_unit (id, report_unit, province) VALUES "
+                + "(1, '单位1', NULL), (2, '单位1', '河北省'), (3, '单位2', '山东省'), (4, '单位3', '江苏省')");
+        execute("INSERT INTO software_asset (id, report_unit, category_code, asset_category, asset_name, "
+                + "acquisition_method, deployment_scope, actual_quantity, unit, service_status, put_into_use_date, "
+                + "inventory_unit) VALUES "
+                + "('SA1', '单位1', 'C01', '数据库', '软件1', '购置', '全军', 1, '套', '在用', '2020-01-01', '盘点单位'), "
+                + "('SA2', '单位2', 'C01', '数据库', '软件2', '购置', '全军', 1, '套', '在用', '2020-01-01', '盘点单位'), "
+                + "('SA3', '单位3', 'C01', '数据库', '软件3', '购置', '全军', 1, '套', '在用', '2020-01-01', '盘点单位'), "
+                + "('SA9', '未登记单位', 'C01', '数据库', '软件9', '购置', '全军', 1, '套', '在用', '2020-01-01', '盘点单位')");
+        // 单位1：省份一致的网信城市优先于数据内容城市，省份不一致的网信城市不采用
+        execute("INSERT INTO cyber_asset (id, report_unit, province, city, category_code, asset_category, asset_name, "
+                + "asset_content, actual_quantity, unit, used_quantity, put_into_use_date, inventory_unit) VALUES "
+                + "('CA1', '单位1', '北京市', '朝阳区', 'C01', '固定电话', '网信1', '内容', 1, '部', 1, '2020-01-01', '盘点单位'), "
+                + "('CA2', '单位1', '河北省', '石家庄市', 'C01', '固定电话', '网信2', '内容', 1, '部', 1, '2020-01-01', '盘点单位'), "
+                + "('CA3', '单位2', '山东省', '', 'C01', '固定电话', '网信3', '内容', 1, '部', 1, '2020-01-01', '盘点单位')");
+        execute("INSERT INTO data_content_asset (id, report_unit, province, city, category_code, asset_category, "
+                + "asset_name, development_tool, actual_quantity, unit, inventory_unit) VALUES "
+                + "('DA1', '单位1', '河北省', '保定市', 'C01', '数据', '数据1', 'Java', 1, '个', '盘点单位'), "
+                + "('DA2', '单位2', '山东省', '济南市', 'C01', '数据', '数据2', 'Java', 1, '个', '盘点单位')");
+
+        flyway.migrate();
+
+        // V3：同名单位合并后，资产指向保留的行；名称未登记的资产保持为空
+        assertEquals(1, count("SELECT report_unit_id FROM software_asset WHERE id = 'SA1'"));
+        assertEquals(1, count("SELECT report_unit_id FROM cyber_asset WHERE id = 'CA2'"));
+        assertEquals(1, count("SELECT report_unit_id FROM data_content_asset WHERE id = 'DA1'"));
+        assertEquals(3, count("SELECT report_unit_id FROM software_asset WHERE id = 'SA2'"));
+        assertEquals(1, count("SELECT COUNT(*) FROM software_asset WHERE id = 'SA9' AND report_unit_id IS NULL"));
+
+        // V4：省份取上报单位表；城市依次取同省份的网信、数据内容资产城市，均无时为空
+        assertSoftwareLocation("SA1", "河北省", "石家庄市");
+        assertSoftwareLocation("SA2", "山东省", "济南市");
+        assertSoftwareLocation("SA3", "江苏省", null);
+        assertSoftwareLocation("SA9", null, null);
+    }
+
+    /**
+     * 清空测试库后只执行V1，模拟接入前的旧库
+     */
+    private static Flyway migrateFreshToV1() {
+        Flyway flyway = Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration")
+                .cleanDisabled(false)
+                .load();
+        flyway.clean();
+        Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration")
+                .target("1")
+                .load()
+                .migrate();
+        return flyway;
+    }
+
+    private static void assertSoftwareLocation(String id, String province, String city) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(
+                     "SELECT province, city FROM software_asset WHERE id = '" + id + "'")) {
+            resultSet.next();
+            assertEquals(province, resultSet.getString("province"), id);
+            assertEquals(city, resultSet.getString("city"), id);
+        }
+    }
+
+    private static void execute(String sql) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    private static int count(String sql) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(sql)) {
+            resultSet.next();
+            return resultSet.getInt(1);
+        }
+    }
+}
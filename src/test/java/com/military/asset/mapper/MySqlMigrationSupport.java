@@ -0,0 +1,77 @@
+package com.military.asset.mapper;
+
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.extension.spring.MybatisSqlSessionFactoryBean;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.MySQLContainer;
+
+import javax.sql.DataSource;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * 真实MySQL 8测试基类：容器启动后执行db/migration下的全部Flyway脚本
+ * 索引选择（EXPLAIN）与MySQL方言SQL（UPDATE ... ORDER BY LIMIT、INTERVAL等）无法在内存库上复现，
+ * 这类测试继承本类；每个测试类使用一个新启动的容器
+
+ * 本机无Docker时整类以假设失败跳过（测试报告中计为skipped并给出原因）；
+ * 以 -Dasset.test.require-docker=true 运行（mvn -Pci test）时无Docker直接失败，CI不会静默跳过这些测试
+ */
+abstract class MySqlMigrationSupport {
+
+    static final String REQUIRE_DOCKER_PROPERTY = "asset.test.require-docker";
+
+    static final MySQLContainer<?> MYSQL = new MySQLContainer<>("mysql:8.0")
+            .withDatabaseName("military_asset")
+            .withCommand("--character-set-server=utf8mb4", "--collation-server=utf8mb4_general_ci");
+
+    static DataSource dataSource;
+
+    @BeforeAll
+    static void migrate() {
+        boolean dockerAvailable = DockerClientFactory.instance().isDockerAvailable();
+        if (Boolean.getBoolean(REQUIRE_DOCKER_PROPERTY)) {
+            assertTrue(dockerAvailable, "已设置" + REQUIRE_DOCKER_PROPERTY + "=true，但没有可用的Docker，无法运行MySQL 8测试");
+        } else {
+            assumeTrue(dockerAvailable, "没有可用的Docker，跳过MySQL 8测试（CI中以 mvn -Pci test 运行时此处失败）");
+        }
+        MYSQL.start();
+        DriverManagerDataSource driverManagerDataSource = new DriverManagerDataSource(
+                MYSQL.getJdbcUrl(), MYSQL.getUsername(), MYSQL.getPassword());
+        Flyway.configure()
+                .dataSource(driverManagerDataSource)
+                .locations("classpath:db/migration")
+                .load()
+                .migrate();
+        dataSource = driverManagerDataSource;
+    }
+
+    @AfterAll
+    static void stopContainer() {
+        MYSQL.stop();
+    }
+
+    /**
+     * 基于迁移后的库构建MyBatis-Plus会话工厂，只加载指定的Mapper XML（namespace绑定的Mapper接口随之注册）
+     *
+     * @param mapperXmls classpath下的Mapper XML路径，如mapper/AssetSyncOutboxMapper.xml
+     */
+    static SqlSessionFactory sqlSessionFactory(String... mapperXmls) throws Exception {
+        MybatisSqlSessionFactoryBean factoryBean = new MybatisSqlSessionFactoryBean();
+        factoryBean.setDataSource(dataSource);
+        factoryBean.setConfiguration(new MybatisConfiguration());
+        factoryBean.setMapperLocations(Arrays.stream(mapperXmls)
+                .map(ClassPathResource::new)
+                .toArray(Resource[]::new));
+        return factoryBean.getObject();
+    }
+}
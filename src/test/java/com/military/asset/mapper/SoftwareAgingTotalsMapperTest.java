@@ -0,0 +1,104 @@
+package com.military.asset.mapper;
+
+import com.military.asset.entity.Province;
+import com.military.asset.service.SoftwareAssetService;
+import com.military.asset.service.impl.SoftwareAssetStatisticsServiceImpl;
+import com.military.asset.utils.AgingReferenceSettings;
+import com.military.asset.utils.AssetWriteTracker;
+import com.military.asset.utils.ColumnarAssetStore;
+import com.military.asset.utils.SoftwareAgingHistogram;
+import com.military.asset.vo.stat.SoftwareAssetAgingStatisticVO;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.sql.Connection;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 省份老化统计的SQL路径（selectProvinceAgingTotals）与直方图路径（selectAgingBuckets）口径一致：
+ * 参考日期之后投入使用的资产不计入总量
+ */
+class SoftwareAgingTotalsMapperTest extends MySqlMigrationSupport {
+
+    private static final LocalDate REFERENCE_DATE = LocalDate.of(2024, 6, 1);
+
+    private static SqlSessionFactory sqlSessionFactory;
+
+    private SqlSession sqlSession;
+    private SoftwareAssetStatisticsServiceImpl service;
+
+    @BeforeAll
+    static void seed() throws Exception {
+        sqlSessionFactory = sqlSessionFactory("mapper/SoftwareAssetStatisticsMapper.xml");
+        String[][] rows = {
+                {"北京市", "在用", "2015-03-01", "4"},
+                {"北京市", "在用", "2022-01-01", "6"},
+                {"北京市", "在用", "2024-09-01", "50"},
+                {"北京市", "闲置", "2010-01-01", "3"},
+                {"北京市", "闲置", "2024-06-01", "2"},
+                {"河北省", "报废", "2030-01-01", "9"},
+                {"河北省", "在用", "2011-01-01", "0"}};
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            for (int i = 0; i < rows.length; i++) {
+                statement.execute("INSERT INTO software_asset (id, report_unit, province, category_code, asset_category, "
+                        + "asset_name, acquisition_method, deployment_scope, actual_quantity, unit, service_status, "
+                        + "put_into_use_date, inventory_unit) VALUES ('AG" + i + "', '单位" + i + "', '" + rows[i][0]
+                        + "', 'C01', '数据库', '软件" + i + "', '购置', '全军', " + rows[i][3] + ", '套', '" + rows[i][1]
+                        + "', '" + rows[i][2] + "', '盘点单位')");
+            }
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        sqlSession = sqlSessionFactory.openSession(true);
+        SoftwareAssetStatisticsMapper statisticsMapper = sqlSession.getMapper(SoftwareAssetStatisticsMapper.class);
+        ProvinceMapper provinceMapper = mock(ProvinceMapper.class);
+        Province beijing = new Province();
+        beijing.setName("北京市");
+        when(provinceMapper.selectAll()).thenReturn(List.of(beijing));
+        @SuppressWarnings("unchecked")
+        ObjectProvider<ColumnarAssetStore> noColumnarStore = mock(ObjectProvider.class);
+        service = new SoftwareAssetStatisticsServiceImpl(statisticsMapper, provinceMapper, mock(ReportUnitMapper.class),
+                mock(SoftwareAssetService.class), noColumnarStore,
+                new AgingReferenceSettings(REFERENCE_DATE.toString(), 5, 8),
+                new SoftwareAgingHistogram(statisticsMapper, new AssetWriteTracker()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        sqlSession.close();
+    }
+
+    @Test
+    void sqlTotalsMatchHistogramAtSameReferenceDate() {
+        Map<String, SoftwareAssetAgingStatisticVO> bySql = byProvince(service.listProvinceAgingStatistics());
+        Map<String, SoftwareAssetAgingStatisticVO> byHistogram = byProvince(
+                service.listProvinceAgingStatistics(REFERENCE_DATE, 5));
+
+        assertEquals(byHistogram, bySql);
+        assertEquals(10, bySql.get("北京市").getInUseTotalQuantity());
+        assertEquals(5, bySql.get("北京市").getNotInUseTotalQuantity());
+        assertEquals(0, bySql.get("河北省").getNotInUseTotalQuantity());
+    }
+
+    private static Map<String, SoftwareAssetAgingStatisticVO> byProvince(List<SoftwareAssetAgingStatisticVO> statistics) {
+        return statistics.stream().collect(Collectors.toMap(
+                vo -> String.valueOf(vo.getProvince()), Function.identity()));
+    }
+}
@@ -0,0 +1,94 @@
+package com.military.asset.service.impl;
+
+import com.military.asset.entity.CyberAsset;
+import com.military.asset.entity.CyberAssetUsageAggregation;
+import com.military.asset.mapper.CyberAssetMapper;
+import com.military.asset.mapper.ReportUnitMapper;
+import com.military.asset.utils.AgingReferenceSettings;
+import com.military.asset.utils.AssetWriteTracker;
+import com.military.asset.utils.ColumnarAssetStore;
+import com.military.asset.vo.CyberAssetCategoryUsageVO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 省内使用率分布缓存：同一写入版本内同省份只聚合一次，网信资产写入版本递增后重新聚合
+ */
+class CyberAssetUsageAnalysisServiceImplTest {
+
+    private static final String CATEGORY = "自动电话号码";
+
+    private final CyberAssetMapper cyberAssetMapper = mock(CyberAssetMapper.class);
+    private final ReportUnitMapper reportUnitMapper = mock(ReportUnitMapper.class);
+    private final AssetWriteTracker assetWriteTracker = new AssetWriteTracker();
+    private final List<CyberAssetUsageAggregation> provinceRows = new ArrayList<>();
+
+    private CyberAssetUsageAnalysisServiceImpl service;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        ObjectProvider<ColumnarAssetStore> columnarAssetStore = mock(ObjectProvider.class);
+        service = new CyberAssetUsageAnalysisServiceImpl(cyberAssetMapper, reportUnitMapper, columnarAssetStore,
+                new AgingReferenceSettings("2025-01-01", 5, 8), assetWriteTracker);
+
+        when(reportUnitMapper.selectProvinceByReportUnit("单位1")).thenReturn("北京市");
+        when(cyberAssetMapper.selectByReportUnit("单位1")).thenReturn(List.of(asset(4, 2)));
+        when(cyberAssetMapper.aggregateProvinceUsageByAssetCategory("北京市"))
+                .thenAnswer(invocation -> new ArrayList<>(provinceRows));
+        provinceRows.add(aggregation("单位1", 2, 4));
+        provinceRows.add(aggregation("单位2", 4, 4));
+    }
+
+    @Test
+    void reusesProvinceDistributionUntilCyberVersionChanges() {
+        assertEquals(new BigDecimal("0.7500"), provinceAverage());
+        assertEquals(new BigDecimal("0.7500"), provinceAverage());
+        verify(cyberAssetMapper, times(1)).aggregateProvinceUsageByAssetCategory("北京市");
+
+        provinceRows.add(aggregation("单位3", 0, 4));
+        assetWriteTracker.markWritten("software");
+        assertEquals(new BigDecimal("0.7500"), provinceAverage(), "其他资产类型写入不使分布失效");
+
+        assetWriteTracker.markWritten("cyber");
+        assertEquals(new BigDecimal("0.5000"), provinceAverage());
+        verify(cyberAssetMapper, times(2)).aggregateProvinceUsageByAssetCategory("北京市");
+    }
+
+    private BigDecimal provinceAverage() {
+        CyberAssetCategoryUsageVO category = service.analyzeUsage("单位1").getCategories().stream()
+                .filter(vo -> CATEGORY.equals(vo.getAssetCategory()))
+                .findFirst()
+                .orElseThrow();
+        return category.getProvinceStats().getAverage();
+    }
+
+    private static CyberAsset asset(int actual, int used) {
+        CyberAsset asset = new CyberAsset();
+        asset.setReportUnit("单位1");
+        asset.setAssetCategory(CATEGORY);
+        asset.setActualQuantity(actual);
+        asset.setUsedQuantity(used);
+        return asset;
+    }
+
+    private static CyberAssetUsageAggregation aggregation(String reportUnit, int used, int actual) {
+        CyberAssetUsageAggregation aggregation = new CyberAssetUsageAggregation();
+        aggregation.setReportUnit(reportUnit);
+        aggregation.setAssetCategory(CATEGORY);
+        aggregation.setUsedQuantity(used);
+        aggregation.setActualQuantity(actual);
+        return aggregation;
+    }
+}
@@ -0,0 +1,85 @@
+package com.military.asset.service.impl;
+
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.military.asset.mapper.CyberAssetMapper;
+import com.military.asset.utils.AssetWriteTracker;
+import com.military.asset.vo.PhoneNumberAnalysisVO;
+import com.military.asset.vo.stat.PhoneNumberRollupRow;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 电话号码全国汇总快照：写入版本不变时复用快照，版本递增后重建；返回的VO是副本，修改不影响后续请求
+ */
+class PhoneNumberAnalysisServiceImplTest {
+
+    private final CyberAssetMapper cyberAssetMapper = mock(CyberAssetMapper.class);
+    private final AssetWriteTracker assetWriteTracker = new AssetWriteTracker();
+    private final List<PhoneNumberRollupRow> rows = new ArrayList<>();
+
+    private PhoneNumberAnalysisServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        when(cyberAssetMapper.sumPhoneNumberQuantityByUnit(anyString(), anyString(), anyString(), anyString()))
+                .thenAnswer(invocation -> new ArrayList<>(rows));
+        service = new PhoneNumberAnalysisServiceImpl(cyberAssetMapper, assetWriteTracker);
+        rows.add(row("单位1", "北京市", 6, 2, 1, 1));
+        rows.add(row("单位2", "北京市", 1, 1, 4, 3));
+    }
+
+    @Test
+    void reusesSnapshotUntilCyberVersionChanges() {
+        assertEquals(2, service.analyzeRollup("unit", null, null, null, 1, 10).getTotal());
+        assertEquals(1, service.analyzeRollup("province", null, null, null, 1, 10).getTotal());
+        verify(cyberAssetMapper, times(1)).sumPhoneNumberQuantityByUnit(anyString(), anyString(), anyString(), anyString());
+
+        rows.add(row("单位3", "天津市", 2, 0, 0, 0));
+        assetWriteTracker.markWritten("software");
+        assertEquals(2, service.analyzeRollup("unit", null, null, null, 1, 10).getTotal(), "其他资产类型写入不使快照失效");
+
+        assetWriteTracker.markWritten("cyber");
+        assertEquals(3, service.analyzeRollup("unit", null, null, null, 1, 10).getTotal());
+        assertEquals(2, service.analyzeRollup("province", null, null, null, 1, 10).getTotal());
+        verify(cyberAssetMapper, times(2)).sumPhoneNumberQuantityByUnit(anyString(), anyString(), anyString(), anyString());
+    }
+
+    @Test
+    void returnedRecordsAreCopies() {
+        Page<PhoneNumberAnalysisVO> first = service.analyzeRollup("unit", null, null, "total", 1, 10);
+        PhoneNumberAnalysisVO top = first.getRecords().get(0);
+        assertEquals("单位1", top.getReportUnit());
+        assertEquals(10, top.getTotalCount());
+
+        top.setTotalCount(0);
+        top.setReportUnit("被调用方修改");
+
+        PhoneNumberAnalysisVO again = service.analyzeRollup("unit", null, null, "total", 1, 10).getRecords().get(0);
+        assertNotSame(top, again);
+        assertEquals("单位1", again.getReportUnit());
+        assertEquals(10, again.getTotalCount());
+    }
+
+    private static PhoneNumberRollupRow row(String reportUnit, String province,
+                                            long manual, long automatic, long mobile, long secrecy) {
+        PhoneNumberRollupRow row = new PhoneNumberRollupRow();
+        row.setReportUnit(reportUnit);
+        row.setProvince(province);
+        row.setManualCount(manual);
+        row.setAutomaticCount(automatic);
+        row.setMobileCount(mobile);
+        row.setSecrecyCount(secrecy);
+        return row;
+    }
+}
@@ -0,0 +1,161 @@
+package com.military.asset.service.impl;
+
+import com.military.asset.entity.DeploymentScopeAggregation;
+import com.military.asset.entity.SoftwareAsset;
+import com.military.asset.mapper.CyberAssetMapper;
+import com.military.asset.mapper.SoftwareAssetMapper;
+import com.military.asset.utils.AssetWriteTracker;
+import com.military.asset.utils.ColumnarAssetStore;
+import com.military.asset.vo.ReportUnitImportanceVO;
+import org.apache.ibatis.executor.result.DefaultResultContext;
+import org.apache.ibatis.session.ResultHandler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 上报单位重要性：全表对照基准按软件资产写入版本缓存，版本递增后重新查询；
+ * 数据库分组路径（aggregateDeploymentScope）与列式快照路径对同一批数据给出相同的得分、等级、说明与部署范围分布
+ * （Mapper以内存分组模拟SQL：按部署范围原值分组，SUM(IFNULL(actual_quantity, 0))、COUNT(*)）
+ */
+class SoftwareAssetImportanceTest {
+
+    private final SoftwareAssetMapper softwareAssetMapper = mock(SoftwareAssetMapper.class);
+    private final AssetWriteTracker assetWriteTracker = new AssetWriteTracker();
+    private final List<SoftwareAsset> rows = new ArrayList<>();
+    private final ObjectProvider<ColumnarAssetStore> columnarProvider = mockProvider();
+
+    private SoftwareAssetServiceImpl service;
+    private ColumnarAssetStore columnarAssetStore;
+
+    @BeforeEach
+    void setUp() {
+        rows.addAll(List.of(
+                software("单位A", 5, "全军"),
+                software("单位A", 3, "全军"),
+                software("单位A", 2, "战区"),
+                software("单位B", 7, "战区"),
+                software("单位B", null, "全军"),
+                software("单位C", 4, null),
+                software("单位C", 6, ""),
+                software("单位C", 1, "军级单位内部")));
+        when(softwareAssetMapper.aggregateDeploymentScope(any())).thenAnswer(invocation -> aggregate(invocation.getArgument(0)));
+        doAnswer(invocation -> {
+            ResultHandler<SoftwareAsset> handler = invocation.getArgument(0);
+            DefaultResultContext<SoftwareAsset> context = new DefaultResultContext<>();
+            for (SoftwareAsset row : rows) {
+                context.nextResultObject(row);
+                handler.handleResult(context);
+            }
+            return null;
+        }).when(softwareAssetMapper).scanColumnarSnapshot(any());
+        columnarAssetStore = new ColumnarAssetStore(softwareAssetMapper, mock(CyberAssetMapper.class), assetWriteTracker);
+
+        service = new SoftwareAssetServiceImpl();
+        ReflectionTestUtils.setField(service, "softwareAssetMapper", softwareAssetMapper);
+        ReflectionTestUtils.setField(service, "assetWriteTracker", assetWriteTracker);
+        ReflectionTestUtils.setField(service, "columnarAssetStore", columnarProvider);
+    }
+
+    @AfterEach
+    void tearDown() {
+        columnarAssetStore.shutdown();
+    }
+
+    @Test
+    void baselineIsCachedUntilSoftwareVersionChanges() {
+        ReportUnitImportanceVO first = service.analyzeReportUnitImportance("单位A").get(0);
+        service.analyzeReportUnitImportance("单位B");
+        verify(softwareAssetMapper, times(1)).aggregateDeploymentScope(isNull());
+
+        rows.add(software("单位D", 500, "全军"));
+        assetWriteTracker.markWritten("software");
+        ReportUnitImportanceVO afterWrite = service.analyzeReportUnitImportance("单位A").get(0);
+
+        verify(softwareAssetMapper, times(2)).aggregateDeploymentScope(isNull());
+        assertNotEquals(first.getGlobalImportanceScore(), afterWrite.getGlobalImportanceScore());
+        assertEquals(first.getImportanceScore(), afterWrite.getImportanceScore());
+
+        // 其他资产类型的写入不影响软件基准
+        assetWriteTracker.markWritten("cyber");
+        service.analyzeReportUnitImportance("单位A");
+        verify(softwareAssetMapper, times(2)).aggregateDeploymentScope(isNull());
+    }
+
+    @Test
+    void sqlAggregatePathMatchesColumnarPath() {
+        for (String unit : List.of("单位A", "单位B", "单位C", " 单位C ")) {
+            when(columnarProvider.getIfAvailable()).thenReturn(null);
+            ReportUnitImportanceVO sql = service.analyzeReportUnitImportance(unit).get(0);
+            when(columnarProvider.getIfAvailable()).thenReturn(columnarAssetStore);
+            ReportUnitImportanceVO columnar = service.analyzeReportUnitImportance(unit).get(0);
+
+            assertEquals(sql.getAssetCount(), columnar.getAssetCount(), unit);
+            assertEquals(sql.getImportanceScore(), columnar.getImportanceScore(), unit);
+            assertEquals(sql.getGlobalImportanceScore(), columnar.getGlobalImportanceScore(), unit);
+            assertEquals(sql.getImportanceLevel(), columnar.getImportanceLevel(), unit);
+            assertEquals(sql.getAdvice(), columnar.getAdvice(), unit);
+            assertEquals(sql.getDeploymentScopeStats(), columnar.getDeploymentScopeStats(), unit);
+        }
+        verify(softwareAssetMapper, times(1)).aggregateDeploymentScope(isNull());
+        verify(softwareAssetMapper, times(4)).aggregateDeploymentScope(anyString());
+    }
+
+    /**
+     * 按部署范围原值分组（null与空串各为一组），与aggregateDeploymentScope的SQL口径一致
+     */
+    private List<DeploymentScopeAggregation> aggregate(String reportUnit) {
+        Map<List<String>, DeploymentScopeAggregation> groups = new LinkedHashMap<>();
+        for (SoftwareAsset row : rows) {
+            if (reportUnit != null && !reportUnit.isEmpty() && !Objects.equals(reportUnit, row.getReportUnit())) {
+                continue;
+            }
+            DeploymentScopeAggregation group = groups.computeIfAbsent(Arrays.asList(row.getDeploymentScope()), key -> {
+                DeploymentScopeAggregation aggregation = new DeploymentScopeAggregation();
+                aggregation.setDeploymentScope(row.getDeploymentScope());
+                aggregation.setActualQuantity(0L);
+                aggregation.setAssetRows(0L);
+                return aggregation;
+            });
+            group.setActualQuantity(group.getActualQuantity() + Optional.ofNullable(row.getActualQuantity()).orElse(0));
+            group.setAssetRows(group.getAssetRows() + 1);
+        }
+        return new ArrayList<>(groups.values());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ObjectProvider<ColumnarAssetStore> mockProvider() {
+        return mock(ObjectProvider.class);
+    }
+
+    private static SoftwareAsset software(String reportUnit, Integer quantity, String deploymentScope) {
+        SoftwareAsset asset = new SoftwareAsset();
+        asset.setReportUnit(reportUnit);
+        asset.setDeploymentScope(deploymentScope);
+        asset.setActualQuantity(quantity);
+        asset.setProvince("北京市");
+        asset.setServiceStatus("在用");
+        return asset;
+    }
+}
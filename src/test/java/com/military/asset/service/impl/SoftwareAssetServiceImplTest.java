@@ -0,0 +1,122 @@
+package com.military.asset.service.impl;
+
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.military.asset.entity.SoftwareAsset;
+import com.military.asset.mapper.SoftwareAssetMapper;
+import com.military.asset.utils.SoftwareUpgradeFormulaUtils;
+import com.military.asset.vo.SoftwareUpgradeRecommendationVO;
+import org.apache.ibatis.executor.result.DefaultResultContext;
+import org.apache.ibatis.session.ResultHandler;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+/**
+ * 升级建议批量排名的分页：每页只返回本页的记录，且与全量排名的对应区间一致；
+ * 只返回编码时不生成文案，编码与排名和生成文案时一致
+ */
+class SoftwareAssetServiceImplTest {
+
+    private static final int ASSET_COUNT = 25;
+
+    private SoftwareAssetServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        SoftwareAssetMapper mapper = mock(SoftwareAssetMapper.class);
+        doAnswer(invocation -> {
+            ResultHandler<SoftwareAsset> handler = invocation.getArgument(1);
+            DefaultResultContext<SoftwareAsset> context = new DefaultResultContext<>();
+            for (int i = 1; i <= ASSET_COUNT; i++) {
+                context.nextResultObject(asset(i));
+                handler.handleResult(context);
+            }
+            return null;
+        }).when(mapper).scanUpgradeCandidates(isNull(), any());
+
+        service = new SoftwareAssetServiceImpl();
+        ReflectionTestUtils.setField(service, "softwareAssetMapper", mapper);
+    }
+
+    @Test
+    void returnsOnlyTheRequestedPage() {
+        List<String> fullRanking = assetIds(service.generateUpgradeRecommendationsBatch(null, 1, ASSET_COUNT, true));
+
+        Page<SoftwareUpgradeRecommendationVO> second = service.generateUpgradeRecommendationsBatch(null, 2, 10, true);
+        Page<SoftwareUpgradeRecommendationVO> last = service.generateUpgradeRecommendationsBatch(null, 3, 10, true);
+
+        assertEquals(fullRanking.subList(10, 20), assetIds(second));
+        assertEquals(fullRanking.subList(20, 25), assetIds(last));
+        assertEquals(ASSET_COUNT, second.getTotal());
+        assertEquals(ASSET_COUNT, last.getTotal());
+    }
+
+    @Test
+    void pageBeyondLastIsEmpty() {
+        Page<SoftwareUpgradeRecommendationVO> page = service.generateUpgradeRecommendationsBatch(null, 4, 10, true);
+
+        assertTrue(page.getRecords().isEmpty());
+        assertEquals(ASSET_COUNT, page.getTotal());
+    }
+
+    @Test
+    void rejectsRankWindowBeyondLimit() {
+        assertThrows(IllegalArgumentException.class,
+                () -> service.generateUpgradeRecommendationsBatch(null, 51, 200, true));
+        assertThrows(IllegalArgumentException.class,
+                () -> service.generateUpgradeRecommendationsBatch(null, Long.MAX_VALUE, 2, true));
+    }
+
+    @Test
+    void codesOnlySkipsTextButKeepsTheSameCodes() {
+        List<SoftwareUpgradeRecommendationVO> withText =
+                service.generateUpgradeRecommendationsBatch(null, 1, ASSET_COUNT, false).getRecords();
+        List<SoftwareUpgradeRecommendationVO> codesOnly =
+                service.generateUpgradeRecommendationsBatch(null, 1, ASSET_COUNT, true).getRecords();
+
+        assertEquals(assetIds(withText), assetIds(codesOnly));
+        for (int i = 0; i < ASSET_COUNT; i++) {
+            SoftwareUpgradeRecommendationVO text = withText.get(i);
+            SoftwareUpgradeRecommendationVO code = codesOnly.get(i);
+            assertNull(code.getRecommendation());
+            assertEquals(SoftwareUpgradeFormulaUtils.recommendationCode(code.getNecessityScore()), code.getRecommendationCode());
+            assertEquals(code.getRecommendationCode(), text.getRecommendationCode());
+            assertEquals(SoftwareUpgradeFormulaUtils.buildRecommendation(text.getAssetName(), text.getNecessityScore()),
+                    text.getRecommendation());
+        }
+    }
+
+    private static List<String> assetIds(Page<SoftwareUpgradeRecommendationVO> page) {
+        return assetIds(page.getRecords());
+    }
+
+    private static List<String> assetIds(List<SoftwareUpgradeRecommendationVO> records) {
+        return records.stream()
+                .map(SoftwareUpgradeRecommendationVO::getAssetId)
+                .collect(Collectors.toList());
+    }
+
+    private static SoftwareAsset asset(int index) {
+        SoftwareAsset asset = new SoftwareAsset();
+        asset.setId(String.format("SA%03d", index));
+        asset.setAssetName("软件" + index);
+        asset.setReportUnit("单位" + (index % 3));
+        asset.setServiceStatus(index % 2 == 0 ? "在用" : "闲置");
+        asset.setActualQuantity(index * 3);
+        asset.setAmount(BigDecimal.valueOf(index * 1000L));
+        return asset;
+    }
+}
@@ -0,0 +1,148 @@
+package com.military.asset.service.impl;
+
+import com.military.asset.entity.Province;
+import com.military.asset.entity.SoftwareAsset;
+import com.military.asset.mapper.CyberAssetMapper;
+import com.military.asset.mapper.ProvinceMapper;
+import com.military.asset.mapper.ReportUnitMapper;
+import com.military.asset.mapper.SoftwareAssetMapper;
+import com.military.asset.mapper.SoftwareAssetStatisticsMapper;
+import com.military.asset.service.SoftwareAssetService;
+import com.military.asset.utils.AgingReferenceSettings;
+import com.military.asset.utils.AssetWriteTracker;
+import com.military.asset.utils.ColumnarAssetStore;
+import com.military.asset.utils.SoftwareAgingHistogram;
+import com.military.asset.vo.stat.SoftwareAssetAgingBucketRow;
+import com.military.asset.vo.stat.SoftwareAssetAgingStatisticVO;
+import org.apache.ibatis.executor.result.DefaultResultContext;
+import org.apache.ibatis.session.ResultHandler;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 省份老化统计的两条路径口径一致：不带参数（列式快照）与显式传入同一参考日期（老化直方图）
+ * 都只把参考日期当天及之前投入使用（或未填日期）的资产计入总量
+ */
+class SoftwareAssetStatisticsServiceImplTest {
+
+    private static final LocalDate REFERENCE_DATE = LocalDate.of(2024, 6, 1);
+
+    private static final List<SoftwareAsset> ASSETS = List.of(
+            asset("北京市", "单位1", "在用", LocalDate.of(2015, 3, 1), 4),
+            asset("北京市", "单位1", "在用", LocalDate.of(2022, 1, 1), 6),
+            // 参考日期之后才投入使用：两条路径都不计入
+            asset("北京市", "单位1", "在用", LocalDate.of(2024, 9, 1), 50),
+            asset("北京市", "单位2", "闲置", LocalDate.of(2010, 1, 1), 3),
+            asset("北京市", "单位2", "闲置", REFERENCE_DATE, 2),
+            asset("河北省", "单位3", "在用", null, 5),
+            asset("河北省", "单位3", "报废", LocalDate.of(2030, 1, 1), 9),
+            asset(null, "单位4", "在用", LocalDate.of(2012, 5, 5), 1),
+            asset("河北省", "单位3", "在用", LocalDate.of(2011, 1, 1), 0));
+
+    private SoftwareAssetStatisticsServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        AssetWriteTracker assetWriteTracker = new AssetWriteTracker();
+
+        SoftwareAssetMapper softwareAssetMapper = mock(SoftwareAssetMapper.class);
+        doAnswer(invocation -> {
+            ResultHandler<SoftwareAsset> handler = invocation.getArgument(0);
+            DefaultResultContext<SoftwareAsset> context = new DefaultResultContext<>();
+            for (SoftwareAsset asset : ASSETS) {
+                context.nextResultObject(asset);
+                handler.handleResult(context);
+            }
+            return null;
+        }).when(softwareAssetMapper).scanColumnarSnapshot(any());
+        ColumnarAssetStore store = new ColumnarAssetStore(softwareAssetMapper, mock(CyberAssetMapper.class), assetWriteTracker);
+        @SuppressWarnings("unchecked")
+        ObjectProvider<ColumnarAssetStore> storeProvider = mock(ObjectProvider.class);
+        when(storeProvider.getIfAvailable()).thenReturn(store);
+
+        SoftwareAssetStatisticsMapper statisticsMapper = mock(SoftwareAssetStatisticsMapper.class);
+        when(statisticsMapper.selectAgingBuckets()).thenReturn(buckets(ASSETS));
+        ProvinceMapper provinceMapper = mock(ProvinceMapper.class);
+        when(provinceMapper.selectAll()).thenReturn(List.of(province("北京市"), province("河北省"), province("山东省")));
+
+        service = new SoftwareAssetStatisticsServiceImpl(statisticsMapper, provinceMapper, mock(ReportUnitMapper.class),
+                mock(SoftwareAssetService.class), storeProvider,
+                new AgingReferenceSettings(REFERENCE_DATE.toString(), 5, 8),
+                new SoftwareAgingHistogram(statisticsMapper, assetWriteTracker));
+    }
+
+    @Test
+    void defaultAndExplicitReferenceDateAgree() {
+        Map<String, SoftwareAssetAgingStatisticVO> byDefault = byProvince(service.listProvinceAgingStatistics());
+        Map<String, SoftwareAssetAgingStatisticVO> explicit = byProvince(
+                service.listProvinceAgingStatistics(REFERENCE_DATE, 5));
+
+        assertEquals(explicit, byDefault);
+        SoftwareAssetAgingStatisticVO beijing = byDefault.get("北京市");
+        assertEquals(10, beijing.getInUseTotalQuantity());
+        assertEquals(4, beijing.getInUseUpgradeRequiredQuantity());
+        assertEquals(5, beijing.getNotInUseTotalQuantity());
+        assertEquals(3, beijing.getNotInUseUpgradeRequiredQuantity());
+        assertEquals(5, byDefault.get("河北省").getInUseTotalQuantity());
+        assertEquals(0, byDefault.get("河北省").getNotInUseTotalQuantity());
+    }
+
+    private static Map<String, SoftwareAssetAgingStatisticVO> byProvince(List<SoftwareAssetAgingStatisticVO> statistics) {
+        return statistics.stream().collect(Collectors.toMap(
+                vo -> String.valueOf(vo.getProvince()), Function.identity(), (left, right) -> left, LinkedHashMap::new));
+    }
+
+    /**
+     * 与SoftwareAssetStatisticsMapper.selectAgingBuckets相同的分组汇总
+     */
+    private static List<SoftwareAssetAgingBucketRow> buckets(List<SoftwareAsset> assets) {
+        Map<List<Object>, Long> quantities = new LinkedHashMap<>();
+        for (SoftwareAsset asset : assets) {
+            if (asset.getActualQuantity() > 0) {
+                quantities.merge(Arrays.asList(asset.getProvince(), asset.getReportUnit(), asset.getServiceStatus(),
+                        asset.getPutIntoUseDate()), (long) asset.getActualQuantity(), Long::sum);
+            }
+        }
+        return quantities.entrySet().stream().map(entry -> {
+            SoftwareAssetAgingBucketRow row = new SoftwareAssetAgingBucketRow();
+            row.setProvince((String) entry.getKey().get(0));
+            row.setReportUnit((String) entry.getKey().get(1));
+            row.setServiceStatus((String) entry.getKey().get(2));
+            row.setPutIntoUseDate((LocalDate) entry.getKey().get(3));
+            row.setQuantity(entry.getValue());
+            return row;
+        }).toList();
+    }
+
+    private static SoftwareAsset asset(String province, String reportUnit, String serviceStatus,
+                                       LocalDate putIntoUseDate, int quantity) {
+        SoftwareAsset asset = new SoftwareAsset();
+        asset.setProvince(province);
+        asset.setReportUnit(reportUnit);
+        asset.setServiceStatus(serviceStatus);
+        asset.setPutIntoUseDate(putIntoUseDate);
+        asset.setActualQuantity(quantity);
+        return asset;
+    }
+
+    private static Province province(String name) {
+        Province province = new Province();
+        province.setName(name);
+        return province;
+    }
+}
@@ -0,0 +1,158 @@
+package com.military.asset.utils;
+
+import com.military.asset.mapper.CyberAssetMapper;
+import com.military.asset.mapper.ReportUnitMapper;
+import com.military.asset.service.PhoneNumberAnalysisService;
+import com.military.asset.service.impl.PhoneNumberAnalysisServiceImpl;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 导入指标：阶段计时按assetType/stage打标签，整体计时按outcome区分成功失败，行数计数忽略非正数；
+ * 批量同步上报单位的计时在请求全部同类时按该类型打标签、混合多种类型时记为mixed，同步失败也照常记录；
+ * 分析类服务上的@Timed("asset.analytics")经TimedAspect生效
+ */
+class AssetMetricsToolTest {
+
+    private SimpleMeterRegistry registry;
+    private AssetMetricsTool assetMetricsTool;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        assetMetricsTool = new AssetMetricsTool(registry);
+    }
+
+    @Test
+    void stageTimersAreTaggedByAssetTypeAndStage() {
+        Timer.Sample sample = assetMetricsTool.start();
+        assetMetricsTool.stopStage(sample, "software", AssetMetricsTool.STAGE_PARSE);
+        assetMetricsTool.recordStage("software", AssetMetricsTool.STAGE_CONVERT, () -> { });
+        assertThrows(IllegalStateException.class, () -> assetMetricsTool.recordStage("cyber",
+                AssetMetricsTool.STAGE_BATCH_SAVE, () -> {
+                    throw new IllegalStateException("保存失败");
+                }));
+
+        assertEquals(1, stageTimer("software", AssetMetricsTool.STAGE_PARSE).count());
+        assertEquals(1, stageTimer("software", AssetMetricsTool.STAGE_CONVERT).count());
+        assertEquals(1, stageTimer("cyber", AssetMetricsTool.STAGE_BATCH_SAVE).count(), "阶段抛出异常也应记录耗时");
+        assertNull(registry.find(AssetMetricsTool.IMPORT_STAGE_TIMER)
+                .tags("assetType", "cyber", "stage", AssetMetricsTool.STAGE_PARSE).timer());
+    }
+
+    @Test
+    void importTimerIsTaggedByOutcome() {
+        assetMetricsTool.stopImport(assetMetricsTool.start(), "dataContent", true);
+        assetMetricsTool.stopImport(assetMetricsTool.start(), "dataContent", false);
+        assetMetricsTool.stopImport(assetMetricsTool.start(), "dataContent", false);
+
+        assertEquals(1, importTimer("dataContent", "success").count());
+        assertEquals(2, importTimer("dataContent", "failure").count());
+    }
+
+    @Test
+    void rowCounterAccumulatesAndIgnoresNonPositiveRows() {
+        assetMetricsTool.countRows("software", "valid", 120);
+        assetMetricsTool.countRows("software", "valid", 30);
+        assetMetricsTool.countRows("software", "error", 0);
+        assetMetricsTool.countRows("software", "error", -1);
+
+        Counter valid = registry.find(AssetMetricsTool.IMPORT_ROWS_COUNTER)
+                .tags("assetType", "software", "outcome", "valid").counter();
+        assertNotNull(valid);
+        assertEquals(150, valid.count());
+        assertNull(registry.find(AssetMetricsTool.IMPORT_ROWS_COUNTER)
+                .tags("assetType", "software", "outcome", "error").counter());
+    }
+
+    @Test
+    void batchSyncIsTaggedWithTheSharedTypeOrMixed() {
+        ProvinceAutoFillTool tool = provinceAutoFillTool(mock(ReportUnitMapper.class));
+
+        tool.batchSyncReportUnits(List.of(
+                new ProvinceAutoFillTool.UnitSyncRequest("单位A", "北京市", "cyber", false),
+                new ProvinceAutoFillTool.UnitSyncRequest("单位B", "河北省", "cyber", false)));
+        tool.batchSyncReportUnits(List.of(
+                new ProvinceAutoFillTool.UnitSyncRequest("单位A", "北京市", "cyber", false),
+                new ProvinceAutoFillTool.UnitSyncRequest("单位C", "天津市", "dataContent", false),
+                new ProvinceAutoFillTool.UnitSyncRequest("单位D", null, "software", true)));
+        tool.batchSyncReportUnits(List.of());
+
+        assertEquals(1, stageTimer("cyber", AssetMetricsTool.STAGE_SYNC_REPORT_UNITS).count());
+        assertEquals(1, stageTimer(AssetMetricsTool.ASSET_TYPE_MIXED, AssetMetricsTool.STAGE_SYNC_REPORT_UNITS).count());
+        assertEquals(2, registry.find(AssetMetricsTool.IMPORT_STAGE_TIMER)
+                .tag("stage", AssetMetricsTool.STAGE_SYNC_REPORT_UNITS).timers().size(), "空请求不应记录计时");
+    }
+
+    @Test
+    void batchSyncIsTimedEvenWhenItFails() {
+        ReportUnitMapper reportUnitMapper = mock(ReportUnitMapper.class);
+        when(reportUnitMapper.backfillDataContentAssetReportUnitId()).thenThrow(new IllegalStateException("回填失败"));
+        ProvinceAutoFillTool tool = provinceAutoFillTool(reportUnitMapper);
+
+        assertThrows(IllegalStateException.class, () -> tool.batchSyncReportUnits(List.of(
+                new ProvinceAutoFillTool.UnitSyncRequest("单位C", "天津市", "dataContent", false))));
+
+        assertEquals(1, stageTimer("dataContent", AssetMetricsTool.STAGE_SYNC_REPORT_UNITS).count());
+    }
+
+    @Test
+    void timedAnalyticsServiceIsRecordedThroughTimedAspect() {
+        PhoneNumberAnalysisServiceImpl target =
+                new PhoneNumberAnalysisServiceImpl(mock(CyberAssetMapper.class), new AssetWriteTracker());
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(target);
+        proxyFactory.addAspect(new TimedAspect(registry));
+        PhoneNumberAnalysisService service = proxyFactory.getProxy();
+
+        service.analyze("单位A");
+        assertThrows(IllegalArgumentException.class, () -> service.analyze(" "));
+
+        Timer success = registry.find("asset.analytics")
+                .tags("class", PhoneNumberAnalysisService.class.getName(), "method", "analyze", "exception", "none")
+                .timer();
+        Timer failure = registry.find("asset.analytics")
+                .tags("method", "analyze", "exception", "IllegalArgumentException")
+                .timer();
+        assertNotNull(success);
+        assertEquals(1, success.count());
+        assertNotNull(failure);
+        assertEquals(1, failure.count());
+    }
+
+    private ProvinceAutoFillTool provinceAutoFillTool(ReportUnitMapper reportUnitMapper) {
+        ProvinceAutoFillTool tool = new ProvinceAutoFillTool();
+        ReflectionTestUtils.setField(tool, "reportUnitMapper", reportUnitMapper);
+        ReflectionTestUtils.setField(tool, "areaCacheTool", mock(AreaCacheTool.class));
+        ReflectionTestUtils.setField(tool, "assetMetricsTool", assetMetricsTool);
+        return tool;
+    }
+
+    private Timer stageTimer(String assetType, String stage) {
+        Timer timer = registry.find(AssetMetricsTool.IMPORT_STAGE_TIMER)
+                .tags("assetType", assetType, "stage", stage).timer();
+        assertNotNull(timer, () -> "缺少阶段计时 assetType=" + assetType + ", stage=" + stage);
+        return timer;
+    }
+
+    private Timer importTimer(String assetType, String outcome) {
+        Timer timer = registry.find(AssetMetricsTool.IMPORT_TOTAL_TIMER)
+                .tags("assetType", assetType, "outcome", outcome).timer();
+        assertNotNull(timer, () -> "缺少导入计时 assetType=" + assetType + ", outcome=" + outcome);
+        return timer;
+    }
+}
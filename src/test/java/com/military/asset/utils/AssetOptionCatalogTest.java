@@ -0,0 +1,140 @@
+package com.military.asset.utils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.DataValidation;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.ss.util.CellRangeAddress;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 固定选项目录：固定选项接口的JSON与生成式模板的下拉校验都来自AssetOptionRegistry，两处选项一致
+ */
+class AssetOptionCatalogTest {
+
+    private static final Pattern OPTION_RANGE = Pattern.compile("'?选项'?!\\$([A-Z]+)\\$1:\\$([A-Z]+)\\$(\\d+)");
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AssetOptionCatalog catalog = new AssetOptionCatalog(objectMapper, 600);
+
+    @Test
+    void fixedOptionsJsonMatchesRegistry() throws IOException {
+        for (AssetOptionRegistry.AssetOptions options : List.of(
+                AssetOptionRegistry.SOFTWARE, AssetOptionRegistry.CYBER, AssetOptionRegistry.DATA_CONTENT)) {
+            TemplateFileCache.CachedTemplate json = catalog.fixedOptionsJson(options);
+
+            JsonNode body = objectMapper.readTree(json.asResource().getContentAsByteArray());
+            assertEquals(200, body.get("code").asInt());
+            assertEquals(objectMapper.valueToTree(options.toOptionsMap()), body.get("data"));
+            assertEquals(json.getETag(), new AssetOptionCatalog(objectMapper, 600).fixedOptionsJson(options).getETag(),
+                    "ETag由内容决定，跨实例一致");
+        }
+    }
+
+    @Test
+    void generatedTemplatesCarryRegistryDropDowns() throws IOException {
+        assertDropDowns(AssetOptionRegistry.SOFTWARE, "软件资产");
+        assertDropDowns(AssetOptionRegistry.CYBER, "网信资产");
+        assertDropDowns(AssetOptionRegistry.DATA_CONTENT, "数据内容资产");
+    }
+
+    @Test
+    void generatedTemplateIsBuiltOnce() {
+        assertSame(catalog.generatedTemplate(AssetOptionRegistry.CYBER, "网信资产"),
+                catalog.generatedTemplate(AssetOptionRegistry.CYBER, "网信资产"));
+    }
+
+    @Test
+    void registryLookupsAndImmutability() {
+        AssetOptionRegistry.AssetOptions software = AssetOptionRegistry.SOFTWARE;
+
+        assertEquals("操作系统", software.categoryOf("006004002001001"));
+        assertNull(software.categoryOf("999"));
+        assertNull(software.categoryOf(null));
+        assertEquals(software.getCategoryCodes(), software.optionsForHeader(AssetOptionRegistry.CATEGORY_CODE_HEADER));
+        assertEquals(software.getAssetCategories(), software.optionsForHeader(AssetOptionRegistry.ASSET_CATEGORY_HEADER));
+        assertEquals(List.of("在用", "闲置", "报废", "封闭"), software.optionsForHeader("服务状态"));
+        assertNull(software.optionsForHeader("主键"));
+        assertEquals(List.of("categoryMapping", "categoryCodes", "assetCategories",
+                "acquisitionMethod", "deploymentScope", "serviceStatus"), new ArrayList<>(software.toOptionsMap().keySet()));
+        assertThrows(UnsupportedOperationException.class, () -> software.getCategoryMapping().put("x", "y"));
+        assertThrows(UnsupportedOperationException.class, () -> software.getFields().get(0).getValues().add("x"));
+    }
+
+    /**
+     * 每个有固定选项的表头列都有下拉校验，引用隐藏“选项”工作表中与注册表一致的选项区域
+     */
+    private void assertDropDowns(AssetOptionRegistry.AssetOptions options, String sheetName) throws IOException {
+        TemplateFileCache.CachedTemplate template = catalog.generatedTemplate(options, sheetName);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        template.writeTo(bytes);
+
+        try (Workbook workbook = new XSSFWorkbook(new ByteArrayInputStream(bytes.toByteArray()))) {
+            Sheet dataSheet = workbook.getSheet(sheetName);
+            Sheet optionSheet = workbook.getSheet("选项");
+            assertNotNull(dataSheet);
+            assertNotNull(optionSheet);
+            assertTrue(workbook.isSheetHidden(workbook.getSheetIndex(optionSheet)));
+
+            Map<Integer, String> validatedColumns = new HashMap<>();
+            for (DataValidation validation : dataSheet.getDataValidations()) {
+                CellRangeAddress range = validation.getRegions().getCellRangeAddresses()[0];
+                assertEquals(1, range.getFirstRow(), "表头行不加校验");
+                Matcher matcher = OPTION_RANGE.matcher(validation.getValidationConstraint().getFormula1());
+                assertTrue(matcher.matches(), validation.getValidationConstraint().getFormula1());
+                validatedColumns.put(range.getFirstColumn(), matcher.group(1));
+            }
+
+            Row header = dataSheet.getRow(0);
+            int expectedColumns = 0;
+            for (Cell cell : header) {
+                List<String> expected = options.optionsForHeader(cell.getStringCellValue());
+                if (expected == null || expected.isEmpty()) {
+                    assertFalse(validatedColumns.containsKey(cell.getColumnIndex()), cell.getStringCellValue());
+                    continue;
+                }
+                expectedColumns++;
+                String optionColumn = validatedColumns.get(cell.getColumnIndex());
+                assertNotNull(optionColumn, "缺少下拉校验：" + cell.getStringCellValue());
+                assertEquals(expected, readColumn(optionSheet, CellReference.convertColStringToIndex(optionColumn)),
+                        cell.getStringCellValue());
+            }
+            assertEquals(expectedColumns, validatedColumns.size());
+            assertTrue(expectedColumns > 0);
+        }
+    }
+
+    private static List<String> readColumn(Sheet sheet, int column) {
+        List<String> values = new ArrayList<>();
+        for (Row row : sheet) {
+            Cell cell = row.getCell(column);
+            if (cell != null) {
+                values.add(cell.getStringCellValue());
+            }
+        }
+        return values;
+    }
+}
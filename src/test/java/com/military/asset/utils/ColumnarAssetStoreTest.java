@@ -0,0 +1,190 @@
+package com.military.asset.utils;
+
+import com.military.asset.entity.CyberAsset;
+import com.military.asset.entity.SoftwareAsset;
+import com.military.asset.mapper.CyberAssetMapper;
+import com.military.asset.mapper.SoftwareAssetMapper;
+import org.apache.ibatis.executor.result.DefaultResultContext;
+import org.apache.ibatis.session.ResultHandler;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * 列式快照的版本失效：写入版本递增后读取仍返回上一个快照并只排入一次后台重建，重建完成后返回新快照；
+ * 软件快照构建时的上报单位行号索引与部署范围合计
+ */
+class ColumnarAssetStoreTest {
+
+    private final SoftwareAssetMapper softwareAssetMapper = mock(SoftwareAssetMapper.class);
+    private final CyberAssetMapper cyberAssetMapper = mock(CyberAssetMapper.class);
+    private final AssetWriteTracker assetWriteTracker = new AssetWriteTracker();
+    private final List<Runnable> rebuildTasks = new ArrayList<>();
+    private final List<SoftwareAsset> softwareRows = new ArrayList<>();
+    private final List<CyberAsset> cyberRows = new ArrayList<>();
+
+    private ColumnarAssetStore store;
+
+    @BeforeEach
+    void setUp() {
+        doAnswer(invocation -> {
+            feed(invocation.getArgument(0), softwareRows);
+            return null;
+        }).when(softwareAssetMapper).scanColumnarSnapshot(any());
+        doAnswer(invocation -> {
+            feed(invocation.getArgument(0), cyberRows);
+            return null;
+        }).when(cyberAssetMapper).scanColumnarSnapshot(any());
+        store = new ColumnarAssetStore(softwareAssetMapper, cyberAssetMapper, assetWriteTracker, rebuildTasks::add);
+    }
+
+    @Test
+    void firstReadBuildsSynchronously() {
+        softwareRows.add(software("单位1", 3));
+
+        ColumnarAssetStore.SoftwareColumns columns = store.software();
+
+        assertEquals(1, columns.getSize());
+        assertEquals(0, rebuildTasks.size());
+        assertSame(columns, store.software());
+    }
+
+    @Test
+    void staleReadServesPreviousSnapshotAndQueuesOneRebuild() {
+        softwareRows.add(software("单位1", 3));
+        ColumnarAssetStore.SoftwareColumns first = store.software();
+
+        softwareRows.add(software("单位2", 5));
+        assetWriteTracker.markWritten("software");
+        assetWriteTracker.markWritten("software");
+
+        assertSame(first, store.software());
+        assertSame(first, store.software());
+        assertEquals(1, rebuildTasks.size(), "多次版本落后的读取只排入一次重建");
+        verify(softwareAssetMapper, times(1)).scanColumnarSnapshot(any());
+
+        rebuildTasks.remove(0).run();
+
+        ColumnarAssetStore.SoftwareColumns rebuilt = store.software();
+        assertEquals(2, rebuilt.getSize());
+        assertEquals(assetWriteTracker.version("software"), rebuilt.getVersion());
+        assertEquals(0, rebuildTasks.size());
+    }
+
+    @Test
+    void writesDuringRebuildQueueAnotherRebuild() {
+        store.software();
+        assetWriteTracker.markWritten("software");
+        store.software();
+        Runnable rebuild = rebuildTasks.remove(0);
+
+        // 任务开始后排队标记已清除：重建期间的写入会再排入一次
+        rebuild.run();
+        assetWriteTracker.markWritten("software");
+        store.software();
+
+        assertEquals(1, rebuildTasks.size());
+    }
+
+    @Test
+    void softwareWriteDoesNotInvalidateCyberSnapshot() {
+        cyberRows.add(cyber("单位1"));
+        ColumnarAssetStore.CyberColumns cyber = store.cyber();
+
+        assetWriteTracker.markWritten("software");
+
+        assertSame(cyber, store.cyber());
+        assertEquals(0, rebuildTasks.size());
+    }
+
+    @Test
+    void failedRebuildKeepsPreviousSnapshotAndRetriesOnNextRead() {
+        ColumnarAssetStore.SoftwareColumns first = store.software();
+        assetWriteTracker.markWritten("software");
+        doAnswer(invocation -> {
+            throw new IllegalStateException("连接超时");
+        }).when(softwareAssetMapper).scanColumnarSnapshot(any());
+
+        store.software();
+        rebuildTasks.remove(0).run();
+
+        assertSame(first, store.software());
+        assertEquals(1, rebuildTasks.size());
+    }
+
+    @Test
+    void indexesSoftwareRowsByReportUnit() {
+        softwareRows.add(software("单位1", 3, "全军"));
+        softwareRows.add(software("单位2", 5, "战区"));
+        softwareRows.add(software("单位1", 7, null));
+        softwareRows.add(software(null, 2, "全军"));
+        softwareRows.add(software("单位1", 11, "全军"));
+
+        ColumnarAssetStore.SoftwareColumns columns = store.software();
+
+        assertArrayEquals(new int[]{0, 2, 4}, rowsOf(columns, columns.getReportUnits().codeOf("单位1")));
+        assertArrayEquals(new int[]{1}, rowsOf(columns, columns.getReportUnits().codeOf("单位2")));
+        assertArrayEquals(new int[]{3}, rowsOf(columns, ColumnarAssetStore.NULL_CODE));
+
+        long[] scopeQuantities = columns.getDeploymentScopeQuantities();
+        boolean[] scopesSeen = columns.getDeploymentScopesSeen();
+        int allArmy = columns.deploymentScopeSlot(columns.getDeploymentScopes().codeOf("全军"));
+        int theater = columns.deploymentScopeSlot(columns.getDeploymentScopes().codeOf("战区"));
+        int unfilled = columns.deploymentScopeSlot(ColumnarAssetStore.NULL_CODE);
+        assertEquals(16, scopeQuantities[allArmy]);
+        assertEquals(5, scopeQuantities[theater]);
+        assertEquals(7, scopeQuantities[unfilled]);
+        assertTrue(scopesSeen[allArmy] && scopesSeen[theater] && scopesSeen[unfilled]);
+    }
+
+    private static int[] rowsOf(ColumnarAssetStore.SoftwareColumns columns, int reportUnitCode) {
+        int slot = columns.unitSlot(reportUnitCode);
+        return Arrays.copyOfRange(columns.getUnitRowIndexes(),
+                columns.getUnitRowOffsets()[slot], columns.getUnitRowOffsets()[slot + 1]);
+    }
+
+    private static <T> void feed(ResultHandler<T> handler, List<T> rows) {
+        DefaultResultContext<T> context = new DefaultResultContext<>();
+        for (T row : rows) {
+            context.nextResultObject(row);
+            handler.handleResult(context);
+        }
+    }
+
+    private static SoftwareAsset software(String reportUnit, int quantity) {
+        return software(reportUnit, quantity, null);
+    }
+
+    private static SoftwareAsset software(String reportUnit, int quantity, String deploymentScope) {
+        SoftwareAsset asset = new SoftwareAsset();
+        asset.setDeploymentScope(deploymentScope);
+        asset.setReportUnit(reportUnit);
+        asset.setProvince("北京市");
+        asset.setServiceStatus("在用");
+        asset.setActualQuantity(quantity);
+        return asset;
+    }
+
+    private static CyberAsset cyber(String reportUnit) {
+        CyberAsset asset = new CyberAsset();
+        asset.setReportUnit(reportUnit);
+        asset.setProvince("北京市");
+        asset.setAssetCategory("固定电话");
+        asset.setActualQuantity(1);
+        asset.setUsedQuantity(1);
+        return asset;
+    }
+}
@@ -0,0 +1,107 @@
+package com.military.asset.utils;
+
+import com.military.asset.vo.FieldQuantityStatisticsVO;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 领域数量累加器：快速选择求得的中位数、精确推导的方差与逐项计算一致；平方和超出long时不溢出
+ */
+class FieldQuantityAccumulatorTest {
+
+    @Test
+    void matchesDirectComputationOnRandomInputs() {
+        Random random = new Random(20241018L);
+        for (int round = 0; round < 200; round++) {
+            int[] values = new int[1 + random.nextInt(60)];
+            for (int i = 0; i < values.length; i++) {
+                // 取值范围小，确保出现大量重复值
+                values[i] = random.nextInt(20);
+            }
+            assertMatches(values);
+        }
+    }
+
+    @Test
+    void handlesSortedAndConstantInputs() {
+        int[] ascending = new int[1001];
+        int[] descending = new int[1000];
+        for (int i = 0; i < ascending.length; i++) {
+            ascending[i] = i;
+        }
+        for (int i = 0; i < descending.length; i++) {
+            descending[i] = descending.length - i;
+        }
+        int[] constant = new int[500];
+        Arrays.fill(constant, 7);
+
+        assertMatches(ascending);
+        assertMatches(descending);
+        assertMatches(constant);
+        assertMatches(new int[]{3, 1});
+        assertMatches(new int[]{5});
+    }
+
+    @Test
+    void sumOfSquaresBeyondLongRange() {
+        int[] values = {Integer.MAX_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE, 0, Integer.MAX_VALUE, 1};
+
+        FieldQuantityStatisticsVO statistics = assertMatches(values);
+
+        assertEquals(4L * Integer.MAX_VALUE + 1, statistics.getTotal());
+    }
+
+    @Test
+    void ignoresNullsAndReportsZerosWhenEmpty() {
+        FieldQuantityAccumulator accumulator = new FieldQuantityAccumulator();
+        accumulator.add((Integer) null);
+
+        FieldQuantityStatisticsVO statistics = accumulator.toStatistics();
+
+        BigDecimal zero = new BigDecimal("0.00");
+        assertEquals(0, accumulator.getCount());
+        assertEquals(0L, statistics.getTotal());
+        assertEquals(zero, statistics.getAverage());
+        assertEquals(zero, statistics.getMedian());
+        assertEquals(zero, statistics.getVariance());
+    }
+
+    private static FieldQuantityStatisticsVO assertMatches(int[] values) {
+        FieldQuantityAccumulator accumulator = new FieldQuantityAccumulator();
+        long sum = 0;
+        for (int value : values) {
+            accumulator.add(Integer.valueOf(value));
+            sum += value;
+        }
+        FieldQuantityStatisticsVO statistics = accumulator.toStatistics();
+
+        BigDecimal n = BigDecimal.valueOf(values.length);
+        int[] sorted = values.clone();
+        Arrays.sort(sorted);
+        int middle = sorted.length / 2;
+        BigDecimal median = sorted.length % 2 == 1
+                ? BigDecimal.valueOf(sorted[middle]).setScale(2, RoundingMode.HALF_UP)
+                : BigDecimal.valueOf(sorted[middle - 1]).add(BigDecimal.valueOf(sorted[middle]))
+                        .divide(BigDecimal.valueOf(2), 2, RoundingMode.HALF_UP);
+        BigDecimal mean = BigDecimal.valueOf(sum).divide(n, 4, RoundingMode.HALF_UP);
+        BigDecimal squaredDeviations = BigDecimal.ZERO;
+        for (int value : values) {
+            BigDecimal diff = BigDecimal.valueOf(value).subtract(mean);
+            squaredDeviations = squaredDeviations.add(diff.multiply(diff));
+        }
+
+        String input = Arrays.toString(values);
+        assertEquals(values.length, accumulator.getCount(), input);
+        assertEquals(sum, statistics.getTotal(), input);
+        assertEquals(BigDecimal.valueOf(sum).divide(n, 2, RoundingMode.HALF_UP), statistics.getAverage(), input);
+        assertEquals(median, statistics.getMedian(), input);
+        assertEquals(squaredDeviations.divide(n, 2, RoundingMode.HALF_UP), statistics.getVariance(), input);
+        return statistics;
+    }
+}
@@ -0,0 +1,85 @@
+package com.military.asset.utils;
+
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.military.asset.entity.SoftwareAsset;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 全文检索条件的分流：只有纯中日韩文字且不短于ngram_token_size的关键词走MATCH，其余一律LIKE
+ */
+class FullTextSearchToolTest {
+
+    @Test
+    void cjkKeywordUsesPhraseMatch() {
+        String sql = condition(tool(true), "数据中心");
+
+        assertTrue(unwrap(sql).startsWith("MATCH(report_unit) AGAINST("), sql);
+    }
+
+    @Test
+    void latinAndAlphanumericKeywordsFallBackToLike() {
+        FullTextSearchTool tool = tool(true);
+
+        assertLike(condition(tool, "Java"));
+        assertLike(condition(tool, "C01"));
+        assertLike(condition(tool, "北京Java中心"));
+        assertLike(condition(tool, "数据 中心"));
+    }
+
+    @Test
+    void keywordShorterThanTokenFallsBackToLike() {
+        assertLike(condition(tool(true), "数"));
+    }
+
+    @Test
+    void disabledFullTextAlwaysUsesLike() {
+        assertLike(condition(tool(false), "数据中心"));
+    }
+
+    @Test
+    void blankKeywordAddsNoCondition() {
+        assertEquals("", condition(tool(true), "  "));
+    }
+
+    @Test
+    void cjkOnlyCoversHanKanaAndHangul() {
+        assertTrue(FullTextSearchTool.isCjkOnly("上报单位"));
+        assertTrue(FullTextSearchTool.isCjkOnly("データ"));
+        assertTrue(FullTextSearchTool.isCjkOnly("サーバー"));
+        assertTrue(FullTextSearchTool.isCjkOnly("ﾃﾞｰﾀ"));
+        assertTrue(FullTextSearchTool.isCjkOnly("데이터"));
+        assertFalse(FullTextSearchTool.isCjkOnly("单位1"));
+        assertFalse(FullTextSearchTool.isCjkOnly("单位（一）"));
+        assertFalse(FullTextSearchTool.isCjkOnly(""));
+        assertFalse(FullTextSearchTool.isCjkOnly("-"));
+    }
+
+    private static void assertLike(String sql) {
+        assertTrue(unwrap(sql).startsWith("report_unit LIKE "), sql);
+    }
+
+    /**
+     * MyBatis-Plus把每个条件包在一对括号中
+     */
+    private static String unwrap(String sql) {
+        return sql.startsWith("(") && sql.endsWith(")") ? sql.substring(1, sql.length() - 1) : sql;
+    }
+
+    private static String condition(FullTextSearchTool tool, String keyword) {
+        QueryWrapper<SoftwareAsset> queryWrapper = new QueryWrapper<>();
+        tool.contains(queryWrapper, "report_unit", keyword);
+        return queryWrapper.getSqlSegment();
+    }
+
+    static FullTextSearchTool tool(boolean fullTextEnabled) {
+        FullTextSearchTool tool = new FullTextSearchTool();
+        ReflectionTestUtils.setField(tool, "fullTextEnabled", fullTextEnabled);
+        ReflectionTestUtils.setField(tool, "ngramTokenSize", 2);
+        return tool;
+    }
+}
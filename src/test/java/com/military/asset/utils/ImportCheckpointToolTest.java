@@ -0,0 +1,70 @@
+package com.military.asset.utils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.military.asset.entity.AssetImportCheckpoint;
+import com.military.asset.mapper.AssetImportCheckpointMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 检查点心跳：导入期间定时刷新本实例的检查点，结束（完成、失败或请求结束）后停止
+ */
+class ImportCheckpointToolTest {
+
+    @TempDir
+    Path directory;
+
+    private final AssetImportCheckpointMapper mapper = mock(AssetImportCheckpointMapper.class);
+
+    @Test
+    void heartbeatTouchesRunningCheckpointsUntilFinished() throws Exception {
+        ImportCheckpointTool tool = tool(60_000);
+        ImportCheckpointTool.Checkpoint checkpoint = tool.start("software", file(), true);
+
+        tool.heartbeat();
+        verify(mapper).touch(List.of(checkpoint.getImportId()));
+
+        when(mapper.failIfRunning(anyString(), anyString(), anyString())).thenReturn(1);
+        checkpoint.fail(new IllegalStateException("写库失败"), true);
+        tool.heartbeat();
+        verify(mapper).touch(any());
+    }
+
+    @Test
+    void releaseStopsHeartbeatOfUnfinishedCheckpoint() throws Exception {
+        ImportCheckpointTool tool = tool(60_000);
+        tool.start("cyber", file(), true).release();
+
+        tool.heartbeat();
+        verify(mapper, never()).touch(any());
+    }
+
+    @Test
+    void heartbeatMustBeShorterThanStaleTimeout() {
+        assertThrows(IllegalArgumentException.class, () -> tool(600_000));
+        assertThrows(IllegalArgumentException.class, () -> tool(0));
+    }
+
+    private ImportCheckpointTool tool(long heartbeatIntervalMs) {
+        when(mapper.selectList(any())).thenReturn(List.<AssetImportCheckpoint>of());
+        return new ImportCheckpointTool(mapper, new ObjectMapper(), mock(PlatformTransactionManager.class),
+                true, directory.toString(), 600, heartbeatIntervalMs, 72);
+    }
+
+    private static MockMultipartFile file() {
+        return new MockMultipartFile("file", "软件资产.xlsx", null, new byte[]{1, 2, 3});
+    }
+}
@@ -0,0 +1,234 @@
+package com.military.asset.utils;
+
+import com.military.asset.listener.CyberAssetExcelListener;
+import com.military.asset.listener.DataContentAssetExcelListener;
+import com.military.asset.listener.SoftwareAssetExcelListener;
+import com.military.asset.vo.ExcelErrorVO;
+import com.military.asset.vo.excel.CyberAssetExcelVO;
+import com.military.asset.vo.excel.DataContentAssetExcelVO;
+import com.military.asset.vo.excel.SoftwareAssetExcelVO;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.RecordComponent;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 导入暂存文件：导入监听器实际暂存的各VO与每种支持的字段类型都能原样写入、读回；seal后可只读重新打开
+ */
+class ImportSpillStoreTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void roundTripsEverySpilledVo() throws Exception {
+        List<Class<?>> spilledTypes = List.of(
+                SoftwareAssetExcelVO.class, CyberAssetExcelVO.class, DataContentAssetExcelVO.class,
+                ExcelErrorVO.class,
+                SoftwareAssetExcelListener.DuplicateRecord.class,
+                CyberAssetExcelListener.DuplicateRecord.class,
+                DataContentAssetExcelListener.DuplicateRecord.class);
+        try (ImportSpillStore store = ImportSpillStore.create(directory, "test")) {
+            for (Class<?> type : spilledTypes) {
+                assertRoundTrip(store, type, 1);
+                assertRoundTrip(store, type, 2);
+            }
+        }
+    }
+
+    @Test
+    void roundTripsEveryFieldTypeIncludingExtremesAndNulls() throws Exception {
+        AllKinds extremes = new AllKinds();
+        extremes.text = "中文 emoji 🚀 \u0000 末尾";
+        extremes.boxedInt = Integer.MIN_VALUE;
+        extremes.primitiveInt = Integer.MAX_VALUE;
+        extremes.boxedLong = Long.MIN_VALUE;
+        extremes.primitiveLong = Long.MAX_VALUE;
+        extremes.boxedDouble = Double.NaN;
+        extremes.primitiveDouble = -0.0d;
+        extremes.boxedBoolean = Boolean.FALSE;
+        extremes.primitiveBoolean = true;
+        extremes.amount = new BigDecimal("-12345678901234567890.1200");
+        extremes.date = LocalDate.of(1900, 1, 1);
+        extremes.dateTime = LocalDateTime.of(2099, 12, 31, 23, 59, 59, 999_999_999);
+        AllKinds empty = new AllKinds();
+
+        try (ImportSpillStore store = ImportSpillStore.create(directory, "test")) {
+            List<AllKinds> list = store.newList(AllKinds.class);
+            list.add(extremes);
+            list.add(empty);
+
+            assertFieldsEqual(extremes, list.get(0));
+            assertFieldsEqual(empty, list.get(1));
+            assertEquals(4, list.get(0).amount.scale());
+        }
+    }
+
+    @Test
+    void insertsAtIndexAndReturnsFreshInstances() throws Exception {
+        try (ImportSpillStore store = ImportSpillStore.create(directory, "test")) {
+            List<ExcelErrorVO> list = store.newList(ExcelErrorVO.class);
+            for (int i = 0; i < 100; i++) {
+                list.add(sample(ExcelErrorVO.class, i));
+            }
+            ExcelErrorVO inserted = sample(ExcelErrorVO.class, 1000);
+            list.add(0, inserted);
+
+            assertEquals(101, list.size());
+            assertFieldsEqual(inserted, list.get(0));
+            assertFieldsEqual(sample(ExcelErrorVO.class, 99), list.get(100));
+            assertNotSame(list.get(0), list.get(0));
+            assertThrows(IndexOutOfBoundsException.class, () -> list.get(101));
+        }
+    }
+
+    @Test
+    void sealedListsReopenReadOnlyAndFileIsDeletedOnClose() throws Exception {
+        Path file = directory.resolve("resumable.spill");
+        Path index = directory.resolve("resumable.idx");
+        List<Object> expected = new ArrayList<>();
+        ImportSpillStore store = ImportSpillStore.createFile(file);
+        List<SoftwareAssetExcelVO> valid = store.newList(SoftwareAssetExcelVO.class);
+        List<ExcelErrorVO> errors = store.newList(ExcelErrorVO.class);
+        for (int i = 0; i < 10; i++) {
+            SoftwareAssetExcelVO vo = sample(SoftwareAssetExcelVO.class, i);
+            valid.add(vo);
+            expected.add(vo);
+        }
+        errors.add(sample(ExcelErrorVO.class, 7));
+        store.seal(index, valid, errors);
+        store.retainFile();
+        store.close();
+        assertTrue(Files.exists(file));
+
+        try (ImportSpillStore reopened = ImportSpillStore.openSealed(file, index)) {
+            List<SoftwareAssetExcelVO> validAgain = reopened.sealedList(0, SoftwareAssetExcelVO.class);
+            assertEquals(10, validAgain.size());
+            for (int i = 0; i < 10; i++) {
+                assertFieldsEqual(expected.get(i), validAgain.get(i));
+            }
+            assertFieldsEqual(sample(ExcelErrorVO.class, 7), reopened.sealedList(1, ExcelErrorVO.class).get(0));
+            assertThrows(IllegalStateException.class, () -> validAgain.add(sample(SoftwareAssetExcelVO.class, 99)));
+        }
+        assertFalse(Files.exists(file));
+    }
+
+    private static <T> void assertRoundTrip(ImportSpillStore store, Class<T> type, int seed) throws Exception {
+        List<T> list = store.newList(type);
+        T value = sample(type, seed);
+        list.add(value);
+        assertFieldsEqual(value, list.get(0));
+    }
+
+    /**
+     * 每个字段都填入非空样例值（按种子区分），record按规范构造器创建
+     */
+    private static <T> T sample(Class<T> type, int seed) throws Exception {
+        if (type.isRecord()) {
+            RecordComponent[] components = type.getRecordComponents();
+            Class<?>[] parameterTypes = new Class<?>[components.length];
+            Object[] arguments = new Object[components.length];
+            for (int i = 0; i < components.length; i++) {
+                parameterTypes[i] = components[i].getType();
+                arguments[i] = sampleValue(parameterTypes[i], seed + i);
+            }
+            var constructor = type.getDeclaredConstructor(parameterTypes);
+            constructor.setAccessible(true);
+            return constructor.newInstance(arguments);
+        }
+        var constructor = type.getDeclaredConstructor();
+        constructor.setAccessible(true);
+        T instance = constructor.newInstance();
+        int offset = 0;
+        for (Field field : instanceFields(type)) {
+            field.set(instance, sampleValue(field.getType(), seed + offset++));
+        }
+        return instance;
+    }
+
+    private static Object sampleValue(Class<?> type, int seed) {
+        if (type == String.class) {
+            return "值-" + seed + "-测试";
+        }
+        if (type == Integer.class || type == int.class) {
+            return -seed * 1_000_003;
+        }
+        if (type == Long.class || type == long.class) {
+            return seed * 10_000_000_019L;
+        }
+        if (type == Double.class || type == double.class) {
+            return seed + 0.25d;
+        }
+        if (type == Boolean.class || type == boolean.class) {
+            return seed % 2 == 0;
+        }
+        if (type == BigDecimal.class) {
+            return new BigDecimal(seed + ".50");
+        }
+        if (type == LocalDate.class) {
+            return LocalDate.of(2020, 1, 1).plusDays(seed);
+        }
+        if (type == LocalDateTime.class) {
+            return LocalDateTime.of(2020, 1, 1, 8, 30).plusSeconds(seed).plusNanos(seed);
+        }
+        throw new IllegalArgumentException("样例不支持的字段类型：" + type.getName());
+    }
+
+    private static void assertFieldsEqual(Object expected, Object actual) throws Exception {
+        assertEquals(expected.getClass(), actual.getClass());
+        if (expected.getClass().isRecord()) {
+            assertEquals(expected, actual);
+            return;
+        }
+        for (Field field : instanceFields(expected.getClass())) {
+            assertEquals(field.get(expected), field.get(actual), expected.getClass().getSimpleName() + "." + field.getName());
+        }
+    }
+
+    private static List<Field> instanceFields(Class<?> type) {
+        List<Field> fields = new ArrayList<>();
+        for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+            for (Field field : c.getDeclaredFields()) {
+                int modifiers = field.getModifiers();
+                if (!Modifier.isStatic(modifiers) && !Modifier.isTransient(modifiers)) {
+                    field.setAccessible(true);
+                    fields.add(field);
+                }
+            }
+        }
+        return fields;
+    }
+
+    /**
+     * 覆盖每种支持的字段类型（装箱与基本类型各一）
+     */
+    static class AllKinds {
+        String text;
+        Integer boxedInt;
+        int primitiveInt;
+        Long boxedLong;
+        long primitiveLong;
+        Double boxedDouble;
+        double primitiveDouble;
+        Boolean boxedBoolean;
+        boolean primitiveBoolean;
+        BigDecimal amount;
+        LocalDate date;
+        LocalDateTime dateTime;
+    }
+}
@@ -0,0 +1,67 @@
+package com.military.asset.utils;
+
+import com.military.asset.entity.AssetSyncOutboxEvent;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 暂存范围内缓存的发件箱事件：同一（事件类型、资产类型、上报单位）只保留最后登记的一条
+ */
+class ImportStagingContextTest {
+
+    @Test
+    void deferKeepsLastEventPerUnit() {
+        try (ImportStagingContext.Scope scope = ImportStagingContext.open("cyber_asset", "cyber_asset_staging")) {
+            assertTrue(ImportStagingContext.defer(List.of(
+                    event(AssetSyncOutboxEvent.REPORT_UNIT_SYNC, "单位1", "北京市"),
+                    event(AssetSyncOutboxEvent.CROSS_TABLE_SYNC, "单位1", "北京市"),
+                    event(AssetSyncOutboxEvent.REPORT_UNIT_SYNC, "单位2", "河北省"))));
+            // 下一分块中单位1改到山东省
+            ImportStagingContext.defer(List.of(
+                    event(AssetSyncOutboxEvent.REPORT_UNIT_SYNC, "单位1", "山东省"),
+                    event(AssetSyncOutboxEvent.CROSS_TABLE_SYNC, "单位1", "山东省")));
+
+            List<AssetSyncOutboxEvent> events = scope.getDeferredEvents();
+            assertEquals(3, events.size());
+            assertEquals(List.of("单位2", "单位1", "单位1"),
+                    events.stream().map(AssetSyncOutboxEvent::getReportUnit).toList());
+            assertEquals(List.of("河北省", "山东省", "山东省"),
+                    events.stream().map(AssetSyncOutboxEvent::getProvince).toList());
+            assertEquals(events, ImportStagingContext.currentDeferredEvents());
+        }
+        assertFalse(ImportStagingContext.isActive());
+    }
+
+    @Test
+    void restoredEventsAreMergedWithNewOnes() {
+        try (ImportStagingContext.Scope scope = ImportStagingContext.open("cyber_asset", "cyber_asset_staging")) {
+            scope.restoreDeferredEvents(List.of(
+                    event(AssetSyncOutboxEvent.REPORT_UNIT_SYNC, "单位1", "北京市"),
+                    event(AssetSyncOutboxEvent.REPORT_UNIT_SYNC, "单位2", "河北省")));
+            ImportStagingContext.defer(List.of(event(AssetSyncOutboxEvent.REPORT_UNIT_SYNC, "单位1", "山东省")));
+
+            assertEquals(List.of("河北省", "山东省"),
+                    scope.getDeferredEvents().stream().map(AssetSyncOutboxEvent::getProvince).toList());
+        }
+    }
+
+    @Test
+    void deferOutsideScopeIsNotCached() {
+        assertFalse(ImportStagingContext.defer(List.of(event(AssetSyncOutboxEvent.REPORT_UNIT_SYNC, "单位1", "北京市"))));
+        assertTrue(ImportStagingContext.currentDeferredEvents().isEmpty());
+    }
+
+    private static AssetSyncOutboxEvent event(String eventType, String reportUnit, String province) {
+        AssetSyncOutboxEvent event = new AssetSyncOutboxEvent();
+        event.setEventType(eventType);
+        event.setAssetType("cyber");
+        event.setReportUnit(reportUnit);
+        event.setProvince(province);
+        return event;
+    }
+}
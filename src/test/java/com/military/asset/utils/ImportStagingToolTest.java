@@ -0,0 +1,199 @@
+package com.military.asset.utils;
+
+import com.military.asset.mapper.CyberAssetMapper;
+import com.military.asset.mapper.DataContentAssetMapper;
+import com.military.asset.mapper.ImportStagingMapper;
+import com.military.asset.mapper.SoftwareAssetMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 导入代的互斥与续传失败分类：同类导入进行中为暂时冲突（ImportInProgressException，清空模式同样互斥），
+ * 暂存表已不存在、导入模式已变更为无法再续传；暂存导入期间拒绝单条写入，暂存数据引用不存在的上报单位时不替换，替换后外键补回失败时报告失败
+ */
+class ImportStagingToolTest {
+
+    private final ImportStagingMapper importStagingMapper = mock(ImportStagingMapper.class);
+    private final SoftwareAssetMapper softwareAssetMapper = mock(SoftwareAssetMapper.class);
+
+    @Test
+    void resumeWhileSameTypeRunningIsTemporaryConflict() {
+        ImportStagingTool tool = tool(true);
+        when(importStagingMapper.countTable("software_asset_staging")).thenReturn(1);
+
+        ImportStagingTool.Generation generation = tool.resume("software", true, List.of());
+        try {
+            assertThrows(ImportStagingTool.ImportInProgressException.class,
+                    () -> tool.resume("software", true, List.of()));
+        } finally {
+            generation.close();
+        }
+    }
+
+    @Test
+    void resumeWithoutStagingTableCannotBeResumed() {
+        ImportStagingTool tool = tool(true);
+        when(importStagingMapper.countTable("software_asset_staging")).thenReturn(0);
+
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+                () -> tool.resume("software", true, List.of()));
+        assertFalse(e instanceof ImportStagingTool.ImportInProgressException);
+        assertFalse(ImportStagingContext.isActive());
+    }
+
+    @Test
+    void resumeAfterModeChangeCannotBeResumed() {
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+                () -> tool(false).resume("cyber", true, List.of()));
+        assertFalse(e instanceof ImportStagingTool.ImportInProgressException);
+    }
+
+    @Test
+    void legacyImportsOfSameTypeAreExclusive() {
+        ImportStagingTool tool = tool(false);
+        int[] clears = new int[1];
+
+        ImportStagingTool.Generation generation = tool.begin("cyber", () -> clears[0]++);
+        assertThrows(ImportStagingTool.ImportInProgressException.class, () -> tool.begin("cyber", () -> clears[0]++));
+        assertThrows(ImportStagingTool.ImportInProgressException.class, () -> tool.resume("cyber", false, List.of()));
+        assertEquals(1, clears[0], "冲突的导入不应清空正式表");
+
+        generation.close();
+        tool.resume("cyber", false, List.of()).close();
+        tool.begin("cyber", () -> clears[0]++).close();
+        assertEquals(2, clears[0]);
+    }
+
+    @Test
+    void failedLegacyClearReleasesAssetType() {
+        ImportStagingTool tool = tool(false);
+
+        assertThrows(IllegalStateException.class, () -> tool.begin("dataContent", () -> {
+            throw new IllegalStateException("清空失败");
+        }));
+        tool.begin("dataContent", () -> {
+        }).close();
+    }
+
+    @Test
+    void stagedImportRejectsSingleRowWritesOfSameType() {
+        ImportStagingTool tool = tool(true);
+
+        ImportStagingTool.Generation generation = tool.begin("software", () -> {
+        });
+        // 导入线程卸下暂存范围后，当前线程等同于普通请求线程
+        generation.detach();
+        try {
+            assertThrows(ImportStagingTool.ImportInProgressException.class, () -> tool.checkWritable("software"));
+            tool.checkWritable("cyber");
+        } finally {
+            generation.close();
+        }
+        tool.checkWritable("software");
+    }
+
+    @Test
+    void legacyImportDoesNotRejectWrites() {
+        ImportStagingTool tool = tool(false);
+
+        try (ImportStagingTool.Generation ignored = tool.begin("software", () -> {
+        })) {
+            tool.checkWritable("software");
+        }
+    }
+
+    @Test
+    void writeTransactionRollsBackWhenImportStartsBeforeCommit() {
+        ImportStagingTool tool = tool(true);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            tool.checkWritable("software");
+            ImportStagingTool.Generation generation = tool.begin("software", () -> {
+            });
+            generation.detach();
+            try {
+                TransactionSynchronization synchronization = TransactionSynchronizationManager.getSynchronizations().get(0);
+                assertThrows(ImportStagingTool.ImportInProgressException.class, () -> synchronization.beforeCommit(false));
+            } finally {
+                generation.close();
+            }
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void foreignKeyRestoreIsRetried() {
+        ImportStagingTool tool = tool(true);
+        when(importStagingMapper.countForeignKey("software_asset", "fk_sa_report_unit")).thenReturn(0);
+        doThrow(new IllegalStateException("锁等待超时")).doNothing()
+                .when(importStagingMapper).addReportUnitForeignKey("software_asset", "fk_sa_report_unit");
+
+        try (ImportStagingTool.Generation generation = tool.begin("software", () -> {
+        })) {
+            generation.publish();
+        }
+
+        verify(importStagingMapper, times(2)).addReportUnitForeignKey("software_asset", "fk_sa_report_unit");
+        verify(softwareAssetMapper).resetSoftwareAssetStatus();
+    }
+
+    @Test
+    void missingForeignKeyAfterRetriesFailsThePublish() {
+        ImportStagingTool tool = tool(true);
+        when(importStagingMapper.countForeignKey("software_asset", "fk_sa_report_unit")).thenReturn(0);
+        doThrow(new IllegalStateException("锁等待超时"))
+                .when(importStagingMapper).addReportUnitForeignKey("software_asset", "fk_sa_report_unit");
+
+        try (ImportStagingTool.Generation generation = tool.begin("software", () -> {
+        })) {
+            RuntimeException e = assertThrows(RuntimeException.class, generation::publish);
+            assertTrue(e.getMessage().contains("software_asset.fk_sa_report_unit"), e.getMessage());
+        }
+
+        verify(importStagingMapper, times(3)).addReportUnitForeignKey("software_asset", "fk_sa_report_unit");
+        // 数据已替换：上报单位状态照常刷新后再报告失败
+        verify(softwareAssetMapper).resetSoftwareAssetStatus();
+        verify(importStagingMapper, times(3)).setForeignKeyChecks(0);
+    }
+
+    @Test
+    void orphanReportUnitRefsFailThePublishBeforeSwap() {
+        ImportStagingTool tool = tool(true);
+        when(importStagingMapper.countOrphanReportUnitRefs("software_asset_staging")).thenReturn(2);
+
+        try (ImportStagingTool.Generation generation = tool.begin("software", () -> {
+        })) {
+            IllegalStateException e = assertThrows(IllegalStateException.class, generation::publish);
+            assertTrue(e.getMessage().contains("software_asset_staging：2条"), e.getMessage());
+        }
+
+        // 正式表未替换、外键未补回、上报单位状态未刷新，暂存表删除（开始时清理残留一次，校验失败再删除一次）
+        verify(importStagingMapper, never()).swapTables(any());
+        verify(importStagingMapper, never()).addReportUnitForeignKey(any(), any());
+        verify(softwareAssetMapper, never()).resetSoftwareAssetStatus();
+        verify(importStagingMapper, times(2)).dropTableIfExists("software_asset_staging");
+    }
+
+    private ImportStagingTool tool(boolean stagingSwap) {
+        return new ImportStagingTool(importStagingMapper, softwareAssetMapper,
+                mock(CyberAssetMapper.class), mock(DataContentAssetMapper.class), mock(AssetSyncOutbox.class),
+                mock(AssetWriteTracker.class), mock(PlatformTransactionManager.class), stagingSwap);
+    }
+}
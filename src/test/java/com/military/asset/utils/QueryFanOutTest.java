@@ -0,0 +1,136 @@
+package com.military.asset.utils;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 扇出作用域的等待语义（执行器以桩代替）：
+ * joinPartial超时后慢子任务标记为TIMED_OUT并被取消（执行中的中断，排队中的不再执行），已完成的结果照常返回；
+ * join任一失败时抛出该异常并取消其余子任务；耗时明细按提交顺序记录每个子任务的状态与耗时
+ */
+class QueryFanOutTest {
+
+    private static final long TIMEOUT_MS = 200;
+
+    @Test
+    void joinPartialMarksSlowSubtaskTimedOutAndInterruptsIt() throws Exception {
+        // 每个子任务一个新线程
+        QueryFanOut fanOut = new QueryFanOut(new TaskExecutorAdapter(task -> new Thread(task).start()), TIMEOUT_MS);
+        CountDownLatch never = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+
+        try (QueryFanOut.Scope scope = fanOut.open()) {
+            QueryFanOut.Subtask<Long> software = scope.fork("software_asset", () -> 3L);
+            QueryFanOut.Subtask<Long> cyber = scope.fork("cyber_asset", () -> {
+                try {
+                    never.await();
+                } catch (InterruptedException e) {
+                    interrupted.countDown();
+                    throw e;
+                }
+                return 5L;
+            });
+
+            scope.joinPartial();
+
+            assertEquals(QueryFanOut.State.SUCCESS, software.state());
+            assertEquals(3L, software.getOrNull());
+            assertEquals(QueryFanOut.State.TIMED_OUT, cyber.state());
+            assertNull(cyber.getOrNull());
+            assertTrue(scope.isPartial());
+            assertTrue(interrupted.await(5, TimeUnit.SECONDS), "超时的子任务应中断其工作线程");
+
+            Map<String, Map<String, Object>> timings = scope.timings();
+            assertEquals(List.of("software_asset", "cyber_asset"), new ArrayList<>(timings.keySet()));
+            assertEquals("SUCCESS", timings.get("software_asset").get("status"));
+            assertFalse(timings.get("software_asset").containsKey("error"));
+            assertEquals("TIMED_OUT", timings.get("cyber_asset").get("status"));
+            assertTrue((Long) timings.get("cyber_asset").get("elapsedMs") >= TIMEOUT_MS);
+            assertEquals("超过" + TIMEOUT_MS + "ms未完成", timings.get("cyber_asset").get("error"));
+        }
+    }
+
+    @Test
+    void queuedSubtaskIsNotRunAfterTimeout() throws Exception {
+        // 排队执行器：只运行第一个子任务，其余留在队列中直到超时之后
+        List<Runnable> queued = new ArrayList<>();
+        QueryFanOut fanOut = new QueryFanOut(new TaskExecutorAdapter(task -> {
+            if (queued.isEmpty()) {
+                task.run();
+            }
+            queued.add(task);
+        }), TIMEOUT_MS);
+        AtomicBoolean slowRan = new AtomicBoolean();
+
+        try (QueryFanOut.Scope scope = fanOut.open()) {
+            QueryFanOut.Subtask<String> fast = scope.fork(() -> "ok");
+            QueryFanOut.Subtask<String> slow = scope.fork(() -> {
+                slowRan.set(true);
+                return "late";
+            });
+
+            scope.joinPartial();
+            queued.get(1).run();
+
+            assertEquals("ok", fast.getOrNull());
+            assertEquals(QueryFanOut.State.TIMED_OUT, slow.state());
+            assertFalse(slowRan.get(), "超时后排队中的子任务不应再执行");
+            assertEquals(List.of("task-0", "task-1"), new ArrayList<>(scope.timings().keySet()));
+        }
+    }
+
+    @Test
+    void joinRethrowsFirstFailureAndCancelsTheRest() {
+        List<Runnable> queued = new ArrayList<>();
+        QueryFanOut fanOut = new QueryFanOut(new TaskExecutorAdapter(queued::add), TIMEOUT_MS);
+        IllegalStateException failure = new IllegalStateException("查询失败");
+
+        try (QueryFanOut.Scope scope = fanOut.open()) {
+            QueryFanOut.Subtask<Long> failed = scope.fork("software_asset", () -> {
+                throw failure;
+            });
+            QueryFanOut.Subtask<Long> pending = scope.fork("cyber_asset", () -> 5L);
+            queued.get(0).run();
+
+            assertSame(failure, assertThrows(IllegalStateException.class, scope::join));
+            assertEquals(QueryFanOut.State.FAILED, failed.state());
+            assertEquals(QueryFanOut.State.CANCELLED, pending.state());
+            assertThrows(IllegalStateException.class, pending::get);
+            assertThrows(IllegalStateException.class, () -> scope.fork(() -> 1L), "join之后不能再提交子任务");
+
+            Map<String, Map<String, Object>> timings = scope.timings();
+            assertEquals("FAILED", timings.get("software_asset").get("status"));
+            assertEquals("查询失败", timings.get("software_asset").get("error"));
+            assertEquals("CANCELLED", timings.get("cyber_asset").get("status"));
+        }
+    }
+
+    @Test
+    void joinReturnsAllResults() throws Exception {
+        QueryFanOut fanOut = new QueryFanOut(new TaskExecutorAdapter(Runnable::run), TIMEOUT_MS);
+
+        try (QueryFanOut.Scope scope = fanOut.open()) {
+            QueryFanOut.Subtask<Long> software = scope.fork(() -> 3L);
+            QueryFanOut.Subtask<Long> cyber = scope.fork(() -> 5L);
+
+            scope.join();
+
+            assertEquals(8L, software.get() + cyber.get());
+            assertFalse(scope.isPartial());
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.military.asset.utils;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.util.StringUtils;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * 预编译模板与原先逐步生成的文案逐字一致：
+ * 升级建议（String.format → 拼接评估段 → 循环补齐到150字 → 截断到350字）覆盖三档阈值边界、
+ * 空名称、各长度名称与截断处落在非BMP字符上的名称；分析说明（两次String.format）覆盖各等级、得分舍入边界与空单位
+ */
+class RecommendationTemplateTest {
+
+    private static final BigDecimal[] NECESSITIES = {
+            null, new BigDecimal("-1"), BigDecimal.ZERO, new BigDecimal("0.1999"), new BigDecimal("0.2"),
+            new BigDecimal("0.4999"), new BigDecimal("0.5"), BigDecimal.ONE};
+
+    @Test
+    void recommendationMatchesLegacyForBoundaryScoresAndNames() {
+        List<String> names = new ArrayList<>(List.of("", "   ", "  办公系统  ", "𠮷数据库", "🚀".repeat(200)));
+        names.add(null);
+        for (int length = 1; length <= 420; length++) {
+            names.add("软".repeat(length));
+        }
+        for (String name : names) {
+            for (BigDecimal necessity : NECESSITIES) {
+                assertEquals(legacyRecommendation(name, necessity),
+                        SoftwareUpgradeFormulaUtils.buildRecommendation(name, necessity),
+                        () -> "name=" + name + ", necessity=" + necessity);
+            }
+        }
+    }
+
+    @Test
+    void truncationSplitsNonBmpNameAtTheSameCodeUnit() {
+        // 349个BMP字符后接一个代理对：截断到350个char时与原实现一样落在代理对中间
+        String name = "软".repeat(349) + "🚀";
+
+        String rendered = SoftwareUpgradeFormulaUtils.buildRecommendation(name, BigDecimal.ONE);
+
+        assertEquals(legacyRecommendation(name, BigDecimal.ONE), rendered);
+        assertEquals(350, rendered.length());
+    }
+
+    @Test
+    void recommendationCodeFollowsTheSameThresholds() {
+        assertEquals(SoftwareUpgradeFormulaUtils.CODE_KEEP_MONITORING, SoftwareUpgradeFormulaUtils.recommendationCode(null));
+        assertEquals(SoftwareUpgradeFormulaUtils.CODE_KEEP_MONITORING, SoftwareUpgradeFormulaUtils.recommendationCode(new BigDecimal("0.1999")));
+        assertEquals(SoftwareUpgradeFormulaUtils.CODE_UPGRADE_PLANNED, SoftwareUpgradeFormulaUtils.recommendationCode(new BigDecimal("0.2")));
+        assertEquals(SoftwareUpgradeFormulaUtils.CODE_UPGRADE_PLANNED, SoftwareUpgradeFormulaUtils.recommendationCode(new BigDecimal("0.4999")));
+        assertEquals(SoftwareUpgradeFormulaUtils.CODE_UPGRADE_URGENT, SoftwareUpgradeFormulaUtils.recommendationCode(new BigDecimal("0.5")));
+    }
+
+    @Test
+    void adviceMatchesLegacyForLevelsScoresAndUnits() {
+        String[] units = {null, "", "第一单位", "𠮷单位"};
+        BigDecimal[] scores = {null, BigDecimal.ZERO, new BigDecimal("0.00005"), new BigDecimal("0.00004999"),
+                new BigDecimal("0.12345"), new BigDecimal("1"), new BigDecimal("12345.678951")};
+        String[] levels = {"高", "中", "低", "未知"};
+        long[] counts = {0, 1, Long.MAX_VALUE};
+        Locale defaultLocale = Locale.getDefault();
+        // 原实现按默认区域格式化得分，以小数点区域比较
+        Locale.setDefault(Locale.ROOT);
+        try {
+            for (String unit : units) {
+                for (BigDecimal score : scores) {
+                    for (String level : levels) {
+                        for (long count : counts) {
+                            assertEquals(legacyAdvice(unit, score, level, count),
+                                    ReportUnitImportanceUtils.buildAdvice(unit, score, level, count),
+                                    () -> "unit=" + unit + ", score=" + score + ", level=" + level + ", count=" + count);
+                        }
+                    }
+                }
+            }
+        } finally {
+            Locale.setDefault(defaultLocale);
+        }
+    }
+
+    @Test
+    void compileRejectsInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> RecommendationTemplate.compile("正文", "", 10, 20));
+        assertThrows(IllegalArgumentException.class, () -> RecommendationTemplate.compile("正文", "补充", 30, 20));
+    }
+
+    /**
+     * 原SoftwareUpgradeFormulaUtils.buildRecommendation（改为预编译模板之前）
+     */
+    private static String legacyRecommendation(String assetName, BigDecimal necessity) {
+        String safeName = StringUtils.hasText(assetName) ? assetName.trim() : "该软件";
+        BigDecimal safeNecessity = necessity == null ? BigDecimal.ZERO : necessity;
+
+        String recommendation;
+        if (safeNecessity.compareTo(new BigDecimal("0.5")) >= 0) {
+            recommendation = String.format("%s建议升级，建议时间为30~150日内完成。", safeName);
+        } else if (safeNecessity.compareTo(new BigDecimal("0.2")) >= 0) {
+            recommendation = String.format("%s建议升级，建议时间为半年左右。", safeName);
+        } else {
+            recommendation = String.format("%s当前版本满足主要需求，可持续关注行业版本演进后再评估升级计划。", safeName);
+        }
+
+        String detailed = recommendation + " 安全指标、性能指标及需求匹配度已经过综合评估，建议结合单位的上线节奏、测试资源与合规要求排期，"
+                + "在升级前完成备份与回滚方案评审，并对关键业务连续性进行验证。";
+
+        if (detailed.length() < 150) {
+            StringBuilder builder = new StringBuilder(detailed);
+            String appendix = " 请同步做好安全漏洞修复、性能压测和需求回归验证，确保升级过程满足作战与训练场景的稳定性。";
+            while (builder.length() < 150) {
+                builder.append(appendix);
+            }
+            detailed = builder.toString();
+        }
+
+        return detailed.length() > 350 ? detailed.substring(0, 350) : detailed;
+    }
+
+    /**
+     * 原ReportUnitImportanceUtils.buildAdvice（去掉String.format之前）
+     */
+    private static String legacyAdvice(String reportUnit, BigDecimal score, String level, long assetCount) {
+        String unit = StringUtils.hasText(reportUnit) ? reportUnit : "该上报单位";
+        BigDecimal safeScore = score == null ? BigDecimal.ZERO : score;
+        String base = String.format("%s的软件资产综合得分为%.4f，重要性等级判定为%s。", unit, safeScore, level);
+        String detail;
+        switch (level) {
+            case "高":
+                detail = "该单位的软件资产成熟度高、覆盖面广，建议优先保障其资源与技术支持，维持领先优势。";
+                break;
+            case "中":
+                detail = "该单位的软件资产具备一定基础，建议根据业务优先级逐步升级或优化，以提升整体竞争力。";
+                break;
+            default:
+                detail = "该单位的软件资产得分偏低，可关注基础设施建设与关键应用补齐，循序推进能力提升。";
+        }
+        String workload = String.format(" 本次计算覆盖%d条资产记录，结论适用于快速批量评估场景。", assetCount);
+        return base + detail + workload;
+    }
+}
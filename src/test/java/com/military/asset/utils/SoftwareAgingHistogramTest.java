@@ -0,0 +1,49 @@
+package com.military.asset.utils;
+
+import com.military.asset.vo.stat.SoftwareAssetAgingBucketRow;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 老化直方图分组的前缀和查找：需升级数量与历史时间点的总量分母
+ */
+class SoftwareAgingHistogramTest {
+
+    private final SoftwareAgingHistogram.Group group = SoftwareAgingHistogram.Group.of("北京市", "单位1", "在用", List.of(
+            row(LocalDate.of(2010, 1, 1), 5),
+            row(LocalDate.of(2018, 6, 30), 7),
+            row(LocalDate.of(2024, 3, 15), 11),
+            row(null, 2)));
+
+    @Test
+    void quantityBeforeExcludesThresholdDay() {
+        assertEquals(0, group.quantityBefore(LocalDate.of(2010, 1, 1)));
+        assertEquals(5, group.quantityBefore(LocalDate.of(2010, 1, 2)));
+        assertEquals(12, group.quantityBefore(LocalDate.of(2024, 3, 15)));
+    }
+
+    @Test
+    void quantityPutIntoUseByCountsOnlyAssetsExistingAtReferenceDate() {
+        // 2020年的时间点：2024年投入使用的11件尚不存在，未填日期的2件始终计入
+        assertEquals(14, group.quantityPutIntoUseBy(LocalDate.of(2020, 1, 1)));
+        // 参考日期当天投入使用的计入
+        assertEquals(25, group.quantityPutIntoUseBy(LocalDate.of(2024, 3, 15)));
+        assertEquals(14, group.quantityPutIntoUseBy(LocalDate.of(2024, 3, 14)));
+        assertEquals(2, group.quantityPutIntoUseBy(LocalDate.of(2000, 1, 1)));
+        assertEquals(group.getTotalQuantity(), group.quantityPutIntoUseBy(LocalDate.of(2030, 1, 1)));
+    }
+
+    private static SoftwareAssetAgingBucketRow row(LocalDate putIntoUseDate, long quantity) {
+        SoftwareAssetAgingBucketRow row = new SoftwareAssetAgingBucketRow();
+        row.setProvince("北京市");
+        row.setReportUnit("单位1");
+        row.setServiceStatus("在用");
+        row.setPutIntoUseDate(putIntoUseDate);
+        row.setQuantity(quantity);
+        return row;
+    }
+}
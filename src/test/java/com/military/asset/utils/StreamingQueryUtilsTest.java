@@ -0,0 +1,108 @@
+package com.military.asset.utils;
+
+import org.apache.ibatis.cursor.Cursor;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 游标分批消费：按批次大小切分、末批不足一批照常交付；正常结束、批次处理抛出异常时都关闭游标，
+ * 关闭失败包装为运行时异常；批次大小非法时不读取也不关闭调用方的游标
+ */
+class StreamingQueryUtilsTest {
+
+    @Test
+    void streamsRowsInBatchesAndClosesTheCursor() throws IOException {
+        Cursor<Integer> cursor = cursorOf(List.of(1, 2, 3, 4, 5));
+        List<List<Integer>> batches = new ArrayList<>();
+
+        long total = StreamingQueryUtils.forEachBatch(cursor, 2, batches::add);
+
+        assertEquals(5, total);
+        assertEquals(List.of(List.of(1, 2), List.of(3, 4), List.of(5)), batches);
+        verify(cursor).close();
+    }
+
+    @Test
+    void emptyCursorDeliversNoBatch() throws IOException {
+        Cursor<Integer> cursor = cursorOf(List.of());
+        List<List<Integer>> batches = new ArrayList<>();
+
+        assertEquals(0, StreamingQueryUtils.forEachBatch(cursor, 2, batches::add));
+        assertEquals(List.of(), batches);
+        verify(cursor).close();
+    }
+
+    @Test
+    void closesTheCursorWhenTheBatchHandlerThrows() throws IOException {
+        Cursor<Integer> cursor = cursorOf(List.of(1, 2, 3, 4, 5));
+        IllegalStateException failure = new IllegalStateException("写出失败");
+        List<List<Integer>> handled = new ArrayList<>();
+
+        IllegalStateException thrown = assertThrows(IllegalStateException.class,
+                () -> StreamingQueryUtils.forEachBatch(cursor, 2, batch -> {
+                    handled.add(batch);
+                    if (handled.size() == 2) {
+                        throw failure;
+                    }
+                }));
+
+        assertSame(failure, thrown);
+        assertEquals(List.of(List.of(1, 2), List.of(3, 4)), handled);
+        verify(cursor).close();
+    }
+
+    @Test
+    void closesTheCursorWhenTheLastPartialBatchThrows() throws IOException {
+        Cursor<Integer> cursor = cursorOf(List.of(1, 2, 3));
+
+        assertThrows(IllegalStateException.class, () -> StreamingQueryUtils.forEachBatch(cursor, 2, batch -> {
+            if (batch.size() < 2) {
+                throw new IllegalStateException("末批写出失败");
+            }
+        }));
+
+        verify(cursor).close();
+    }
+
+    @Test
+    void closeFailureIsWrapped() throws IOException {
+        Cursor<Integer> cursor = cursorOf(List.of(1));
+        IOException closeFailure = new IOException("连接已断开");
+        doThrow(closeFailure).when(cursor).close();
+
+        RuntimeException thrown = assertThrows(RuntimeException.class,
+                () -> StreamingQueryUtils.forEachBatch(cursor, 2, batch -> { }));
+
+        assertSame(closeFailure, thrown.getCause());
+        assertEquals("关闭查询游标失败：连接已断开", thrown.getMessage());
+    }
+
+    @Test
+    void rejectsNonPositiveBatchSizeWithoutTouchingTheCursor() throws IOException {
+        Cursor<Integer> cursor = cursorOf(List.of(1));
+
+        assertThrows(IllegalArgumentException.class, () -> StreamingQueryUtils.forEachBatch(cursor, 0, batch -> { }));
+
+        verify(cursor, never()).iterator();
+        verify(cursor, never()).close();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Cursor<Integer> cursorOf(List<Integer> rows) {
+        Cursor<Integer> cursor = mock(Cursor.class);
+        when(cursor.iterator()).thenReturn(rows.iterator());
+        return cursor;
+    }
+}
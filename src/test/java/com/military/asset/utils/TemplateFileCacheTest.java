@@ -0,0 +1,72 @@
+package com.military.asset.utils;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.util.StreamUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 导入模板缓存：首次加载后复用同一份内存内容；强ETag由内容决定（跨实例一致、内容变化即变化）；修改时间按秒截断
+ */
+class TemplateFileCacheTest {
+
+    private static final String SOFTWARE_TEMPLATE = "templates/software_asset_template.xlsx";
+
+    @Test
+    void loadsOnceAndServesClasspathBytes() throws IOException {
+        TemplateFileCache cache = new TemplateFileCache(600);
+
+        TemplateFileCache.CachedTemplate template = cache.get(SOFTWARE_TEMPLATE);
+
+        assertSame(template, cache.get(SOFTWARE_TEMPLATE));
+        byte[] expected;
+        try (InputStream inputStream = new ClassPathResource(SOFTWARE_TEMPLATE).getInputStream()) {
+            expected = StreamUtils.copyToByteArray(inputStream);
+        }
+        ByteArrayOutputStream written = new ByteArrayOutputStream();
+        template.writeTo(written);
+        assertArrayEquals(expected, written.toByteArray());
+        assertEquals(expected.length, template.getLength());
+        assertArrayEquals(expected, template.asResource().getContentAsByteArray());
+        assertEquals(0, template.getLastModified() % 1000);
+    }
+
+    @Test
+    void eTagIsStrongAndDerivedFromContent() {
+        String eTag = new TemplateFileCache(600).get(SOFTWARE_TEMPLATE).getETag();
+
+        assertTrue(eTag.matches("\"[0-9a-f]{32}\""), eTag);
+        assertEquals(eTag, new TemplateFileCache(0).get(SOFTWARE_TEMPLATE).getETag(), "跨实例（重启）一致");
+        assertNotEquals(eTag, new TemplateFileCache(600).get("templates/cyber_asset_template.xlsx").getETag());
+
+        byte[] content = "固定选项".getBytes(StandardCharsets.UTF_8);
+        TemplateFileCache.CachedTemplate generated = TemplateFileCache.CachedTemplate.of(content, 1_700_000_000_123L);
+        assertEquals(generated.getETag(), TemplateFileCache.CachedTemplate.of(content.clone(), 0L).getETag());
+        assertEquals(1_700_000_000_000L, generated.getLastModified());
+    }
+
+    @Test
+    void missingTemplateIsNotCached() {
+        TemplateFileCache cache = new TemplateFileCache(600);
+
+        assertNull(cache.get("templates/missing_template.xlsx"));
+        assertNull(cache.get("templates/missing_template.xlsx"));
+    }
+
+    @Test
+    void rejectsNegativeMaxAge() {
+        assertThrows(IllegalArgumentException.class, () -> new TemplateFileCache(-1));
+    }
+}
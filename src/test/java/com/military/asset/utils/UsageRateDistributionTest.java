@@ -0,0 +1,50 @@
+package com.military.asset.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 使用率分布与CyberAssetUsageFormulaUtils逐位一致，包括含null的输入（均值分母计入null）
+ */
+class UsageRateDistributionTest {
+
+    @Test
+    void matchesFormulaUtilsWithoutNulls() {
+        assertMatches(rates("0.5000", "0.2500", "1.0000", "0.3333"));
+        assertMatches(rates("0.1234", "0.9876", "0.5555"));
+    }
+
+    @Test
+    void meanCountsNullsLikeFormulaUtils() {
+        List<BigDecimal> values = rates("0.5000", null, "1.0000", null);
+
+        UsageRateDistribution distribution = UsageRateDistribution.of(values);
+
+        assertEquals(new BigDecimal("0.3750"), distribution.mean());
+        assertEquals(2, distribution.size());
+        assertMatches(values);
+    }
+
+    @Test
+    void allNullOrEmptyInputsAreZero() {
+        assertMatches(rates(null, null));
+        assertMatches(Collections.emptyList());
+    }
+
+    private static void assertMatches(List<BigDecimal> values) {
+        UsageRateDistribution distribution = UsageRateDistribution.of(values);
+        assertEquals(CyberAssetUsageFormulaUtils.calculateMean(values), distribution.mean());
+        assertEquals(CyberAssetUsageFormulaUtils.calculateMedian(values), distribution.median());
+        assertEquals(CyberAssetUsageFormulaUtils.calculateVariance(values), distribution.variance());
+    }
+
+    private static List<BigDecimal> rates(String... values) {
+        return Arrays.stream(values).map(value -> value == null ? null : new BigDecimal(value)).toList();
+    }
+}